@@ -1,7 +1,10 @@
 package ru.yandex.practicum.filmorate;
 
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
 
 @SpringBootApplication
 public class FilmorateApplication {
@@ -9,4 +12,9 @@ public class FilmorateApplication {
 		SpringApplication.run(FilmorateApplication.class, args);
 	}
 
+	// Геттеры и сеттеры моделей Jackson вызывает через сгенерированные лямбды, а не через рефлексию
+	@Bean
+	public Module blackbirdModule() {
+		return new BlackbirdModule();
+	}
 }
@@ -0,0 +1,77 @@
+package ru.yandex.practicum.filmorate.cache;
+
+// Приблизительный счётчик частоты обращений (count-min sketch) с 4-битными счётчиками,
+// по 16 штук в каждом long. Когда число учтённых обращений достигает sampleSize, все счётчики
+// делятся пополам, поэтому старая популярность постепенно забывается.
+// Не потокобезопасен: вызывается под блокировкой кэша.
+final class FrequencySketch {
+
+	private static final long[] SEEDS = {
+		0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+	};
+	private static final long RESET_MASK = 0x7777777777777777L;
+
+	private final long[] table;
+	private final int mask;
+	private final int sampleSize;
+	private int size;
+
+	FrequencySketch(int maximumSize) {
+		int length = Integer.highestOneBit(Math.max(maximumSize, 16) - 1) << 1;
+		table = new long[length];
+		mask = length - 1;
+		sampleSize = 10 * Math.max(maximumSize, 1);
+	}
+
+	int frequency(long key) {
+		int hash = spread(key);
+		int start = (hash & 3) << 2;
+		int frequency = Integer.MAX_VALUE;
+		for (int i = 0; i < 4; i++) {
+			int offset = (start + i) << 2;
+			int count = (int) ((table[indexOf(hash, i)] >>> offset) & 0xfL);
+			frequency = Math.min(frequency, count);
+		}
+		return frequency;
+	}
+
+	void increment(long key) {
+		int hash = spread(key);
+		int start = (hash & 3) << 2;
+		boolean added = false;
+		for (int i = 0; i < 4; i++) {
+			added |= incrementAt(indexOf(hash, i), start + i);
+		}
+		if (added && ++size == sampleSize) {
+			reset();
+		}
+	}
+
+	private boolean incrementAt(int index, int counter) {
+		int offset = counter << 2;
+		long counterMask = 0xfL << offset;
+		if ((table[index] & counterMask) == counterMask) {
+			return false;
+		}
+		table[index] += 1L << offset;
+		return true;
+	}
+
+	private void reset() {
+		for (int i = 0; i < table.length; i++) {
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		}
+		size /= 2;
+	}
+
+	private int indexOf(int hash, int i) {
+		long h = (hash + SEEDS[i]) * SEEDS[i];
+		h += h >>> 32;
+		return (int) h & mask;
+	}
+
+	private static int spread(long key) {
+		long h = key * 0x9e3779b97f4a7c15L;
+		return (int) (h ^ (h >>> 32));
+	}
+}
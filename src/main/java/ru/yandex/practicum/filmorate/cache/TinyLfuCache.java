@@ -0,0 +1,228 @@
+package ru.yandex.practicum.filmorate.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Кэш с ограничением по числу записей и вытеснением по схеме W-TinyLFU.
+// Новые записи попадают в маленькое LRU-окно (1% ёмкости). Вытесненная из окна запись допускается
+// в основную часть, только если по оценке FrequencySketch к ней обращались чаще, чем к кандидату
+// на вытеснение из основной части. Основная часть - сегментированный LRU: испытательный сегмент
+// и защищённый (80%), куда переходят записи при повторном обращении.
+// Чтение не блокируется: поиск идёт по ConcurrentHashMap, а учёт обращения пропускается,
+// если блокировку держит другой поток.
+public final class TinyLfuCache<V> {
+
+	private static final int REMOVED = -1;
+	private static final int WINDOW = 0;
+	private static final int PROBATION = 1;
+	private static final int PROTECTED = 2;
+
+	private final int maximumSize;
+	private final int maxWindow;
+	private final int maxProtected;
+	private final ConcurrentMap<Long, Node<V>> data = new ConcurrentHashMap<>();
+	private final FrequencySketch sketch;
+	private final Lock lock = new ReentrantLock();
+	private final AccessOrder<V> window = new AccessOrder<>();
+	private final AccessOrder<V> probation = new AccessOrder<>();
+	private final AccessOrder<V> protectedSegment = new AccessOrder<>();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public TinyLfuCache(int maximumSize) {
+		if (maximumSize < 2) {
+			throw new IllegalArgumentException("Размер кэша должен быть не меньше 2, получено: " + maximumSize);
+		}
+		this.maximumSize = maximumSize;
+		this.maxWindow = Math.max(1, maximumSize / 100);
+		this.maxProtected = (maximumSize - maxWindow) * 8 / 10;
+		this.sketch = new FrequencySketch(maximumSize);
+	}
+
+	public V get(long key) {
+		Node<V> node = data.get(key);
+		if (node == null) {
+			misses.increment();
+		} else {
+			hits.increment();
+		}
+		if (lock.tryLock()) {
+			try {
+				sketch.increment(key);
+				if (node != null && node.segment != REMOVED) {
+					onAccess(node);
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+		return node == null ? null : node.value;
+	}
+
+	public void put(long key, V value) {
+		lock.lock();
+		try {
+			Node<V> existing = data.get(key);
+			if (existing != null) {
+				existing.value = value;
+				onAccess(existing);
+				return;
+			}
+			Node<V> node = new Node<>(key, value);
+			data.put(key, node);
+			node.segment = WINDOW;
+			window.addLast(node);
+			evict();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void invalidate(long key) {
+		lock.lock();
+		try {
+			Node<V> node = data.remove(key);
+			if (node != null) {
+				segment(node).remove(node);
+				node.segment = REMOVED;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int size() {
+		return data.size();
+	}
+
+	public long hitCount() {
+		return hits.sum();
+	}
+
+	public long missCount() {
+		return misses.sum();
+	}
+
+	public long evictionCount() {
+		return evictions.sum();
+	}
+
+	private void onAccess(Node<V> node) {
+		if (node.segment == WINDOW) {
+			window.moveToLast(node);
+		} else if (node.segment == PROTECTED) {
+			protectedSegment.moveToLast(node);
+		} else {
+			probation.remove(node);
+			node.segment = PROTECTED;
+			protectedSegment.addLast(node);
+			if (protectedSegment.size > maxProtected) {
+				Node<V> demoted = protectedSegment.removeFirst();
+				demoted.segment = PROBATION;
+				probation.addLast(demoted);
+			}
+		}
+	}
+
+	// Окно переполнено - его старейшая запись соревнуется за место с жертвой из основной части
+	private void evict() {
+		while (window.size > maxWindow) {
+			Node<V> candidate = window.removeFirst();
+			if (data.size() <= maximumSize) {
+				candidate.segment = PROBATION;
+				probation.addLast(candidate);
+				continue;
+			}
+			Node<V> victim = probation.size > 0 ? probation.first : protectedSegment.first;
+			if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+				segment(victim).remove(victim);
+				discard(victim);
+				candidate.segment = PROBATION;
+				probation.addLast(candidate);
+			} else {
+				discard(candidate);
+			}
+		}
+	}
+
+	private void discard(Node<V> node) {
+		data.remove(node.key, node);
+		node.segment = REMOVED;
+		evictions.increment();
+	}
+
+	private AccessOrder<V> segment(Node<V> node) {
+		return switch (node.segment) {
+			case WINDOW -> window;
+			case PROBATION -> probation;
+			default -> protectedSegment;
+		};
+	}
+
+	private static final class Node<V> {
+
+		private final long key;
+		private volatile V value;
+		private int segment;
+		private Node<V> prev;
+		private Node<V> next;
+
+		Node(long key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+	// Двусвязный список от давно использованных записей к недавним
+	private static final class AccessOrder<V> {
+
+		private Node<V> first;
+		private Node<V> last;
+		private int size;
+
+		void addLast(Node<V> node) {
+			node.prev = last;
+			node.next = null;
+			if (last == null) {
+				first = node;
+			} else {
+				last.next = node;
+			}
+			last = node;
+			size++;
+		}
+
+		Node<V> removeFirst() {
+			Node<V> node = first;
+			remove(node);
+			return node;
+		}
+
+		void moveToLast(Node<V> node) {
+			if (node != last) {
+				remove(node);
+				addLast(node);
+			}
+		}
+
+		void remove(Node<V> node) {
+			if (node.prev == null) {
+				first = node.next;
+			} else {
+				node.prev.next = node.next;
+			}
+			if (node.next == null) {
+				last = node.prev;
+			} else {
+				node.next.prev = node.prev;
+			}
+			node.prev = null;
+			node.next = null;
+			size--;
+		}
+	}
+}
@@ -0,0 +1,157 @@
+package ru.yandex.practicum.filmorate.changes;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.ChangeEvent;
+import ru.yandex.practicum.filmorate.model.ChangePage;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Лента последних изменений: кольцевой буфер фиксированного размера без блокировок.
+// Писатель берёт номер инкрементом счётчика и кладёт событие в слот seq & mask сравнением с обменом
+// (в слоте остаётся событие с большим номером, если писатели разошлись на круг буфера).
+// Читатели не мешают писателям: отставший читатель не задерживает запись, а теряет вытесненные события
+// и узнаёт об этом по gap. Ожидающие новых событий потоки паркуются и будятся писателем.
+@Component
+public class ChangeLog {
+
+	private final AtomicReferenceArray<ChangeEvent> slots;
+	private final int mask;
+	private final AtomicLong sequence = new AtomicLong();
+	private final Set<Thread> waiters = ConcurrentHashMap.newKeySet();
+	private final Timer delivery;
+	private final Counter gaps;
+
+	public ChangeLog(@Value("${filmorate.changes.capacity:65536}") int capacity, MeterRegistry meterRegistry) {
+		if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("Размер ленты изменений должен быть степенью двойки: " + capacity);
+		}
+		slots = new AtomicReferenceArray<>(capacity);
+		mask = capacity - 1;
+		delivery = Timer.builder("filmorate.changes.delivery")
+			.description("Время от публикации изменения до отправки подписчику")
+			.publishPercentiles(0.5, 0.99, 0.999)
+			.register(meterRegistry);
+		gaps = Counter.builder("filmorate.changes.gaps")
+			.description("Чтения ленты, в которых часть событий уже вытеснена из буфера")
+			.register(meterRegistry);
+		Gauge.builder("filmorate.changes.sequence", sequence, AtomicLong::get)
+			.description("Номер последнего изменения")
+			.register(meterRegistry);
+		Gauge.builder("filmorate.changes.waiting", waiters, Set::size)
+			.description("Подписчики, ожидающие новых изменений")
+			.register(meterRegistry);
+	}
+
+	// Номер выдаётся в момент публикации, поэтому порядок версий одной сущности в ленте - забота
+	// вызывающего: CatalogueChanges публикует под блокировкой по id и только текущую версию
+	public void publish(Film film) {
+		publish(ChangeEvent.FILM, film.getVersion(), film, null);
+	}
+
+	public void publish(User user) {
+		publish(ChangeEvent.USER, user.getVersion(), null, user);
+	}
+
+	// Номер последнего выданного изменения; событие с ним может быть ещё не опубликовано
+	public long lastSeq() {
+		return sequence.get();
+	}
+
+	// До limit событий с номерами больше since, по порядку и без пропусков.
+	// Чтение останавливается на первом номере, который уже выдан, но ещё не опубликован
+	public ChangePage read(long since, int limit) {
+		long head = sequence.get();
+		long oldest = Math.max(1, head - slots.length() + 1);
+		long seq = since + 1;
+		boolean gap = false;
+		// Номер больше последнего выданного бывает у клиента, читавшего ленту до перезапуска
+		if (seq < oldest || since > head) {
+			seq = oldest;
+			gap = true;
+			gaps.increment();
+		}
+		List<ChangeEvent> events = new ArrayList<>(Math.min(limit, (int) Math.max(0, head - seq + 1)));
+		while (events.size() < limit && seq <= head) {
+			ChangeEvent event = slots.get(index(seq));
+			// Меньший номер - ещё не опубликовано, больший - вытеснено во время чтения:
+			// тогда следующее чтение начнётся раньше самого старого события и вернёт gap
+			if (event == null || event.getSeq() != seq) {
+				break;
+			}
+			events.add(event);
+			seq++;
+		}
+		return new ChangePage(events, seq - 1, gap);
+	}
+
+	// Ждёт, пока после since появится событие (или выяснится, что since устарел); false - по таймауту
+	public boolean await(long since, long timeout, TimeUnit unit) {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		Thread thread = Thread.currentThread();
+		while (!readable(since)) {
+			long left = deadline - System.nanoTime();
+			if (left <= 0 || thread.isInterrupted()) {
+				return false;
+			}
+			waiters.add(thread);
+			// Проверка после регистрации: публикация между первой проверкой и add не потеряется
+			if (readable(since)) {
+				waiters.remove(thread);
+				return true;
+			}
+			LockSupport.parkNanos(this, left);
+			waiters.remove(thread);
+		}
+		return true;
+	}
+
+	// Вызывается после отправки события подписчику
+	public void delivered(ChangeEvent event) {
+		delivery.record(System.nanoTime() - event.getPublishedNanos(), TimeUnit.NANOSECONDS);
+	}
+
+	private void publish(String entity, Long version, Film film, User user) {
+		long seq = sequence.incrementAndGet();
+		String operation = version == null || version == 1 ? ChangeEvent.CREATE : ChangeEvent.UPDATE;
+		ChangeEvent event = new ChangeEvent(seq, entity, operation, Instant.now(), film, user, System.nanoTime());
+		int index = index(seq);
+		ChangeEvent current = slots.get(index);
+		while ((current == null || current.getSeq() < seq) && !slots.compareAndSet(index, current, event)) {
+			current = slots.get(index);
+		}
+		if (!waiters.isEmpty()) {
+			for (Thread waiter : waiters) {
+				if (waiters.remove(waiter)) {
+					LockSupport.unpark(waiter);
+				}
+			}
+		}
+	}
+
+	private boolean readable(long since) {
+		if (since >= sequence.get() + 1 || since + slots.length() < sequence.get()) {
+			return true;
+		}
+		ChangeEvent next = slots.get(index(since + 1));
+		return next != null && next.getSeq() >= since + 1;
+	}
+
+	private int index(long seq) {
+		return (int) (seq & mask);
+	}
+}
@@ -0,0 +1,109 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.ImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Загрузка и выгрузка каталога целиком: /admin/import/{films|users} и /admin/export/{films|users}.
+// Формат - NDJSON или CSV с заголовком (Content-Type при импорте, Accept при экспорте),
+// сжатие gzip - по Content-Encoding и Accept-Encoding
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+	private static final String TEXT_CSV_VALUE = "text/csv";
+	private static final String FILMS = "films";
+	private static final String USERS = "users";
+	private static final String GZIP = "gzip";
+	private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+	private final CatalogueTransfer catalogueTransfer;
+
+	@PostMapping(path = "/import/{entity}", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+	public ImportReport importNdjson(@PathVariable String entity, InputStream body,
+		@RequestHeader(name = HttpHeaders.CONTENT_ENCODING, required = false) String encoding) throws IOException {
+		return importRows(entity, body, encoding, CatalogueTransfer.Format.NDJSON);
+	}
+
+	@PostMapping(path = "/import/{entity}", consumes = TEXT_CSV_VALUE)
+	public ImportReport importCsv(@PathVariable String entity, InputStream body,
+		@RequestHeader(name = HttpHeaders.CONTENT_ENCODING, required = false) String encoding) throws IOException {
+		return importRows(entity, body, encoding, CatalogueTransfer.Format.CSV);
+	}
+
+	@GetMapping(path = "/export/{entity}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportNdjson(@PathVariable String entity,
+		@RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+		return exportRows(entity, acceptEncoding, CatalogueTransfer.Format.NDJSON, MediaType.APPLICATION_NDJSON);
+	}
+
+	@GetMapping(path = "/export/{entity}", produces = TEXT_CSV_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportCsv(@PathVariable String entity,
+		@RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+		return exportRows(entity, acceptEncoding, CatalogueTransfer.Format.CSV, MediaType.parseMediaType(TEXT_CSV_VALUE));
+	}
+
+	private ImportReport importRows(String entity, InputStream body, String encoding, CatalogueTransfer.Format format)
+		throws IOException {
+		checkEntity(entity);
+		log.info("Получен запрос на импорт {} ({}, сжатие: {})", entity, format, encoding == null ? "нет" : encoding);
+		InputStream in = body;
+		if (encoding != null && !encoding.isBlank() && !"identity".equalsIgnoreCase(encoding.trim())) {
+			if (!GZIP.equalsIgnoreCase(encoding.trim())) {
+				throw new ValidationException("Поддерживается только сжатие gzip, получено: " + encoding);
+			}
+			in = new GZIPInputStream(body, GZIP_BUFFER_SIZE);
+		}
+		return FILMS.equals(entity)
+			? catalogueTransfer.importFilms(in, format)
+			: catalogueTransfer.importUsers(in, format);
+	}
+
+	private ResponseEntity<StreamingResponseBody> exportRows(String entity, String acceptEncoding,
+		CatalogueTransfer.Format format, MediaType contentType) {
+		checkEntity(entity);
+		log.info("Получен запрос на экспорт {} ({})", entity, format);
+		StreamingResponseBody rows = FILMS.equals(entity)
+			? catalogueTransfer.exportFilms(format)
+			: catalogueTransfer.exportUsers(format);
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(contentType);
+		if (acceptEncoding == null || !acceptEncoding.toLowerCase(Locale.ROOT).contains(GZIP)) {
+			return response.body(rows);
+		}
+		return response
+			.header(HttpHeaders.CONTENT_ENCODING, GZIP)
+			.body(out -> {
+				GZIPOutputStream gzip = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+				rows.writeTo(gzip);
+				gzip.finish();
+			});
+	}
+
+	private static void checkEntity(String entity) {
+		if (!FILMS.equals(entity) && !USERS.equals(entity)) {
+			throw new NotFoundException("Раздел каталога " + entity + " не найден: допустимы films и users.");
+		}
+	}
+}
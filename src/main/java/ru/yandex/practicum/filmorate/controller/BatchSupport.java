@@ -0,0 +1,137 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.BatchItemResult;
+import ru.yandex.practicum.filmorate.validation.ModelValidator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+class BatchSupport {
+
+	static final int MAX_BATCH_SIZE = 10_000;
+
+	private final Validator validator;
+	private final ModelValidator modelValidator;
+	private final ObjectMapper objectMapper;
+
+	// Отклоняет невалидные элементы, а остальные сохраняет одним вызовом storeAll
+	<T> List<BatchItemResult<T>> createAll(List<T> items, Consumer<T> check, UnaryOperator<List<T>> storeAll) {
+		checkSize(items);
+		List<BatchItemResult<T>> results = new ArrayList<>(Collections.nCopies(items.size(), null));
+		List<T> valid = new ArrayList<>(items.size());
+		List<Integer> validIndexes = new ArrayList<>(items.size());
+		for (int i = 0; i < items.size(); i++) {
+			BatchItemResult<T> rejected = check(i, items.get(i), check);
+			if (rejected == null) {
+				valid.add(items.get(i));
+				validIndexes.add(i);
+			} else {
+				results.set(i, rejected);
+			}
+		}
+		List<T> stored = storeAll.apply(valid);
+		for (int i = 0; i < stored.size(); i++) {
+			int index = validIndexes.get(i);
+			results.set(index, BatchItemResult.ok(index, stored.get(i)));
+		}
+		return results;
+	}
+
+	<T> List<BatchItemResult<T>> updateEach(List<T> items, Consumer<T> check, UnaryOperator<T> update) {
+		checkSize(items);
+		List<BatchItemResult<T>> results = new ArrayList<>(items.size());
+		for (int i = 0; i < items.size(); i++) {
+			BatchItemResult<T> rejected = check(i, items.get(i), check);
+			if (rejected != null) {
+				results.add(rejected);
+				continue;
+			}
+			try {
+				results.add(BatchItemResult.ok(i, update.apply(items.get(i))));
+			} catch (NotFoundException e) {
+				results.add(BatchItemResult.failed(i, HttpStatus.NOT_FOUND.value(), e.getMessage()));
+			} catch (ConflictException e) {
+				results.add(BatchItemResult.failed(i, HttpStatus.CONFLICT.value(), e.getMessage()));
+			}
+		}
+		return results;
+	}
+
+	static <T> long countOk(List<BatchItemResult<T>> results) {
+		return results.stream()
+			.filter(result -> result.getStatus() == HttpStatus.OK.value())
+			.count();
+	}
+
+	<T> List<T> readNdjson(InputStream body, Class<T> type) {
+		List<T> items = new ArrayList<>();
+		try (MappingIterator<T> iterator = objectMapper.readerFor(type).readValues(body)) {
+			while (iterator.hasNextValue()) {
+				items.add(iterator.nextValue());
+				checkSize(items);
+			}
+		} catch (IOException e) {
+			throw new ValidationException("Некорректный NDJSON в теле запроса: " + e.getMessage());
+		}
+		return items;
+	}
+
+	void checkSize(List<?> items) {
+		if (items.isEmpty()) {
+			throw new ValidationException("Пакет не может быть пустым.");
+		}
+		if (items.size() > MAX_BATCH_SIZE) {
+			throw new ValidationException("Пакет не может содержать больше " + MAX_BATCH_SIZE + " элементов.");
+		}
+	}
+
+	// Результат с ошибкой для отклонённого элемента; null - если элемент прошёл проверки
+	<T> BatchItemResult<T> check(int index, T item, Consumer<T> check) {
+		String error = validate(item);
+		if (error != null) {
+			return BatchItemResult.failed(index, HttpStatus.BAD_REQUEST.value(), error);
+		}
+		try {
+			check.accept(item);
+			return null;
+		} catch (ValidationException e) {
+			return BatchItemResult.failed(index, HttpStatus.BAD_REQUEST.value(), e.getMessage());
+		} catch (ConflictException e) {
+			return BatchItemResult.failed(index, HttpStatus.CONFLICT.value(), e.getMessage());
+		}
+	}
+
+	// Те же проверки, что и @Valid на одиночных запросах; null - если нарушений нет
+	private String validate(Object item) {
+		if (item == null) {
+			return "Элемент пакета не может быть пустым.";
+		}
+		List<String> violations = modelValidator.supports(item.getClass())
+			? modelValidator.violations(item)
+			: validator.validate(item).stream().map(ConstraintViolation::getMessage).toList();
+		if (violations.isEmpty()) {
+			return null;
+		}
+		return violations.stream()
+			.sorted()
+			.collect(Collectors.joining("; "));
+	}
+}
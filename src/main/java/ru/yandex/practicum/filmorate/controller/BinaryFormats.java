@@ -0,0 +1,66 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+// Двоичные форматы для клиентов, которые выгружают каталог целиком: CBOR и Smile.
+// Используются те же модули и настройки Jackson, что и для JSON, но даты пишутся массивом [год, месяц, день]:
+// три коротких числа вместо строки, которую нужно разбирать.
+@Configuration
+public class BinaryFormats {
+
+	public static final String CBOR_VALUE = "application/cbor";
+	public static final String SMILE_VALUE = "application/x-jackson-smile";
+	public static final MediaType CBOR = MediaType.parseMediaType(CBOR_VALUE);
+	public static final MediaType SMILE = MediaType.parseMediaType(SMILE_VALUE);
+
+	private final ObjectMapper cbor;
+	private final ObjectMapper smile;
+
+	public BinaryFormats(Jackson2ObjectMapperBuilder builder) {
+		builder.featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		cbor = builder.factory(new CBORFactory()).build();
+		smile = builder.factory(new SmileFactory()).build();
+	}
+
+	// Конвертеры подхватываются Spring Boot вместо стандартных и работают для тел запросов и ответов
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+		return new MappingJackson2CborHttpMessageConverter(cbor);
+	}
+
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter() {
+		return new MappingJackson2SmileHttpMessageConverter(smile);
+	}
+
+	// Формат, который клиент предпочитает по заголовку Accept (с учётом q)
+	MediaType negotiate(String accept) {
+		List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+		MimeTypeUtils.sortBySpecificity(accepted);
+		for (MediaType type : accepted) {
+			if (type.isCompatibleWith(CBOR)) {
+				return CBOR;
+			}
+			if (type.isCompatibleWith(SMILE)) {
+				return SMILE;
+			}
+		}
+		return CBOR;
+	}
+
+	ObjectMapper mapper(MediaType type) {
+		return SMILE.equals(type) ? smile : cbor;
+	}
+}
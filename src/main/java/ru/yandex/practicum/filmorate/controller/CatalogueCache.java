@@ -0,0 +1,204 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Кэш сериализованного ответа со всей коллекцией. Версия коллекции увеличивается при каждом изменении,
+// ETag строится из версии, поэтому If-None-Match проверяется без обращения к хранилищу.
+// Эпоха в ETag отличает запуски приложения: после перезапуска версии начинаются заново.
+// Коллекция больше filmorate.response-cache.max-bytes не кэшируется: после первой такой сериализации
+// она отдаётся конвертеру Jackson, который пишет её прямо в поток ответа на каждый запрос,
+// без общей блокировки и без сборки всего ответа в массив. Фильмы и пользователи не удаляются,
+// так что вернуться под предел коллекция не может и признак не сбрасывается.
+@Component
+class CatalogueCache {
+
+	static final String FILMS = "films";
+	static final String USERS = "users";
+
+	private final ObjectMapper objectMapper;
+	private final MeterRegistry meterRegistry;
+	private final long maxBytes;
+	private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+	private final Map<String, Catalogue> catalogues = new ConcurrentHashMap<>();
+
+	CatalogueCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+		@Value("${filmorate.response-cache.max-bytes:64MB}") DataSize maxBytes) {
+		this.objectMapper = objectMapper;
+		this.meterRegistry = meterRegistry;
+		this.maxBytes = maxBytes.toBytes();
+	}
+
+	ResponseEntity<?> respond(String name, String ifNoneMatch, Supplier<?> items) {
+		long start = System.nanoTime();
+		Catalogue catalogue = catalogue(name);
+		String etag = etag(name, catalogue.version.get());
+		if (matches(ifNoneMatch, etag)) {
+			Body cached = catalogue.body;
+			if (cached != null && cached.etag.equals(etag)) {
+				catalogue.bytesNotSent.increment(cached.bytes.length);
+			}
+			catalogue.notModified.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+				.eTag(etag)
+				.build();
+		}
+		Body body = catalogue.body;
+		Timer timer = catalogue.hit;
+		if (body == null || !body.etag.equals(etag)) {
+			body = catalogue.oversized ? null : catalogue.build(name, items);
+			if (body == null) {
+				// Версия прочитана до коллекции, поэтому ETag потокового ответа не новее его содержимого
+				catalogue.streamed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+				return ResponseEntity.ok()
+					.eTag(etag)
+					.contentType(MediaType.APPLICATION_JSON)
+					.body(items.get());
+			}
+			timer = catalogue.miss;
+		} else {
+			catalogue.bytesNotSerialized.increment(body.bytes.length);
+		}
+		timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		return ResponseEntity.ok()
+			.eTag(body.etag)
+			.contentType(MediaType.APPLICATION_JSON)
+			.body(body.bytes);
+	}
+
+	// Вызывается после каждого изменения коллекции
+	void invalidate(String name) {
+		catalogue(name).version.incrementAndGet();
+	}
+
+	private Catalogue catalogue(String name) {
+		return catalogues.computeIfAbsent(name, Catalogue::new);
+	}
+
+	private String etag(String name, long version) {
+		return "\"" + name + "-" + epoch + "-" + version + "\"";
+	}
+
+	// If-None-Match сравнивается слабым сравнением: префикс W/ не учитывается
+	private static boolean matches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		for (String candidate : ifNoneMatch.split(",")) {
+			String tag = candidate.trim();
+			if (tag.startsWith("W/")) {
+				tag = tag.substring(2);
+			}
+			if (tag.equals("*") || tag.equals(etag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private record Body(String etag, byte[] bytes) {
+	}
+
+	private class Catalogue {
+
+		private final AtomicLong version = new AtomicLong();
+		private final Lock buildLock = new ReentrantLock();
+		private final Timer hit;
+		private final Timer miss;
+		private final Timer notModified;
+		private final Timer streamed;
+		private final Counter bytesNotSent;
+		private final Counter bytesNotSerialized;
+		private volatile Body body;
+		// Сериализованная коллекция не уложилась в maxBytes
+		private volatile boolean oversized;
+
+		Catalogue(String name) {
+			hit = timer(name, "hit");
+			miss = timer(name, "miss");
+			notModified = timer(name, "not_modified");
+			streamed = timer(name, "streamed");
+			bytesNotSent = bytesSaved(name, "transfer");
+			bytesNotSerialized = bytesSaved(name, "serialization");
+			Gauge.builder("filmorate.catalogue.cache.hit.ratio", this, Catalogue::hitRatio)
+				.description("Доля запросов коллекции, обслуженных без сериализации")
+				.tag("catalogue", name)
+				.register(meterRegistry);
+		}
+
+		// Сериализует коллекцию один раз на версию, остальные запросы ждут готовый ответ.
+		// null - коллекция не помещается в кэш и должна быть записана потоком
+		Body build(String name, Supplier<?> items) {
+			buildLock.lock();
+			try {
+				if (oversized) {
+					return null;
+				}
+				long current = version.get();
+				String etag = etag(name, current);
+				Body cached = body;
+				if (cached != null && cached.etag.equals(etag)) {
+					return cached;
+				}
+				// Версию читаем до коллекции: изменение во время сериализации увеличит версию,
+				// и следующий запрос построит ответ заново
+				Body built = new Body(etag, objectMapper.writeValueAsBytes(items.get()));
+				if (built.bytes.length <= maxBytes) {
+					body = built;
+				} else {
+					oversized = true;
+					body = null;
+				}
+				return built;
+			} catch (JsonProcessingException e) {
+				throw new UncheckedIOException(e);
+			} finally {
+				buildLock.unlock();
+			}
+		}
+
+		private double hitRatio() {
+			double served = hit.count() + notModified.count();
+			double total = served + miss.count() + streamed.count();
+			return total == 0 ? 0 : served / total;
+		}
+
+		private Timer timer(String name, String result) {
+			return Timer.builder("filmorate.catalogue.cache.requests")
+				.description("Запросы всей коллекции через кэш ответов")
+				.tag("catalogue", name)
+				.tag("result", result)
+				.publishPercentiles(0.5, 0.99)
+				.register(meterRegistry);
+		}
+
+		private Counter bytesSaved(String name, String reason) {
+			return Counter.builder("filmorate.catalogue.cache.bytes.saved")
+				.description("Байты ответов, которые не пришлось сериализовать или передавать")
+				.baseUnit("bytes")
+				.tag("catalogue", name)
+				.tag("reason", reason)
+				.register(meterRegistry);
+		}
+	}
+}
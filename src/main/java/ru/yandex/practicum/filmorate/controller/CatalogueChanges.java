@@ -0,0 +1,99 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.changes.ChangeLog;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.recommendation.FilmRecommendations;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.search.FilmSearchIndex;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Реакция на изменение каталога: переиндексация для поиска, сброс закэшированных ответов,
+// публикация изменений в ленту /changes и обновление рекомендаций после лайков
+@Component
+class CatalogueChanges {
+
+	private static final int STRIPES = 64;
+
+	private final FilmSearchIndex filmSearchIndex;
+	private final CatalogueCache catalogueCache;
+	private final FilmResponseCache filmResponseCache;
+	private final ChangeLog changeLog;
+	private final FilmRecommendations filmRecommendations;
+	private final FilmStorage filmStorage;
+	private final UserStorage userStorage;
+	// Публикация идёт после записи в хранилище, вне его блокировок. Два одновременных обновления одной
+	// сущности могли бы получить seq не в порядке версий, поэтому событие публикуется под блокировкой
+	// по id и только если его версия ещё текущая. Версии в хранилище только растут, значит, версии
+	// одной сущности в ленте тоже строго растут. Последняя версия публикуется всегда, а промежуточная,
+	// которую уже обогнало другое обновление, может быть пропущена
+	private final Lock[] filmStripes = new Lock[STRIPES];
+	private final Lock[] userStripes = new Lock[STRIPES];
+
+	CatalogueChanges(FilmSearchIndex filmSearchIndex, CatalogueCache catalogueCache,
+		FilmResponseCache filmResponseCache, ChangeLog changeLog, FilmRecommendations filmRecommendations,
+		FilmStorage filmStorage, UserStorage userStorage) {
+		this.filmSearchIndex = filmSearchIndex;
+		this.catalogueCache = catalogueCache;
+		this.filmResponseCache = filmResponseCache;
+		this.changeLog = changeLog;
+		this.filmRecommendations = filmRecommendations;
+		this.filmStorage = filmStorage;
+		this.userStorage = userStorage;
+		for (int i = 0; i < STRIPES; i++) {
+			filmStripes[i] = new ReentrantLock();
+			userStripes[i] = new ReentrantLock();
+		}
+	}
+
+	void filmsChanged(List<Film> films) {
+		filmSearchIndex.refresh(films);
+		catalogueCache.invalidate(CatalogueCache.FILMS);
+		for (Film film : films) {
+			filmResponseCache.invalidate(film.getId());
+			Lock lock = stripe(filmStripes, film.getId());
+			lock.lock();
+			try {
+				Long current = filmStorage.findById(film.getId()).map(Film::getVersion).orElse(null);
+				if (!isOutdated(film.getVersion(), current)) {
+					changeLog.publish(film);
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	void usersChanged(List<User> users) {
+		catalogueCache.invalidate(CatalogueCache.USERS);
+		for (User user : users) {
+			Lock lock = stripe(userStripes, user.getId());
+			lock.lock();
+			try {
+				Long current = userStorage.findById(user.getId()).map(User::getVersion).orElse(null);
+				if (!isOutdated(user.getVersion(), current)) {
+					changeLog.publish(user);
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	void likeChanged(long filmId, long userId) {
+		filmRecommendations.likeChanged(userId, filmId);
+	}
+
+	private static boolean isOutdated(Long version, Long current) {
+		return version != null && current != null && current > version;
+	}
+
+	private static Lock stripe(Lock[] stripes, long id) {
+		return stripes[(int) (id & (STRIPES - 1))];
+	}
+}
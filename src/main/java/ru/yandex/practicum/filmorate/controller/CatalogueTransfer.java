@@ -0,0 +1,349 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvFactory;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
+import ru.yandex.practicum.filmorate.model.BatchItemResult;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.ImportReport;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+// Импорт и экспорт каталога файлами NDJSON и CSV.
+// Импорт - конвейер из трёх стадий: разбор файла на потоке запроса, проверка пачек строк на пуле потоков
+// (те же проверки, что у POST /films и POST /users) и вставка пачек по порядку одним потоком через createAll,
+// который выделяет идентификаторы пачки одним блоком. Между стадиями - очередь из нескольких пачек:
+// разбор ждёт, пока вставка не догонит, поэтому память не зависит от размера файла.
+// Экспорт пишет хранилище в ответ по одной строке, как GET /films в NDJSON.
+@Slf4j
+@Component
+class CatalogueTransfer {
+
+	enum Format { NDJSON, CSV }
+
+	static final int CHUNK_SIZE = 4096;
+	static final int MAX_REPORTED_ERRORS = 100;
+
+	// id и version из файла не используются: хранилище назначает их заново
+	private static final CsvSchema FILM_COLUMNS = CsvSchema.builder()
+		.addNumberColumn("id")
+		.addColumn("name")
+		.addColumn("description")
+		.addColumn("releaseDate")
+		.addNumberColumn("duration")
+		.addNumberColumn("version")
+		.build()
+		.withHeader();
+	private static final CsvSchema USER_COLUMNS = CsvSchema.builder()
+		.addNumberColumn("id")
+		.addColumn("email")
+		.addColumn("login")
+		.addColumn("name")
+		.addColumn("birthday")
+		.addNumberColumn("version")
+		.build()
+		.withHeader();
+
+	private final FilmStorage filmStorage;
+	private final UserStorage userStorage;
+	private final CatalogueChanges catalogueChanges;
+	private final BatchSupport batchSupport;
+	private final ObjectMapper objectMapper;
+	private final ObjectMapper csvMapper;
+	private final int queueCapacity;
+	private final ExecutorService checkers;
+	private final ExecutorService inserters = Executors.newCachedThreadPool(
+		Thread.ofPlatform().name("import-insert-", 0).daemon().factory());
+
+	CatalogueTransfer(FilmStorage filmStorage, UserStorage userStorage, CatalogueChanges catalogueChanges,
+		BatchSupport batchSupport, ObjectMapper objectMapper, Jackson2ObjectMapperBuilder builder,
+		@Value("${filmorate.import.parallelism:0}") int parallelism) {
+		this.filmStorage = filmStorage;
+		this.userStorage = userStorage;
+		this.catalogueChanges = catalogueChanges;
+		this.batchSupport = batchSupport;
+		this.objectMapper = objectMapper;
+		this.csvMapper = builder.factory(new CsvFactory()).build();
+		int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+		this.queueCapacity = 2 * threads;
+		this.checkers = Executors.newFixedThreadPool(threads,
+			Thread.ofPlatform().name("import-check-", 0).daemon().factory());
+	}
+
+	ImportReport importFilms(InputStream in, Format format) throws IOException {
+		return run("фильмов", rows(in, format, Film.class), format, ModelRules::checkReleaseDate, chunk -> {
+			List<Film> created = filmStorage.createAll(chunk.valid);
+			catalogueChanges.filmsChanged(created);
+			return created.size();
+		});
+	}
+
+	ImportReport importUsers(InputStream in, Format format) throws IOException {
+		return run("пользователей", rows(in, format, User.class), format, ModelRules::fillNameFromLogin,
+			this::insertUsers);
+	}
+
+	StreamingResponseBody exportFilms(Format format) {
+		return format == Format.CSV
+			? csv(Film.class, FILM_COLUMNS, filmStorage.findAll())
+			: CollectionResponses.ndjsonBody(objectMapper, Film.class, filmStorage.findAll());
+	}
+
+	StreamingResponseBody exportUsers(Format format) {
+		return format == Format.CSV
+			? csv(User.class, USER_COLUMNS, userStorage.findAll())
+			: CollectionResponses.ndjsonBody(objectMapper, User.class, userStorage.findAll());
+	}
+
+	@PreDestroy
+	public void stop() {
+		checkers.shutdownNow();
+		inserters.shutdownNow();
+	}
+
+	// Колонки CSV берутся из заголовка файла, пустая ячейка читается как null
+	private <T> MappingIterator<T> rows(InputStream in, Format format, Class<T> type) throws IOException {
+		ObjectReader reader = format == Format.CSV
+			? csvMapper.readerFor(type)
+				.with(CsvSchema.emptySchema().withHeader())
+				.with(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+			: objectMapper.readerFor(type);
+		return reader.readValues(in);
+	}
+
+	private <T> ImportReport run(String entity, MappingIterator<T> rows, Format format, Consumer<T> check,
+		ToIntFunction<Chunk<T>> insert) throws IOException {
+		long start = System.nanoTime();
+		// CsvParser нумерует строки с нуля, парсер JSON - с единицы
+		int firstLine = format == Format.CSV ? 1 : 0;
+		BlockingQueue<Future<Chunk<T>>> pending = new ArrayBlockingQueue<>(queueCapacity);
+		Progress progress = new Progress();
+		Future<?> insertion = inserters.submit(() -> insertAll(pending, insert, progress));
+		long read = 0;
+		ImportReport.RowError failure = null;
+		try (rows) {
+			Chunk<T> chunk = new Chunk<>();
+			while (true) {
+				long line = 0;
+				try {
+					if (!rows.hasNextValue()) {
+						break;
+					}
+					line = firstLine + rows.getParser().currentTokenLocation().getLineNr();
+					read++;
+					chunk.add(line, rows.nextValue());
+				} catch (DatabindException e) {
+					// Значение не подходит под модель; итератор пропустит строку до конца и продолжит
+					chunk.reject(line, HttpStatus.BAD_REQUEST.value(), "Некорректная строка: " + e.getOriginalMessage());
+				} catch (IOException e) {
+					// Синтаксическая ошибка: где начинается следующая строка, уже не понять
+					failure = new ImportReport.RowError(firstLine + rows.getParser().currentLocation().getLineNr(),
+						HttpStatus.BAD_REQUEST.value(), "Некорректный файл: " + e.getMessage());
+					break;
+				}
+				if (chunk.size() == CHUNK_SIZE) {
+					submit(pending, chunk, check, insertion);
+					chunk = new Chunk<>();
+				}
+			}
+			if (chunk.size() > 0) {
+				submit(pending, chunk, check, insertion);
+			}
+		} finally {
+			enqueue(pending, CompletableFuture.completedFuture(null), insertion);
+		}
+		await(insertion);
+		if (failure != null) {
+			progress.reject(failure);
+		}
+		long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		log.info("Импорт {}: прочитано {}, создано {}, отклонено {} за {} мс", entity, read, progress.imported,
+			progress.rejected, millis);
+		return new ImportReport(read, progress.imported, progress.rejected, failure == null, millis, progress.errors);
+	}
+
+	private <T> void submit(BlockingQueue<Future<Chunk<T>>> pending, Chunk<T> chunk, Consumer<T> check,
+		Future<?> insertion) {
+		enqueue(pending, checkers.submit(() -> chunk.check(batchSupport, check)), insertion);
+	}
+
+	// Очередь ограничена: ждём место, пока вставка идёт; если она упала - бросаем её исключение
+	private <T> void enqueue(BlockingQueue<Future<Chunk<T>>> pending, Future<Chunk<T>> chunk, Future<?> insertion) {
+		try {
+			while (!pending.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+				if (insertion.isDone()) {
+					await(insertion);
+					throw new IllegalStateException("Вставка импорта завершилась раньше разбора файла.");
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Импорт прерван.", e);
+		}
+	}
+
+	// Пачки вставляются в порядке файла; пустая пачка - конец файла
+	private <T> Void insertAll(BlockingQueue<Future<Chunk<T>>> pending, ToIntFunction<Chunk<T>> insert,
+		Progress progress) throws InterruptedException, ExecutionException {
+		while (true) {
+			Chunk<T> chunk = pending.take().get();
+			if (chunk == null) {
+				return null;
+			}
+			if (!chunk.valid.isEmpty()) {
+				progress.imported += insert.applyAsInt(chunk);
+			}
+			chunk.rejected.sort(Comparator.comparingLong(ImportReport.RowError::getLine));
+			chunk.rejected.forEach(progress::reject);
+		}
+	}
+
+	private int insertUsers(Chunk<User> chunk) {
+		// Проверки на пуле идут параллельно, поэтому уникальность логина и email проверяется здесь:
+		// все предыдущие пачки к этому моменту уже в хранилище
+		Set<String> logins = new HashSet<>();
+		Set<String> emails = new HashSet<>();
+		List<User> unique = new ArrayList<>(chunk.valid.size());
+		long[] lines = new long[chunk.valid.size()];
+		for (int i = 0; i < chunk.valid.size(); i++) {
+			User user = chunk.valid.get(i);
+			try {
+				ModelRules.checkUnique(userStorage, user, logins, emails);
+				lines[unique.size()] = chunk.validLines[i];
+				unique.add(user);
+			} catch (ConflictException e) {
+				chunk.reject(chunk.validLines[i], HttpStatus.CONFLICT.value(), e.getMessage());
+			}
+		}
+		List<User> created;
+		try {
+			created = userStorage.createAll(unique);
+		} catch (ConflictException e) {
+			// Логин или email занял одиночный запрос уже после проверки - создаём пачку по одному
+			created = new ArrayList<>(unique.size());
+			for (int i = 0; i < unique.size(); i++) {
+				try {
+					created.add(userStorage.create(unique.get(i)));
+				} catch (ConflictException conflict) {
+					chunk.reject(lines[i], HttpStatus.CONFLICT.value(), conflict.getMessage());
+				}
+			}
+		}
+		catalogueChanges.usersChanged(created);
+		return created.size();
+	}
+
+	private <T> StreamingResponseBody csv(Class<T> type, CsvSchema schema, Iterable<T> items) {
+		ObjectWriter writer = csvMapper.writerFor(type)
+			.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		return out -> {
+			try (JsonGenerator generator = csvMapper.getFactory().createGenerator(out)) {
+				generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+				generator.setSchema(schema);
+				for (T item : items) {
+					writer.writeValue(generator, item);
+				}
+			}
+		};
+	}
+
+	private static void await(Future<?> insertion) {
+		try {
+			insertion.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Импорт прерван.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException("Ошибка вставки при импорте.", e.getCause());
+		}
+	}
+
+	// Строки файла между стадиями конвейера; поля меняет только стадия, которая сейчас владеет пачкой
+	private static class Chunk<T> {
+
+		private final List<T> items = new ArrayList<>(CHUNK_SIZE);
+		private final long[] lines = new long[CHUNK_SIZE];
+		private final List<T> valid = new ArrayList<>(CHUNK_SIZE);
+		private final long[] validLines = new long[CHUNK_SIZE];
+		private final List<ImportReport.RowError> rejected = new ArrayList<>();
+
+		void add(long line, T item) {
+			lines[items.size()] = line;
+			items.add(item);
+		}
+
+		void reject(long line, int status, String error) {
+			rejected.add(new ImportReport.RowError(line, status, error));
+		}
+
+		int size() {
+			return items.size() + rejected.size();
+		}
+
+		Chunk<T> check(BatchSupport batchSupport, Consumer<T> check) {
+			for (int i = 0; i < items.size(); i++) {
+				BatchItemResult<T> result = batchSupport.check(i, items.get(i), check);
+				if (result == null) {
+					validLines[valid.size()] = lines[i];
+					valid.add(items.get(i));
+				} else {
+					reject(lines[i], result.getStatus(), result.getError());
+				}
+			}
+			items.clear();
+			return this;
+		}
+	}
+
+	// Итоги вставки; меняются только потоком вставки и читаются после его завершения
+	private static class Progress {
+
+		private long imported;
+		private long rejected;
+		private final List<ImportReport.RowError> errors = new ArrayList<>();
+
+		void reject(ImportReport.RowError error) {
+			rejected++;
+			if (errors.size() < MAX_REPORTED_ERRORS) {
+				errors.add(error);
+			}
+		}
+	}
+}
@@ -0,0 +1,197 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.yandex.practicum.filmorate.changes.ChangeLog;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.ChangeEvent;
+import ru.yandex.practicum.filmorate.model.ChangePage;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Лента изменений фильмов и пользователей: long-poll (JSON) и Server-Sent Events.
+// Ожидание новых событий и отправка подписчику идут на виртуальном потоке подписчика,
+// поэтому медленный клиент занимает только свой поток и не задерживает ни писателей, ни других клиентов.
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/changes")
+public class ChangeController {
+
+	private final ChangeLog changeLog;
+	private final ObjectMapper objectMapper;
+	private final Duration maxWait;
+	private final Duration streamTimeout;
+	private final ExecutorService subscribers = Executors.newThreadPerTaskExecutor(
+		Thread.ofVirtual().name("changes-", 0).factory());
+
+	public ChangeController(ChangeLog changeLog, ObjectMapper objectMapper,
+		@Value("${filmorate.changes.max-wait:30s}") Duration maxWait,
+		@Value("${filmorate.changes.stream-timeout:30m}") Duration streamTimeout) {
+		this.changeLog = changeLog;
+		this.objectMapper = objectMapper;
+		this.maxWait = maxWait;
+		this.streamTimeout = streamTimeout;
+	}
+
+	// События после since; если их пока нет, ответ ждёт первого из них не дольше wait секунд.
+	// Без since ожидаются изменения, сделанные после запроса
+	@GetMapping
+	public DeferredResult<ChangePage> changes(@RequestParam(required = false) Long since,
+		@RequestParam(required = false) Integer limit,
+		@RequestParam(required = false) Long wait) {
+		long from = startFrom(since);
+		int pageLimit = CollectionResponses.pageLimit(limit);
+		long waitMillis = waitMillis(wait);
+		log.debug("Получен запрос на изменения после {}, лимит: {}, ожидание: {} мс", from, pageLimit, waitMillis);
+		DeferredResult<ChangePage> result = new DeferredResult<>(waitMillis + TimeUnit.SECONDS.toMillis(5));
+		ChangePage page = changeLog.read(from, pageLimit);
+		if (!page.getEvents().isEmpty() || page.isGap() || waitMillis == 0) {
+			result.setResult(delivered(page));
+			return result;
+		}
+		subscribers.execute(() -> {
+			changeLog.await(from, waitMillis, TimeUnit.MILLISECONDS);
+			result.setResult(delivered(changeLog.read(from, pageLimit)));
+		});
+		return result;
+	}
+
+	// Поток событий: id - номер изменения, имя - film или user, данные - ChangeEvent.
+	// При переподключении браузер передаёт Last-Event-ID, и поток продолжается с него.
+	// Событие gap означает, что часть изменений потеряна и каталог нужно перечитать
+	@GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamChanges(@RequestParam(required = false) Long since,
+		@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+		long from = startFrom(lastEventId != null ? lastEventId : since);
+		log.debug("Подписка на поток изменений после {}", from);
+		SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+		Follower follower = new Follower(emitter, from);
+		emitter.onCompletion(follower::stop);
+		emitter.onTimeout(() -> {
+			follower.stop();
+			emitter.complete();
+		});
+		emitter.onError(error -> follower.stop());
+		subscribers.execute(follower);
+		return emitter;
+	}
+
+	@PreDestroy
+	public void stop() {
+		subscribers.shutdownNow();
+	}
+
+	private long startFrom(Long since) {
+		if (since == null) {
+			return changeLog.lastSeq();
+		}
+		if (since < 0) {
+			throw new ValidationException("Параметр since не может быть отрицательным.");
+		}
+		return since;
+	}
+
+	private long waitMillis(Long wait) {
+		if (wait == null) {
+			return maxWait.toMillis();
+		}
+		if (wait < 0 || wait > maxWait.toSeconds()) {
+			throw new ValidationException("Параметр wait должен быть от 0 до " + maxWait.toSeconds() + " секунд.");
+		}
+		return TimeUnit.SECONDS.toMillis(wait);
+	}
+
+	private String json(ChangeEvent event) throws JsonProcessingException {
+		String json = event.getJson();
+		if (json == null) {
+			json = objectMapper.writeValueAsString(event);
+			event.setJson(json);
+		}
+		return json;
+	}
+
+	private ChangePage delivered(ChangePage page) {
+		for (ChangeEvent event : page.getEvents()) {
+			changeLog.delivered(event);
+		}
+		return page;
+	}
+
+	// Отправляет события одному подписчику SSE; между событиями раз в maxWait шлёт комментарий,
+	// чтобы заметить отключившегося клиента
+	private class Follower implements Runnable {
+
+		private final SseEmitter emitter;
+		private volatile long cursor;
+		private volatile boolean stopped;
+		private volatile Thread thread;
+
+		Follower(SseEmitter emitter, long from) {
+			this.emitter = emitter;
+			this.cursor = from;
+		}
+
+		@Override
+		public void run() {
+			thread = Thread.currentThread();
+			try {
+				while (!stopped && !thread.isInterrupted()) {
+					ChangePage page = changeLog.read(cursor, CollectionResponses.MAX_PAGE_SIZE);
+					if (page.isGap()) {
+						emitter.send(SseEmitter.event().name("gap").data(page.getLast() - page.getEvents().size()));
+					}
+					// Вся страница уходит одной записью в сокет
+					Set<ResponseBodyEmitter.DataWithMediaType> batch = new LinkedHashSet<>();
+					for (ChangeEvent event : page.getEvents()) {
+						batch.addAll(SseEmitter.event()
+							.id(Long.toString(event.getSeq()))
+							.name(event.getEntity())
+							.data(json(event))
+							.build());
+					}
+					if (!batch.isEmpty()) {
+						emitter.send(batch);
+						delivered(page);
+					}
+					cursor = page.getLast();
+					if (page.getEvents().isEmpty() && !page.isGap()
+						&& !changeLog.await(cursor, maxWait.toMillis(), TimeUnit.MILLISECONDS) && !stopped) {
+						emitter.send(SseEmitter.event().comment("keep-alive"));
+					}
+				}
+			} catch (IOException | IllegalStateException e) {
+				// Клиент отключился или поток уже завершён
+				log.debug("Подписчик потока изменений отключился на номере {}: {}", cursor, e.getMessage());
+			}
+		}
+
+		// Прерывание будит поток, ожидающий в changeLog.await
+		void stop() {
+			stopped = true;
+			Thread current = thread;
+			if (current != null) {
+				current.interrupt();
+			}
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+
+final class CollectionResponses {
+
+	static final int DEFAULT_PAGE_SIZE = 100;
+	static final int MAX_PAGE_SIZE = 1000;
+	static final int DEFAULT_TOP_COUNT = 10;
+
+	private CollectionResponses() {
+	}
+
+	static int pageLimit(Integer limit) {
+		if (limit == null) {
+			return DEFAULT_PAGE_SIZE;
+		}
+		if (limit < 1 || limit > MAX_PAGE_SIZE) {
+			throw new ValidationException("Параметр limit должен быть от 1 до " + MAX_PAGE_SIZE + ".");
+		}
+		return limit;
+	}
+
+	// Размер подборок вроде популярных фильмов и рекомендаций
+	static int topCount(Integer count) {
+		if (count == null) {
+			return DEFAULT_TOP_COUNT;
+		}
+		if (count < 1 || count > MAX_PAGE_SIZE) {
+			throw new ValidationException("Параметр count должен быть от 1 до " + MAX_PAGE_SIZE + ".");
+		}
+		return count;
+	}
+
+	// Пишет элементы в ответ по одному (одна JSON-строка на элемент), не собирая весь ответ в памяти
+	static <T> ResponseEntity<StreamingResponseBody> ndjson(ObjectMapper objectMapper, Class<T> type, Iterable<T> items) {
+		return ResponseEntity.ok()
+			.contentType(MediaType.APPLICATION_NDJSON)
+			.body(ndjsonBody(objectMapper, type, items));
+	}
+
+	static <T> StreamingResponseBody ndjsonBody(ObjectMapper objectMapper, Class<T> type, Iterable<T> items) {
+		ObjectWriter writer = objectMapper.writerFor(type)
+			.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		return out -> {
+			try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+				generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+				generator.setRootValueSeparator(null);
+				for (T item : items) {
+					writer.writeValue(generator, item);
+					generator.writeRaw('\n');
+				}
+			}
+		};
+	}
+
+	// Массив элементов в двоичном формате (CBOR или Smile), записываемый прямо в поток ответа
+	static <T> ResponseEntity<StreamingResponseBody> binary(BinaryFormats formats, String accept, Class<T> type,
+		Iterable<T> items) {
+		MediaType format = formats.negotiate(accept);
+		ObjectMapper objectMapper = formats.mapper(format);
+		ObjectWriter writer = objectMapper.writerFor(type)
+			.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		StreamingResponseBody body = out -> {
+			try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+				generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+				generator.writeStartArray();
+				for (T item : items) {
+					writer.writeValue(generator, item);
+				}
+				generator.writeEndArray();
+			}
+		};
+		return ResponseEntity.ok()
+			.contentType(format)
+			.body(body);
+	}
+}
@@ -1,84 +1,269 @@
 package ru.yandex.practicum.filmorate.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.BatchItemResult;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmQuery;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.like.LikeStorage;
+import ru.yandex.practicum.filmorate.storage.search.FilmSearchIndex;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+import ru.yandex.practicum.filmorate.validation.ModelValidator;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 
 @Slf4j
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/films")
+@RequiredArgsConstructor
 public class FilmController {
 
-	private final Map<Long, Film> films = new HashMap<>();
+	private final FilmStorage filmStorage;
+	private final UserStorage userStorage;
+	private final LikeStorage likeStorage;
+	private final ObjectMapper objectMapper;
+	private final BatchSupport batchSupport;
+	private final FilmSearchIndex filmSearchIndex;
+	private final CatalogueCache catalogueCache;
+	private final FilmResponseCache filmResponseCache;
+	private final CatalogueChanges catalogueChanges;
+	private final ModelValidator modelValidator;
+	private final BinaryFormats binaryFormats;
+	private final RejectionLog rejections = new RejectionLog(log, RejectionLog.WARNINGS_PER_SECOND);
+
+	@InitBinder
+	public void initBinder(WebDataBinder binder) {
+		modelValidator.bindTo(binder);
+	}
 
 	@GetMapping
-	public Collection<Film> showAllFilm() {
-		log.info("Получен запрос на получение всех фильмов. Количество: {}", films.size());
-		return films.values();
+	public ResponseEntity<?> showAllFilm(@RequestParam(required = false) Long after,
+		@RequestParam(required = false) Integer limit,
+		FilmQuery query,
+		@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		if (query.isSpecified()) {
+			validateQuery(query, after);
+			int queryLimit = CollectionResponses.pageLimit(limit);
+			log.debug("Получен запрос на поиск фильмов: {}, лимит: {}", query, queryLimit);
+			return ResponseEntity.ok(filmStorage.findByQuery(query, queryLimit));
+		}
+		if (after == null && limit == null) {
+			log.debug("Получен запрос на получение всех фильмов. Количество: {}", filmStorage.size());
+			return catalogueCache.respond(CatalogueCache.FILMS, ifNoneMatch, filmStorage::findAll);
+		}
+		int pageLimit = CollectionResponses.pageLimit(limit);
+		log.debug("Получен запрос на страницу фильмов. После ID: {}, лимит: {}", after, pageLimit);
+		return ResponseEntity.ok(filmStorage.findPage(after == null ? 0 : after, pageLimit));
+	}
+
+	@GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamFilms() {
+		log.debug("Получен запрос на потоковую выгрузку всех фильмов. Количество: {}", filmStorage.size());
+		return CollectionResponses.ndjson(objectMapper, Film.class, filmStorage.findAll());
+	}
+
+	@GetMapping(produces = {BinaryFormats.CBOR_VALUE, BinaryFormats.SMILE_VALUE})
+	public ResponseEntity<StreamingResponseBody> showAllFilmBinary(@RequestParam(required = false) Long after,
+		@RequestParam(required = false) Integer limit,
+		@RequestHeader(HttpHeaders.ACCEPT) String accept) {
+		if (after == null && limit == null) {
+			log.debug("Получен запрос на двоичную выгрузку фильмов ({}). Количество: {}", accept, filmStorage.size());
+			return CollectionResponses.binary(binaryFormats, accept, Film.class, filmStorage.findAll());
+		}
+		int pageLimit = CollectionResponses.pageLimit(limit);
+		log.debug("Получен запрос на страницу фильмов ({}). После ID: {}, лимит: {}", accept, after, pageLimit);
+		return CollectionResponses.binary(binaryFormats, accept, Film.class,
+			filmStorage.findPage(after == null ? 0 : after, pageLimit));
+	}
+
+	@GetMapping("/{id}")
+	public ResponseEntity<byte[]> findFilm(@PathVariable long id) {
+		log.debug("Получен запрос на получение фильма с ID: {}", id);
+		return filmResponseCache.respond(id, () -> filmStorage.findById(id)
+			.orElseThrow(() -> new NotFoundException("Фильм с ID " + id + " не найден.")));
+	}
+
+	@GetMapping("/search")
+	public List<Film> searchFilms(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+		if (q.isBlank()) {
+			throw new ValidationException("Поисковый запрос не может быть пустым.");
+		}
+		int searchLimit = CollectionResponses.pageLimit(limit);
+		List<Film> found = filmSearchIndex.search(q, searchLimit);
+		log.debug("Получен запрос на полнотекстовый поиск фильмов: \"{}\", лимит: {}, найдено: {}", q, searchLimit,
+			found.size());
+		return found;
+	}
+
+	@GetMapping("/popular")
+	public List<Film> findPopular(@RequestParam(required = false) Integer count) {
+		int popularCount = CollectionResponses.topCount(count);
+		List<Film> popular = new ArrayList<>(popularCount);
+		for (long filmId : likeStorage.findPopular(popularCount)) {
+			filmStorage.findById(filmId).ifPresent(popular::add);
+		}
+		// Если фильмов с лайками меньше count, дополняем фильмами без лайков по возрастанию id
+		if (popular.size() < popularCount) {
+			for (Film film : filmStorage.findAll()) {
+				if (popular.size() == popularCount) {
+					break;
+				}
+				if (likeStorage.countLikes(film.getId()) == 0) {
+					popular.add(film);
+				}
+			}
+		}
+		log.debug("Получен запрос на популярные фильмы, количество: {}, найдено: {}", popularCount, popular.size());
+		return popular;
+	}
+
+	@PutMapping("/{id}/like/{userId}")
+	public void addLike(@PathVariable long id, @PathVariable long userId) {
+		checkLikeParticipants(id, userId);
+		if (likeStorage.addLike(id, userId)) {
+			catalogueChanges.likeChanged(id, userId);
+			log.debug("Пользователь {} поставил лайк фильму {}", userId, id);
+		} else {
+			log.debug("Пользователь {} уже ставил лайк фильму {}", userId, id);
+		}
+	}
+
+	@DeleteMapping("/{id}/like/{userId}")
+	public void removeLike(@PathVariable long id, @PathVariable long userId) {
+		checkLikeParticipants(id, userId);
+		if (likeStorage.removeLike(id, userId)) {
+			catalogueChanges.likeChanged(id, userId);
+			log.debug("Пользователь {} убрал лайк с фильма {}", userId, id);
+		} else {
+			log.debug("Пользователь {} не ставил лайк фильму {}", userId, id);
+		}
 	}
 
 	@PostMapping
 	public Film addFilm(@Valid @RequestBody Film film) {
 		try {
-			validateFilm(film);
-			long newId = getNextId();
-			film.setId(newId);
-			films.put(newId, film);
-			log.info("Фильм создан. ID: {}, название: {}", newId, film.getName());
-			return film;
+			ModelRules.checkReleaseDate(film);
+			Film created = filmStorage.create(film);
+			catalogueChanges.filmsChanged(List.of(created));
+			log.debug("Фильм создан. ID: {}, название: {}", created.getId(), created.getName());
+			return created;
 		} catch (ValidationException e) {
-			log.warn("Ошибка валидации при создании фильма: {}, данные: {}", e.getMessage(), film);
+			rejections.warn("Ошибка валидации при создании фильма: {}, данные: {}", e.getMessage(), film);
 			throw e;
 		}
 	}
 
 	@PutMapping
-	public Film updateFilm(@Valid @RequestBody Film newFilm) {
+	public ResponseEntity<Film> updateFilm(@Valid @RequestBody Film newFilm,
+		@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 		if (newFilm.getId() == null) {
 			throw new ValidationException("ID фильма не может быть null.");
 		}
-		if (!films.containsKey(newFilm.getId())) {
-			throw new NotFoundException("Фильм с ID " + newFilm.getId() + " не найден.");
-		}
 
-		Film oldFilm = films.get(newFilm.getId());
 		try {
-			validateFilm(newFilm);
-
-			oldFilm.setName(newFilm.getName()); // Всегда обновляем
-			oldFilm.setDescription(newFilm.getDescription()); // Всегда обновляем
-			oldFilm.setReleaseDate(newFilm.getReleaseDate());
-			oldFilm.setDuration(newFilm.getDuration());
-
-			log.info("Фильм обновлён. ID: {}, новое название: {}", oldFilm.getId(), oldFilm.getName());
-			return oldFilm;
+			ModelRules.checkReleaseDate(newFilm);
+			ModelRules.applyIfMatch(ifMatch, newFilm::setVersion);
+			Film updated = filmStorage.update(newFilm);
+			catalogueChanges.filmsChanged(List.of(updated));
+			log.debug("Фильм обновлён. ID: {}, версия: {}, новое название: {}", updated.getId(), updated.getVersion(),
+				updated.getName());
+			return ResponseEntity.ok()
+				.eTag(String.valueOf(updated.getVersion()))
+				.body(updated);
 		} catch (ValidationException e) {
-			log.warn("Ошибка валидации при обновлении фильма ID {}: {}", newFilm.getId(), e.getMessage());
+			rejections.warn("Ошибка валидации при обновлении фильма ID {}: {}", newFilm.getId(), e.getMessage());
 			throw e;
 		}
 	}
 
-	private void validateFilm(Film film) {
-		if (film.getReleaseDate().isBefore(Film.getMinDate())) {
-			throw new ValidationException("Дата релиза слишком ранняя. Минимум: " + Film.getMinDate());
+	@PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public List<BatchItemResult<Film>> addFilms(@RequestBody List<Film> films) {
+		return createFilms(films);
+	}
+
+	@PostMapping(path = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+	public List<BatchItemResult<Film>> addFilmsNdjson(InputStream body) {
+		return createFilms(batchSupport.readNdjson(body, Film.class));
+	}
+
+	@PutMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public List<BatchItemResult<Film>> updateFilms(@RequestBody List<Film> films) {
+		return replaceFilms(films);
+	}
+
+	@PutMapping(path = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+	public List<BatchItemResult<Film>> updateFilmsNdjson(InputStream body) {
+		return replaceFilms(batchSupport.readNdjson(body, Film.class));
+	}
+
+	private List<BatchItemResult<Film>> createFilms(List<Film> films) {
+		List<BatchItemResult<Film>> results = batchSupport.createAll(films, ModelRules::checkReleaseDate, valid -> {
+			List<Film> created = filmStorage.createAll(valid);
+			catalogueChanges.filmsChanged(created);
+			return created;
+		});
+		log.debug("Пакетное создание фильмов. Получено: {}, создано: {}", films.size(), BatchSupport.countOk(results));
+		return results;
+	}
+
+	private List<BatchItemResult<Film>> replaceFilms(List<Film> films) {
+		List<BatchItemResult<Film>> results = batchSupport.updateEach(films, film -> {
+			if (film.getId() == null) {
+				throw new ValidationException("ID фильма не может быть null.");
+			}
+			ModelRules.checkReleaseDate(film);
+		}, film -> {
+			Film updated = filmStorage.update(film);
+			catalogueChanges.filmsChanged(List.of(updated));
+			return updated;
+		});
+		log.debug("Пакетное обновление фильмов. Получено: {}, обновлено: {}", films.size(), BatchSupport.countOk(results));
+		return results;
+	}
+
+	private void checkLikeParticipants(long filmId, long userId) {
+		if (filmStorage.findById(filmId).isEmpty()) {
+			throw new NotFoundException("Фильм с ID " + filmId + " не найден.");
+		}
+		if (userStorage.findById(userId).isEmpty()) {
+			throw new NotFoundException("Пользователь с ID " + userId + " не найден.");
 		}
 	}
 
-	private long getNextId() {
-		long currentMaxId = films.keySet()
-			.stream()
-			.mapToLong(id -> id)
-			.max()
-			.orElse(0);
-		return ++currentMaxId;
+	private void validateQuery(FilmQuery query, Long after) {
+		if (after != null) {
+			throw new ValidationException("Параметр after нельзя сочетать с фильтрами и сортировкой.");
+		}
+		if (!List.of(FilmQuery.SORT_ID, FilmQuery.SORT_RELEASE_DATE, FilmQuery.SORT_DURATION).contains(query.sortField())) {
+			throw new ValidationException("Сортировка возможна по полям id, releaseDate или duration.");
+		}
+		if (query.getOrder() != null && !List.of(FilmQuery.ORDER_ASC, FilmQuery.ORDER_DESC).contains(query.getOrder())) {
+			throw new ValidationException("Порядок сортировки должен быть asc или desc.");
+		}
+		if (query.getReleasedFrom() != null && query.getReleasedTo() != null
+			&& query.getReleasedFrom().isAfter(query.getReleasedTo())) {
+			throw new ValidationException("Параметр releasedFrom не может быть позже releasedTo.");
+		}
+		if (query.getMinDuration() != null && query.getMaxDuration() != null
+			&& query.getMinDuration() > query.getMaxDuration()) {
+			throw new ValidationException("Параметр minDuration не может быть больше maxDuration.");
+		}
 	}
 }
 
@@ -0,0 +1,103 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.cache.TinyLfuCache;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+// Кэш сериализованных ответов GET /films/{id}. Включается только для хранилища вне кучи (mmap),
+// где каждое чтение - это разбор записи из файла и создание объекта; для хранилищ в куче
+// фильм сериализуется при каждом запросе.
+// Устаревшие ответы не попадают в кэш: запись увеличивает счётчик полосы фильма и удаляет ответ,
+// а читатель после вставки перепроверяет счётчик и удаляет свой ответ, если счётчик изменился.
+@Component
+class FilmResponseCache {
+
+	private static final int STRIPES = 64;
+
+	private final ObjectMapper objectMapper;
+	private final TinyLfuCache<byte[]> cache;
+	private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+	private final Timer hit;
+	private final Timer miss;
+
+	FilmResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+		@Value("${filmorate.storage.type:memory}") String storageType,
+		@Value("${filmorate.entity-cache.max-entries:10000}") int maxEntries) {
+		this.objectMapper = objectMapper;
+		this.cache = "mmap".equals(storageType) && maxEntries > 0 ? new TinyLfuCache<>(maxEntries) : null;
+		this.hit = timer(meterRegistry, "hit");
+		this.miss = timer(meterRegistry, "miss");
+		if (cache != null) {
+			FunctionCounter.builder("filmorate.film.cache.evictions", cache, TinyLfuCache::evictionCount)
+				.description("Ответы, вытесненные из кэша фильмов")
+				.register(meterRegistry);
+			Gauge.builder("filmorate.film.cache.size", cache, TinyLfuCache::size)
+				.description("Число ответов в кэше фильмов")
+				.register(meterRegistry);
+		}
+	}
+
+	ResponseEntity<byte[]> respond(long id, Supplier<Film> loader) {
+		long start = System.nanoTime();
+		byte[] body = cache == null ? null : cache.get(id);
+		Timer timer = hit;
+		if (body == null) {
+			int stripe = stripe(id);
+			long version = versions.get(stripe);
+			body = serialize(loader.get());
+			if (cache != null) {
+				cache.put(id, body);
+				if (versions.get(stripe) != version) {
+					cache.invalidate(id);
+				}
+			}
+			timer = miss;
+		}
+		timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		return ResponseEntity.ok()
+			.contentType(MediaType.APPLICATION_JSON)
+			.body(body);
+	}
+
+	// Вызывается после изменения фильма
+	void invalidate(long id) {
+		if (cache != null) {
+			versions.incrementAndGet(stripe(id));
+			cache.invalidate(id);
+		}
+	}
+
+	private byte[] serialize(Film film) {
+		try {
+			return objectMapper.writeValueAsBytes(film);
+		} catch (JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static int stripe(long id) {
+		return (int) (id & (STRIPES - 1));
+	}
+
+	private static Timer timer(MeterRegistry meterRegistry, String result) {
+		return Timer.builder("filmorate.film.cache.requests")
+			.description("Запросы GET /films/{id}: из кэша ответов и с чтением из хранилища")
+			.tag("result", result)
+			.publishPercentiles(0.5, 0.99)
+			.register(meterRegistry);
+	}
+}
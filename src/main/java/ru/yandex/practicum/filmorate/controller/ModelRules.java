@@ -0,0 +1,61 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import ru.yandex.practicum.filmorate.exception.ConflictException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+// Проверки и дополнения моделей сверх аннотаций Bean Validation, общие для MVC и реактивных контроллеров
+final class ModelRules {
+
+	private ModelRules() {
+	}
+
+	static void checkReleaseDate(Film film) {
+		if (film.getReleaseDate().isBefore(Film.getMinDate())) {
+			throw new ValidationException("Дата релиза слишком ранняя. Минимум: " + Film.getMinDate());
+		}
+	}
+
+	// Ожидаемая версия из If-Match ("3", W/"3" или 3) заменяет версию из тела; * - обновить любую версию
+	static void applyIfMatch(String ifMatch, LongConsumer version) {
+		if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+			return;
+		}
+		String tag = ifMatch.trim();
+		if (tag.startsWith("W/")) {
+			tag = tag.substring(2);
+		}
+		if (tag.length() > 1 && tag.startsWith("\"") && tag.endsWith("\"")) {
+			tag = tag.substring(1, tag.length() - 1);
+		}
+		try {
+			version.accept(Long.parseLong(tag));
+		} catch (NumberFormatException e) {
+			throw new ValidationException("Заголовок If-Match должен содержать одну версию, получено: " + ifMatch);
+		}
+	}
+
+	static void fillNameFromLogin(User user) {
+		if (user.getName() == null || user.getName().trim().isEmpty()) {
+			user.setName(user.getLogin());
+		}
+	}
+
+	// Логин и email не должны быть заняты ни в хранилище, ни предыдущими элементами того же пакета
+	static void checkUnique(UserStorage userStorage, User user, Set<String> logins, Set<String> emails) {
+		String email = UserStorage.emailKey(user.getEmail());
+		if (logins.contains(user.getLogin()) || userStorage.findByLogin(user.getLogin()).isPresent()) {
+			throw new ConflictException("Пользователь с логином " + user.getLogin() + " уже существует.");
+		}
+		if (emails.contains(email) || userStorage.findByEmail(email).isPresent()) {
+			throw new ConflictException("Пользователь с email " + user.getEmail() + " уже существует.");
+		}
+		logins.add(user.getLogin());
+		emails.add(email);
+	}
+}
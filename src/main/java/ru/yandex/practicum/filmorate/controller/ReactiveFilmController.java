@@ -0,0 +1,88 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.validation.ModelValidator;
+
+import java.util.List;
+
+// Реактивный вариант /films (профиль reactive) над тем же хранилищем и с теми же проверками
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/films")
+@RequiredArgsConstructor
+public class ReactiveFilmController {
+
+	private final FilmStorage filmStorage;
+	private final FilmResponseCache filmResponseCache;
+	private final CatalogueChanges catalogueChanges;
+	private final ModelValidator modelValidator;
+
+	@InitBinder
+	public void initBinder(WebDataBinder binder) {
+		modelValidator.bindTo(binder);
+	}
+
+	@GetMapping
+	public Flux<Film> showAllFilm(@RequestParam(required = false) Long after,
+		@RequestParam(required = false) Integer limit) {
+		Flux<Film> films = ReactiveResponses.pages(filmStorage::findPage, after == null ? 0 : after, Film::getId);
+		if (after == null && limit == null) {
+			log.debug("Получен запрос на получение всех фильмов. Количество: {}", filmStorage.size());
+			return films;
+		}
+		int pageLimit = CollectionResponses.pageLimit(limit);
+		log.debug("Получен запрос на страницу фильмов. После ID: {}, лимит: {}", after, pageLimit);
+		return films.take(pageLimit, true);
+	}
+
+	@GetMapping("/{id}")
+	public ResponseEntity<byte[]> findFilm(@PathVariable long id) {
+		log.debug("Получен запрос на получение фильма с ID: {}", id);
+		return filmResponseCache.respond(id, () -> filmStorage.findById(id)
+			.orElseThrow(() -> new NotFoundException("Фильм с ID " + id + " не найден.")));
+	}
+
+	@PostMapping
+	public Mono<Film> addFilm(@Valid @RequestBody Film film) {
+		ModelRules.checkReleaseDate(film);
+		return ReactiveResponses.blocking(() -> {
+			Film created = filmStorage.create(film);
+			catalogueChanges.filmsChanged(List.of(created));
+			log.debug("Фильм создан. ID: {}, название: {}", created.getId(), created.getName());
+			return created;
+		});
+	}
+
+	@PutMapping
+	public Mono<ResponseEntity<Film>> updateFilm(@Valid @RequestBody Film newFilm,
+		@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		if (newFilm.getId() == null) {
+			throw new ValidationException("ID фильма не может быть null.");
+		}
+		ModelRules.checkReleaseDate(newFilm);
+		ModelRules.applyIfMatch(ifMatch, newFilm::setVersion);
+		return ReactiveResponses.blocking(() -> {
+			Film updated = filmStorage.update(newFilm);
+			catalogueChanges.filmsChanged(List.of(updated));
+			log.debug("Фильм обновлён. ID: {}, версия: {}, новое название: {}", updated.getId(), updated.getVersion(),
+				updated.getName());
+			return ResponseEntity.ok()
+				.eTag(String.valueOf(updated.getVersion()))
+				.body(updated);
+		});
+	}
+}
@@ -0,0 +1,59 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.io.UncheckedIOException;
+
+// ReplicaGuard для реактивного стека: те же правила для тех же путей, но в виде WebFilter
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnProperty(name = "filmorate.replication.role", havingValue = "follower")
+@RequiredArgsConstructor
+public class ReactiveReplicaGuard implements WebFilter {
+
+	private final ReplicaFollower replicaFollower;
+	private final ObjectMapper objectMapper;
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		ServerHttpRequest request = exchange.getRequest();
+		String path = request.getPath().pathWithinApplication().value();
+		if (!ReplicaGuard.isGuarded(path)) {
+			return chain.filter(exchange);
+		}
+		ServerHttpResponse response = exchange.getResponse();
+		if (ReplicaGuard.isLocalRead(request.getMethod().name(), path)) {
+			if (replicaFollower.isFresh()) {
+				return chain.filter(exchange);
+			}
+			byte[] body;
+			try {
+				body = objectMapper.writeValueAsBytes(ReplicaGuard.staleBody(replicaFollower));
+			} catch (JsonProcessingException e) {
+				throw new UncheckedIOException(e);
+			}
+			response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+			response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+			response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+			return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+		}
+		response.setStatusCode(HttpStatus.TEMPORARY_REDIRECT);
+		response.getHeaders().set(HttpHeaders.LOCATION,
+			ReplicaGuard.leaderLocation(replicaFollower, path, request.getURI().getRawQuery()));
+		return response.setComplete();
+	}
+}
@@ -0,0 +1,45 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.ToLongFunction;
+
+final class ReactiveResponses {
+
+	// Сколько элементов читается из хранилища за один запрос потребителя
+	static final int STREAM_PAGE_SIZE = 256;
+
+	private ReactiveResponses() {
+	}
+
+	// Коллекция читается страницами по мере спроса подписчика: медленный клиент не заставляет
+	// держать в памяти весь каталог, а следующая страница запрашивается только после отправки предыдущей
+	static <T> Flux<T> pages(PageReader<T> reader, long after, ToLongFunction<T> id) {
+		return Flux.<List<T>, Long>generate(() -> after, (cursor, sink) -> {
+				List<T> page = reader.read(cursor, STREAM_PAGE_SIZE);
+				if (page.isEmpty()) {
+					sink.complete();
+					return cursor;
+				}
+				sink.next(page);
+				return id.applyAsLong(page.get(page.size() - 1));
+			})
+			.concatMapIterable(page -> page, 1);
+	}
+
+	// Запись может ждать диск (журнал, fsync), поэтому выполняется вне потоков event loop
+	static <T> Mono<T> blocking(Callable<T> action) {
+		return Mono.fromCallable(action)
+			.subscribeOn(Schedulers.boundedElastic());
+	}
+
+	@FunctionalInterface
+	interface PageReader<T> {
+
+		List<T> read(long after, int limit);
+	}
+}
@@ -0,0 +1,19 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Сервер реактивного профиля. В classpath есть и Tomcat (для Spring MVC), и Reactor Netty,
+// а автоконфигурация Spring Boot для реактивного приложения выбирает Tomcat первым.
+// Фабрика Netty, объявленная здесь, отключает этот выбор: реактивные контроллеры работают на Netty
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveServer {
+
+	@Bean
+	public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+		return new NettyReactiveWebServerFactory();
+	}
+}
@@ -0,0 +1,101 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+import ru.yandex.practicum.filmorate.validation.ModelValidator;
+
+import java.util.List;
+
+// Реактивный вариант /users (профиль reactive) над тем же хранилищем и с теми же проверками
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/users")
+@RequiredArgsConstructor
+public class ReactiveUserController {
+
+	private final UserStorage userStorage;
+	private final CatalogueChanges catalogueChanges;
+	private final ModelValidator modelValidator;
+
+	@InitBinder
+	public void initBinder(WebDataBinder binder) {
+		modelValidator.bindTo(binder);
+	}
+
+	@GetMapping
+	public Flux<User> showAllUsers(@RequestParam(required = false) Long after,
+		@RequestParam(required = false) Integer limit) {
+		Flux<User> users = ReactiveResponses.pages(userStorage::findPage, after == null ? 0 : after, User::getId);
+		if (after == null && limit == null) {
+			log.debug("Получен запрос на получение всех пользователей. Количество: {}", userStorage.size());
+			return users;
+		}
+		int pageLimit = CollectionResponses.pageLimit(limit);
+		log.debug("Получен запрос на страницу пользователей. После ID: {}, лимит: {}", after, pageLimit);
+		return users.take(pageLimit, true);
+	}
+
+	@GetMapping("/{id}")
+	public User findUser(@PathVariable long id) {
+		log.debug("Получен запрос на получение пользователя с ID: {}", id);
+		return userStorage.findById(id)
+			.orElseThrow(() -> new NotFoundException("Пользователь с ID " + id + " не найден."));
+	}
+
+	@GetMapping("/by-login/{login}")
+	public User findUserByLogin(@PathVariable String login) {
+		log.debug("Получен запрос на поиск пользователя по логину: {}", login);
+		return userStorage.findByLogin(login)
+			.orElseThrow(() -> new NotFoundException("Пользователь с логином " + login + " не найден."));
+	}
+
+	@GetMapping("/by-email/{email}")
+	public User findUserByEmail(@PathVariable String email) {
+		log.debug("Получен запрос на поиск пользователя по email: {}", email);
+		return userStorage.findByEmail(email)
+			.orElseThrow(() -> new NotFoundException("Пользователь с email " + email + " не найден."));
+	}
+
+	@PostMapping
+	public Mono<User> addUser(@Valid @RequestBody User user) {
+		ModelRules.fillNameFromLogin(user);
+		return ReactiveResponses.blocking(() -> {
+			User created = userStorage.create(user);
+			catalogueChanges.usersChanged(List.of(created));
+			log.debug("Пользователь создан ID: {}, логин: {},", created.getId(), created.getLogin());
+			return created;
+		});
+	}
+
+	@PutMapping
+	public Mono<ResponseEntity<User>> updateUser(@Valid @RequestBody User newUser,
+		@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		if (newUser.getId() == null) {
+			throw new ValidationException("Id должен быть указан.");
+		}
+		ModelRules.fillNameFromLogin(newUser);
+		ModelRules.applyIfMatch(ifMatch, newUser::setVersion);
+		return ReactiveResponses.blocking(() -> {
+			User updated = userStorage.update(newUser);
+			catalogueChanges.usersChanged(List.of(updated));
+			log.debug("Пользователь обновлён. ID: {}, версия: {}, новое имя: {}", updated.getId(), updated.getVersion(),
+				updated.getName());
+			return ResponseEntity.ok()
+				.eTag(String.valueOf(updated.getVersion()))
+				.body(updated);
+		});
+	}
+}
@@ -0,0 +1,63 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Предупреждения об отклонённых запросах: не больше limit в секунду, остальные только считаются,
+// и их число выводится первым предупреждением следующей секунды. Клиент, который повторяет
+// неверный запрос, иначе заваливает журнал одинаковыми строками
+final class RejectionLog {
+
+	static final int WARNINGS_PER_SECOND = 10;
+
+	private final Logger log;
+	private final int limit;
+	private final AtomicLong second = new AtomicLong();
+	private final AtomicInteger written = new AtomicInteger();
+	private final LongAdder suppressed = new LongAdder();
+
+	RejectionLog(Logger log, int limit) {
+		this.log = log;
+		this.limit = limit;
+	}
+
+	void warn(String format, Object arg) {
+		if (log.isWarnEnabled() && acquire()) {
+			log.warn(format, arg);
+		}
+	}
+
+	void warn(String format, Object arg1, Object arg2) {
+		if (log.isWarnEnabled() && acquire()) {
+			log.warn(format, arg1, arg2);
+		}
+	}
+
+	void warn(String message) {
+		if (log.isWarnEnabled() && acquire()) {
+			log.warn(message);
+		}
+	}
+
+	// Сброс счётчика на границе секунды может потерять несколько одновременных предупреждений - это допустимо
+	private boolean acquire() {
+		long now = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+		long current = second.get();
+		if (now != current && second.compareAndSet(current, now)) {
+			written.set(0);
+			long skipped = suppressed.sumThenReset();
+			if (skipped > 0) {
+				log.warn("Пропущено предупреждений об отклонённых запросах: {}", skipped);
+			}
+		}
+		if (written.incrementAndGet() <= limit) {
+			return true;
+		}
+		suppressed.increment();
+		return false;
+	}
+}
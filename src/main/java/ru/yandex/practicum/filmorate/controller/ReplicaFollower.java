@@ -0,0 +1,326 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
+import ru.yandex.practicum.filmorate.model.ChangeEvent;
+import ru.yandex.practicum.filmorate.model.ChangePage;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Реплика только для чтения (filmorate.replication.role=follower). Один поток забирает у ведущего узла
+// ленту /changes длинными опросами и применяет изменения к своему хранилищу через replicate:
+// изменение применяется, только если оно новее сохранённого, поэтому повторы и перестановки событий безопасны.
+// При старте и при потере части ленты (gap) каталог загружается заново через /admin/export, после чего
+// лента читается с номера, запрошенного до выгрузки. Применённые изменения проходят через CatalogueChanges,
+// как локальные записи: сбрасываются кэши, обновляется поиск, изменения попадают в собственную ленту реплики.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.replication.role", havingValue = "follower")
+class ReplicaFollower {
+
+	private static final int LOAD_CHUNK_SIZE = 1000;
+	private static final Duration MAX_BACKOFF = Duration.ofSeconds(5);
+
+	private final URI leader;
+	private final long pollWaitSeconds;
+	private final Duration maxStaleness;
+	private final FilmStorage filmStorage;
+	private final UserStorage userStorage;
+	private final CatalogueChanges catalogueChanges;
+	private final ObjectMapper objectMapper;
+	private final HttpClient client = HttpClient.newBuilder()
+		.version(HttpClient.Version.HTTP_1_1)
+		.connectTimeout(Duration.ofSeconds(5))
+		.build();
+	private final Timer lag;
+	private final Counter resyncs;
+	private final Counter unresolved;
+
+	private volatile long cursor;
+	// Момент (System.nanoTime), до которого все изменения ведущего узла уже применены; 0 - ещё ни разу
+	private volatile long caughtUpNanos;
+	private volatile boolean running = true;
+	private Thread worker;
+	// Пользователи, которых не удалось применить из-за занятых логина или email, и момент первого откладывания.
+	// Меняются только потоком реплики
+	private List<User> deferred = List.of();
+	private long deferredSinceNanos;
+
+	ReplicaFollower(@Value("${filmorate.replication.leader-url:}") String leaderUrl,
+		@Value("${filmorate.replication.poll-wait:1s}") Duration pollWait,
+		@Value("${filmorate.replication.max-staleness:10s}") Duration maxStaleness,
+		FilmStorage filmStorage, UserStorage userStorage, CatalogueChanges catalogueChanges,
+		ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+		if (leaderUrl.isBlank()) {
+			throw new IllegalArgumentException("Для реплики нужен адрес ведущего узла: filmorate.replication.leader-url");
+		}
+		this.leader = URI.create(leaderUrl.endsWith("/") ? leaderUrl : leaderUrl + "/");
+		// Параметр wait ленты - в целых секундах; 0 превратил бы опрос в непрерывный цикл запросов
+		this.pollWaitSeconds = Math.max(1, pollWait.toSeconds());
+		this.maxStaleness = maxStaleness;
+		this.filmStorage = filmStorage;
+		this.userStorage = userStorage;
+		this.catalogueChanges = catalogueChanges;
+		this.objectMapper = objectMapper;
+		lag = Timer.builder("filmorate.replication.lag")
+			.description("Время от изменения на ведущем узле до его применения репликой")
+			.publishPercentiles(0.5, 0.99, 0.999)
+			.register(meterRegistry);
+		resyncs = Counter.builder("filmorate.replication.resyncs")
+			.description("Полные перезагрузки каталога с ведущего узла")
+			.register(meterRegistry);
+		unresolved = Counter.builder("filmorate.replication.conflicts")
+			.description("Пользователи, отложенные из-за занятых логина или email")
+			.register(meterRegistry);
+		Gauge.builder("filmorate.replication.staleness", this, ReplicaFollower::stalenessSeconds)
+			.description("Сколько секунд назад реплика в последний раз догнала ведущий узел")
+			.baseUnit("seconds")
+			.register(meterRegistry);
+		Gauge.builder("filmorate.replication.sequence", this, follower -> follower.cursor)
+			.description("Номер последнего применённого изменения ленты ведущего узла")
+			.register(meterRegistry);
+	}
+
+	@PostConstruct
+	public void start() {
+		worker = Thread.ofPlatform().name("replica-follower").daemon().start(this::run);
+	}
+
+	@PreDestroy
+	public void stop() {
+		running = false;
+		worker.interrupt();
+	}
+
+	URI leader() {
+		return leader;
+	}
+
+	// Данные реплики отстают от ведущего узла не больше чем на max-staleness
+	boolean isFresh() {
+		long caughtUp = caughtUpNanos;
+		return caughtUp != 0 && System.nanoTime() - caughtUp <= maxStaleness.toNanos();
+	}
+
+	// NaN - реплика ещё ни разу не догнала ведущий узел
+	double stalenessSeconds() {
+		long caughtUp = caughtUpNanos;
+		return caughtUp == 0 ? Double.NaN : (System.nanoTime() - caughtUp) / 1_000_000_000.0;
+	}
+
+	private void run() {
+		boolean resync = true;
+		Duration backoff = Duration.ofMillis(100);
+		while (running) {
+			try {
+				if (resync) {
+					resync();
+				}
+				resync = poll();
+				backoff = Duration.ofMillis(100);
+			} catch (InterruptedException e) {
+				return;
+			} catch (IOException | RuntimeException e) {
+				log.warn("Ошибка репликации с {}: {}; повтор через {} мс", leader, e.toString(), backoff.toMillis());
+				try {
+					Thread.sleep(backoff);
+				} catch (InterruptedException interrupted) {
+					return;
+				}
+				backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+			}
+		}
+	}
+
+	// Следующая страница ленты; true - часть событий уже вытеснена на ведущем узле и нужна перезагрузка
+	private boolean poll() throws IOException, InterruptedException {
+		long sent = System.nanoTime();
+		ChangePage page = get("changes?since=" + cursor + "&limit=" + CollectionResponses.MAX_PAGE_SIZE
+			+ "&wait=" + pollWaitSeconds);
+		if (page.isGap()) {
+			log.warn("Реплика отстала от ленты ведущего узла на номере {}, каталог будет загружен заново", cursor);
+			return true;
+		}
+		apply(page.getEvents());
+		cursor = page.getLast();
+		if (!deferred.isEmpty()) {
+			// Вторая половина обмена логинами или email так и не пришла - состояние пользователей берётся заново
+			if (System.nanoTime() - deferredSinceNanos > maxStaleness.toNanos()) {
+				log.warn("{} пользователей не применяются дольше {}, каталог будет загружен заново", deferred.size(),
+					maxStaleness);
+				return true;
+			}
+			return false;
+		}
+		// Неполная страница - ведущий узел отдал всё, что было опубликовано к моменту запроса
+		if (page.getEvents().size() < CollectionResponses.MAX_PAGE_SIZE) {
+			caughtUpNanos = sent;
+		}
+		return false;
+	}
+
+	private void apply(List<ChangeEvent> events) {
+		List<Film> films = new ArrayList<>();
+		List<User> users = new ArrayList<>();
+		for (ChangeEvent event : events) {
+			if (event.getFilm() != null) {
+				films.add(event.getFilm());
+			} else if (event.getUser() != null) {
+				users.add(event.getUser());
+			}
+		}
+		applyFilms(films);
+		applyUsers(users);
+		Instant now = Instant.now();
+		for (ChangeEvent event : events) {
+			lag.record(Duration.between(event.getTime(), now));
+		}
+	}
+
+	// Каталог целиком: номер ленты берётся до выгрузки, так что изменения во время выгрузки придут лентой
+	private void resync() throws IOException, InterruptedException {
+		long from = get("changes?wait=0").getLast();
+		long start = System.nanoTime();
+		// Выгрузка содержит текущее состояние всех пользователей, отложенные изменения ей уже перекрыты
+		deferred = List.of();
+		long films = load("admin/export/films", Film.class, this::applyFilms);
+		long users = load("admin/export/users", User.class, this::applyUsers);
+		cursor = from;
+		resyncs.increment();
+		log.info("Каталог загружен с {}: {} фильмов, {} пользователей за {} мс, лента с номера {}", leader, films,
+			users, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), from);
+	}
+
+	private void applyFilms(List<Film> films) {
+		List<Film> applied = new ArrayList<>(films.size());
+		for (Film film : films) {
+			if (filmStorage.replicate(film)) {
+				applied.add(film);
+			}
+		}
+		if (!applied.isEmpty()) {
+			catalogueChanges.filmsChanged(applied);
+		}
+	}
+
+	// Логин или email могут быть ещё заняты пользователем, чьё изменение идёт в ленте позже
+	// (номера назначаются после записи в хранилище, и обмен логинами может разойтись по разным страницам).
+	// Такие пользователи применяются повторно после остальных, а не применившиеся откладываются
+	// до следующей страницы; устаревшие к тому времени изменения replicate просто отбросит
+	private void applyUsers(List<User> users) {
+		List<User> applied = new ArrayList<>(users.size());
+		List<User> pending = new ArrayList<>(deferred.size() + users.size());
+		pending.addAll(deferred);
+		pending.addAll(users);
+		while (!pending.isEmpty()) {
+			List<User> conflicting = new ArrayList<>();
+			for (User user : pending) {
+				try {
+					if (userStorage.replicate(user)) {
+						applied.add(user);
+					}
+				} catch (ConflictException e) {
+					conflicting.add(user);
+				}
+			}
+			if (conflicting.size() == pending.size()) {
+				break;
+			}
+			pending = conflicting;
+		}
+		defer(pending);
+		if (!applied.isEmpty()) {
+			catalogueChanges.usersChanged(applied);
+		}
+	}
+
+	private void defer(List<User> pending) {
+		if (pending.isEmpty()) {
+			deferred = List.of();
+			return;
+		}
+		Set<User> known = Collections.newSetFromMap(new IdentityHashMap<>());
+		known.addAll(deferred);
+		long added = pending.stream().filter(user -> !known.contains(user)).count();
+		if (added > 0) {
+			unresolved.increment(added);
+			log.debug("Отложено {} пользователей: логин или email заняты, первый - ID {}", added,
+				pending.get(0).getId());
+		}
+		if (deferred.isEmpty()) {
+			deferredSinceNanos = System.nanoTime();
+		}
+		deferred = pending;
+	}
+
+	private ChangePage get(String path) throws IOException, InterruptedException {
+		try (InputStream body = send(path, MediaType.APPLICATION_JSON_VALUE)) {
+			return objectMapper.readValue(body, ChangePage.class);
+		}
+	}
+
+	// Выгрузка NDJSON читается потоком и применяется пачками
+	private <T> long load(String path, Class<T> type, Consumer<List<T>> apply) throws IOException, InterruptedException {
+		long count = 0;
+		try (InputStream body = send(path, MediaType.APPLICATION_NDJSON_VALUE);
+			 MappingIterator<T> rows = objectMapper.readerFor(type).readValues(body)) {
+			List<T> chunk = new ArrayList<>(LOAD_CHUNK_SIZE);
+			while (rows.hasNextValue()) {
+				chunk.add(rows.nextValue());
+				if (chunk.size() == LOAD_CHUNK_SIZE) {
+					apply.accept(chunk);
+					count += chunk.size();
+					chunk = new ArrayList<>(LOAD_CHUNK_SIZE);
+				}
+			}
+			apply.accept(chunk);
+			count += chunk.size();
+		}
+		return count;
+	}
+
+	private InputStream send(String path, String accept) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(leader.resolve(path))
+			.header(HttpHeaders.ACCEPT, accept)
+			.timeout(Duration.ofSeconds(pollWaitSeconds + 30))
+			.GET()
+			.build();
+		HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+		if (response.statusCode() != 200) {
+			response.body().close();
+			throw new IOException("Ведущий узел ответил " + response.statusCode() + " на " + path);
+		}
+		return response.body();
+	}
+}
@@ -0,0 +1,109 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import ru.yandex.practicum.filmorate.exception.ErrorBody;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// Запросы к реплике. Чтение фильмов и пользователей обслуживается локально, пока реплика отстаёт
+// не больше чем на filmorate.replication.max-staleness, иначе - 503 с Retry-After.
+// Всё остальное (записи, а также лайки, друзья и рекомендации, которые не реплицируются)
+// перенаправляется на ведущий узел ответом 307: клиент повторит тот же метод с тем же телом.
+// Лента /changes и /actuator не затрагиваются. Для реактивного стека то же делает ReactiveReplicaGuard
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "filmorate.replication.role", havingValue = "follower")
+@RequiredArgsConstructor
+public class ReplicaGuard implements WebMvcConfigurer, HandlerInterceptor {
+
+	static final String[] GUARDED_PATHS = {"/films/**", "/users/**", "/admin/**"};
+	private static final List<PathPattern> GUARDED = parse(GUARDED_PATHS);
+	private static final List<PathPattern> LOCAL_READS = parse("/films", "/films/{id:\\d+}", "/films/search",
+		"/users", "/users/{id:\\d+}", "/users/by-login/{login}", "/users/by-email/{email}", "/admin/export/{entity}");
+
+	private final ReplicaFollower replicaFollower;
+	private final ObjectMapper objectMapper;
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(this).addPathPatterns(GUARDED_PATHS);
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+		throws IOException {
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		if (isLocalRead(request.getMethod(), path)) {
+			if (replicaFollower.isFresh()) {
+				return true;
+			}
+			response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+			response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+			response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+			objectMapper.writeValue(response.getOutputStream(), staleBody(replicaFollower));
+			return false;
+		}
+		response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+		response.setHeader(HttpHeaders.LOCATION, leaderLocation(replicaFollower, path, request.getQueryString()));
+		return false;
+	}
+
+	static boolean isGuarded(String path) {
+		return matchesAny(GUARDED, path);
+	}
+
+	static boolean isLocalRead(String method, String path) {
+		if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+			return false;
+		}
+		return matchesAny(LOCAL_READS, path);
+	}
+
+	static ErrorBody staleBody(ReplicaFollower replicaFollower) {
+		double staleness = replicaFollower.stalenessSeconds();
+		String message = Double.isNaN(staleness)
+			? "Реплика ещё не загрузила каталог с ведущего узла."
+			: String.format(Locale.ROOT, "Реплика отстаёт от ведущего узла: данные обновлены %.1f с назад.", staleness);
+		return new ErrorBody(HttpStatus.SERVICE_UNAVAILABLE.value(), HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+			message);
+	}
+
+	// query - строка запроса как пришла, без декодирования
+	static String leaderLocation(ReplicaFollower replicaFollower, String path, String query) {
+		return replicaFollower.leader().resolve(path.substring(1)) + (query == null ? "" : "?" + query);
+	}
+
+	private static boolean matchesAny(List<PathPattern> patterns, String path) {
+		PathContainer container = PathContainer.parsePath(path);
+		for (PathPattern pattern : patterns) {
+			if (pattern.matches(container)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static List<PathPattern> parse(String... patterns) {
+		PathPatternParser parser = new PathPatternParser();
+		return Arrays.stream(patterns).map(parser::parse).toList();
+	}
+}
@@ -1,82 +1,266 @@
 package ru.yandex.practicum.filmorate.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.BatchItemResult;
+import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.recommendation.FilmRecommendations;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.friend.FriendStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+import ru.yandex.practicum.filmorate.validation.ModelValidator;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/users")
+@RequiredArgsConstructor
 public class UserController {
 
-	private final Map<Long, User> users = new HashMap<>();
+	private final UserStorage userStorage;
+	private final FriendStorage friendStorage;
+	private final FilmStorage filmStorage;
+	private final FilmRecommendations filmRecommendations;
+	private final ObjectMapper objectMapper;
+	private final BatchSupport batchSupport;
+	private final CatalogueCache catalogueCache;
+	private final CatalogueChanges catalogueChanges;
+	private final ModelValidator modelValidator;
+	private final BinaryFormats binaryFormats;
+	private final RejectionLog rejections = new RejectionLog(log, RejectionLog.WARNINGS_PER_SECOND);
+
+	@InitBinder
+	public void initBinder(WebDataBinder binder) {
+		modelValidator.bindTo(binder);
+	}
 
 	@GetMapping
-	public Collection<User> showAllUsers() {
-		log.info("Получен запрос на получение всех пользователей. Количество: {}", users.size());
-		return users.values();
+	public ResponseEntity<?> showAllUsers(@RequestParam(required = false) Long after,
+		@RequestParam(required = false) Integer limit,
+		@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		if (after == null && limit == null) {
+			log.debug("Получен запрос на получение всех пользователей. Количество: {}", userStorage.size());
+			return catalogueCache.respond(CatalogueCache.USERS, ifNoneMatch, userStorage::findAll);
+		}
+		int pageLimit = CollectionResponses.pageLimit(limit);
+		log.debug("Получен запрос на страницу пользователей. После ID: {}, лимит: {}", after, pageLimit);
+		return ResponseEntity.ok(userStorage.findPage(after == null ? 0 : after, pageLimit));
+	}
+
+	@GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamUsers() {
+		log.debug("Получен запрос на потоковую выгрузку всех пользователей. Количество: {}", userStorage.size());
+		return CollectionResponses.ndjson(objectMapper, User.class, userStorage.findAll());
+	}
+
+	@GetMapping(produces = {BinaryFormats.CBOR_VALUE, BinaryFormats.SMILE_VALUE})
+	public ResponseEntity<StreamingResponseBody> showAllUsersBinary(@RequestParam(required = false) Long after,
+		@RequestParam(required = false) Integer limit,
+		@RequestHeader(HttpHeaders.ACCEPT) String accept) {
+		if (after == null && limit == null) {
+			log.debug("Получен запрос на двоичную выгрузку пользователей ({}). Количество: {}", accept, userStorage.size());
+			return CollectionResponses.binary(binaryFormats, accept, User.class, userStorage.findAll());
+		}
+		int pageLimit = CollectionResponses.pageLimit(limit);
+		log.debug("Получен запрос на страницу пользователей ({}). После ID: {}, лимит: {}", accept, after, pageLimit);
+		return CollectionResponses.binary(binaryFormats, accept, User.class,
+			userStorage.findPage(after == null ? 0 : after, pageLimit));
+	}
+
+	@GetMapping("/{id}")
+	public User findUser(@PathVariable long id) {
+		log.debug("Получен запрос на получение пользователя с ID: {}", id);
+		return userStorage.findById(id)
+			.orElseThrow(() -> new NotFoundException("Пользователь с ID " + id + " не найден."));
+	}
+
+	@GetMapping("/by-login/{login}")
+	public User findUserByLogin(@PathVariable String login) {
+		log.debug("Получен запрос на поиск пользователя по логину: {}", login);
+		return userStorage.findByLogin(login)
+			.orElseThrow(() -> new NotFoundException("Пользователь с логином " + login + " не найден."));
+	}
+
+	@GetMapping("/by-email/{email}")
+	public User findUserByEmail(@PathVariable String email) {
+		log.debug("Получен запрос на поиск пользователя по email: {}", email);
+		return userStorage.findByEmail(email)
+			.orElseThrow(() -> new NotFoundException("Пользователь с email " + email + " не найден."));
+	}
+
+	@GetMapping("/{id}/friends")
+	public List<User> findFriends(@PathVariable long id) {
+		checkExists(id);
+		List<User> friends = users(friendStorage.findFriendIds(id));
+		log.debug("Получен запрос на друзей пользователя {}. Количество: {}", id, friends.size());
+		return friends;
+	}
+
+	@GetMapping("/{id}/friends/common/{otherId}")
+	public List<User> findCommonFriends(@PathVariable long id, @PathVariable long otherId) {
+		checkExists(id);
+		checkExists(otherId);
+		List<User> common = users(friendStorage.findCommonFriendIds(id, otherId));
+		log.debug("Получен запрос на общих друзей пользователей {} и {}. Количество: {}", id, otherId, common.size());
+		return common;
+	}
+
+	@GetMapping("/{id}/recommendations")
+	public List<Film> findRecommendations(@PathVariable long id, @RequestParam(required = false) Integer count) {
+		checkExists(id);
+		int recommendationCount = CollectionResponses.topCount(count);
+		List<Film> films = new ArrayList<>(recommendationCount);
+		for (long filmId : filmRecommendations.recommend(id, recommendationCount)) {
+			filmStorage.findById(filmId).ifPresent(films::add);
+		}
+		log.debug("Получен запрос на рекомендации для пользователя {}. Количество: {}", id, films.size());
+		return films;
+	}
+
+	@PutMapping("/{id}/friends/{friendId}")
+	public void addFriend(@PathVariable long id, @PathVariable long friendId) {
+		if (id == friendId) {
+			throw new ValidationException("Пользователь не может добавить в друзья самого себя.");
+		}
+		checkExists(id);
+		checkExists(friendId);
+		if (friendStorage.addFriend(id, friendId)) {
+			log.debug("Пользователи {} и {} теперь друзья", id, friendId);
+		} else {
+			log.debug("Пользователи {} и {} уже друзья", id, friendId);
+		}
+	}
+
+	@DeleteMapping("/{id}/friends/{friendId}")
+	public void removeFriend(@PathVariable long id, @PathVariable long friendId) {
+		checkExists(id);
+		checkExists(friendId);
+		if (friendStorage.removeFriend(id, friendId)) {
+			log.debug("Пользователи {} и {} больше не друзья", id, friendId);
+		} else {
+			log.debug("Пользователи {} и {} не были друзьями", id, friendId);
+		}
 	}
 
 	@PostMapping
 	public User addUser(@Valid @RequestBody User user) {
 		try {
-			long newId = getNextId();
-			user.setId(newId);
-			if (user.getName() == null || user.getName().trim().isEmpty()) {
-				user.setName(user.getLogin());
-			}
-			users.put(newId, user);
-			log.info("Пользователь создан ID: {}, логин: {},", newId, user.getLogin());
-			return user;
+			ModelRules.fillNameFromLogin(user);
+			User created = userStorage.create(user);
+			catalogueChanges.usersChanged(List.of(created));
+			log.debug("Пользователь создан ID: {}, логин: {},", created.getId(), created.getLogin());
+			return created;
 		} catch (ValidationException e) {
-			log.warn("Ошибка при создании пользователя: {} ", e.getMessage());
+			rejections.warn("Ошибка при создании пользователя: {} ", e.getMessage());
 			throw e;
 		}
 	}
 
 	@PutMapping
-	public User updateUser(@Valid @RequestBody User newUser) {
+	public ResponseEntity<User> updateUser(@Valid @RequestBody User newUser,
+		@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 		if (newUser.getId() == null) {
-			log.warn("Попытка обновления пользователя без указания Id.");
+			rejections.warn("Попытка обновления пользователя без указания Id.");
 			throw new ValidationException("Id должен быть указан.");
 		}
-		if (!users.containsKey(newUser.getId())) {
-			log.warn("Пользователь с ID: {} не найден", newUser.getId());
-			throw new NotFoundException("Пользователь с ID " + newUser.getId() + " не найден.");
-		}
-		User oldUser = users.get(newUser.getId());
 		try {
-			oldUser.setName(newUser.getName());
-			if (newUser.getName() == null || newUser.getName().trim().isEmpty()) {
-				newUser.setName(newUser.getLogin());
-			}
-			oldUser.setLogin(newUser.getLogin());
-			oldUser.setEmail(newUser.getEmail());
-			oldUser.setBirthday(newUser.getBirthday());
+			ModelRules.fillNameFromLogin(newUser);
+			ModelRules.applyIfMatch(ifMatch, newUser::setVersion);
+			User updated = userStorage.update(newUser);
+			catalogueChanges.usersChanged(List.of(updated));
 
-			log.info("Пользователь обновлён. ID: {}, Новое имя: {}", newUser.getId(), oldUser.getName());
-			return oldUser;
+			log.debug("Пользователь обновлён. ID: {}, версия: {}, новое имя: {}", updated.getId(), updated.getVersion(),
+				updated.getName());
+			return ResponseEntity.ok()
+				.eTag(String.valueOf(updated.getVersion()))
+				.body(updated);
 		} catch (ValidationException e) {
-			log.warn("Ошибка при обновлении пользователя c ID: {}: {}", newUser.getId(), e.getMessage());
+			rejections.warn("Ошибка при обновлении пользователя c ID: {}: {}", newUser.getId(), e.getMessage());
 			throw e;
 		}
 	}
 
-	private long getNextId() {
-		long currentMaxId = users.keySet()
-			.stream()
-			.mapToLong(id -> id)
-			.max()
-			.orElse(0);
-		return ++currentMaxId;
+	@PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public List<BatchItemResult<User>> addUsers(@RequestBody List<User> users) {
+		return createUsers(users);
+	}
+
+	@PostMapping(path = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+	public List<BatchItemResult<User>> addUsersNdjson(InputStream body) {
+		return createUsers(batchSupport.readNdjson(body, User.class));
+	}
+
+	@PutMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public List<BatchItemResult<User>> updateUsers(@RequestBody List<User> users) {
+		return replaceUsers(users);
+	}
+
+	@PutMapping(path = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+	public List<BatchItemResult<User>> updateUsersNdjson(InputStream body) {
+		return replaceUsers(batchSupport.readNdjson(body, User.class));
+	}
+
+	private List<BatchItemResult<User>> createUsers(List<User> users) {
+		// Повторы внутри пакета отклоняем здесь, чтобы создание остальных пользователей не упало целиком
+		Set<String> logins = new HashSet<>();
+		Set<String> emails = new HashSet<>();
+		List<BatchItemResult<User>> results = batchSupport.createAll(users, user -> {
+			ModelRules.fillNameFromLogin(user);
+			ModelRules.checkUnique(userStorage, user, logins, emails);
+		}, valid -> {
+			List<User> created = userStorage.createAll(valid);
+			catalogueChanges.usersChanged(created);
+			return created;
+		});
+		log.debug("Пакетное создание пользователей. Получено: {}, создано: {}", users.size(), BatchSupport.countOk(results));
+		return results;
+	}
+
+	private List<BatchItemResult<User>> replaceUsers(List<User> users) {
+		List<BatchItemResult<User>> results = batchSupport.updateEach(users, user -> {
+			if (user.getId() == null) {
+				throw new ValidationException("Id должен быть указан.");
+			}
+			ModelRules.fillNameFromLogin(user);
+		}, user -> {
+			User updated = userStorage.update(user);
+			catalogueChanges.usersChanged(List.of(updated));
+			return updated;
+		});
+		log.debug("Пакетное обновление пользователей. Получено: {}, обновлено: {}", users.size(), BatchSupport.countOk(results));
+		return results;
 	}
-}
 
+	private void checkExists(long id) {
+		if (userStorage.findById(id).isEmpty()) {
+			throw new NotFoundException("Пользователь с ID " + id + " не найден.");
+		}
+	}
+
+	private List<User> users(long[] ids) {
+		List<User> users = new ArrayList<>(ids.length);
+		for (long id : ids) {
+			userStorage.findById(id).ifPresent(users::add);
+		}
+		return users;
+	}
+}
 
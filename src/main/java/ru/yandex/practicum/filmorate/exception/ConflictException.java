@@ -0,0 +1,8 @@
+package ru.yandex.practicum.filmorate.exception;
+
+// Без стека вызовов, как и остальные исключения отказа: см. ValidationException
+public class ConflictException extends RuntimeException {
+	public ConflictException(String message) {
+		super(message, null, false, false);
+	}
+}
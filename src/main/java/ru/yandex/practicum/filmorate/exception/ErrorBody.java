@@ -0,0 +1,5 @@
+package ru.yandex.practicum.filmorate.exception;
+
+// Тело ответа об отказе: {"status": 404, "error": "Not Found", "message": "..."}
+public record ErrorBody(int status, String error, String message) {
+}
@@ -1,7 +1,8 @@
 package ru.yandex.practicum.filmorate.exception;
 
+// Без стека вызовов, как и остальные исключения отказа: см. ValidationException
 public class NotFoundException extends RuntimeException {
 	public NotFoundException(String message) {
-		super(message);
+		super(message, null, false, false);
 	}
 }
@@ -2,9 +2,11 @@ package ru.yandex.practicum.filmorate.exception;
 
 import lombok.Getter;
 
+// Отказ в обработке запроса, а не ошибка программы: клиент получает только сообщение, а стек вызовов
+// никто не читает. Заполнение стека дороже всего остального отказа, поэтому оно отключено
 @Getter
 public class ValidationException extends RuntimeException {
 	public ValidationException(String message) {
-		super(message);
+		super(message, null, false, false);
 	}
 }
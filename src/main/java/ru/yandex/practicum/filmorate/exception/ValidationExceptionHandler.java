@@ -1,35 +1,85 @@
 package ru.yandex.practicum.filmorate.exception;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
-
-import java.util.HashMap;
-import java.util.Map;
+import ru.yandex.practicum.filmorate.cache.TinyLfuCache;
 
 @RestControllerAdvice
 public class ValidationExceptionHandler {
 
+	// Клиенты, которые повторяют один и тот же неверный запрос, получают готовый неизменяемый ответ.
+	// В сообщения попадают идентификаторы и значения из запроса, поэтому готовые ответы лежат в TinyLfuCache:
+	// поток отказов с разными id вытесняется сам, не занимая место ответов, которые запрашивают повторно
+	static final int MAX_CACHED_RESPONSES = 1024;
+
+	private final Rejections validationFailures;
+	private final Rejections notFound;
+	private final Rejections conflicts;
+
+	public ValidationExceptionHandler(MeterRegistry meterRegistry) {
+		validationFailures = new Rejections(meterRegistry, HttpStatus.BAD_REQUEST, ValidationException.class);
+		notFound = new Rejections(meterRegistry, HttpStatus.NOT_FOUND, NotFoundException.class);
+		conflicts = new Rejections(meterRegistry, HttpStatus.CONFLICT, ConflictException.class);
+	}
+
 	@ExceptionHandler(ValidationException.class)
-	public ResponseEntity<Map<String, Object>> handleValidationException(ValidationException ex) {
-		Map<String, Object> body = new HashMap<>();
-		body.put("status", HttpStatus.BAD_REQUEST.value());
-		body.put("error", "Bad Request");
-		body.put("message", ex.getMessage());
-		return ResponseEntity
-			.status(HttpStatus.BAD_REQUEST)
-			.body(body);
+	public ResponseEntity<ErrorBody> handleValidationException(ValidationException ex) {
+		return validationFailures.respond(ex.getMessage());
 	}
 
 	@ExceptionHandler(NotFoundException.class)
-	public ResponseEntity<Map<String, Object>> handleNotFoundException(NotFoundException ex) {
-		Map<String, Object> body = new HashMap<>();
-		body.put("status", HttpStatus.NOT_FOUND.value());
-		body.put("error", "Not Found");
-		body.put("message", ex.getMessage());
-		return ResponseEntity
-			.status(HttpStatus.NOT_FOUND)
-			.body(body);
+	public ResponseEntity<ErrorBody> handleNotFoundException(NotFoundException ex) {
+		return notFound.respond(ex.getMessage());
+	}
+
+	@ExceptionHandler(ConflictException.class)
+	public ResponseEntity<ErrorBody> handleConflictException(ConflictException ex) {
+		return conflicts.respond(ex.getMessage());
+	}
+
+	// Счётчик и готовые ответы для одного кода ответа
+	private static final class Rejections {
+
+		private final HttpStatus status;
+		private final Counter counter;
+		private final TinyLfuCache<ResponseEntity<ErrorBody>> responses = new TinyLfuCache<>(MAX_CACHED_RESPONSES);
+
+		Rejections(MeterRegistry meterRegistry, HttpStatus status, Class<?> exception) {
+			this.status = status;
+			this.counter = Counter.builder("filmorate.request.rejections")
+				.description("Запросы, отклонённые обработчиком исключений")
+				.tag("status", String.valueOf(status.value()))
+				.tag("exception", exception.getSimpleName())
+				.register(meterRegistry);
+		}
+
+		ResponseEntity<ErrorBody> respond(String message) {
+			counter.increment();
+			if (message == null) {
+				return build(null);
+			}
+			// Ключ кэша - хеш сообщения; при совпадении хешей разных сообщений ответ строится заново
+			long key = key(message);
+			ResponseEntity<ErrorBody> response = responses.get(key);
+			if (response == null || !message.equals(response.getBody().message())) {
+				response = build(message);
+				responses.put(key, response);
+			}
+			return response;
+		}
+
+		private static long key(String message) {
+			return (long) message.hashCode() << 32 | message.length();
+		}
+
+		private ResponseEntity<ErrorBody> build(String message) {
+			return ResponseEntity
+				.status(status)
+				.body(new ErrorBody(status.value(), status.getReasonPhrase(), message));
+		}
 	}
-}
\ No newline at end of file
+}
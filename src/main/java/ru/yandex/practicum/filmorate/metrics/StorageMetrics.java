@@ -0,0 +1,49 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.IdSequence;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+// Размеры хранилищ и выделение идентификаторов. Значения читаются только при сборе метрик,
+// на пути запроса остаются лишь счётчики самой IdSequence
+@Component
+@RequiredArgsConstructor
+public class StorageMetrics implements MeterBinder {
+
+	private final FilmStorage filmStorage;
+	private final UserStorage userStorage;
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		bind(registry, "films", filmStorage::size, filmStorage.idSequence());
+		bind(registry, "users", userStorage::size, userStorage.idSequence());
+	}
+
+	private static void bind(MeterRegistry registry, String entity, IntSupplier size, IdSequence ids) {
+		Gauge.builder("filmorate.storage.size", size, IntSupplier::getAsInt)
+			.description("Число записей в хранилище")
+			.tag("entity", entity)
+			// Лямбда нигде больше не хранится, слабая ссылка на неё обнулилась бы при первой сборке мусора
+			.strongReference(true)
+			.register(registry);
+		FunctionCounter.builder("filmorate.storage.id.allocations", ids, IdSequence::allocationCount)
+			.description("Вызовы выделения идентификаторов (одиночных и блоками)")
+			.tag("entity", entity)
+			.register(registry);
+		FunctionTimer.builder("filmorate.storage.id.allocation", ids, IdSequence::sampledAllocationCount,
+				sequence -> sequence.sampledAllocationTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)
+			.description("Время выделения идентификатора по выборке из каждого 64-го вызова")
+			.tag("entity", entity)
+			.register(registry);
+	}
+}
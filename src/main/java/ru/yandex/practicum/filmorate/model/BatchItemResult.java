@@ -0,0 +1,26 @@
+package ru.yandex.practicum.filmorate.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult<T> {
+
+	private int index;
+	private int status;
+	private T item;
+	private String error;
+
+	public static <T> BatchItemResult<T> ok(int index, T item) {
+		return new BatchItemResult<>(index, 200, item, null);
+	}
+
+	public static <T> BatchItemResult<T> failed(int index, int status, String error) {
+		return new BatchItemResult<>(index, status, null, error);
+	}
+}
@@ -0,0 +1,48 @@
+package ru.yandex.practicum.filmorate.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+
+// Изменение фильма или пользователя в ленте /changes: полное состояние после изменения.
+// Порядковые номера (seq) растут строго монотонно, версии одной сущности в ленте - тоже.
+// Промежуточная версия может быть пропущена, если её успело обогнать другое обновление.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeEvent {
+
+	public static final String FILM = "film";
+	public static final String USER = "user";
+	public static final String CREATE = "create";
+	public static final String UPDATE = "update";
+
+	private long seq;
+	private String entity;
+	private String operation;
+	private Instant time;
+	private Film film;
+	private User user;
+
+	// Момент публикации по System.nanoTime - для замера задержки доставки внутри процесса
+	@JsonIgnore
+	private long publishedNanos;
+
+	// Событие в JSON: сериализуется один раз и отправляется всем подписчикам
+	@JsonIgnore
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private volatile String json;
+
+	public ChangeEvent(long seq, String entity, String operation, Instant time, Film film, User user,
+		long publishedNanos) {
+		this(seq, entity, operation, time, film, user, publishedNanos, null);
+	}
+}
@@ -0,0 +1,19 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Ответ GET /changes: события после since по порядку и номер, с которого продолжать (last).
+// gap = true - часть событий уже вытеснена из буфера, и клиенту нужно перечитать каталог целиком
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangePage {
+
+	private List<ChangeEvent> events;
+	private long last;
+	private boolean gap;
+}
@@ -4,11 +4,17 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 
 @Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
 public class Film {
 
 	private static final LocalDate MIN_DATE = LocalDate.of(1895, 12, 28);
@@ -27,6 +33,9 @@ public class Film {
 	@Min(value = 1, message = "Продолжительность фильма не может быть отрицательной или нулевой.")
 	private long duration;
 
+	// Увеличивается при каждом обновлении; если задана в PUT, обновление пройдёт только при совпадении
+	private Long version;
+
 	public static LocalDate getMinDate() {
 		return MIN_DATE;
 	}
@@ -0,0 +1,82 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+// Параметры отбора фильмов в GET /films; пустые поля не ограничивают выборку
+@Data
+public class FilmQuery {
+
+	public static final String SORT_ID = "id";
+	public static final String SORT_RELEASE_DATE = "releaseDate";
+	public static final String SORT_DURATION = "duration";
+	public static final String ORDER_ASC = "asc";
+	public static final String ORDER_DESC = "desc";
+
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate releasedFrom;
+
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+	private LocalDate releasedTo;
+
+	private Long minDuration;
+	private Long maxDuration;
+	private String sortBy;
+	private String order;
+
+	public boolean isSpecified() {
+		return releasedFrom != null || releasedTo != null || minDuration != null || maxDuration != null
+			|| sortBy != null || order != null;
+	}
+
+	public String sortField() {
+		return sortBy == null ? SORT_ID : sortBy;
+	}
+
+	public boolean isDescending() {
+		return ORDER_DESC.equals(order);
+	}
+
+	public boolean hasReleaseBounds() {
+		return releasedFrom != null || releasedTo != null;
+	}
+
+	public boolean hasDurationBounds() {
+		return minDuration != null || maxDuration != null;
+	}
+
+	// Границы даты релиза в днях от эпохи, включительно; без границы - предельные значения long
+	public long[] releaseDayBounds() {
+		return new long[] {
+			releasedFrom == null ? Long.MIN_VALUE : releasedFrom.toEpochDay(),
+			releasedTo == null ? Long.MAX_VALUE : releasedTo.toEpochDay()
+		};
+	}
+
+	public long[] durationBounds() {
+		return new long[] {
+			minDuration == null ? Long.MIN_VALUE : minDuration,
+			maxDuration == null ? Long.MAX_VALUE : maxDuration
+		};
+	}
+
+	public boolean matches(Film film) {
+		return (releasedFrom == null || !film.getReleaseDate().isBefore(releasedFrom))
+			&& (releasedTo == null || !film.getReleaseDate().isAfter(releasedTo))
+			&& (minDuration == null || film.getDuration() >= minDuration)
+			&& (maxDuration == null || film.getDuration() <= maxDuration);
+	}
+
+	public Comparator<Film> comparator() {
+		Comparator<Film> byId = Comparator.comparing(Film::getId);
+		Comparator<Film> comparator = switch (sortField()) {
+			case SORT_RELEASE_DATE -> Comparator.comparing(Film::getReleaseDate).thenComparing(byId);
+			case SORT_DURATION -> Comparator.comparingLong(Film::getDuration).thenComparing(byId);
+			default -> byId;
+		};
+		return isDescending() ? comparator.reversed() : comparator;
+	}
+}
@@ -0,0 +1,32 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Итог импорта каталога: прочитанные, созданные и отклонённые строки и первые ошибки с номерами строк файла.
+// complete = false - файл не дочитан из-за ошибки разбора; созданное до неё остаётся в каталоге
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReport {
+
+	private long read;
+	private long imported;
+	private long rejected;
+	private boolean complete;
+	private long millis;
+	private List<RowError> errors;
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class RowError {
+
+		private long line;
+		private int status;
+		private String error;
+	}
+}
@@ -1,11 +1,17 @@
 package ru.yandex.practicum.filmorate.model;
 
 import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 
 @Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
 public class User {
 
 	private Long id;
@@ -23,5 +29,8 @@ public class User {
 	@NotNull(message = "Дата рождения обязательна")
 	@Past(message = "Дата рождения не может быть в будущем")
 	private LocalDate birthday;
+
+	// Версия назначается хранилищем, как у Film
+	private Long version;
 }
 
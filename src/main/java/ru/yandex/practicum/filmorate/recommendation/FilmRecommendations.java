@@ -0,0 +1,305 @@
+package ru.yandex.practicum.filmorate.recommendation;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.cache.TinyLfuCache;
+import ru.yandex.practicum.filmorate.storage.like.LikeStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Рекомендации по схожести вкусов: фильмы, которые лайкнули соседи пользователя и не лайкнул он сам.
+// Соседи - пользователи с наибольшим косинусным сходством лайков: общие лайки / sqrt(лайков у одного
+// * лайков у другого). Общие лайки считаются по спискам лайкнувших каждый фильм пользователя;
+// фильмы больше чем с maxLikers лайками пропускаются - о вкусе они говорят мало, а их списки длиннее всех.
+// Подсчёт общих лайков и выбор соседей делятся на подзадачи fork-join.
+// Кэшируются соседи и число общих лайков с каждым. Лайк или его отмена удаляет из кэша тех, у кого
+// изменились общие лайки: самого пользователя и всех, кто лайкнул тот же фильм, - и следующий запрос
+// пересчитывает только их. Устаревшие соседи в кэш не попадают так же, как в FilmResponseCache:
+// удаление увеличивает счётчик полосы пользователя, а вычисливший соседей запрос перепроверяет его после вставки.
+// Лайки соседей и их сходство пересчитываются при каждом запросе: лайк соседа другому фильму меняет
+// знаменатель сходства у всех, для кого он сосед, и такие записи кэша не сбрасываются.
+// Сам набор соседей при этом остаётся прежним до следующего сброса.
+@Component
+public class FilmRecommendations {
+
+	private static final int STRIPES = 64;
+	// Фильмов на подзадачу подсчёта общих лайков и кандидатов на подзадачу выбора соседей
+	private static final int FILMS_PER_TASK = 8;
+	private static final int CANDIDATES_PER_TASK = 4096;
+
+	private final LikeStorage likeStorage;
+	private final ForkJoinPool pool;
+	private final int neighbourCount;
+	private final int maxLikers;
+	private final TinyLfuCache<Neighbours> cache;
+	private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+	private final Timer search;
+
+	public FilmRecommendations(LikeStorage likeStorage, MeterRegistry meterRegistry,
+		@Value("${filmorate.recommendations.parallelism:0}") int parallelism,
+		@Value("${filmorate.recommendations.neighbours:50}") int neighbourCount,
+		@Value("${filmorate.recommendations.max-likers:10000}") int maxLikers,
+		@Value("${filmorate.recommendations.max-entries:10000}") int maxEntries) {
+		this.likeStorage = likeStorage;
+		this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+		this.neighbourCount = neighbourCount;
+		this.maxLikers = maxLikers;
+		this.cache = new TinyLfuCache<>(maxEntries);
+		this.search = Timer.builder("filmorate.recommendations.neighbours")
+			.description("Поиск соседей пользователя при промахе кэша")
+			.publishPercentiles(0.5, 0.99)
+			.register(meterRegistry);
+		Gauge.builder("filmorate.recommendations.cache.size", cache, TinyLfuCache::size)
+			.description("Пользователи с найденными соседями в кэше")
+			.register(meterRegistry);
+	}
+
+	// До count фильмов по убыванию суммы сходства лайкнувших их соседей, при равенстве - по возрастанию id
+	public List<Long> recommend(long userId, int count) {
+		Neighbours neighbours = neighbours(userId);
+		long[] liked = likeStorage.findLikedFilmIds(userId);
+		Map<Long, Double> scores = new HashMap<>();
+		for (int i = 0; i < neighbours.ids.length; i++) {
+			long[] neighbourLiked = likeStorage.findLikedFilmIds(neighbours.ids[i]);
+			if (neighbourLiked.length == 0) {
+				continue;
+			}
+			double similarity = neighbours.coLikes[i] / Math.sqrt((double) liked.length * neighbourLiked.length);
+			for (long filmId : neighbourLiked) {
+				if (Arrays.binarySearch(liked, filmId) < 0) {
+					scores.merge(filmId, similarity, Double::sum);
+				}
+			}
+		}
+		Ranked films = new Ranked(count);
+		scores.forEach(films::offer);
+		List<Long> recommended = new ArrayList<>(films.size);
+		for (int i = 0; i < films.size; i++) {
+			recommended.add(films.ids[i]);
+		}
+		return recommended;
+	}
+
+	// Вызывается после того, как лайк пользователя фильму добавлен или снят
+	public void likeChanged(long userId, long filmId) {
+		invalidate(userId);
+		// Фильм влияет на соседей, пока у него не больше maxLikers лайков - до изменения или после
+		if (likeStorage.countLikes(filmId) <= maxLikers + 1) {
+			for (long likerId : likeStorage.findLikerIds(filmId)) {
+				invalidate(likerId);
+			}
+		}
+	}
+
+	@PreDestroy
+	public void stop() {
+		pool.shutdownNow();
+	}
+
+	private Neighbours neighbours(long userId) {
+		Neighbours cached = cache.get(userId);
+		if (cached != null) {
+			return cached;
+		}
+		int stripe = stripe(userId);
+		long version = versions.get(stripe);
+		long start = System.nanoTime();
+		long[] films = Arrays.stream(likeStorage.findLikedFilmIds(userId))
+			.filter(filmId -> likeStorage.countLikes(filmId) <= maxLikers)
+			.toArray();
+		CoLikes coLikes = pool.invoke(new CountCoLikes(films, 0, films.length));
+		Ranked best = pool.invoke(new SelectNeighbours(userId, likeStorage.countLikedFilms(userId), coLikes,
+			0, coLikes.size));
+		Neighbours found = Neighbours.of(best, coLikes);
+		search.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		cache.put(userId, found);
+		if (versions.get(stripe) != version) {
+			cache.invalidate(userId);
+		}
+		return found;
+	}
+
+	private void invalidate(long userId) {
+		versions.incrementAndGet(stripe(userId));
+		cache.invalidate(userId);
+	}
+
+	private static int stripe(long userId) {
+		return (int) (userId & (STRIPES - 1));
+	}
+
+	// Число общих лайков с каждым пользователем: id по возрастанию и счётчики
+	private record CoLikes(long[] ids, int[] counts, int size) {
+
+		static CoLikes merge(CoLikes left, CoLikes right) {
+			long[] ids = new long[left.size + right.size];
+			int[] counts = new int[ids.length];
+			int size = 0;
+			int i = 0;
+			int j = 0;
+			while (i < left.size || j < right.size) {
+				if (j == right.size || i < left.size && left.ids[i] < right.ids[j]) {
+					ids[size] = left.ids[i];
+					counts[size++] = left.counts[i++];
+				} else if (i == left.size || right.ids[j] < left.ids[i]) {
+					ids[size] = right.ids[j];
+					counts[size++] = right.counts[j++];
+				} else {
+					ids[size] = left.ids[i];
+					counts[size++] = left.counts[i++] + right.counts[j++];
+				}
+			}
+			return new CoLikes(ids, counts, size);
+		}
+	}
+
+	// Соседи в порядке убывания сходства на момент поиска и число общих лайков с каждым
+	private record Neighbours(long[] ids, int[] coLikes) {
+
+		static Neighbours of(Ranked best, CoLikes coLikes) {
+			long[] ids = Arrays.copyOf(best.ids, best.size);
+			int[] counts = new int[ids.length];
+			for (int i = 0; i < ids.length; i++) {
+				counts[i] = coLikes.counts[Arrays.binarySearch(coLikes.ids, 0, coLikes.size, ids[i])];
+			}
+			return new Neighbours(ids, counts);
+		}
+	}
+
+	// Списки лайкнувших фильмы [from, to) сливаются в один массив, сортируются и сворачиваются в счётчики
+	private class CountCoLikes extends RecursiveTask<CoLikes> {
+
+		private final long[] films;
+		private final int from;
+		private final int to;
+
+		CountCoLikes(long[] films, int from, int to) {
+			this.films = films;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected CoLikes compute() {
+			if (to - from > FILMS_PER_TASK) {
+				int middle = (from + to) >>> 1;
+				CountCoLikes left = new CountCoLikes(films, from, middle);
+				left.fork();
+				CoLikes right = new CountCoLikes(films, middle, to).compute();
+				return CoLikes.merge(left.join(), right);
+			}
+			long[][] likers = new long[to - from][];
+			int total = 0;
+			for (int i = from; i < to; i++) {
+				likers[i - from] = likeStorage.findLikerIds(films[i]);
+				total += likers[i - from].length;
+			}
+			long[] ids = new long[total];
+			int offset = 0;
+			for (long[] filmLikers : likers) {
+				System.arraycopy(filmLikers, 0, ids, offset, filmLikers.length);
+				offset += filmLikers.length;
+			}
+			Arrays.sort(ids);
+			int[] counts = new int[total];
+			int size = 0;
+			for (int i = 0; i < total; i++) {
+				if (size > 0 && ids[size - 1] == ids[i]) {
+					counts[size - 1]++;
+				} else {
+					ids[size] = ids[i];
+					counts[size++] = 1;
+				}
+			}
+			return new CoLikes(ids, counts, size);
+		}
+	}
+
+	// Лучшие neighbourCount соседей среди кандидатов [from, to)
+	private class SelectNeighbours extends RecursiveTask<Ranked> {
+
+		private final long userId;
+		private final int userLikes;
+		private final CoLikes coLikes;
+		private final int from;
+		private final int to;
+
+		SelectNeighbours(long userId, int userLikes, CoLikes coLikes, int from, int to) {
+			this.userId = userId;
+			this.userLikes = userLikes;
+			this.coLikes = coLikes;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Ranked compute() {
+			if (to - from > CANDIDATES_PER_TASK) {
+				int middle = (from + to) >>> 1;
+				SelectNeighbours left = new SelectNeighbours(userId, userLikes, coLikes, from, middle);
+				left.fork();
+				Ranked right = new SelectNeighbours(userId, userLikes, coLikes, middle, to).compute();
+				return Ranked.merge(left.join(), right);
+			}
+			Ranked best = new Ranked(neighbourCount);
+			for (int i = from; i < to; i++) {
+				long candidate = coLikes.ids[i];
+				int candidateLikes = likeStorage.countLikedFilms(candidate);
+				if (candidate != userId && candidateLikes > 0) {
+					best.offer(candidate, coLikes.counts[i] / Math.sqrt((double) userLikes * candidateLikes));
+				}
+			}
+			return best;
+		}
+	}
+
+	// Не больше limit пар (id, оценка) по убыванию оценки, при равенстве - по возрастанию id
+	private static final class Ranked {
+
+		private final long[] ids;
+		private final double[] scores;
+		private int size;
+
+		Ranked(int limit) {
+			ids = new long[limit];
+			scores = new double[limit];
+		}
+
+		void offer(long id, double score) {
+			if (size == ids.length && !better(id, score, ids[size - 1], scores[size - 1])) {
+				return;
+			}
+			int index = size == ids.length ? size - 1 : size++;
+			while (index > 0 && better(id, score, ids[index - 1], scores[index - 1])) {
+				ids[index] = ids[index - 1];
+				scores[index] = scores[index - 1];
+				index--;
+			}
+			ids[index] = id;
+			scores[index] = score;
+		}
+
+		static Ranked merge(Ranked left, Ranked right) {
+			for (int i = 0; i < right.size; i++) {
+				left.offer(right.ids[i], right.scores[i]);
+			}
+			return left;
+		}
+
+		private static boolean better(long id, double score, long otherId, double otherScore) {
+			return score > otherScore || score == otherScore && id < otherId;
+		}
+	}
+}
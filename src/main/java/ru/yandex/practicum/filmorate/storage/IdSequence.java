@@ -0,0 +1,59 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class IdSequence {
+
+	// Время выделения замеряется у каждого 64-го вызова: сам замер дороже инкремента
+	private static final int TIMING_SAMPLE_MASK = 63;
+
+	private final AtomicLong current = new AtomicLong();
+	private final LongAdder allocations = new LongAdder();
+	private final LongAdder sampledAllocations = new LongAdder();
+	private final LongAdder sampledNanos = new LongAdder();
+
+	public long next() {
+		return nextBlock(1);
+	}
+
+	// Резервирует сразу size идентификаторов подряд и возвращает первый из них (hi-lo)
+	public long nextBlock(int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException("Размер блока должен быть положительным: " + size);
+		}
+		allocations.increment();
+		if ((ThreadLocalRandom.current().nextInt() & TIMING_SAMPLE_MASK) != 0) {
+			return current.getAndAdd(size) + 1;
+		}
+		long start = System.nanoTime();
+		long first = current.getAndAdd(size) + 1;
+		sampledNanos.add(System.nanoTime() - start);
+		sampledAllocations.increment();
+		return first;
+	}
+
+	// Гарантирует, что последовательность не выдаст уже занятый id (например, после загрузки данных)
+	public void advanceTo(long id) {
+		current.accumulateAndGet(id, Math::max);
+	}
+
+	public long current() {
+		return current.get();
+	}
+
+	// Число вызовов next и nextBlock
+	public long allocationCount() {
+		return allocations.sum();
+	}
+
+	public long sampledAllocationCount() {
+		return sampledAllocations.sum();
+	}
+
+	public double sampledAllocationTime(TimeUnit unit) {
+		return sampledNanos.sum() / (double) unit.toNanos(1);
+	}
+}
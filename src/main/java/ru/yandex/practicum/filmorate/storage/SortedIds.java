@@ -0,0 +1,125 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.Arrays;
+
+// Множества идентификаторов в виде отсортированных массивов long без повторов.
+// Массивы не изменяются: insert и remove возвращают новую копию (или тот же массив, если менять нечего)
+public final class SortedIds {
+
+	public static final long[] EMPTY = new long[0];
+
+	// Во сколько раз больший массив должен превосходить меньший, чтобы пересекать их не слиянием,
+	// а пропуском блоков или двоичным поиском с галопом
+	private static final int SKIP_RATIO = 4;
+	private static final int GALLOP_RATIO = 32;
+	private static final int SKIP_BLOCK = 8;
+
+	private SortedIds() {
+	}
+
+	public static long[] insert(long[] ids, long id) {
+		int index = Arrays.binarySearch(ids, id);
+		if (index >= 0) {
+			return ids;
+		}
+		index = -index - 1;
+		long[] result = new long[ids.length + 1];
+		System.arraycopy(ids, 0, result, 0, index);
+		result[index] = id;
+		System.arraycopy(ids, index, result, index + 1, ids.length - index);
+		return result;
+	}
+
+	public static long[] remove(long[] ids, long id) {
+		int index = Arrays.binarySearch(ids, id);
+		if (index < 0) {
+			return ids;
+		}
+		if (ids.length == 1) {
+			return EMPTY;
+		}
+		long[] result = new long[ids.length - 1];
+		System.arraycopy(ids, 0, result, 0, index);
+		System.arraycopy(ids, index + 1, result, index, ids.length - index - 1);
+		return result;
+	}
+
+	public static long[] intersect(long[] first, long[] second) {
+		long[] small = first.length <= second.length ? first : second;
+		long[] large = small == first ? second : first;
+		if (small.length == 0) {
+			return EMPTY;
+		}
+		long[] result = new long[small.length];
+		int ratio = large.length / small.length;
+		int size;
+		if (ratio >= GALLOP_RATIO) {
+			size = gallop(small, large, result);
+		} else if (ratio >= SKIP_RATIO) {
+			size = skipMerge(small, large, result);
+		} else {
+			size = merge(small, large, result);
+		}
+		return size == result.length ? result : Arrays.copyOf(result, size);
+	}
+
+	private static int merge(long[] small, long[] large, long[] result) {
+		int size = 0;
+		int i = 0;
+		int j = 0;
+		while (i < small.length && j < large.length) {
+			long a = small[i];
+			long b = large[j];
+			result[size] = a;
+			size += a == b ? 1 : 0;
+			i += a <= b ? 1 : 0;
+			j += a >= b ? 1 : 0;
+		}
+		return size;
+	}
+
+	// Большой массив просматривается по порядку блоками по SKIP_BLOCK элементов: блок, целиком меньший
+	// очередного элемента, пропускается одним сравнением, внутри блока поиск линейный
+	private static int skipMerge(long[] small, long[] large, long[] result) {
+		int size = 0;
+		int j = 0;
+		for (long id : small) {
+			while (j + SKIP_BLOCK <= large.length && large[j + SKIP_BLOCK - 1] < id) {
+				j += SKIP_BLOCK;
+			}
+			while (j < large.length && large[j] < id) {
+				j++;
+			}
+			if (j == large.length) {
+				break;
+			}
+			result[size] = id;
+			size += large[j] == id ? 1 : 0;
+		}
+		return size;
+	}
+
+	// Для каждого элемента меньшего массива позиция в большем ищется от предыдущей найденной:
+	// шаг удваивается, пока не перешагнёт элемент, затем двоичный поиск внутри последнего шага
+	private static int gallop(long[] small, long[] large, long[] result) {
+		int size = 0;
+		int from = 0;
+		for (long id : small) {
+			int bound = 1;
+			while (from + bound < large.length && large[from + bound] < id) {
+				bound <<= 1;
+			}
+			int index = Arrays.binarySearch(large, from + (bound >> 1), Math.min(from + bound + 1, large.length), id);
+			if (index >= 0) {
+				result[size++] = id;
+				from = index + 1;
+			} else {
+				from = -index - 1;
+			}
+			if (from >= large.length) {
+				break;
+			}
+		}
+		return size;
+	}
+}
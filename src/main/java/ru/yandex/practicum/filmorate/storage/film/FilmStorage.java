@@ -0,0 +1,42 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmQuery;
+import ru.yandex.practicum.filmorate.storage.IdSequence;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface FilmStorage {
+
+	Collection<Film> findAll();
+
+	// Страница по возрастанию id, начиная со следующего после after
+	List<Film> findPage(long after, int limit);
+
+	Optional<Film> findById(long id);
+
+	// Первые limit фильмов, подходящих под query, в порядке query.comparator().
+	// Реализации идут по индексам даты релиза и продолжительности, а не по всему каталогу
+	List<Film> findByQuery(FilmQuery query, int limit);
+
+	// Созданные фильмы получают версию 1
+	Film create(Film film);
+
+	// Создаёт все элементы, выделяя им идентификаторы одним блоком
+	List<Film> createAll(List<Film> films);
+
+	// Если у film задана версия, фильм заменяется только при совпадении с текущей версией,
+	// иначе ConflictException. Возвращает сохранённый фильм с версией на единицу больше прежней
+	Film update(Film film);
+
+	// Кладёт фильм с id и версией, назначенными ведущим узлом, если сохранённая копия старше.
+	// false - уже сохранена та же или более новая версия. Используется репликой, у которой нет своих записей
+	boolean replicate(Film film);
+
+	int size();
+
+	// Последовательность идентификаторов хранилища; нужна для метрик выделения id
+	IdSequence idSequence();
+}
@@ -0,0 +1,48 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+// Первые limit подходящих элементов в порядке id, когда условие ограничивает проиндексированное поле.
+// Идём одновременно по диапазону индекса (держа в куче limit лучших по id) и по каталогу в порядке id,
+// отбирая подходящие. Останавливаемся, как только диапазон исчерпан или в каталоге набралось limit элементов:
+// узкий диапазон дочитывается быстро, а широкий почти сразу даёт страницу при обходе каталога.
+// Работа - не больше удвоенной длины более короткого из двух путей.
+final class IdOrderScan {
+
+	private IdOrderScan() {
+	}
+
+	// range выдаёт null вместо устаревших записей индекса; matches проверяется для обоих путей
+	static <T> List<T> firstMatches(Iterator<T> range, Iterator<T> ordered, Predicate<T> matches,
+		Comparator<T> order, int limit) {
+		PriorityQueue<T> best = new PriorityQueue<>(limit + 1, order.reversed());
+		List<T> walked = new ArrayList<>(limit);
+		while (range.hasNext()) {
+			T candidate = range.next();
+			if (candidate != null && matches.test(candidate)) {
+				best.add(candidate);
+				if (best.size() > limit) {
+					best.poll();
+				}
+			}
+			if (!ordered.hasNext()) {
+				return walked;
+			}
+			T next = ordered.next();
+			if (next != null && matches.test(next)) {
+				walked.add(next);
+				if (walked.size() == limit) {
+					return walked;
+				}
+			}
+		}
+		List<T> result = new ArrayList<>(best);
+		result.sort(order);
+		return result;
+	}
+}
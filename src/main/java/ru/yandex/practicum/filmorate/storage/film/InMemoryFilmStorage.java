@@ -0,0 +1,288 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmQuery;
+import ru.yandex.practicum.filmorate.storage.IdSequence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+// Сохранённые объекты не изменяются: при обновлении в мапу атомарно кладётся новая копия.
+// Мапа упорядочена по id, что позволяет отдавать каталог страницами без сортировки.
+// Дата релиза и продолжительность дополнительно проиндексированы упорядоченными множествами пар (ключ, id).
+// Обновление - сравнение с обменом (replace(id, прежний, новый)) без блокировок: из конкурирующих
+// обновлений одной версии проходит только одно, остальные перечитывают фильм или получают конфликт версий.
+// Индексы после обмена приводятся к текущему фильму под блокировкой его полосы;
+// читатели блокировок не берут и отбрасывают записи индекса, которые уже не совпадают с фильмом.
+// При сортировке по id индекс и мапа просматриваются одновременно (IdOrderScan), без сортировки всего диапазона.
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryFilmStorage implements FilmStorage {
+
+	private static final int STRIPES = 64;
+
+	private final ConcurrentNavigableMap<Long, Film> films = new ConcurrentSkipListMap<>();
+	private final ConcurrentSkipListSet<IndexEntry> byReleaseDate = new ConcurrentSkipListSet<>();
+	private final ConcurrentSkipListSet<IndexEntry> byDuration = new ConcurrentSkipListSet<>();
+	private final Lock[] stripes = new Lock[STRIPES];
+	private final IdSequence ids = new IdSequence();
+
+	public InMemoryFilmStorage() {
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+	}
+
+	@Override
+	public Collection<Film> findAll() {
+		return Collections.unmodifiableCollection(films.values());
+	}
+
+	@Override
+	public List<Film> findPage(long after, int limit) {
+		return films.tailMap(after, false)
+			.values()
+			.stream()
+			.limit(limit)
+			.toList();
+	}
+
+	@Override
+	public Optional<Film> findById(long id) {
+		return Optional.ofNullable(films.get(id));
+	}
+
+	@Override
+	public List<Film> findByQuery(FilmQuery query, int limit) {
+		String sortField = query.sortField();
+		if (FilmQuery.SORT_RELEASE_DATE.equals(sortField)
+			|| FilmQuery.SORT_ID.equals(sortField) && query.hasReleaseBounds()) {
+			return scanIndex(byReleaseDate, query.releaseDayBounds(), InMemoryFilmStorage::releaseDate, query, limit);
+		}
+		if (FilmQuery.SORT_DURATION.equals(sortField) || query.hasDurationBounds()) {
+			return scanIndex(byDuration, query.durationBounds(), Film::getDuration, query, limit);
+		}
+		Collection<Film> ordered = query.isDescending() ? films.descendingMap().values() : films.values();
+		return ordered.stream()
+			.filter(query::matches)
+			.limit(limit)
+			.toList();
+	}
+
+	@Override
+	public Film create(Film film) {
+		Film created = film.toBuilder()
+			.id(ids.next())
+			.version(1L)
+			.build();
+		put(created);
+		return created;
+	}
+
+	@Override
+	public List<Film> createAll(List<Film> newFilms) {
+		if (newFilms.isEmpty()) {
+			return List.of();
+		}
+		long id = ids.nextBlock(newFilms.size());
+		List<Film> created = new ArrayList<>(newFilms.size());
+		for (Film film : newFilms) {
+			Film copy = film.toBuilder()
+				.id(id++)
+				.version(1L)
+				.build();
+			put(copy);
+			created.add(copy);
+		}
+		return created;
+	}
+
+	@Override
+	public Film update(Film film) {
+		long id = film.getId();
+		while (true) {
+			Film old = films.get(id);
+			if (old == null) {
+				throw new NotFoundException("Фильм с ID " + id + " не найден.");
+			}
+			if (film.getVersion() != null && !film.getVersion().equals(old.getVersion())) {
+				throw new ConflictException("Фильм с ID " + id + " уже изменён: текущая версия " + old.getVersion()
+					+ ", в запросе " + film.getVersion() + ".");
+			}
+			Film updated = film.toBuilder()
+				.version(old.getVersion() + 1)
+				.build();
+			if (films.replace(id, old, updated)) {
+				reindex(id, old);
+				return updated;
+			}
+		}
+	}
+
+	@Override
+	public boolean replicate(Film film) {
+		Lock lock = stripe(film.getId());
+		lock.lock();
+		try {
+			Film old = films.get(film.getId());
+			if (old != null && old.getVersion() >= film.getVersion()) {
+				return false;
+			}
+			reindex(films.put(film.getId(), film), film);
+		} finally {
+			lock.unlock();
+		}
+		ids.advanceTo(film.getId());
+		return true;
+	}
+
+	// Кладёт уже существующий объект (с id) - используется при загрузке данных с диска
+	public void restore(Film film) {
+		// В журналах, записанных до появления версий, версии нет
+		put(film.getVersion() == null ? film.toBuilder().version(1L).build() : film);
+		ids.advanceTo(film.getId());
+	}
+
+	// Возвращает фильм к previous (null - убирает его), если в мапе всё ещё лежит current.
+	// Нужен журналу: изменение, которое не удалось записать на диск, не должно оставаться видимым
+	public boolean rollback(Film current, Film previous) {
+		long id = current.getId();
+		Lock lock = stripe(id);
+		lock.lock();
+		try {
+			if (previous != null) {
+				if (!films.replace(id, current, previous)) {
+					return false;
+				}
+				reindex(current, previous);
+				return true;
+			}
+			if (!films.remove(id, current)) {
+				return false;
+			}
+			byReleaseDate.remove(new IndexEntry(releaseDate(current), id));
+			byDuration.remove(new IndexEntry(current.getDuration(), id));
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public int size() {
+		return films.size();
+	}
+
+	@Override
+	public IdSequence idSequence() {
+		return ids;
+	}
+
+	private void put(Film film) {
+		Lock lock = stripe(film.getId());
+		lock.lock();
+		try {
+			reindex(films.put(film.getId(), film), film);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Индексирует фильм, который сейчас лежит в мапе, и убирает записи заменённого old.
+	// Индексирует не результат своего обмена, а текущий фильм: если несколько обменов прошли подряд,
+	// последний по порядку блокировки всё равно оставит записи только для текущего значения
+	private void reindex(long id, Film old) {
+		Lock lock = stripe(id);
+		lock.lock();
+		try {
+			reindex(old, films.get(id));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Сначала добавляем новую запись, потом удаляем старую, чтобы фильм не пропадал из выборок
+	private void reindex(Film old, Film updated) {
+		long id = updated.getId();
+		long releaseDate = releaseDate(updated);
+		long duration = updated.getDuration();
+		byReleaseDate.add(new IndexEntry(releaseDate, id));
+		byDuration.add(new IndexEntry(duration, id));
+		if (old != null) {
+			if (releaseDate(old) != releaseDate) {
+				byReleaseDate.remove(new IndexEntry(releaseDate(old), id));
+			}
+			if (old.getDuration() != duration) {
+				byDuration.remove(new IndexEntry(old.getDuration(), id));
+			}
+		}
+	}
+
+	private List<Film> scanIndex(ConcurrentSkipListSet<IndexEntry> index, long[] bounds, ToLongFunction<Film> key,
+		FilmQuery query, int limit) {
+		NavigableSet<IndexEntry> range = index.subSet(
+			new IndexEntry(bounds[0], Long.MIN_VALUE), true,
+			new IndexEntry(bounds[1], Long.MAX_VALUE), true);
+		Iterator<Film> indexed = new Iterator<>() {
+			private final Iterator<IndexEntry> entries = (FilmQuery.SORT_ID.equals(query.sortField())
+				|| !query.isDescending() ? range : range.descendingSet()).iterator();
+
+			@Override
+			public boolean hasNext() {
+				return entries.hasNext();
+			}
+
+			// Запись индекса, которая уже не совпадает с фильмом, даёт null
+			@Override
+			public Film next() {
+				IndexEntry entry = entries.next();
+				Film film = films.get(entry.id());
+				return film == null || key.applyAsLong(film) != entry.key() ? null : film;
+			}
+		};
+		if (FilmQuery.SORT_ID.equals(query.sortField())) {
+			Collection<Film> ordered = query.isDescending() ? films.descendingMap().values() : films.values();
+			return IdOrderScan.firstMatches(indexed, ordered.iterator(), query::matches, query.comparator(), limit);
+		}
+		List<Film> result = new ArrayList<>();
+		while (indexed.hasNext() && result.size() < limit) {
+			Film film = indexed.next();
+			if (film != null && query.matches(film)) {
+				result.add(film);
+			}
+		}
+		return result;
+	}
+
+	private Lock stripe(long id) {
+		return stripes[(int) (id & (STRIPES - 1))];
+	}
+
+	private static long releaseDate(Film film) {
+		return film.getReleaseDate().toEpochDay();
+	}
+
+	private record IndexEntry(long key, long id) implements Comparable<IndexEntry> {
+
+		@Override
+		public int compareTo(IndexEntry other) {
+			int byKey = Long.compare(key, other.key);
+			return byKey != 0 ? byKey : Long.compare(id, other.id);
+		}
+	}
+}
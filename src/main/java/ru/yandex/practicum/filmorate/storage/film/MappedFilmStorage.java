@@ -0,0 +1,473 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmQuery;
+import ru.yandex.practicum.filmorate.storage.IdSequence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
+
+// Фильмы хранятся вне кучи, в файлах, отображённых в память.
+// films.dat - записи фиксированного размера, запись фильма с id N лежит в слоте N - 1:
+//   int    дата релиза (epoch day)
+//   int    1, если слот занят
+//   long   продолжительность
+//   long   ссылка на название: смещение в strings.dat (старшие 40 бит) и длина в байтах (младшие 24 бита)
+//   long   ссылка на описание в том же формате, -1 для null
+//   long   версия
+// strings.dat - строки в UTF-8, только дописываются; при обновлении старые строки не освобождаются.
+// Объекты Film создаются только при чтении. Файлы не переживают перезапуск: при старте они очищаются.
+// Запись, в том числе проверка версии при обновлении, идёт под блокировкой записи:
+// слот из нескольких полей нельзя заменить одним обменом.
+// Дата релиза и продолжительность проиндексированы в куче (SlotIndex, около 8 байт на фильм в каждом индексе).
+// Запрос по диапазону идёт под блокировкой чтения: условия проверяются по полям слота,
+// объекты Film создаются только для фильмов страницы ответа.
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "mmap")
+public class MappedFilmStorage implements FilmStorage, Closeable {
+
+	private static final int SLOT_SIZE = 40;
+	private static final int SLOTS_PER_CHUNK = 1 << 20;
+	private static final int RECORD_CHUNK_SIZE = SLOT_SIZE * SLOTS_PER_CHUNK;
+	private static final int STRING_CHUNK_SIZE = 64 << 20;
+	private static final int LENGTH_BITS = 24;
+	private static final long MAX_STRING_LENGTH = (1L << LENGTH_BITS) - 1;
+	private static final long NULL_REF = -1;
+
+	private final FileChannel records;
+	private final FileChannel strings;
+	private final IdSequence ids = new IdSequence();
+	private final StampedLock lock = new StampedLock();
+	private final SlotIndex byReleaseDate = new SlotIndex();
+	private final SlotIndex byDuration = new SlotIndex();
+
+	// Массивы заменяются целиком под блокировкой записи, читатели берут текущую ссылку
+	private volatile MappedByteBuffer[] recordChunks = new MappedByteBuffer[0];
+	private volatile MappedByteBuffer[] stringChunks = new MappedByteBuffer[0];
+	private long stringsEnd;
+	private volatile int count;
+
+	public MappedFilmStorage(@Value("${filmorate.mmap.directory:data/mmap}") Path directory) throws IOException {
+		Files.createDirectories(directory);
+		records = open(directory.resolve("films.dat"));
+		strings = open(directory.resolve("strings.dat"));
+	}
+
+	@Override
+	public Collection<Film> findAll() {
+		return new AbstractCollection<>() {
+			@Override
+			public Iterator<Film> iterator() {
+				return new FilmIterator(1);
+			}
+
+			@Override
+			public int size() {
+				return count;
+			}
+		};
+	}
+
+	@Override
+	public List<Film> findPage(long after, int limit) {
+		List<Film> page = new ArrayList<>(limit);
+		FilmIterator films = new FilmIterator(Math.max(after, 0) + 1);
+		while (page.size() < limit && films.hasNext()) {
+			page.add(films.next());
+		}
+		return page;
+	}
+
+	@Override
+	public Optional<Film> findById(long id) {
+		return Optional.ofNullable(read(id));
+	}
+
+	@Override
+	public List<Film> findByQuery(FilmQuery query, int limit) {
+		long stamp = lock.readLock();
+		try {
+			List<Film> result = new ArrayList<>();
+			for (long id : findIds(query, limit)) {
+				result.add(readSlot(id));
+			}
+			return result;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public Film create(Film film) {
+		checkFits(film);
+		long stamp = lock.writeLock();
+		try {
+			long id = ids.next();
+			write(id, film, 1);
+			count++;
+			return film.toBuilder().id(id).version(1L).build();
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public List<Film> createAll(List<Film> newFilms) {
+		if (newFilms.isEmpty()) {
+			return List.of();
+		}
+		newFilms.forEach(MappedFilmStorage::checkFits);
+		List<Film> created = new ArrayList<>(newFilms.size());
+		long stamp = lock.writeLock();
+		try {
+			long id = ids.nextBlock(newFilms.size());
+			for (Film film : newFilms) {
+				write(id, film, 1);
+				count++;
+				created.add(film.toBuilder().id(id++).version(1L).build());
+			}
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+		return created;
+	}
+
+	@Override
+	public Film update(Film film) {
+		checkFits(film);
+		long stamp = lock.writeLock();
+		try {
+			if (!isPresent(film.getId())) {
+				throw new NotFoundException("Фильм с ID " + film.getId() + " не найден.");
+			}
+			long version = recordChunks[chunkOf(film.getId())].getLong(slotPosition(film.getId()) + 32);
+			if (film.getVersion() != null && film.getVersion() != version) {
+				throw new ConflictException("Фильм с ID " + film.getId() + " уже изменён: текущая версия " + version
+					+ ", в запросе " + film.getVersion() + ".");
+			}
+			write(film.getId(), film, version + 1);
+			return film.toBuilder().version(version + 1).build();
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public boolean replicate(Film film) {
+		checkFits(film);
+		long stamp = lock.writeLock();
+		try {
+			boolean present = isPresent(film.getId());
+			if (present && recordChunks[chunkOf(film.getId())].getLong(slotPosition(film.getId()) + 32)
+				>= film.getVersion()) {
+				return false;
+			}
+			write(film.getId(), film, film.getVersion());
+			if (!present) {
+				count++;
+			}
+			// Итератор каталога идёт до последнего выданного id; у реплики id приходят с ведущего узла
+			ids.advanceTo(film.getId());
+			return true;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public int size() {
+		return count;
+	}
+
+	@Override
+	public IdSequence idSequence() {
+		return ids;
+	}
+
+	@Override
+	public void close() throws IOException {
+		records.close();
+		strings.close();
+	}
+
+	// Вызывается под блокировкой чтения. Выбор индекса - как в InMemoryFilmStorage
+	private List<Long> findIds(FilmQuery query, int limit) {
+		String sortField = query.sortField();
+		boolean byId = FilmQuery.SORT_ID.equals(sortField);
+		long[] release = query.releaseDayBounds();
+		long[] duration = query.durationBounds();
+		Predicate<Long> matches = id -> matches(id, release, duration);
+		Iterator<Long> range;
+		if (FilmQuery.SORT_RELEASE_DATE.equals(sortField) || byId && query.hasReleaseBounds()) {
+			range = byReleaseDate.range(release[0], release[1], !byId && query.isDescending());
+		} else if (FilmQuery.SORT_DURATION.equals(sortField) || query.hasDurationBounds()) {
+			range = byDuration.range(duration[0], duration[1], !byId && query.isDescending());
+		} else {
+			range = new SlotIds(query.isDescending());
+		}
+		if (byId) {
+			Comparator<Long> order = query.isDescending() ? Comparator.reverseOrder() : Comparator.naturalOrder();
+			return IdOrderScan.firstMatches(range, new SlotIds(query.isDescending()), matches, order, limit);
+		}
+		List<Long> result = new ArrayList<>();
+		while (range.hasNext() && result.size() < limit) {
+			Long id = range.next();
+			if (matches.test(id)) {
+				result.add(id);
+			}
+		}
+		return result;
+	}
+
+	// Проверка условий запроса по полям слота, без чтения строк
+	private boolean matches(long id, long[] release, long[] duration) {
+		if (!isPresent(id)) {
+			return false;
+		}
+		MappedByteBuffer chunk = recordChunks[chunkOf(id)];
+		int position = slotPosition(id);
+		long epochDay = chunk.getInt(position);
+		long filmDuration = chunk.getLong(position + 8);
+		return epochDay >= release[0] && epochDay <= release[1]
+			&& filmDuration >= duration[0] && filmDuration <= duration[1];
+	}
+
+	// Чтение без блокировки; если во время чтения была запись, повторяем под блокировкой чтения
+	private Film read(long id) {
+		long stamp = lock.tryOptimisticRead();
+		if (stamp != 0) {
+			try {
+				Film film = readSlot(id);
+				if (lock.validate(stamp)) {
+					return film;
+				}
+			} catch (RuntimeException e) {
+				// Слот прочитан во время записи, значения в нём несогласованы
+			}
+		}
+		stamp = lock.readLock();
+		try {
+			return readSlot(id);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	private Film readSlot(long id) {
+		MappedByteBuffer[] chunks = recordChunks;
+		if (id < 1 || id > (long) chunks.length * SLOTS_PER_CHUNK) {
+			return null;
+		}
+		MappedByteBuffer chunk = chunks[chunkOf(id)];
+		int position = slotPosition(id);
+		if (chunk.getInt(position + 4) != 1) {
+			return null;
+		}
+		int epochDay = chunk.getInt(position);
+		long duration = chunk.getLong(position + 8);
+		long nameRef = chunk.getLong(position + 16);
+		long descriptionRef = chunk.getLong(position + 24);
+		long version = chunk.getLong(position + 32);
+		String name = readString(nameRef);
+		String description = readString(descriptionRef);
+		if (name == null) {
+			// Прочитан наполовину записанный слот, результат будет отброшен при validate
+			return null;
+		}
+		return Film.builder()
+			.id(id)
+			.name(name)
+			.description(description)
+			.releaseDate(LocalDate.ofEpochDay(epochDay))
+			.duration(duration)
+			.version(version)
+			.build();
+	}
+
+	private boolean isPresent(Long id) {
+		MappedByteBuffer[] chunks = recordChunks;
+		return id != null && id >= 1 && id <= (long) chunks.length * SLOTS_PER_CHUNK
+			&& chunks[chunkOf(id)].getInt(slotPosition(id) + 4) == 1;
+	}
+
+	// Длина строки хранится в младших LENGTH_BITS битах ссылки. Проверка идёт до выделения id и записи:
+	// слишком длинное название даёт 400, а пакет не остаётся записанным наполовину
+	private static void checkFits(Film film) {
+		checkFits("Название", film.getName());
+		checkFits("Описание", film.getDescription());
+	}
+
+	private static void checkFits(String field, String value) {
+		// В UTF-8 символ char занимает не больше 3 байт, поэтому короткие строки не кодируются
+		if (value != null && (long) value.length() * 3 > MAX_STRING_LENGTH
+			&& value.getBytes(StandardCharsets.UTF_8).length > MAX_STRING_LENGTH) {
+			throw new ValidationException(field + " не может быть длиннее " + MAX_STRING_LENGTH + " байт в UTF-8.");
+		}
+	}
+
+	// Вызывается только под блокировкой записи
+	private void write(long id, Film film, long version) {
+		while (chunkOf(id) >= recordChunks.length) {
+			recordChunks = grow(records, recordChunks, RECORD_CHUNK_SIZE);
+		}
+		long nameRef = writeString(film.getName());
+		long descriptionRef = writeString(film.getDescription());
+		MappedByteBuffer chunk = recordChunks[chunkOf(id)];
+		int position = slotPosition(id);
+		if (chunk.getInt(position + 4) == 1) {
+			byReleaseDate.remove(chunk.getInt(position), id);
+			byDuration.remove(chunk.getLong(position + 8), id);
+		}
+		byReleaseDate.add(film.getReleaseDate().toEpochDay(), id);
+		byDuration.add(film.getDuration(), id);
+		chunk.putInt(position, (int) film.getReleaseDate().toEpochDay());
+		chunk.putLong(position + 8, film.getDuration());
+		chunk.putLong(position + 16, nameRef);
+		chunk.putLong(position + 24, descriptionRef);
+		chunk.putLong(position + 32, version);
+		chunk.putInt(position + 4, 1);
+	}
+
+	private long writeString(String value) {
+		if (value == null) {
+			return NULL_REF;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > MAX_STRING_LENGTH || bytes.length > STRING_CHUNK_SIZE) {
+			throw new IllegalArgumentException("Строка слишком длинная для хранения: " + bytes.length + " байт");
+		}
+		// Строка не должна пересекать границу чанка
+		long chunkEnd = (stringsEnd / STRING_CHUNK_SIZE + 1) * STRING_CHUNK_SIZE;
+		if (stringsEnd + bytes.length > chunkEnd) {
+			stringsEnd = chunkEnd;
+		}
+		while (stringsEnd + bytes.length > (long) stringChunks.length * STRING_CHUNK_SIZE) {
+			stringChunks = grow(strings, stringChunks, STRING_CHUNK_SIZE);
+		}
+		long offset = stringsEnd;
+		stringChunks[(int) (offset / STRING_CHUNK_SIZE)].put((int) (offset % STRING_CHUNK_SIZE), bytes);
+		stringsEnd += bytes.length;
+		return offset << LENGTH_BITS | bytes.length;
+	}
+
+	private String readString(long ref) {
+		if (ref == NULL_REF) {
+			return null;
+		}
+		long offset = ref >>> LENGTH_BITS;
+		int length = (int) (ref & MAX_STRING_LENGTH);
+		MappedByteBuffer[] chunks = stringChunks;
+		int chunk = (int) (offset / STRING_CHUNK_SIZE);
+		int position = (int) (offset % STRING_CHUNK_SIZE);
+		if (ref < 0 || chunk >= chunks.length || position + length > STRING_CHUNK_SIZE) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		chunks[chunk].get(position, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private MappedByteBuffer[] grow(FileChannel channel, MappedByteBuffer[] chunks, int chunkSize) {
+		try {
+			MappedByteBuffer[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+			grown[chunks.length] = channel.map(FileChannel.MapMode.READ_WRITE, (long) chunks.length * chunkSize,
+				chunkSize);
+			return grown;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static FileChannel open(Path path) throws IOException {
+		return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE,
+			StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	private static int chunkOf(long id) {
+		return (int) ((id - 1) / SLOTS_PER_CHUNK);
+	}
+
+	private static int slotPosition(long id) {
+		return (int) ((id - 1) % SLOTS_PER_CHUNK) * SLOT_SIZE;
+	}
+
+	// id слотов каталога по возрастанию или убыванию, занятые и пустые; пустые отсеивает matches.
+	// Вызывается под блокировкой чтения
+	private class SlotIds implements Iterator<Long> {
+
+		private final boolean descending;
+		private long nextId;
+
+		SlotIds(boolean descending) {
+			this.descending = descending;
+			nextId = descending ? ids.current() : 1;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return descending ? nextId >= 1 : nextId <= ids.current();
+		}
+
+		@Override
+		public Long next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return descending ? nextId-- : nextId++;
+		}
+	}
+
+	private class FilmIterator implements Iterator<Film> {
+
+		private long nextId;
+		private Film next;
+
+		FilmIterator(long fromId) {
+			nextId = fromId;
+		}
+
+		@Override
+		public boolean hasNext() {
+			long lastId = ids.current();
+			while (next == null && nextId <= lastId) {
+				next = read(nextId++);
+			}
+			return next != null;
+		}
+
+		@Override
+		public Film next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Film film = next;
+			next = null;
+			return film;
+		}
+	}
+}
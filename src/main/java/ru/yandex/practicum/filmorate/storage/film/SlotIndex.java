@@ -0,0 +1,87 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+// Индекс MappedFilmStorage по одному полю слота: значение (дата релиза в днях или продолжительность) ->
+// отсортированные id фильмов. id лежат в растущих массивах long, а не в объектах-записях, поэтому
+// на фильм приходится около 8 байт кучи, и сами фильмы при поиске по диапазону не создаются.
+// Не потокобезопасен: хранилище меняет его под блокировкой записи и читает под блокировкой чтения
+final class SlotIndex {
+
+	private final TreeMap<Long, Ids> ids = new TreeMap<>();
+
+	void add(long key, long id) {
+		ids.computeIfAbsent(key, ignored -> new Ids()).add(id);
+	}
+
+	void remove(long key, long id) {
+		Ids keyIds = ids.get(key);
+		if (keyIds != null && keyIds.remove(id) && keyIds.size == 0) {
+			ids.remove(key);
+		}
+	}
+
+	// id в диапазоне значений [from, to] по возрастанию значения, при равенстве - по возрастанию id;
+	// descending - в обратном порядке
+	Iterator<Long> range(long from, long to, boolean descending) {
+		NavigableMap<Long, Ids> keys = ids.subMap(from, true, to, true);
+		Iterator<Ids> groups = (descending ? keys.descendingMap() : keys).values().iterator();
+		return new Iterator<>() {
+			private Ids group;
+			private int index;
+
+			@Override
+			public boolean hasNext() {
+				while ((group == null || index == group.size) && groups.hasNext()) {
+					group = groups.next();
+					index = 0;
+				}
+				return group != null && index < group.size;
+			}
+
+			@Override
+			public Long next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				int position = index++;
+				return group.ids[descending ? group.size - 1 - position : position];
+			}
+		};
+	}
+
+	private static final class Ids {
+
+		private long[] ids = new long[4];
+		private int size;
+
+		// id новых фильмов растут, поэтому обычно это добавление в конец без сдвига
+		void add(long id) {
+			int index = size == 0 || ids[size - 1] < id ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+			if (index >= 0) {
+				return;
+			}
+			index = -index - 1;
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			System.arraycopy(ids, index, ids, index + 1, size - index);
+			ids[index] = id;
+			size++;
+		}
+
+		boolean remove(long id) {
+			int index = Arrays.binarySearch(ids, 0, size, id);
+			if (index < 0) {
+				return false;
+			}
+			System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+			size--;
+			return true;
+		}
+	}
+}
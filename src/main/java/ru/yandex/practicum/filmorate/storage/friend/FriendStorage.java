@@ -0,0 +1,20 @@
+package ru.yandex.practicum.filmorate.storage.friend;
+
+// Дружба взаимна: addFriend и removeFriend меняют списки обоих пользователей
+public interface FriendStorage {
+
+	// false - если пользователи уже друзья
+	boolean addFriend(long userId, long friendId);
+
+	// false - если пользователи не были друзьями
+	boolean removeFriend(long userId, long friendId);
+
+	// Идентификаторы друзей по возрастанию
+	long[] findFriendIds(long userId);
+
+	// Идентификаторы общих друзей по возрастанию
+	long[] findCommonFriendIds(long userId, long otherId);
+
+	// Число ссылок в списках друзей всех пользователей (каждая дружба учитывается дважды)
+	long countEdges();
+}
@@ -0,0 +1,131 @@
+package ru.yandex.practicum.filmorate.storage.friend;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.SortedIds;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Списки друзей - неизменяемые отсортированные массивы long (8 байт на ссылку вместо узла HashSet
+// и объекта Long). Изменение заменяет массивы обоих пользователей под блокировками их полос,
+// а чтения и пересечения идут без блокировок по тем массивам, что лежат в мапе на момент чтения.
+// При filmorate.storage.type=journal друзей хранит JournaledFriendStorage поверх этого класса.
+@Component
+@ConditionalOnExpression("'${filmorate.storage.type:memory}' == 'memory' or '${filmorate.storage.type:memory}' == 'mmap'")
+public class InMemoryFriendStorage implements FriendStorage {
+
+	private static final int STRIPES = 64;
+
+	private final ConcurrentHashMap<Long, long[]> friends = new ConcurrentHashMap<>();
+	private final Lock[] stripes = new Lock[STRIPES];
+	private final LongAdder edges = new LongAdder();
+
+	public InMemoryFriendStorage() {
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+	}
+
+	@Override
+	public boolean addFriend(long userId, long friendId) {
+		Lock[] locks = lockBoth(userId, friendId);
+		try {
+			long[] current = findFriendsOf(userId);
+			long[] updated = SortedIds.insert(current, friendId);
+			if (updated == current) {
+				return false;
+			}
+			friends.put(userId, updated);
+			friends.put(friendId, SortedIds.insert(findFriendsOf(friendId), userId));
+			edges.add(2);
+			return true;
+		} finally {
+			unlock(locks);
+		}
+	}
+
+	@Override
+	public boolean removeFriend(long userId, long friendId) {
+		Lock[] locks = lockBoth(userId, friendId);
+		try {
+			long[] current = findFriendsOf(userId);
+			long[] updated = SortedIds.remove(current, friendId);
+			if (updated == current) {
+				return false;
+			}
+			replace(userId, updated);
+			replace(friendId, SortedIds.remove(findFriendsOf(friendId), userId));
+			edges.add(-2);
+			return true;
+		} finally {
+			unlock(locks);
+		}
+	}
+
+	@Override
+	public long[] findFriendIds(long userId) {
+		return findFriendsOf(userId).clone();
+	}
+
+	@Override
+	public long[] findCommonFriendIds(long userId, long otherId) {
+		return SortedIds.intersect(findFriendsOf(userId), findFriendsOf(otherId));
+	}
+
+	@Override
+	public long countEdges() {
+		return edges.sum();
+	}
+
+	// Заменяет список друзей одного пользователя - так загружается строка снимка журнала.
+	// Список второй стороны каждой дружбы приходит своей строкой
+	public void restore(long userId, long[] friendIds) {
+		Lock lock = stripes[stripe(userId)];
+		lock.lock();
+		try {
+			long[] previous = findFriendsOf(userId);
+			replace(userId, friendIds);
+			edges.add(friendIds.length - previous.length);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private long[] findFriendsOf(long userId) {
+		return friends.getOrDefault(userId, SortedIds.EMPTY);
+	}
+
+	private void replace(long userId, long[] ids) {
+		if (ids.length == 0) {
+			friends.remove(userId);
+		} else {
+			friends.put(userId, ids);
+		}
+	}
+
+	// Полосы берутся по возрастанию номера, чтобы встречные изменения не заблокировали друг друга
+	private Lock[] lockBoth(long userId, long friendId) {
+		int first = stripe(userId);
+		int second = stripe(friendId);
+		Lock[] locks = first == second
+			? new Lock[] {stripes[first]}
+			: new Lock[] {stripes[Math.min(first, second)], stripes[Math.max(first, second)]};
+		for (Lock lock : locks) {
+			lock.lock();
+		}
+		return locks;
+	}
+
+	private static void unlock(Lock[] locks) {
+		for (int i = locks.length - 1; i >= 0; i--) {
+			locks[i].unlock();
+		}
+	}
+
+	private static int stripe(long id) {
+		return (int) (id & (STRIPES - 1));
+	}
+}
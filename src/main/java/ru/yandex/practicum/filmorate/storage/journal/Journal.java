@@ -0,0 +1,368 @@
+package ru.yandex.practicum.filmorate.storage.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Журнал изменений (write-ahead log) в виде сегментов NDJSON и снимок состояния.
+// Все записи на диск делает один поток: он собирает накопившиеся записи в группу
+// и подтверждает их одним fsync, чтобы не платить за синхронизацию на каждую запись.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "journal")
+public class Journal implements Closeable {
+
+	private static final String SEGMENT_PREFIX = "journal-";
+	private static final String SEGMENT_SUFFIX = ".log";
+	private static final String SNAPSHOT_FILE = "snapshot.ndjson";
+
+	private final Path directory;
+	private final int groupCommitMaxRecords;
+	private final long groupCommitDelayNanos;
+	private final ObjectWriter writer;
+	private final ObjectReader reader;
+	private final ObjectMapper objectMapper;
+	private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+	private final AtomicLong recordsSinceSnapshot = new AtomicLong();
+	private final ReadWriteLock changes = new ReentrantReadWriteLock();
+	private final Thread flusher;
+
+	// Меняются только потоком flusher
+	private volatile long segment;
+	private FileChannel channel;
+
+	public Journal(@Value("${filmorate.journal.directory:data/journal}") Path directory,
+		@Value("${filmorate.journal.group-commit-max-records:256}") int groupCommitMaxRecords,
+		@Value("${filmorate.journal.group-commit-delay:1ms}") Duration groupCommitDelay,
+		ObjectMapper objectMapper) throws IOException {
+		this.directory = directory;
+		this.groupCommitMaxRecords = groupCommitMaxRecords;
+		this.groupCommitDelayNanos = groupCommitDelay.toNanos();
+		this.objectMapper = objectMapper;
+		this.writer = objectMapper.writerFor(JournalRecord.class);
+		this.reader = objectMapper.readerFor(JournalRecord.class);
+
+		Files.createDirectories(directory);
+		segment = lastSegment() + 1;
+		channel = openSegment(segment);
+		flusher = new Thread(this::flushLoop, "journal-flusher");
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+
+	// Изменение хранилища держит эту блокировку от изменения в памяти до подтверждения записи или отката.
+	// Снимок берёт её исключительную часть: иначе в него попало бы изменение, которое потом откатится
+	public Lock changes() {
+		return changes.readLock();
+	}
+
+	Lock snapshotLock() {
+		return changes.writeLock();
+	}
+
+	// Запись считается сохранённой, когда возвращённый future завершится
+	public CompletableFuture<Long> append(JournalRecord record) {
+		Entry entry = new Entry(Kind.RECORD, record, new CompletableFuture<>());
+		queue.add(entry);
+		return entry.done;
+	}
+
+	// Закрывает текущий сегмент и начинает новый; возвращает номер закрытого сегмента
+	public CompletableFuture<Long> rotate() {
+		Entry entry = new Entry(Kind.ROTATE, null, new CompletableFuture<>());
+		queue.add(entry);
+		return entry.done;
+	}
+
+	public static void await(CompletableFuture<?> written) {
+		try {
+			written.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof UncheckedIOException io) {
+				throw io;
+			}
+			throw e;
+		}
+	}
+
+	public long recordsSinceSnapshot() {
+		return recordsSinceSnapshot.get();
+	}
+
+	// Проигрывает снимок и все сегменты после него в порядке записи
+	public void replay(Consumer<JournalRecord> consumer) throws IOException {
+		long covered = 0;
+		Path snapshot = directory.resolve(SNAPSHOT_FILE);
+		if (Files.exists(snapshot)) {
+			try (BufferedReader lines = Files.newBufferedReader(snapshot, StandardCharsets.UTF_8)) {
+				covered = objectMapper.readTree(lines.readLine()).get("segment").asLong();
+				String line;
+				while ((line = lines.readLine()) != null) {
+					consumer.accept(reader.readValue(line));
+				}
+			}
+		}
+		for (long number : segments()) {
+			if (number > covered && number < segment) {
+				replaySegment(number, consumer);
+			}
+		}
+	}
+
+	// Пишет снимок, покрывающий сегменты до covered включительно, и удаляет эти сегменты
+	public void writeSnapshot(long covered, Stream<JournalRecord> records) throws IOException {
+		Path tmp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+		try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+			StandardOpenOption.TRUNCATE_EXISTING);
+			 BufferedWriter lines = new BufferedWriter(Channels.newWriter(out, StandardCharsets.UTF_8), 1 << 16)) {
+			lines.write("{\"segment\":" + covered + "}\n");
+			for (JournalRecord record : (Iterable<JournalRecord>) records::iterator) {
+				lines.write(writer.writeValueAsString(record));
+				lines.write('\n');
+			}
+			lines.flush();
+			out.force(true);
+		}
+		Files.move(tmp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE,
+			StandardCopyOption.REPLACE_EXISTING);
+		for (long number : segments()) {
+			if (number <= covered) {
+				Files.deleteIfExists(segmentPath(number));
+			}
+		}
+	}
+
+	void snapshotWritten(long records) {
+		recordsSinceSnapshot.addAndGet(-records);
+	}
+
+	@Override
+	public void close() {
+		Entry entry = new Entry(Kind.CLOSE, null, new CompletableFuture<>());
+		queue.add(entry);
+		try {
+			entry.done.get(10, TimeUnit.SECONDS);
+		} catch (Exception e) {
+			log.warn("Журнал не был корректно закрыт: {}", e.getMessage());
+		}
+	}
+
+	// Сегмент декодируется с заменой некорректных байтов: запись, оборванная посреди многобайтового символа,
+	// должна дойти до разбора JSON и быть пропущена как недописанная, а не остановить запуск
+	private void replaySegment(long number, Consumer<JournalRecord> consumer) throws IOException {
+		try (BufferedReader lines = new BufferedReader(new InputStreamReader(Files.newInputStream(segmentPath(number)),
+			StandardCharsets.UTF_8))) {
+			String line;
+			long lineNumber = 0;
+			while ((line = lines.readLine()) != null) {
+				lineNumber++;
+				JournalRecord record;
+				try {
+					record = reader.readValue(line);
+				} catch (IOException e) {
+					if (lines.readLine() == null) {
+						// Недописанная запись в конце сегмента: сбой случился до fsync
+						log.warn("Пропущена недописанная запись в конце сегмента {}", number);
+						return;
+					}
+					throw new IOException("Повреждён сегмент журнала " + number + ", строка " + lineNumber, e);
+				}
+				consumer.accept(record);
+				recordsSinceSnapshot.incrementAndGet();
+			}
+		}
+	}
+
+	private void flushLoop() {
+		List<Entry> group = new ArrayList<>(groupCommitMaxRecords);
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 16);
+		while (true) {
+			try {
+				collectGroup(group);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			boolean closed = writeGroup(group, buffer);
+			group.clear();
+			if (closed) {
+				return;
+			}
+		}
+	}
+
+	private void collectGroup(List<Entry> group) throws InterruptedException {
+		group.add(queue.take());
+		queue.drainTo(group, groupCommitMaxRecords - group.size());
+		if (groupCommitDelayNanos <= 0) {
+			return;
+		}
+		long deadline = System.nanoTime() + groupCommitDelayNanos;
+		while (group.size() < groupCommitMaxRecords && group.get(group.size() - 1).kind == Kind.RECORD) {
+			Entry next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+			if (next == null) {
+				return;
+			}
+			group.add(next);
+			queue.drainTo(group, groupCommitMaxRecords - group.size());
+		}
+	}
+
+	// Возвращает true, если журнал закрыт
+	private boolean writeGroup(List<Entry> group, ByteArrayOutputStream buffer) {
+		List<Entry> pending = new ArrayList<>(group.size());
+		for (Entry entry : group) {
+			try {
+				if (entry.kind == Kind.RECORD) {
+					writer.writeValue(buffer, entry.record);
+					buffer.write('\n');
+					pending.add(entry);
+					continue;
+				}
+				sync(buffer, pending);
+				if (entry.kind == Kind.ROTATE) {
+					channel.close();
+					long closed = segment++;
+					channel = openSegment(segment);
+					entry.done.complete(closed);
+				} else {
+					channel.close();
+					entry.done.complete(segment);
+					return true;
+				}
+			} catch (IOException e) {
+				log.error("Ошибка записи журнала в сегмент {}", segment, e);
+				fail(pending, e);
+				entry.done.completeExceptionally(new UncheckedIOException(e));
+				buffer.reset();
+			}
+		}
+		try {
+			sync(buffer, pending);
+		} catch (IOException e) {
+			log.error("Ошибка записи журнала в сегмент {}", segment, e);
+			fail(pending, e);
+			buffer.reset();
+		}
+		return false;
+	}
+
+	private void sync(ByteArrayOutputStream buffer, List<Entry> pending) throws IOException {
+		if (pending.isEmpty()) {
+			return;
+		}
+		if (!channel.isOpen()) {
+			// Прошлый сбой не удалось откатить, и новый сегмент тогда не открылся
+			channel = openSegment(++segment);
+		}
+		long committed = channel.size();
+		try {
+			ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+			while (bytes.hasRemaining()) {
+				channel.write(bytes);
+			}
+			channel.force(false);
+		} catch (IOException e) {
+			discard(committed);
+			throw e;
+		}
+		buffer.reset();
+		recordsSinceSnapshot.addAndGet(pending.size());
+		for (Entry entry : pending) {
+			entry.done.complete(segment);
+		}
+		pending.clear();
+	}
+
+	// Отрезает от сегмента байты неудавшейся группы: иначе следующие группы легли бы после
+	// оборванной записи, и при запуске она оказалась бы не последней строкой сегмента.
+	// Если обрезать не удалось, журнал продолжается в новом сегменте, а обрывок остаётся последней строкой старого
+	private void discard(long committed) {
+		try {
+			channel.truncate(committed);
+			channel.force(false);
+		} catch (IOException e) {
+			log.error("Не удалось обрезать сегмент {} до {} байт, журнал продолжится в новом сегменте", segment,
+				committed, e);
+			try {
+				channel.close();
+				channel = openSegment(++segment);
+			} catch (IOException reopen) {
+				log.error("Не удалось открыть сегмент журнала {}", segment, reopen);
+			}
+		}
+	}
+
+	private void fail(List<Entry> pending, IOException e) {
+		for (Entry entry : pending) {
+			entry.done.completeExceptionally(new UncheckedIOException(e));
+		}
+		pending.clear();
+	}
+
+	private FileChannel openSegment(long number) throws IOException {
+		return FileChannel.open(segmentPath(number), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+			StandardOpenOption.APPEND);
+	}
+
+	private Path segmentPath(long number) {
+		return directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+	}
+
+	private long lastSegment() throws IOException {
+		List<Long> segments = segments();
+		return segments.isEmpty() ? 0 : segments.get(segments.size() - 1);
+	}
+
+	private List<Long> segments() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.map(path -> path.getFileName().toString())
+				.filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+				.map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+					name.length() - SEGMENT_SUFFIX.length())))
+				.sorted()
+				.toList();
+		}
+	}
+
+	private enum Kind {
+		RECORD, ROTATE, CLOSE
+	}
+
+	private record Entry(Kind kind, JournalRecord record, CompletableFuture<Long> done) {
+	}
+}
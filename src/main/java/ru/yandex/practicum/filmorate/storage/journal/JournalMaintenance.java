@@ -0,0 +1,144 @@
+package ru.yandex.practicum.filmorate.storage.journal;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
+
+// Восстанавливает хранилища из журнала при старте и периодически пишет снимок,
+// после которого старые сегменты журнала удаляются
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "journal")
+public class JournalMaintenance {
+
+	private final Journal journal;
+	private final JournaledFilmStorage films;
+	private final JournaledUserStorage users;
+	private final JournaledLikeStorage likes;
+	private final JournaledFriendStorage friends;
+	private final Duration snapshotCheckInterval;
+	private final long snapshotThreshold;
+	private ScheduledExecutorService scheduler;
+
+	public JournalMaintenance(Journal journal, JournaledFilmStorage films, JournaledUserStorage users,
+		JournaledLikeStorage likes, JournaledFriendStorage friends,
+		@Value("${filmorate.journal.snapshot-check-interval:1m}") Duration snapshotCheckInterval,
+		@Value("${filmorate.journal.snapshot-threshold:100000}") long snapshotThreshold) {
+		this.journal = journal;
+		this.films = films;
+		this.users = users;
+		this.likes = likes;
+		this.friends = friends;
+		this.snapshotCheckInterval = snapshotCheckInterval;
+		this.snapshotThreshold = snapshotThreshold;
+	}
+
+	@PostConstruct
+	public void start() throws IOException {
+		recover();
+		scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "journal-snapshot");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long period = snapshotCheckInterval.toMillis();
+		scheduler.scheduleWithFixedDelay(this::snapshotIfNeeded, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+
+	public void recover() throws IOException {
+		long start = System.nanoTime();
+		journal.replay(record -> {
+			if (record.getFilm() != null) {
+				films.restore(record.getFilm());
+			} else if (record.getUser() != null) {
+				users.restore(record.getUser());
+			} else if (record.getLike() != null) {
+				likes.restore(record.getLike());
+			} else if (record.getFriendship() != null) {
+				friends.restore(record.getFriendship());
+			} else if (record.getLikes() != null) {
+				likes.restore(record.getLikes());
+			} else if (record.getFriends() != null) {
+				friends.restore(record.getFriends());
+			}
+		});
+		log.info("Данные восстановлены из журнала за {} мс. Фильмов: {}, пользователей: {}",
+			TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), films.size(), users.size());
+	}
+
+	// Состояние собирается под исключительной блокировкой изменений (Journal.snapshotLock): к этому моменту
+	// каждое начатое изменение либо записано, либо уже откачено, и новые ждут. Под блокировкой копируются
+	// только ссылки на неизменяемые фильмы и пользователей и массивы id; на диск снимок пишется без неё
+	public void snapshot() throws IOException {
+		long records;
+		long covered;
+		List<Film> filmState;
+		List<User> userState;
+		List<JournalRecord> linkState = new ArrayList<>();
+		Lock lock = journal.snapshotLock();
+		lock.lock();
+		try {
+			// Всё, что попало в закрытые сегменты, уже применено к памяти, поэтому снимок их покрывает
+			covered = journal.rotate().join();
+			records = journal.recordsSinceSnapshot();
+			filmState = new ArrayList<>(films.findAll());
+			userState = new ArrayList<>(users.findAll());
+			for (Film film : filmState) {
+				long[] likers = likes.findLikerIds(film.getId());
+				if (likers.length > 0) {
+					linkState.add(JournalRecord.likes(film.getId(), likers));
+				}
+			}
+			for (User user : userState) {
+				long[] userFriends = friends.findFriendIds(user.getId());
+				if (userFriends.length > 0) {
+					linkState.add(JournalRecord.friends(user.getId(), userFriends));
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+		// Лайки и друзья идут после фильмов и пользователей, к которым относятся
+		Stream<JournalRecord> state = Stream.of(
+			filmState.stream().map(JournalRecord::of),
+			userState.stream().map(JournalRecord::of),
+			linkState.stream())
+			.flatMap(part -> part);
+		journal.writeSnapshot(covered, state);
+		journal.snapshotWritten(records);
+		log.info("Записан снимок журнала: фильмов {}, пользователей {}", filmState.size(), userState.size());
+	}
+
+	private void snapshotIfNeeded() {
+		if (journal.recordsSinceSnapshot() < snapshotThreshold) {
+			return;
+		}
+		try {
+			snapshot();
+		} catch (Exception e) {
+			log.error("Не удалось записать снимок журнала", e);
+		}
+	}
+}
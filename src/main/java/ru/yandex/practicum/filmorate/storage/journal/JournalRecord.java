@@ -0,0 +1,66 @@
+package ru.yandex.practicum.filmorate.storage.journal;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+// Одна строка журнала: полное состояние фильма или пользователя после изменения,
+// лайк или дружба (добавление или отмена). В снимке лайки и друзья пишутся списком на строку
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JournalRecord {
+
+	private Film film;
+	private User user;
+	private Link like;
+	private Link friendship;
+	private Links likes;
+	private Links friends;
+
+	public static JournalRecord of(Film film) {
+		JournalRecord record = new JournalRecord();
+		record.setFilm(film);
+		return record;
+	}
+
+	public static JournalRecord of(User user) {
+		JournalRecord record = new JournalRecord();
+		record.setUser(user);
+		return record;
+	}
+
+	public static JournalRecord like(long filmId, long userId, boolean removed) {
+		JournalRecord record = new JournalRecord();
+		record.setLike(new Link(filmId, userId, removed));
+		return record;
+	}
+
+	public static JournalRecord friendship(long userId, long friendId, boolean removed) {
+		JournalRecord record = new JournalRecord();
+		record.setFriendship(new Link(userId, friendId, removed));
+		return record;
+	}
+
+	public static JournalRecord likes(long filmId, long[] userIds) {
+		JournalRecord record = new JournalRecord();
+		record.setLikes(new Links(filmId, userIds));
+		return record;
+	}
+
+	public static JournalRecord friends(long userId, long[] friendIds) {
+		JournalRecord record = new JournalRecord();
+		record.setFriends(new Links(userId, friendIds));
+		return record;
+	}
+
+	// Лайк (from - фильм, to - пользователь) или дружба (from и to - пользователи); removed - отмена
+	public record Link(long from, long to, boolean removed) {
+	}
+
+	// Все лайки фильма или все друзья пользователя
+	public record Links(long id, long[] ids) {
+	}
+}
@@ -0,0 +1,186 @@
+package ru.yandex.practicum.filmorate.storage.journal;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmQuery;
+import ru.yandex.practicum.filmorate.storage.IdSequence;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Данные читаются из памяти, а каждое изменение дописывается в журнал.
+// Изменение в памяти и постановка записи в очередь журнала делаются под одной блокировкой,
+// чтобы порядок записей в журнале совпадал с порядком изменений; fsync ожидается уже без неё.
+// Если запись на диск не удалась, изменение в памяти откатывается: клиент получает ошибку,
+// и читатели не должны видеть то, чего не будет после перезапуска.
+// Всё изменение, включая ожидание и откат, идёт под Journal.changes(), чтобы снимок не захватил его на полпути.
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "journal")
+public class JournaledFilmStorage implements FilmStorage {
+
+	private final InMemoryFilmStorage films = new InMemoryFilmStorage();
+	private final Lock writeLock = new ReentrantLock();
+	private final Journal journal;
+
+	public JournaledFilmStorage(Journal journal) {
+		this.journal = journal;
+	}
+
+	@Override
+	public Collection<Film> findAll() {
+		return films.findAll();
+	}
+
+	@Override
+	public List<Film> findPage(long after, int limit) {
+		return films.findPage(after, limit);
+	}
+
+	@Override
+	public Optional<Film> findById(long id) {
+		return films.findById(id);
+	}
+
+	@Override
+	public List<Film> findByQuery(FilmQuery query, int limit) {
+		return films.findByQuery(query, limit);
+	}
+
+	@Override
+	public Film create(Film film) {
+		journal.changes().lock();
+		try {
+			Film created;
+			CompletableFuture<Long> written;
+			writeLock.lock();
+			try {
+				created = films.create(film);
+				written = journal.append(JournalRecord.of(created));
+			} finally {
+				writeLock.unlock();
+			}
+			awaitOrRollback(written, created, null);
+			return created;
+		} finally {
+			journal.changes().unlock();
+		}
+	}
+
+	@Override
+	public List<Film> createAll(List<Film> newFilms) {
+		journal.changes().lock();
+		try {
+			List<Film> created;
+			List<CompletableFuture<Long>> written = new ArrayList<>(newFilms.size());
+			writeLock.lock();
+			try {
+				created = films.createAll(newFilms);
+				for (Film film : created) {
+					written.add(journal.append(JournalRecord.of(film)));
+				}
+			} finally {
+				writeLock.unlock();
+			}
+			try {
+				Journal.await(CompletableFuture.allOf(written.toArray(CompletableFuture[]::new)));
+			} catch (RuntimeException e) {
+				// Записи могли попасть в разные группы журнала: откатываются только те, что не записаны
+				for (int i = 0; i < created.size(); i++) {
+					if (written.get(i).isCompletedExceptionally()) {
+						rollback(created.get(i), null);
+					}
+				}
+				throw e;
+			}
+			return created;
+		} finally {
+			journal.changes().unlock();
+		}
+	}
+
+	@Override
+	public Film update(Film film) {
+		journal.changes().lock();
+		try {
+			Film previous;
+			Film updated;
+			CompletableFuture<Long> written;
+			writeLock.lock();
+			try {
+				previous = films.findById(film.getId()).orElse(null);
+				updated = films.update(film);
+				written = journal.append(JournalRecord.of(updated));
+			} finally {
+				writeLock.unlock();
+			}
+			awaitOrRollback(written, updated, previous);
+			return updated;
+		} finally {
+			journal.changes().unlock();
+		}
+	}
+
+	@Override
+	public boolean replicate(Film film) {
+		journal.changes().lock();
+		try {
+			Film previous;
+			CompletableFuture<Long> written;
+			writeLock.lock();
+			try {
+				previous = films.findById(film.getId()).orElse(null);
+				if (!films.replicate(film)) {
+					return false;
+				}
+				written = journal.append(JournalRecord.of(film));
+			} finally {
+				writeLock.unlock();
+			}
+			awaitOrRollback(written, film, previous);
+			return true;
+		} finally {
+			journal.changes().unlock();
+		}
+	}
+
+	@Override
+	public int size() {
+		return films.size();
+	}
+
+	@Override
+	public IdSequence idSequence() {
+		return films.idSequence();
+	}
+
+	void restore(Film film) {
+		films.restore(film);
+	}
+
+	private void awaitOrRollback(CompletableFuture<Long> written, Film current, Film previous) {
+		try {
+			Journal.await(written);
+		} catch (RuntimeException e) {
+			rollback(current, previous);
+			throw e;
+		}
+	}
+
+	// Если после неудачного изменения успело пройти следующее, оно уже в журнале и откатывать нечего
+	private void rollback(Film current, Film previous) {
+		writeLock.lock();
+		try {
+			films.rollback(current, previous);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+}
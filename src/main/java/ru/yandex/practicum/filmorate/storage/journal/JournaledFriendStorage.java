@@ -0,0 +1,107 @@
+package ru.yandex.practicum.filmorate.storage.journal;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.friend.FriendStorage;
+import ru.yandex.practicum.filmorate.storage.friend.InMemoryFriendStorage;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Журналируемая дружба, устроена так же, как JournaledLikeStorage
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "journal")
+public class JournaledFriendStorage implements FriendStorage {
+
+	private final InMemoryFriendStorage friends = new InMemoryFriendStorage();
+	private final Lock writeLock = new ReentrantLock();
+	private final Journal journal;
+
+	public JournaledFriendStorage(Journal journal) {
+		this.journal = journal;
+	}
+
+	@Override
+	public boolean addFriend(long userId, long friendId) {
+		journal.changes().lock();
+		try {
+			CompletableFuture<Long> written;
+			writeLock.lock();
+			try {
+				if (!friends.addFriend(userId, friendId)) {
+					return false;
+				}
+				written = journal.append(JournalRecord.friendship(userId, friendId, false));
+			} finally {
+				writeLock.unlock();
+			}
+			awaitOrRollback(written, () -> friends.removeFriend(userId, friendId));
+			return true;
+		} finally {
+			journal.changes().unlock();
+		}
+	}
+
+	@Override
+	public boolean removeFriend(long userId, long friendId) {
+		journal.changes().lock();
+		try {
+			CompletableFuture<Long> written;
+			writeLock.lock();
+			try {
+				if (!friends.removeFriend(userId, friendId)) {
+					return false;
+				}
+				written = journal.append(JournalRecord.friendship(userId, friendId, true));
+			} finally {
+				writeLock.unlock();
+			}
+			awaitOrRollback(written, () -> friends.addFriend(userId, friendId));
+			return true;
+		} finally {
+			journal.changes().unlock();
+		}
+	}
+
+	@Override
+	public long[] findFriendIds(long userId) {
+		return friends.findFriendIds(userId);
+	}
+
+	@Override
+	public long[] findCommonFriendIds(long userId, long otherId) {
+		return friends.findCommonFriendIds(userId, otherId);
+	}
+
+	@Override
+	public long countEdges() {
+		return friends.countEdges();
+	}
+
+	void restore(JournalRecord.Link friendship) {
+		if (friendship.removed()) {
+			friends.removeFriend(friendship.from(), friendship.to());
+		} else {
+			friends.addFriend(friendship.from(), friendship.to());
+		}
+	}
+
+	void restore(JournalRecord.Links userFriends) {
+		friends.restore(userFriends.id(), userFriends.ids());
+	}
+
+	private void awaitOrRollback(CompletableFuture<Long> written, Runnable undo) {
+		try {
+			Journal.await(written);
+		} catch (RuntimeException e) {
+			writeLock.lock();
+			try {
+				undo.run();
+			} finally {
+				writeLock.unlock();
+			}
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package ru.yandex.practicum.filmorate.storage.journal;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.like.InMemoryLikeStorage;
+import ru.yandex.practicum.filmorate.storage.like.LikeStorage;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Журналируемые лайки, устроены так же, как JournaledFilmStorage: в журнал пишется каждый лайк и его отмена,
+// а если запись на диск не удалась, изменение в памяти отменяется обратным действием
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "journal")
+public class JournaledLikeStorage implements LikeStorage {
+
+	private final InMemoryLikeStorage likes = new InMemoryLikeStorage();
+	private final Lock writeLock = new ReentrantLock();
+	private final Journal journal;
+
+	public JournaledLikeStorage(Journal journal) {
+		this.journal = journal;
+	}
+
+	@Override
+	public boolean addLike(long filmId, long userId) {
+		journal.changes().lock();
+		try {
+			CompletableFuture<Long> written;
+			writeLock.lock();
+			try {
+				if (!likes.addLike(filmId, userId)) {
+					return false;
+				}
+				written = journal.append(JournalRecord.like(filmId, userId, false));
+			} finally {
+				writeLock.unlock();
+			}
+			awaitOrRollback(written, () -> likes.removeLike(filmId, userId));
+			return true;
+		} finally {
+			journal.changes().unlock();
+		}
+	}
+
+	@Override
+	public boolean removeLike(long filmId, long userId) {
+		journal.changes().lock();
+		try {
+			CompletableFuture<Long> written;
+			writeLock.lock();
+			try {
+				if (!likes.removeLike(filmId, userId)) {
+					return false;
+				}
+				written = journal.append(JournalRecord.like(filmId, userId, true));
+			} finally {
+				writeLock.unlock();
+			}
+			awaitOrRollback(written, () -> likes.addLike(filmId, userId));
+			return true;
+		} finally {
+			journal.changes().unlock();
+		}
+	}
+
+	@Override
+	public int countLikes(long filmId) {
+		return likes.countLikes(filmId);
+	}
+
+	@Override
+	public long[] findLikerIds(long filmId) {
+		return likes.findLikerIds(filmId);
+	}
+
+	@Override
+	public long[] findLikedFilmIds(long userId) {
+		return likes.findLikedFilmIds(userId);
+	}
+
+	@Override
+	public int countLikedFilms(long userId) {
+		return likes.countLikedFilms(userId);
+	}
+
+	@Override
+	public List<Long> findPopular(int count) {
+		return likes.findPopular(count);
+	}
+
+	void restore(JournalRecord.Link like) {
+		if (like.removed()) {
+			likes.removeLike(like.from(), like.to());
+		} else {
+			likes.addLike(like.from(), like.to());
+		}
+	}
+
+	void restore(JournalRecord.Links filmLikes) {
+		likes.restore(filmLikes.id(), filmLikes.ids());
+	}
+
+	private void awaitOrRollback(CompletableFuture<Long> written, Runnable undo) {
+		try {
+			Journal.await(written);
+		} catch (RuntimeException e) {
+			writeLock.lock();
+			try {
+				undo.run();
+			} finally {
+				writeLock.unlock();
+			}
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package ru.yandex.practicum.filmorate.storage.journal;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.IdSequence;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Журналируемое хранилище пользователей, устроено так же, как JournaledFilmStorage
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.type", havingValue = "journal")
+public class JournaledUserStorage implements UserStorage {
+
+	private final InMemoryUserStorage users = new InMemoryUserStorage();
+	private final Lock writeLock = new ReentrantLock();
+	private final Journal journal;
+
+	public JournaledUserStorage(Journal journal) {
+		this.journal = journal;
+	}
+
+	@Override
+	public Collection<User> findAll() {
+		return users.findAll();
+	}
+
+	@Override
+	public List<User> findPage(long after, int limit) {
+		return users.findPage(after, limit);
+	}
+
+	@Override
+	public Optional<User> findById(long id) {
+		return users.findById(id);
+	}
+
+	@Override
+	public Optional<User> findByLogin(String login) {
+		return users.findByLogin(login);
+	}
+
+	@Override
+	public Optional<User> findByEmail(String email) {
+		return users.findByEmail(email);
+	}
+
+	@Override
+	public User create(User user) {
+		journal.changes().lock();
+		try {
+			User created;
+			CompletableFuture<Long> written;
+			writeLock.lock();
+			try {
+				created = users.create(user);
+				written = journal.append(JournalRecord.of(created));
+			} finally {
+				writeLock.unlock();
+			}
+			awaitOrRollback(written, created, null);
+			return created;
+		} finally {
+			journal.changes().unlock();
+		}
+	}
+
+	@Override
+	public List<User> createAll(List<User> newUsers) {
+		journal.changes().lock();
+		try {
+			List<User> created;
+			List<CompletableFuture<Long>> written = new ArrayList<>(newUsers.size());
+			writeLock.lock();
+			try {
+				created = users.createAll(newUsers);
+				for (User user : created) {
+					written.add(journal.append(JournalRecord.of(user)));
+				}
+			} finally {
+				writeLock.unlock();
+			}
+			try {
+				Journal.await(CompletableFuture.allOf(written.toArray(CompletableFuture[]::new)));
+			} catch (RuntimeException e) {
+				// Записи могли попасть в разные группы журнала: откатываются только те, что не записаны
+				for (int i = 0; i < created.size(); i++) {
+					if (written.get(i).isCompletedExceptionally()) {
+						rollback(created.get(i), null);
+					}
+				}
+				throw e;
+			}
+			return created;
+		} finally {
+			journal.changes().unlock();
+		}
+	}
+
+	@Override
+	public User update(User user) {
+		journal.changes().lock();
+		try {
+			User previous;
+			User updated;
+			CompletableFuture<Long> written;
+			writeLock.lock();
+			try {
+				previous = users.findById(user.getId()).orElse(null);
+				updated = users.update(user);
+				written = journal.append(JournalRecord.of(updated));
+			} finally {
+				writeLock.unlock();
+			}
+			awaitOrRollback(written, updated, previous);
+			return updated;
+		} finally {
+			journal.changes().unlock();
+		}
+	}
+
+	@Override
+	public boolean replicate(User user) {
+		journal.changes().lock();
+		try {
+			User previous;
+			CompletableFuture<Long> written;
+			writeLock.lock();
+			try {
+				previous = users.findById(user.getId()).orElse(null);
+				if (!users.replicate(user)) {
+					return false;
+				}
+				written = journal.append(JournalRecord.of(user));
+			} finally {
+				writeLock.unlock();
+			}
+			awaitOrRollback(written, user, previous);
+			return true;
+		} finally {
+			journal.changes().unlock();
+		}
+	}
+
+	@Override
+	public int size() {
+		return users.size();
+	}
+
+	@Override
+	public IdSequence idSequence() {
+		return users.idSequence();
+	}
+
+	void restore(User user) {
+		users.restore(user);
+	}
+
+	private void awaitOrRollback(CompletableFuture<Long> written, User current, User previous) {
+		try {
+			Journal.await(written);
+		} catch (RuntimeException e) {
+			rollback(current, previous);
+			throw e;
+		}
+	}
+
+	// Если после неудачного изменения успело пройти следующее, оно уже в журнале и откатывать нечего
+	private void rollback(User current, User previous) {
+		writeLock.lock();
+		try {
+			users.rollback(current, previous);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+}
@@ -0,0 +1,244 @@
+package ru.yandex.practicum.filmorate.storage.like;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.SortedIds;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Лайки фильма - отсортированный массив id пользователей и счётчик; меняются под блокировкой полосы фильма.
+// Лайки пользователя (строка разреженной матрицы пользователь x фильм для рекомендаций) - неизменяемый
+// отсортированный массив id фильмов; он заменяется атомарно в мапе под той же блокировкой полосы фильма,
+// что и лайки фильма, иначе гонка лайка и его отмены могла бы оставить в строке фильм без лайка пользователя.
+// Строки короткие, поэтому копия на каждое изменение дешевле отдельного объекта с запасом ёмкости.
+// Рейтинг - упорядоченное множество пар (число лайков, id) для фильмов, у которых есть лайки:
+// лайк или его отмена переставляет одну запись за O(log n), а самые популярные фильмы
+// читаются с начала множества без сортировки каталога.
+// Читатели рейтинга блокировок не берут и пропускают записи, число лайков в которых уже устарело.
+// При filmorate.storage.type=journal лайки хранит JournaledLikeStorage поверх этого класса.
+@Component
+@ConditionalOnExpression("'${filmorate.storage.type:memory}' == 'memory' or '${filmorate.storage.type:memory}' == 'mmap'")
+public class InMemoryLikeStorage implements LikeStorage {
+
+	private static final int STRIPES = 64;
+
+	private final ConcurrentHashMap<Long, IdList> likes = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<Long, long[]> likedFilms = new ConcurrentHashMap<>();
+	private final ConcurrentSkipListSet<Rank> ranking = new ConcurrentSkipListSet<>();
+	private final Lock[] stripes = new Lock[STRIPES];
+
+	public InMemoryLikeStorage() {
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+	}
+
+	@Override
+	public boolean addLike(long filmId, long userId) {
+		Lock lock = stripe(filmId);
+		lock.lock();
+		try {
+			IdList likers = likes.computeIfAbsent(filmId, id -> new IdList());
+			int before = likers.count;
+			if (!likers.add(userId)) {
+				return false;
+			}
+			rerank(filmId, before, likers.count);
+			addLikedFilm(userId, filmId);
+		} finally {
+			lock.unlock();
+		}
+		return true;
+	}
+
+	@Override
+	public boolean removeLike(long filmId, long userId) {
+		Lock lock = stripe(filmId);
+		lock.lock();
+		try {
+			IdList likers = likes.get(filmId);
+			if (likers == null) {
+				return false;
+			}
+			int before = likers.count;
+			if (!likers.remove(userId)) {
+				return false;
+			}
+			rerank(filmId, before, likers.count);
+			if (likers.count == 0) {
+				likes.remove(filmId);
+			}
+			removeLikedFilm(userId, filmId);
+		} finally {
+			lock.unlock();
+		}
+		return true;
+	}
+
+	@Override
+	public int countLikes(long filmId) {
+		IdList likers = likes.get(filmId);
+		return likers == null ? 0 : likers.count;
+	}
+
+	@Override
+	public long[] findLikerIds(long filmId) {
+		Lock lock = stripe(filmId);
+		lock.lock();
+		try {
+			IdList likers = likes.get(filmId);
+			return likers == null ? SortedIds.EMPTY : Arrays.copyOf(likers.ids, likers.count);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public long[] findLikedFilmIds(long userId) {
+		return likedFilms.getOrDefault(userId, SortedIds.EMPTY).clone();
+	}
+
+	@Override
+	public int countLikedFilms(long userId) {
+		return likedFilms.getOrDefault(userId, SortedIds.EMPTY).length;
+	}
+
+	@Override
+	public List<Long> findPopular(int count) {
+		List<Long> popular = new ArrayList<>(Math.min(count, 1024));
+		// Пока идёт обход, отмена лайка может переставить фильм дальше по рейтингу,
+		// и тогда обе его записи совпадут с текущим счётчиком
+		Set<Long> seen = new HashSet<>();
+		for (Rank rank : ranking) {
+			if (popular.size() == count) {
+				break;
+			}
+			if (countLikes(rank.filmId()) == rank.likes() && seen.add(rank.filmId())) {
+				popular.add(rank.filmId());
+			}
+		}
+		return popular;
+	}
+
+	// Заменяет лайки фильма целиком - так загружается строка снимка журнала
+	public void restore(long filmId, long[] userIds) {
+		long[] users = sortedDistinct(userIds);
+		Lock lock = stripe(filmId);
+		lock.lock();
+		try {
+			IdList old = users.length == 0 ? likes.remove(filmId) : likes.put(filmId, new IdList(users));
+			long[] previous = old == null ? SortedIds.EMPTY : Arrays.copyOf(old.ids, old.count);
+			rerank(filmId, previous.length, users.length);
+			// Строки пользователей правятся только там, где лайк появился или пропал
+			for (long userId : previous) {
+				if (Arrays.binarySearch(users, userId) < 0) {
+					removeLikedFilm(userId, filmId);
+				}
+			}
+			for (long userId : users) {
+				if (Arrays.binarySearch(previous, userId) < 0) {
+					addLikedFilm(userId, filmId);
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void addLikedFilm(long userId, long filmId) {
+		likedFilms.compute(userId, (id, films) -> SortedIds.insert(films == null ? SortedIds.EMPTY : films, filmId));
+	}
+
+	private void removeLikedFilm(long userId, long filmId) {
+		likedFilms.computeIfPresent(userId, (id, films) -> {
+			long[] remaining = SortedIds.remove(films, filmId);
+			return remaining.length == 0 ? null : remaining;
+		});
+	}
+
+	// Как и в индексах фильмов, новая запись добавляется раньше, чем удаляется старая
+	private void rerank(long filmId, int before, int after) {
+		if (after > 0) {
+			ranking.add(new Rank(after, filmId));
+		}
+		if (before > 0 && before != after) {
+			ranking.remove(new Rank(before, filmId));
+		}
+	}
+
+	private static long[] sortedDistinct(long[] userIds) {
+		long[] users = userIds.clone();
+		Arrays.sort(users);
+		int size = 0;
+		for (int i = 0; i < users.length; i++) {
+			if (size == 0 || users[i] != users[size - 1]) {
+				users[size++] = users[i];
+			}
+		}
+		return size == users.length ? users : Arrays.copyOf(users, size);
+	}
+
+	private Lock stripe(long filmId) {
+		return stripes[(int) (filmId & (STRIPES - 1))];
+	}
+
+	// Отсортированный список id с запасом ёмкости; изменяется только под блокировкой полосы,
+	// count читается и без неё
+	private static class IdList {
+
+		private long[] ids;
+		private volatile int count;
+
+		IdList() {
+			ids = SortedIds.EMPTY;
+		}
+
+		IdList(long[] sortedIds) {
+			ids = sortedIds;
+			count = sortedIds.length;
+		}
+
+		boolean add(long id) {
+			int index = Arrays.binarySearch(ids, 0, count, id);
+			if (index >= 0) {
+				return false;
+			}
+			index = -index - 1;
+			if (count == ids.length) {
+				ids = Arrays.copyOf(ids, Math.max(4, count + (count >> 1)));
+			}
+			System.arraycopy(ids, index, ids, index + 1, count - index);
+			ids[index] = id;
+			count++;
+			return true;
+		}
+
+		boolean remove(long id) {
+			int index = Arrays.binarySearch(ids, 0, count, id);
+			if (index < 0) {
+				return false;
+			}
+			System.arraycopy(ids, index + 1, ids, index, count - index - 1);
+			count--;
+			return true;
+		}
+	}
+
+	// Сначала фильмы с большим числом лайков, при равенстве - с меньшим id
+	private record Rank(int likes, long filmId) implements Comparable<Rank> {
+
+		@Override
+		public int compareTo(Rank other) {
+			int byLikes = Integer.compare(other.likes, likes);
+			return byLikes != 0 ? byLikes : Long.compare(filmId, other.filmId);
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package ru.yandex.practicum.filmorate.storage.like;
+
+import java.util.List;
+
+public interface LikeStorage {
+
+	// Повторный лайк того же пользователя ничего не меняет; false - если лайк уже был
+	boolean addLike(long filmId, long userId);
+
+	// false - если лайка не было
+	boolean removeLike(long filmId, long userId);
+
+	int countLikes(long filmId);
+
+	// Пользователи, лайкнувшие фильм, по возрастанию id
+	long[] findLikerIds(long filmId);
+
+	// Фильмы, которые лайкнул пользователь, по возрастанию id
+	long[] findLikedFilmIds(long userId);
+
+	int countLikedFilms(long userId);
+
+	// До count идентификаторов фильмов с лайками: по убыванию числа лайков, при равенстве - по возрастанию id
+	List<Long> findPopular(int count);
+}
@@ -0,0 +1,305 @@
+package ru.yandex.practicum.filmorate.storage.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Инвертированный индекс по названию и описанию фильмов.
+// Все слова запроса должны встретиться в фильме, последнее слово ищется как префикс
+// и раскрывается во все слова словаря с этим началом. Однобуквенное последнее слово ищется целиком:
+// такой префикс раскрылся бы почти во весь словарь. Время запроса растёт с суммарной длиной списков раскрытых слов.
+// Релевантность - сумма весов слов (слово в названии весит больше, чем в описании), умноженных на idf.
+@Slf4j
+@Component
+public class FilmSearchIndex implements SmartInitializingSingleton {
+
+	private static final int NAME_WEIGHT = 3;
+	private static final int DESCRIPTION_WEIGHT = 1;
+	private static final int MIN_PREFIX_LENGTH = 2;
+
+	private final FilmStorage filmStorage;
+	private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+	private final FilmTerms termsByFilm = new FilmTerms();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	public FilmSearchIndex(FilmStorage filmStorage) {
+		this.filmStorage = filmStorage;
+	}
+
+	// Строим индекс после того, как хранилища загрузили свои данные
+	@Override
+	public void afterSingletonsInstantiated() {
+		long start = System.nanoTime();
+		lock.writeLock().lock();
+		try {
+			for (Film film : filmStorage.findAll()) {
+				add(film);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+		log.info("Поисковый индекс построен за {} мс. Фильмов: {}, слов: {}",
+			(System.nanoTime() - start) / 1_000_000, termsByFilm.size(), postings.size());
+	}
+
+	// Переиндексирует фильмы по их текущему состоянию в хранилище, поэтому порядок вызовов не важен
+	public void refresh(Collection<Film> films) {
+		lock.writeLock().lock();
+		try {
+			for (Film film : films) {
+				Optional<Film> current = filmStorage.findById(film.getId());
+				if (current.isPresent()) {
+					add(current.get());
+				} else {
+					remove(film.getId());
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public List<Film> search(String query, int limit) {
+		List<String> tokens = TextTokenizer.tokenize(query);
+		if (tokens.isEmpty()) {
+			return List.of();
+		}
+		Matches matches;
+		lock.readLock().lock();
+		try {
+			String last = tokens.get(tokens.size() - 1);
+			matches = last.length() < MIN_PREFIX_LENGTH ? exactMatches(last) : prefixMatches(last);
+			for (int i = 0; i < tokens.size() - 1 && matches.size > 0; i++) {
+				matches = matches.intersect(exactMatches(tokens.get(i)));
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		List<Film> result = new ArrayList<>(Math.min(limit, matches.size));
+		for (int index : matches.topIndexes(limit)) {
+			filmStorage.findById(matches.ids[index]).ifPresent(result::add);
+		}
+		return result;
+	}
+
+	public long memoryBytes() {
+		lock.readLock().lock();
+		try {
+			return postings.values().stream().mapToLong(PostingList::memoryBytes).sum();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Повторная индексация сравнивает слова фильма с прежними: у оставшихся слов вес меняется на месте,
+	// массивы списков сдвигаются только для добавленных и убранных слов
+	private void add(Film film) {
+		Map<String, Integer> weights = new HashMap<>();
+		for (String token : TextTokenizer.tokenize(film.getName())) {
+			weights.merge(token, NAME_WEIGHT, Integer::sum);
+		}
+		for (String token : TextTokenizer.tokenize(film.getDescription())) {
+			weights.merge(token, DESCRIPTION_WEIGHT, Integer::sum);
+		}
+		String[] previous = termsByFilm.get(film.getId());
+		if (previous != null) {
+			for (String term : previous) {
+				if (!weights.containsKey(term)) {
+					removePosting(term, film.getId());
+				}
+			}
+		}
+		String[] terms = new String[weights.size()];
+		int count = 0;
+		for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+			// Храним ссылку на строку из словаря, а не свежую копию из токенизатора
+			Map.Entry<String, PostingList> posting = postings.ceilingEntry(entry.getKey());
+			if (posting == null || !posting.getKey().equals(entry.getKey())) {
+				posting = Map.entry(entry.getKey(), new PostingList());
+				postings.put(posting.getKey(), posting.getValue());
+			}
+			posting.getValue().put(film.getId(), entry.getValue());
+			terms[count++] = posting.getKey();
+		}
+		termsByFilm.put(film.getId(), terms);
+	}
+
+	private void remove(long id) {
+		String[] terms = termsByFilm.remove(id);
+		if (terms == null) {
+			return;
+		}
+		for (String term : terms) {
+			removePosting(term, id);
+		}
+	}
+
+	private void removePosting(String term, long id) {
+		PostingList list = postings.get(term);
+		list.remove(id);
+		if (list.size() == 0) {
+			postings.remove(term);
+		}
+	}
+
+	private Matches exactMatches(String term) {
+		return Optional.ofNullable(postings.get(term))
+			.map(this::score)
+			.orElseGet(() -> new Matches(new long[0], new double[0], 0));
+	}
+
+	// Объединяем от меньших списков к большим, чтобы длинный список частого слова копировался один раз
+	private Matches prefixMatches(String prefix) {
+		PriorityQueue<Matches> queue = new PriorityQueue<>(Comparator.comparingInt(Matches::size));
+		for (PostingList list : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+			queue.add(score(list));
+		}
+		if (queue.isEmpty()) {
+			return new Matches(new long[0], new double[0], 0);
+		}
+		while (queue.size() > 1) {
+			queue.add(queue.poll().union(queue.poll()));
+		}
+		return queue.poll();
+	}
+
+	private Matches score(PostingList list) {
+		double idf = Math.log(1 + (double) termsByFilm.size() / list.size());
+		long[] ids = new long[list.size()];
+		double[] scores = new double[list.size()];
+		int count = 0;
+		for (int i = 0; i < list.slots(); i++) {
+			// Вес 0 - запись удалена и ждёт уплотнения списка
+			if (list.weight(i) != 0) {
+				ids[count] = list.id(i);
+				scores[count++] = list.weight(i) * idf;
+			}
+		}
+		return new Matches(ids, scores, count);
+	}
+
+	// Найденные фильмы, отсортированные по id, с накопленной релевантностью
+	private record Matches(long[] ids, double[] scores, int size) {
+
+		Matches intersect(Matches other) {
+			long[] resultIds = new long[Math.min(size, other.size)];
+			double[] resultScores = new double[resultIds.length];
+			int count = 0;
+			int i = 0;
+			int j = 0;
+			while (i < size && j < other.size) {
+				if (ids[i] < other.ids[j]) {
+					i++;
+				} else if (ids[i] > other.ids[j]) {
+					j++;
+				} else {
+					resultIds[count] = ids[i];
+					resultScores[count++] = scores[i++] + other.scores[j++];
+				}
+			}
+			return new Matches(resultIds, resultScores, count);
+		}
+
+		// Для префикса: фильм мог совпасть с несколькими словами, берём лучшее совпадение
+		Matches union(Matches other) {
+			long[] resultIds = new long[size + other.size];
+			double[] resultScores = new double[resultIds.length];
+			int count = 0;
+			int i = 0;
+			int j = 0;
+			while (i < size || j < other.size) {
+				if (j == other.size || i < size && ids[i] < other.ids[j]) {
+					resultIds[count] = ids[i];
+					resultScores[count++] = scores[i++];
+				} else if (i == size || ids[i] > other.ids[j]) {
+					resultIds[count] = other.ids[j];
+					resultScores[count++] = other.scores[j++];
+				} else {
+					resultIds[count] = ids[i];
+					resultScores[count++] = Math.max(scores[i++], other.scores[j++]);
+				}
+			}
+			return new Matches(resultIds, resultScores, count);
+		}
+
+		// Индексы лучших совпадений: по убыванию релевантности, при равенстве - по возрастанию id.
+		// Отбор через кучу размера limit, в корне которой худшее из отобранных совпадений.
+		int[] topIndexes(int limit) {
+			int[] heap = new int[Math.min(limit, size)];
+			int heapSize = 0;
+			for (int i = 0; i < size; i++) {
+				if (heapSize < heap.length) {
+					heap[heapSize] = i;
+					siftUp(heap, heapSize++);
+				} else if (heap.length > 0 && better(i, heap[0])) {
+					heap[0] = i;
+					siftDown(heap, heapSize);
+				}
+			}
+			for (int end = heapSize - 1; end > 0; end--) {
+				int worst = heap[0];
+				heap[0] = heap[end];
+				heap[end] = worst;
+				siftDown(heap, end);
+			}
+			return heap;
+		}
+
+		private boolean better(int a, int b) {
+			int byScore = Double.compare(scores[a], scores[b]);
+			return byScore != 0 ? byScore > 0 : ids[a] < ids[b];
+		}
+
+		private void siftUp(int[] heap, int index) {
+			while (index > 0) {
+				int parent = (index - 1) / 2;
+				if (!better(heap[parent], heap[index])) {
+					return;
+				}
+				swap(heap, parent, index);
+				index = parent;
+			}
+		}
+
+		private void siftDown(int[] heap, int heapSize) {
+			int index = 0;
+			while (true) {
+				int worst = index;
+				int left = 2 * index + 1;
+				int right = left + 1;
+				if (left < heapSize && better(heap[worst], heap[left])) {
+					worst = left;
+				}
+				if (right < heapSize && better(heap[worst], heap[right])) {
+					worst = right;
+				}
+				if (worst == index) {
+					return;
+				}
+				swap(heap, index, worst);
+				index = worst;
+			}
+		}
+
+		private static void swap(int[] heap, int a, int b) {
+			int tmp = heap[a];
+			heap[a] = heap[b];
+			heap[b] = tmp;
+		}
+	}
+}
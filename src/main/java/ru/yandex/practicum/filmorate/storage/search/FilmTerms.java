@@ -0,0 +1,92 @@
+package ru.yandex.practicum.filmorate.storage.search;
+
+// Слова каждого проиндексированного фильма: id фильма -> слова из словаря.
+// Открытая адресация с линейным пробированием по ключам long, без упаковки в Long и без объекта-записи на фильм.
+// Пустая ячейка - null в terms. Не потокобезопасна: вызывается под блокировкой индекса
+final class FilmTerms {
+
+	private long[] ids = new long[16];
+	private String[][] terms = new String[16][];
+	private int size;
+
+	String[] get(long id) {
+		int mask = ids.length - 1;
+		for (int index = slot(id, mask); terms[index] != null; index = (index + 1) & mask) {
+			if (ids[index] == id) {
+				return terms[index];
+			}
+		}
+		return null;
+	}
+
+	void put(long id, String[] filmTerms) {
+		int mask = ids.length - 1;
+		int index = slot(id, mask);
+		while (terms[index] != null) {
+			if (ids[index] == id) {
+				terms[index] = filmTerms;
+				return;
+			}
+			index = (index + 1) & mask;
+		}
+		ids[index] = id;
+		terms[index] = filmTerms;
+		// Заполнение не выше 3/4, иначе цепочки пробирования растут
+		if (++size > ids.length - (ids.length >> 2)) {
+			resize();
+		}
+	}
+
+	// Удаление со сдвигом назад: следующие ячейки цепочки переезжают в освободившуюся, чтобы поиск не прерывался
+	String[] remove(long id) {
+		int mask = ids.length - 1;
+		int index = slot(id, mask);
+		while (terms[index] != null && ids[index] != id) {
+			index = (index + 1) & mask;
+		}
+		String[] removed = terms[index];
+		if (removed == null) {
+			return null;
+		}
+		int gap = index;
+		for (int next = (gap + 1) & mask; terms[next] != null; next = (next + 1) & mask) {
+			int home = slot(ids[next], mask);
+			// Ячейку можно перенести в gap, только если gap лежит между её исходным местом и текущим
+			if (((next - home) & mask) >= ((next - gap) & mask)) {
+				ids[gap] = ids[next];
+				terms[gap] = terms[next];
+				gap = next;
+			}
+		}
+		terms[gap] = null;
+		size--;
+		return removed;
+	}
+
+	int size() {
+		return size;
+	}
+
+	private void resize() {
+		long[] oldIds = ids;
+		String[][] oldTerms = terms;
+		ids = new long[oldIds.length * 2];
+		terms = new String[oldIds.length * 2][];
+		int mask = ids.length - 1;
+		for (int i = 0; i < oldIds.length; i++) {
+			if (oldTerms[i] != null) {
+				int index = slot(oldIds[i], mask);
+				while (terms[index] != null) {
+					index = (index + 1) & mask;
+				}
+				ids[index] = oldIds[i];
+				terms[index] = oldTerms[i];
+			}
+		}
+	}
+
+	private static int slot(long id, int mask) {
+		long hash = id * 0x9e3779b97f4a7c15L;
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+}
@@ -0,0 +1,84 @@
+package ru.yandex.practicum.filmorate.storage.search;
+
+import java.util.Arrays;
+
+// Отсортированные по id пары (id фильма, вес слова в фильме) в примитивных массивах.
+// Удаление ленивое: у записи обнуляется вес, без сдвига массивов. Частое слово есть почти у всех фильмов,
+// и сдвиг его списка при каждом удалении стоил бы O(n). Список уплотняется, когда удалённых становится
+// больше четверти, поэтому удаление в среднем O(1), а лишняя память - не больше трети живых записей
+final class PostingList {
+
+	private long[] ids = new long[2];
+	private int[] weights = new int[2];
+	// Занятые ячейки, включая удалённые
+	private int slots;
+	private int removed;
+
+	// weight > 0: вес 0 означает удалённую запись
+	void put(long id, int weight) {
+		int index = slots > 0 && ids[slots - 1] < id ? -slots - 1 : Arrays.binarySearch(ids, 0, slots, id);
+		if (index >= 0) {
+			if (weights[index] == 0) {
+				removed--;
+			}
+			weights[index] = weight;
+			return;
+		}
+		index = -index - 1;
+		if (slots == ids.length) {
+			int capacity = slots + (slots >> 1) + 1;
+			ids = Arrays.copyOf(ids, capacity);
+			weights = Arrays.copyOf(weights, capacity);
+		}
+		System.arraycopy(ids, index, ids, index + 1, slots - index);
+		System.arraycopy(weights, index, weights, index + 1, slots - index);
+		ids[index] = id;
+		weights[index] = weight;
+		slots++;
+	}
+
+	void remove(long id) {
+		int index = Arrays.binarySearch(ids, 0, slots, id);
+		if (index < 0 || weights[index] == 0) {
+			return;
+		}
+		weights[index] = 0;
+		if (++removed > slots >> 2) {
+			compact();
+		}
+	}
+
+	// Число живых записей
+	int size() {
+		return slots - removed;
+	}
+
+	// Число ячеек для обхода через id(i) и weight(i); у удалённых ячеек weight(i) == 0
+	int slots() {
+		return slots;
+	}
+
+	long id(int index) {
+		return ids[index];
+	}
+
+	int weight(int index) {
+		return weights[index];
+	}
+
+	long memoryBytes() {
+		return (long) ids.length * Long.BYTES + (long) weights.length * Integer.BYTES;
+	}
+
+	private void compact() {
+		int count = 0;
+		for (int i = 0; i < slots; i++) {
+			if (weights[i] != 0) {
+				ids[count] = ids[i];
+				weights[count++] = weights[i];
+			}
+		}
+		slots = count;
+		removed = 0;
+	}
+}
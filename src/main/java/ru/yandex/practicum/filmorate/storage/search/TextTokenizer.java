@@ -0,0 +1,47 @@
+package ru.yandex.practicum.filmorate.storage.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Разбивает текст на слова: буквы и цифры любого алфавита, без учёта регистра, «ё» приравнивается к «е»
+public final class TextTokenizer {
+
+	private static final int MAX_TOKEN_LENGTH = 64;
+
+	private TextTokenizer() {
+	}
+
+	public static List<String> tokenize(String text) {
+		if (text == null || text.isBlank()) {
+			return List.of();
+		}
+		String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC)
+			.toLowerCase(Locale.ROOT)
+			.replace('ё', 'е');
+		List<String> tokens = new ArrayList<>();
+		int start = -1;
+		int i = 0;
+		while (i < normalized.length()) {
+			int codePoint = normalized.codePointAt(i);
+			boolean wordChar = Character.isLetterOrDigit(codePoint)
+				|| Character.getType(codePoint) == Character.NON_SPACING_MARK;
+			if (wordChar && start < 0) {
+				start = i;
+			} else if (!wordChar && start >= 0) {
+				addToken(tokens, normalized, start, i);
+				start = -1;
+			}
+			i += Character.charCount(codePoint);
+		}
+		if (start >= 0) {
+			addToken(tokens, normalized, start, normalized.length());
+		}
+		return tokens;
+	}
+
+	private static void addToken(List<String> tokens, String text, int start, int end) {
+		tokens.add(text.substring(start, Math.min(end, start + MAX_TOKEN_LENGTH)));
+	}
+}
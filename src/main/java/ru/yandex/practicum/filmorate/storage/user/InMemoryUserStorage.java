@@ -0,0 +1,292 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.IdSequence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Сохранённые объекты не изменяются: при обновлении в мапу атомарно кладётся новая копия.
+// Мапа упорядочена по id, что позволяет отдавать каталог страницами без сортировки.
+// Логин и email проиндексированы хеш-мапами значение -> id. Уникальность обеспечивает putIfAbsent:
+// пользователь сначала занимает новые значения, затем попадает в основную мапу, и только потом
+// освобождает старые. Обновление без смены логина и email - сравнение с обменом без блокировок;
+// смена логина или email занимает и освобождает значения под блокировкой полосы пользователя,
+// но сама замена и там делается обменом, так что проверка версии общая для обоих путей.
+// Читатели блокировок не берут и перепроверяют найденного по индексу пользователя.
+// При filmorate.storage.type=mmap вне кучи хранятся только фильмы, пользователи остаются здесь.
+@Component
+@ConditionalOnExpression("'${filmorate.storage.type:memory}' == 'memory' or '${filmorate.storage.type:memory}' == 'mmap'")
+public class InMemoryUserStorage implements UserStorage {
+
+	private static final int STRIPES = 64;
+
+	private final ConcurrentNavigableMap<Long, User> users = new ConcurrentSkipListMap<>();
+	private final ConcurrentMap<String, Long> idsByLogin = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Long> idsByEmail = new ConcurrentHashMap<>();
+	private final Lock[] stripes = new Lock[STRIPES];
+	private final IdSequence ids = new IdSequence();
+
+	public InMemoryUserStorage() {
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+	}
+
+	@Override
+	public Collection<User> findAll() {
+		return Collections.unmodifiableCollection(users.values());
+	}
+
+	@Override
+	public List<User> findPage(long after, int limit) {
+		return users.tailMap(after, false)
+			.values()
+			.stream()
+			.limit(limit)
+			.toList();
+	}
+
+	@Override
+	public Optional<User> findById(long id) {
+		return Optional.ofNullable(users.get(id));
+	}
+
+	@Override
+	public Optional<User> findByLogin(String login) {
+		Long id = idsByLogin.get(login);
+		if (id == null) {
+			return Optional.empty();
+		}
+		return findById(id).filter(user -> user.getLogin().equals(login));
+	}
+
+	@Override
+	public Optional<User> findByEmail(String email) {
+		String key = UserStorage.emailKey(email);
+		Long id = idsByEmail.get(key);
+		if (id == null) {
+			return Optional.empty();
+		}
+		return findById(id).filter(user -> UserStorage.emailKey(user.getEmail()).equals(key));
+	}
+
+	@Override
+	public User create(User user) {
+		User created = user.toBuilder()
+			.id(ids.next())
+			.version(1L)
+			.build();
+		claim(created, null);
+		users.put(created.getId(), created);
+		return created;
+	}
+
+	// Либо создаются все пользователи, либо ни один: при конфликте занятые значения освобождаются
+	@Override
+	public List<User> createAll(List<User> newUsers) {
+		if (newUsers.isEmpty()) {
+			return List.of();
+		}
+		long id = ids.nextBlock(newUsers.size());
+		List<User> created = new ArrayList<>(newUsers.size());
+		try {
+			for (User user : newUsers) {
+				User copy = user.toBuilder()
+					.id(id++)
+					.version(1L)
+					.build();
+				claim(copy, null);
+				created.add(copy);
+			}
+		} catch (ConflictException e) {
+			for (User claimed : created) {
+				release(claimed, null);
+			}
+			throw e;
+		}
+		for (User user : created) {
+			users.put(user.getId(), user);
+		}
+		return created;
+	}
+
+	@Override
+	public User update(User user) {
+		long id = user.getId();
+		while (true) {
+			User old = users.get(id);
+			if (old == null) {
+				throw new NotFoundException("Пользователь с ID " + id + " не найден.");
+			}
+			if (user.getVersion() != null && !user.getVersion().equals(old.getVersion())) {
+				throw new ConflictException("Пользователь с ID " + id + " уже изменён: текущая версия "
+					+ old.getVersion() + ", в запросе " + user.getVersion() + ".");
+			}
+			User updated = user.toBuilder()
+				.version(old.getVersion() + 1)
+				.build();
+			boolean replaced = sameKeys(old, updated)
+				? users.replace(id, old, updated)
+				: replaceClaiming(old, updated);
+			if (replaced) {
+				return updated;
+			}
+		}
+	}
+
+	@Override
+	public boolean replicate(User user) {
+		Lock lock = stripe(user.getId());
+		lock.lock();
+		try {
+			User old = users.get(user.getId());
+			if (old != null && old.getVersion() >= user.getVersion()) {
+				return false;
+			}
+			claim(user, old);
+			users.put(user.getId(), user);
+			if (old != null) {
+				release(old, user);
+			}
+		} finally {
+			lock.unlock();
+		}
+		ids.advanceTo(user.getId());
+		return true;
+	}
+
+	// Кладёт уже существующий объект (с id) - используется при загрузке данных с диска
+	public void restore(User user) {
+		// Записи журнала без версии остались от прежних версий приложения
+		User restored = user.getVersion() == null ? user.toBuilder().version(1L).build() : user;
+		Lock lock = stripe(restored.getId());
+		lock.lock();
+		try {
+			User old = users.get(restored.getId());
+			claim(restored, old);
+			users.put(restored.getId(), restored);
+			if (old != null) {
+				release(old, restored);
+			}
+		} finally {
+			lock.unlock();
+		}
+		ids.advanceTo(restored.getId());
+	}
+
+	// Возвращает пользователя к previous (null - убирает его), если в мапе всё ещё лежит current.
+	// Нужен журналу: изменение, которое не удалось записать на диск, не должно оставаться видимым.
+	// Не откатывает, если прежние логин или email уже занял другой пользователь
+	public boolean rollback(User current, User previous) {
+		long id = current.getId();
+		Lock lock = stripe(id);
+		lock.lock();
+		try {
+			if (previous == null) {
+				if (!users.remove(id, current)) {
+					return false;
+				}
+				release(current, null);
+				return true;
+			}
+			claim(previous, current);
+			if (!users.replace(id, current, previous)) {
+				release(previous, users.get(id));
+				return false;
+			}
+			release(current, previous);
+			return true;
+		} catch (ConflictException e) {
+			return false;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public int size() {
+		return users.size();
+	}
+
+	@Override
+	public IdSequence idSequence() {
+		return ids;
+	}
+
+	// Обмен со сменой логина или email. Обменом без блокировки проходят только обновления,
+	// которые логин и email не меняют, поэтому под блокировкой они у текущего пользователя неизменны
+	private boolean replaceClaiming(User old, User updated) {
+		long id = old.getId();
+		Lock lock = stripe(id);
+		lock.lock();
+		try {
+			claim(updated, old);
+			if (users.replace(id, old, updated)) {
+				release(old, updated);
+				return true;
+			}
+			// Обмен проиграл: отдаём занятые значения, кроме тех, что есть у текущего пользователя
+			release(updated, users.get(id));
+			return false;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private static boolean sameKeys(User old, User updated) {
+		return old.getLogin().equals(updated.getLogin())
+			&& UserStorage.emailKey(old.getEmail()).equals(UserStorage.emailKey(updated.getEmail()));
+	}
+
+	// Занимает логин и email пользователя, если они отличаются от прежних (old)
+	private void claim(User user, User old) {
+		long id = user.getId();
+		String login = user.getLogin();
+		boolean newLogin = old == null || !old.getLogin().equals(login);
+		if (newLogin && !take(idsByLogin, login, id)) {
+			throw new ConflictException("Пользователь с логином " + login + " уже существует.");
+		}
+		String email = UserStorage.emailKey(user.getEmail());
+		if ((old == null || !UserStorage.emailKey(old.getEmail()).equals(email)) && !take(idsByEmail, email, id)) {
+			if (newLogin) {
+				idsByLogin.remove(login, id);
+			}
+			throw new ConflictException("Пользователь с email " + user.getEmail() + " уже существует.");
+		}
+	}
+
+	// Освобождает значения old, которых больше нет у current (null - освободить все)
+	private void release(User old, User current) {
+		long id = old.getId();
+		if (current == null || !current.getLogin().equals(old.getLogin())) {
+			idsByLogin.remove(old.getLogin(), id);
+		}
+		String email = UserStorage.emailKey(old.getEmail());
+		if (current == null || !UserStorage.emailKey(current.getEmail()).equals(email)) {
+			idsByEmail.remove(email, id);
+		}
+	}
+
+	private static boolean take(ConcurrentMap<String, Long> index, String key, long id) {
+		Long owner = index.putIfAbsent(key, id);
+		return owner == null || owner == id;
+	}
+
+	private Lock stripe(long id) {
+		return stripes[(int) (id & (STRIPES - 1))];
+	}
+}
@@ -0,0 +1,46 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.IdSequence;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+public interface UserStorage {
+
+	Collection<User> findAll();
+
+	// Страница по возрастанию id, начиная со следующего после after
+	List<User> findPage(long after, int limit);
+
+	Optional<User> findById(long id);
+
+	Optional<User> findByLogin(String login);
+
+	// Email сравнивается без учёта регистра
+	Optional<User> findByEmail(String email);
+
+	// Логин и email уникальны: create, createAll и update бросают ConflictException при совпадении
+	User create(User user);
+
+	// Создаёт все элементы, выделяя им идентификаторы одним блоком
+	List<User> createAll(List<User> users);
+
+	// Версия проверяется так же, как в FilmStorage.update
+	User update(User user);
+
+	// Версия сравнивается так же, как в FilmStorage.replicate; занятые другим пользователем логин
+	// или email - ConflictException, как у create
+	boolean replicate(User user);
+
+	int size();
+
+	// Последовательность идентификаторов хранилища; нужна для метрик выделения id
+	IdSequence idSequence();
+
+	static String emailKey(String email) {
+		return email.toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,196 @@
+package ru.yandex.practicum.filmorate.validation;
+
+import jakarta.validation.ConstraintViolation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+import org.springframework.web.bind.WebDataBinder;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Проверки аннотаций Film и User, написанные вручную: без рефлексии, регулярных выражений
+// и выделения памяти, когда нарушений нет. Сообщения и коды ошибок те же, что у Hibernate Validator.
+// Email проверяется по строгому подмножеству правил @Email; всё, что в него не попало,
+// проверяет сам Hibernate Validator, поэтому решение всегда совпадает с ним.
+@Component
+@RequiredArgsConstructor
+public class ModelValidator implements Validator {
+
+	private static final int MAX_DESCRIPTION_LENGTH = 200;
+	private static final int MAX_EMAIL_LOCAL_PART = 64;
+	private static final int MAX_EMAIL_DOMAIN = 255;
+	private static final int MAX_DOMAIN_LABEL = 63;
+	private static final String EMAIL_ATOM_SYMBOLS = "!#$%&'*+/=?^_`{|}~-";
+
+	private final jakarta.validation.Validator beanValidator;
+
+	@Override
+	public boolean supports(Class<?> type) {
+		return Film.class == type || User.class == type;
+	}
+
+	// Заменяет Hibernate Validator для @Valid Film и @Valid User; вызывается из @InitBinder контроллеров
+	public void bindTo(WebDataBinder binder) {
+		Object target = binder.getTarget();
+		if (target != null && supports(target.getClass())) {
+			binder.setValidator(this);
+		}
+	}
+
+	@Override
+	public void validate(Object target, Errors errors) {
+		check(target, errors::rejectValue);
+	}
+
+	// Сообщения о нарушениях для пакетных запросов; пустой список - если нарушений нет
+	public List<String> violations(Object target) {
+		List<String> messages = new ArrayList<>(0);
+		check(target, (field, code, message) -> messages.add(message));
+		return messages;
+	}
+
+	private void check(Object target, Rejection rejection) {
+		if (target instanceof Film film) {
+			checkFilm(film, rejection);
+		} else if (target instanceof User user) {
+			checkUser(user, rejection);
+		} else {
+			throw new IllegalArgumentException("Нет проверок для " + target.getClass().getName());
+		}
+	}
+
+	private static void checkFilm(Film film, Rejection rejection) {
+		if (isBlank(film.getName())) {
+			rejection.reject("name", "NotBlank", "Название не может быть пустым.");
+		}
+		if (film.getDescription() != null && film.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+			rejection.reject("description", "Size", "Описание не может быть длиннее 200 символов.");
+		}
+		if (film.getReleaseDate() == null) {
+			rejection.reject("releaseDate", "NotNull", "Дата релиза должна быть обязательно");
+		}
+		if (film.getDuration() < 1) {
+			rejection.reject("duration", "Min", "Продолжительность фильма не может быть отрицательной или нулевой.");
+		}
+	}
+
+	private void checkUser(User user, Rejection rejection) {
+		String email = user.getEmail();
+		if (!isSimpleEmail(email)) {
+			// Пустой email, а также адреса с кавычками, IP-адресом, не-ASCII символами и т.п.
+			for (ConstraintViolation<User> violation : beanValidator.validateValue(User.class, "email", email)) {
+				rejection.reject("email", violation.getConstraintDescriptor().getAnnotation().annotationType().getSimpleName(),
+					violation.getMessage());
+			}
+		}
+		String login = user.getLogin();
+		if (isBlank(login)) {
+			rejection.reject("login", "NotBlank", "Логин не может быть пустым");
+		}
+		if (login != null && !hasNoWhitespace(login)) {
+			rejection.reject("login", "Pattern", "Логин не должен содержать пробелы");
+		}
+		if (user.getBirthday() == null) {
+			rejection.reject("birthday", "NotNull", "Дата рождения обязательна");
+		} else if (!user.getBirthday().isBefore(LocalDate.now())) {
+			rejection.reject("birthday", "Past", "Дата рождения не может быть в будущем");
+		}
+	}
+
+	// Как @NotBlank: null или только символы не больше пробела
+	private static boolean isBlank(String value) {
+		if (value == null) {
+			return true;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) > ' ') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Как @Pattern("^\\S+$"): непустая строка без пробельных символов \s
+	private static boolean hasNoWhitespace(String value) {
+		if (value.isEmpty()) {
+			return false;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			switch (value.charAt(i)) {
+				case ' ', '\t', '\n', '\u000B', '\f', '\r' -> {
+					return false;
+				}
+				default -> {
+				}
+			}
+		}
+		return true;
+	}
+
+	// local@domain из ASCII: точки только между атомами, метки домена из букв, цифр и внутренних дефисов.
+	// Такой адрес Hibernate Validator принимает всегда
+	private static boolean isSimpleEmail(String email) {
+		if (email == null) {
+			return false;
+		}
+		int at = email.indexOf('@');
+		if (at < 1 || at > MAX_EMAIL_LOCAL_PART || at != email.lastIndexOf('@')) {
+			return false;
+		}
+		int domainLength = email.length() - at - 1;
+		if (domainLength < 1 || domainLength > MAX_EMAIL_DOMAIN) {
+			return false;
+		}
+		return isDotAtom(email, 0, at) && isDomain(email, at + 1, email.length());
+	}
+
+	private static boolean isDotAtom(String value, int from, int to) {
+		boolean afterDot = true;
+		for (int i = from; i < to; i++) {
+			char c = value.charAt(i);
+			if (c == '.') {
+				if (afterDot) {
+					return false;
+				}
+				afterDot = true;
+			} else if (isAsciiLetterOrDigit(c) || EMAIL_ATOM_SYMBOLS.indexOf(c) >= 0) {
+				afterDot = false;
+			} else {
+				return false;
+			}
+		}
+		return !afterDot;
+	}
+
+	private static boolean isDomain(String value, int from, int to) {
+		int labelStart = from;
+		for (int i = from; i <= to; i++) {
+			if (i == to || value.charAt(i) == '.') {
+				int length = i - labelStart;
+				if (length < 1 || length > MAX_DOMAIN_LABEL
+					|| value.charAt(labelStart) == '-' || value.charAt(i - 1) == '-') {
+					return false;
+				}
+				labelStart = i + 1;
+			} else if (!isAsciiLetterOrDigit(value.charAt(i)) && value.charAt(i) != '-') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isAsciiLetterOrDigit(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+	}
+
+	@FunctionalInterface
+	private interface Rejection {
+
+		void reject(String field, String code, String message);
+	}
+}
@@ -0,0 +1,86 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BatchEndpointsTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	public void createFilmsReportsEveryItem() throws Exception {
+		String body = "["
+			+ "{\"name\":\"First\",\"description\":\"d\",\"releaseDate\":\"2000-01-01\",\"duration\":90},"
+			+ "{\"name\":\"\",\"description\":\"d\",\"releaseDate\":\"2000-01-01\",\"duration\":90},"
+			+ "{\"name\":\"Too old\",\"description\":\"d\",\"releaseDate\":\"1800-01-01\",\"duration\":90},"
+			+ "{\"name\":\"Second\",\"description\":\"d\",\"releaseDate\":\"2001-01-01\",\"duration\":95}"
+			+ "]";
+		mockMvc.perform(MockMvcRequestBuilders.post("/films/batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(4))
+			.andExpect(jsonPath("$[0].status").value(200))
+			.andExpect(jsonPath("$[0].item.id").isNumber())
+			.andExpect(jsonPath("$[1].status").value(400))
+			.andExpect(jsonPath("$[1].error").value("Название не может быть пустым."))
+			.andExpect(jsonPath("$[2].status").value(400))
+			.andExpect(jsonPath("$[3].index").value(3))
+			.andExpect(jsonPath("$[3].item.name").value("Second"));
+	}
+
+	@Test
+	public void createUsersFromNdjson() throws Exception {
+		String body = "{\"email\":\"batch1@example.com\",\"login\":\"batch1\",\"birthday\":\"1990-01-01\"}\n"
+			+ "{\"email\":\"batch2@example.com\",\"login\":\"bad login\",\"birthday\":\"1990-01-01\"}\n";
+		mockMvc.perform(MockMvcRequestBuilders.post("/users/batch")
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.content(body))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].status").value(200))
+			.andExpect(jsonPath("$[0].item.name").value("batch1"))
+			.andExpect(jsonPath("$[1].status").value(400))
+			.andExpect(jsonPath("$[1].error").value("Логин не должен содержать пробелы"));
+	}
+
+	@Test
+	public void updateFilmsReportsMissingIds() throws Exception {
+		String body = "["
+			+ "{\"name\":\"No id\",\"description\":\"d\",\"releaseDate\":\"2000-01-01\",\"duration\":90},"
+			+ "{\"id\":999999,\"name\":\"Unknown\",\"description\":\"d\",\"releaseDate\":\"2000-01-01\",\"duration\":90}"
+			+ "]";
+		mockMvc.perform(MockMvcRequestBuilders.put("/films/batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].status").value(400))
+			.andExpect(jsonPath("$[1].status").value(404));
+	}
+
+	@Test
+	public void whenBatchIsEmpty() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.post("/users/batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[]"))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void whenNdjsonIsMalformed() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.post("/films/batch")
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.content("{\"name\":"))
+			.andExpect(status().isBadRequest());
+	}
+}
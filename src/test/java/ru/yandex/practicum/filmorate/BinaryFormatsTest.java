@@ -0,0 +1,91 @@
+package ru.yandex.practicum.filmorate;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BinaryFormatsTest {
+
+	private static final ObjectMapper CBOR = new ObjectMapper(new CBORFactory()).registerModule(new JavaTimeModule());
+	private static final ObjectMapper SMILE = new ObjectMapper(new SmileFactory()).registerModule(new JavaTimeModule());
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private FilmStorage filmStorage;
+
+	@Test
+	public void catalogueIsNegotiatedAsCborOrSmile() throws Exception {
+		filmStorage.create(film("Сталкер"));
+
+		assertEquals(filmStorage.size(), read(CBOR, "application/cbor").size());
+		assertEquals(filmStorage.size(), read(SMILE, "application/x-jackson-smile").size());
+		assertEquals(filmStorage.size(), read(SMILE, "application/cbor;q=0.5, application/x-jackson-smile").size());
+	}
+
+	@Test
+	public void jsonStaysDefault() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/films"))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(MediaType.APPLICATION_JSON));
+		mockMvc.perform(MockMvcRequestBuilders.get("/films").header(HttpHeaders.ACCEPT, "*/*"))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void acceptsCborRequestBody() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.post("/films")
+				.contentType("application/cbor")
+				.accept(MediaType.APPLICATION_JSON)
+				.content(CBOR.writeValueAsBytes(film("Солярис"))))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(MediaType.APPLICATION_JSON));
+	}
+
+	private List<Film> read(ObjectMapper mapper, String accept) throws Exception {
+		MvcResult started = mockMvc.perform(MockMvcRequestBuilders.get("/films").header(HttpHeaders.ACCEPT, accept))
+			.andReturn();
+		MvcResult result = mockMvc.perform(asyncDispatch(started))
+			.andExpect(status().isOk())
+			.andReturn();
+		String contentType = result.getResponse().getContentType();
+		assertEquals(mapper.getFactory() instanceof SmileFactory ? "application/x-jackson-smile" : "application/cbor",
+			contentType);
+		return mapper.readValue(result.getResponse().getContentAsByteArray(), new TypeReference<>() {
+		});
+	}
+
+	private static Film film(String name) {
+		Film film = new Film();
+		film.setName(name);
+		film.setDescription("Тарковский");
+		film.setReleaseDate(LocalDate.of(1979, 5, 25));
+		film.setDuration(163L);
+		return film;
+	}
+}
@@ -0,0 +1,79 @@
+package ru.yandex.practicum.filmorate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CatalogueCacheTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	public void unchangedCatalogueAnswersNotModified() throws Exception {
+		String etag = etag("/films");
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/films")
+				.header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified())
+			.andExpect(header().string(HttpHeaders.ETAG, etag))
+			.andExpect(content().string(""));
+	}
+
+	@Test
+	public void addedFilmChangesEtag() throws Exception {
+		String etag = etag("/films");
+		Film film = new Film();
+		film.setName("Cached film");
+		film.setDescription("Description");
+		film.setReleaseDate(Film.getMinDate().plusYears(10));
+		film.setDuration(90L);
+		mockMvc.perform(MockMvcRequestBuilders.post("/films")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(film)))
+			.andExpect(status().isOk());
+
+		String changed = mockMvc.perform(MockMvcRequestBuilders.get("/films")
+				.header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[?(@.name == 'Cached film')]").exists())
+			.andReturn()
+			.getResponse()
+			.getHeader(HttpHeaders.ETAG);
+		assertNotEquals(etag, changed);
+	}
+
+	@Test
+	public void usersCatalogueHasOwnEtag() throws Exception {
+		assertNotEquals(etag("/films"), etag("/users"));
+	}
+
+	private String etag(String path) throws Exception {
+		String etag = mockMvc.perform(MockMvcRequestBuilders.get(path))
+			.andExpect(status().isOk())
+			.andReturn()
+			.getResponse()
+			.getHeader(HttpHeaders.ETAG);
+		assertNotNull(etag);
+		return etag;
+	}
+}
@@ -0,0 +1,120 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CatalogueTransferTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	public void importFilmsReportsRejectedLines() throws Exception {
+		String body = "{\"name\":\"Import first\",\"description\":\"d\",\"releaseDate\":\"2000-01-01\",\"duration\":90}\n"
+			+ "{\"name\":\"\",\"description\":\"d\",\"releaseDate\":\"2000-01-01\",\"duration\":90}\n"
+			+ "{\"name\":\"Import bad duration\",\"releaseDate\":\"2000-01-01\",\"duration\":\"long\"}\n"
+			+ "{\"name\":\"Import too old\",\"releaseDate\":\"1800-01-01\",\"duration\":90}\n"
+			+ "{\"name\":\"Import second\",\"releaseDate\":\"2001-01-01\",\"duration\":95}\n";
+		mockMvc.perform(MockMvcRequestBuilders.post("/admin/import/films")
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.content(body))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.read").value(5))
+			.andExpect(jsonPath("$.imported").value(2))
+			.andExpect(jsonPath("$.rejected").value(3))
+			.andExpect(jsonPath("$.complete").value(true))
+			.andExpect(jsonPath("$.errors[0].line").value(2))
+			.andExpect(jsonPath("$.errors[0].error").value("Название не может быть пустым."))
+			.andExpect(jsonPath("$.errors[1].line").value(3))
+			.andExpect(jsonPath("$.errors[2].line").value(4));
+	}
+
+	@Test
+	public void importStopsAtMalformedLine() throws Exception {
+		String body = "{\"name\":\"Import before error\",\"releaseDate\":\"2000-01-01\",\"duration\":90}\n"
+			+ "{\"name\":\"Import broken\n";
+		mockMvc.perform(MockMvcRequestBuilders.post("/admin/import/films")
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.content(body))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.imported").value(1))
+			.andExpect(jsonPath("$.complete").value(false))
+			.andExpect(jsonPath("$.errors[0].status").value(400));
+	}
+
+	@Test
+	public void importGzippedCsvUsersAndExportThem() throws Exception {
+		String csv = "email,login,name,birthday\n"
+			+ "csv1@example.com,csv1,,1990-01-01\n"
+			+ "csv2@example.com,csv1,Second,1991-01-01\n"
+			+ "csv3@example.com,csv3,\"Third, with comma\",1992-01-01\n";
+		mockMvc.perform(MockMvcRequestBuilders.post("/admin/import/users")
+				.contentType("text/csv")
+				.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+				.content(gzip(csv)))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.imported").value(2))
+			.andExpect(jsonPath("$.errors[0].line").value(3))
+			.andExpect(jsonPath("$.errors[0].status").value(409));
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/admin/export/users")
+				.accept("text/csv")
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		byte[] exported = mockMvc.perform(asyncDispatch(result))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+			.andReturn()
+			.getResponse()
+			.getContentAsByteArray();
+		String text = gunzip(exported);
+		assertTrue(text.startsWith("id,email,login,name,birthday,version\n"), text);
+		assertTrue(text.contains(",csv1@example.com,csv1,csv1,1990-01-01,1\n"), text);
+		assertTrue(text.contains(",csv3@example.com,csv3,\"Third, with comma\",1992-01-01,1\n"), text);
+	}
+
+	@Test
+	public void unknownSectionIsNotFound() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/admin/export/likes")
+				.accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON))
+			.andExpect(status().isNotFound());
+	}
+
+	private static byte[] gzip(String text) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+			out.write(text.getBytes(StandardCharsets.UTF_8));
+		}
+		return bytes.toByteArray();
+	}
+
+	private static String gunzip(byte[] bytes) throws IOException {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+}
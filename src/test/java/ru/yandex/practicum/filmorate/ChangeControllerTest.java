@@ -0,0 +1,151 @@
+package ru.yandex.practicum.filmorate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.yandex.practicum.filmorate.changes.ChangeLog;
+import ru.yandex.practicum.filmorate.model.ChangeEvent;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ChangeControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ChangeLog changeLog;
+
+	@Test
+	public void createAndUpdateAreReadAfterSince() throws Exception {
+		long since = changeLog.lastSeq();
+		String created = mockMvc.perform(MockMvcRequestBuilders.post("/films")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(film("Зеркало"))))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsString();
+		Film film = objectMapper.readValue(created, Film.class);
+		mockMvc.perform(MockMvcRequestBuilders.put("/films")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(film.toBuilder().name("Зеркало (1975)").build())))
+			.andExpect(status().isOk());
+
+		MvcResult started = mockMvc.perform(MockMvcRequestBuilders.get("/changes")
+				.param("since", String.valueOf(since)))
+			.andReturn();
+		mockMvc.perform(asyncDispatch(started))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.gap").value(false))
+			.andExpect(jsonPath("$.last").value(since + 2))
+			.andExpect(jsonPath("$.events[0].seq").value(since + 1))
+			.andExpect(jsonPath("$.events[0].entity").value("film"))
+			.andExpect(jsonPath("$.events[0].operation").value("create"))
+			.andExpect(jsonPath("$.events[1].operation").value("update"))
+			.andExpect(jsonPath("$.events[1].film.name").value("Зеркало (1975)"))
+			.andExpect(jsonPath("$.events[1].film.version").value(2));
+	}
+
+	@Test
+	public void longPollReturnsChangeMadeWhileWaiting() throws Exception {
+		long since = changeLog.lastSeq();
+		MvcResult started = mockMvc.perform(MockMvcRequestBuilders.get("/changes")
+				.param("since", String.valueOf(since))
+				.param("wait", "10"))
+			.andReturn();
+		mockMvc.perform(MockMvcRequestBuilders.post("/users")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"login\":\"follower\",\"email\":\"follower@example.com\",\"birthday\":\"1990-01-01\"}"))
+			.andExpect(status().isOk());
+
+		mockMvc.perform(asyncDispatch(started))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.events[0].entity").value("user"))
+			.andExpect(jsonPath("$.events[0].user.login").value("follower"));
+	}
+
+	@Test
+	public void concurrentUpdatesOfOneFilmArePublishedInVersionOrder() throws Exception {
+		String created = mockMvc.perform(MockMvcRequestBuilders.post("/films")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(film("Солярис"))))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsString();
+		Film film = objectMapper.readValue(created, Film.class);
+		long since = changeLog.lastSeq();
+		int threads = 4;
+		int updates = 50;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int thread = t;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < updates; i++) {
+						Film update = film.toBuilder().name("Солярис " + thread + "-" + i).version(null).build();
+						mockMvc.perform(MockMvcRequestBuilders.put("/films")
+								.contentType(MediaType.APPLICATION_JSON)
+								.content(objectMapper.writeValueAsString(update)))
+							.andExpect(status().isOk());
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		long previous = film.getVersion();
+		for (ChangeEvent event : changeLog.read(since, 10_000).getEvents()) {
+			if (event.getFilm() != null && event.getFilm().getId().equals(film.getId())) {
+				assertTrue(event.getFilm().getVersion() > previous,
+					"версия " + event.getFilm().getVersion() + " после " + previous);
+				previous = event.getFilm().getVersion();
+			}
+		}
+		assertEquals(film.getVersion() + threads * updates, previous);
+	}
+
+	@Test
+	public void rejectsInvalidParameters() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/changes").param("since", "-1"))
+			.andExpect(status().isBadRequest());
+		mockMvc.perform(MockMvcRequestBuilders.get("/changes").param("wait", "3600"))
+			.andExpect(status().isBadRequest());
+	}
+
+	private static Film film(String name) {
+		Film film = new Film();
+		film.setName(name);
+		film.setDescription("Тарковский");
+		film.setReleaseDate(LocalDate.of(1975, 3, 7));
+		film.setDuration(108L);
+		return film;
+	}
+}
@@ -0,0 +1,81 @@
+package ru.yandex.practicum.filmorate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.changes.ChangeLog;
+import ru.yandex.practicum.filmorate.model.ChangeEvent;
+import ru.yandex.practicum.filmorate.model.ChangePage;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChangeLogTest {
+
+	@Test
+	public void readsEventsInOrderAfterSince() {
+		ChangeLog changeLog = new ChangeLog(8, new SimpleMeterRegistry());
+		changeLog.publish(film(1L, 1L));
+		changeLog.publish(User.builder().id(1L).login("neo").version(1L).build());
+		changeLog.publish(film(1L, 2L));
+
+		ChangePage page = changeLog.read(0, 10);
+		assertEquals(List.of(1L, 2L, 3L), page.getEvents().stream().map(ChangeEvent::getSeq).toList());
+		assertEquals(List.of(ChangeEvent.CREATE, ChangeEvent.CREATE, ChangeEvent.UPDATE),
+			page.getEvents().stream().map(ChangeEvent::getOperation).toList());
+		assertEquals(ChangeEvent.USER, page.getEvents().get(1).getEntity());
+		assertEquals(3, page.getLast());
+		assertFalse(page.isGap());
+
+		ChangePage rest = changeLog.read(1, 1);
+		assertEquals(2, rest.getLast());
+		assertEquals(1, rest.getEvents().size());
+		assertTrue(changeLog.read(3, 10).getEvents().isEmpty());
+	}
+
+	@Test
+	public void slowReaderSeesGapInsteadOfBlockingWriters() {
+		ChangeLog changeLog = new ChangeLog(8, new SimpleMeterRegistry());
+		for (long i = 1; i <= 20; i++) {
+			changeLog.publish(film(i, 1L));
+		}
+
+		ChangePage page = changeLog.read(2, 100);
+		assertTrue(page.isGap());
+		assertEquals(13, page.getEvents().get(0).getSeq());
+		assertEquals(20, page.getLast());
+		assertFalse(changeLog.read(page.getLast(), 100).isGap());
+		// Номер из будущего (клиент читал ленту до перезапуска) - тоже пропуск
+		assertTrue(changeLog.read(1000, 100).isGap());
+	}
+
+	@Test
+	public void awaitWakesUpOnPublish() throws Exception {
+		ChangeLog changeLog = new ChangeLog(8, new SimpleMeterRegistry());
+		assertFalse(changeLog.await(0, 10, TimeUnit.MILLISECONDS));
+
+		CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() ->
+			changeLog.await(0, 10, TimeUnit.SECONDS));
+		Thread.sleep(50);
+		changeLog.publish(film(1L, 1L));
+
+		assertTrue(waiting.get(5, TimeUnit.SECONDS));
+	}
+
+	private static Film film(long id, long version) {
+		return Film.builder()
+			.id(id)
+			.name("Фильм " + id)
+			.releaseDate(LocalDate.of(2000, 1, 1))
+			.duration(90)
+			.version(version)
+			.build();
+	}
+}
@@ -0,0 +1,174 @@
+package ru.yandex.practicum.filmorate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class FilmControllerPagingTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	public void pageStartsAfterGivenId() throws Exception {
+		List<Long> ids = createFilms(3);
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/films")
+				.param("after", ids.get(0).toString())
+				.param("limit", "2"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(2))
+			.andExpect(jsonPath("$[0].id").value(ids.get(1)))
+			.andExpect(jsonPath("$[1].id").value(ids.get(2)));
+	}
+
+	@Test
+	public void whenLimitTooLarge() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/films")
+				.param("limit", "100000"))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void whenLimitIsZero() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/users")
+				.param("limit", "0"))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void filterByReleaseDateAndDuration() throws Exception {
+		List<Long> ids = createFilms(1);
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/films")
+				.param("releasedFrom", Film.getMinDate().plusYears(50).toString())
+				.param("releasedTo", Film.getMinDate().plusYears(50).toString())
+				.param("minDuration", "100")
+				.param("sortBy", "releaseDate")
+				.param("order", "desc")
+				.param("limit", "1000"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[?(@.id == " + ids.get(0) + ")]").exists());
+	}
+
+	@Test
+	public void whenReleaseRangeIsInverted() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/films")
+				.param("releasedFrom", "2000-01-01")
+				.param("releasedTo", "1999-01-01"))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void whenSortFieldIsUnknown() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/films")
+				.param("sortBy", "name"))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void streamFilmsAsNdjson() throws Exception {
+		List<Long> ids = createFilms(2);
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/films")
+				.accept(MediaType.APPLICATION_NDJSON))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		String body = mockMvc.perform(asyncDispatch(result))
+			.andExpect(status().isOk())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+			.andReturn()
+			.getResponse()
+			.getContentAsString();
+
+		List<Long> streamedIds = new ArrayList<>();
+		for (String line : body.split("\n")) {
+			streamedIds.add(objectMapper.readValue(line, Film.class).getId());
+		}
+		assertTrue(streamedIds.containsAll(ids));
+	}
+
+	@Test
+	public void findFilmById() throws Exception {
+		List<Long> ids = createFilms(1);
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/films/{id}", ids.get(0)))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.id").value(ids.get(0)))
+			.andExpect(jsonPath("$.name").value("Paged film 0"));
+		mockMvc.perform(MockMvcRequestBuilders.get("/films/{id}", ids.get(0) + 1_000_000))
+			.andExpect(status().isNotFound());
+	}
+
+	@Test
+	public void searchFindsCreatedFilmByNamePrefix() throws Exception {
+		Film film = new Film();
+		film.setName("Солярис");
+		film.setDescription("Станция на орбите планеты");
+		film.setReleaseDate(Film.getMinDate().plusYears(80));
+		film.setDuration(160L);
+		String response = mockMvc.perform(MockMvcRequestBuilders.post("/films")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(film)))
+			.andExpect(status().isOk())
+			.andReturn()
+			.getResponse()
+			.getContentAsString();
+		long id = objectMapper.readValue(response, Film.class).getId();
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/films/search")
+				.param("q", "СОЛЯР"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].id").value(id));
+	}
+
+	@Test
+	public void whenSearchQueryIsBlank() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/films/search")
+				.param("q", "  "))
+			.andExpect(status().isBadRequest());
+	}
+
+	private List<Long> createFilms(int count) throws Exception {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Film film = new Film();
+			film.setName("Paged film " + i);
+			film.setDescription("Description");
+			film.setReleaseDate(Film.getMinDate().plusYears(50));
+			film.setDuration(100L);
+			String response = mockMvc.perform(MockMvcRequestBuilders.post("/films")
+					.contentType(MediaType.APPLICATION_JSON)
+					.content(objectMapper.writeValueAsString(film)))
+				.andExpect(status().isOk())
+				.andReturn()
+				.getResponse()
+				.getContentAsString();
+			ids.add(objectMapper.readValue(response, Film.class).getId());
+		}
+		return ids;
+	}
+}
@@ -0,0 +1,135 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.like.LikeStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class FilmLikesTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private FilmStorage filmStorage;
+
+	@Autowired
+	private UserStorage userStorage;
+
+	@Autowired
+	private LikeStorage likeStorage;
+
+	@Test
+	public void popularFilmsAreOrderedByLikes() throws Exception {
+		long stalker = filmStorage.create(film("Сталкер")).getId();
+		long solaris = filmStorage.create(film("Солярис")).getId();
+		long mirror = filmStorage.create(film("Зеркало")).getId();
+		for (int i = 0; i < 3; i++) {
+			long userId = userStorage.create(user("popular" + i)).getId();
+			like(solaris, userId);
+			if (i < 2) {
+				like(mirror, userId);
+			}
+		}
+		like(stalker, userStorage.create(user("popular3")).getId());
+
+		mockMvc.perform(get("/films/popular").param("count", "3"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(3))
+			.andExpect(jsonPath("$[0].id").value(solaris))
+			.andExpect(jsonPath("$[1].id").value(mirror))
+			.andExpect(jsonPath("$[2].id").value(stalker));
+	}
+
+	@Test
+	public void likeIsCountedOnceAndCanBeRemoved() throws Exception {
+		long filmId = filmStorage.create(film("Андрей Рублёв")).getId();
+		long userId = userStorage.create(user("once")).getId();
+
+		like(filmId, userId);
+		like(filmId, userId);
+		assertEquals(1, likeStorage.countLikes(filmId));
+
+		mockMvc.perform(delete("/films/{id}/like/{userId}", filmId, userId))
+			.andExpect(status().isOk());
+		mockMvc.perform(delete("/films/{id}/like/{userId}", filmId, userId))
+			.andExpect(status().isOk());
+		assertEquals(0, likeStorage.countLikes(filmId));
+	}
+
+	@Test
+	public void recommendationsFollowSimilarUsers() throws Exception {
+		long stalker = filmStorage.create(film("Сталкер")).getId();
+		long solaris = filmStorage.create(film("Солярис")).getId();
+		long mirror = filmStorage.create(film("Зеркало")).getId();
+		long viewer = userStorage.create(user("viewer")).getId();
+		long similar = userStorage.create(user("similar")).getId();
+		like(stalker, viewer);
+		like(stalker, similar);
+		like(solaris, similar);
+
+		mockMvc.perform(get("/users/{id}/recommendations", viewer))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(1))
+			.andExpect(jsonPath("$[0].id").value(solaris));
+
+		like(mirror, similar);
+		like(solaris, viewer);
+		mockMvc.perform(get("/users/{id}/recommendations", viewer))
+			.andExpect(jsonPath("$.length()").value(1))
+			.andExpect(jsonPath("$[0].id").value(mirror));
+	}
+
+	@Test
+	public void unknownFilmOrUserAndBadCountAreRejected() throws Exception {
+		long filmId = filmStorage.create(film("Иваново детство")).getId();
+		long userId = userStorage.create(user("rejected")).getId();
+
+		mockMvc.perform(put("/films/{id}/like/{userId}", 1_000_000, userId))
+			.andExpect(status().isNotFound());
+		mockMvc.perform(put("/films/{id}/like/{userId}", filmId, 1_000_000))
+			.andExpect(status().isNotFound())
+			.andExpect(jsonPath("$.message").value("Пользователь с ID 1000000 не найден."));
+		mockMvc.perform(get("/films/popular").param("count", "0"))
+			.andExpect(status().isBadRequest());
+	}
+
+	private void like(long filmId, long userId) throws Exception {
+		mockMvc.perform(put("/films/{id}/like/{userId}", filmId, userId))
+			.andExpect(status().isOk());
+	}
+
+	private static Film film(String name) {
+		return Film.builder()
+			.name(name)
+			.description("Тарковский")
+			.releaseDate(LocalDate.of(1979, 5, 25))
+			.duration(163)
+			.build();
+	}
+
+	private static User user(String login) {
+		User user = new User();
+		user.setEmail(login + "@example.com");
+		user.setLogin(login);
+		user.setBirthday(LocalDate.of(1932, 4, 4));
+		return user;
+	}
+}
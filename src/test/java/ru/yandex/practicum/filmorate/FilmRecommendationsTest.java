@@ -0,0 +1,87 @@
+package ru.yandex.practicum.filmorate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.recommendation.FilmRecommendations;
+import ru.yandex.practicum.filmorate.storage.like.InMemoryLikeStorage;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FilmRecommendationsTest {
+
+	private final InMemoryLikeStorage likes = new InMemoryLikeStorage();
+
+	@Test
+	public void filmsOfMostSimilarUsersComeFirst() {
+		FilmRecommendations recommendations = recommendations(1);
+		like(1, 10, 11, 12);
+		// Пользователь 2 совпадает с 1 по двум фильмам из трёх, пользователь 3 - по одному
+		like(2, 10, 11, 20);
+		like(3, 12, 30, 31);
+
+		assertEquals(List.of(20L, 30L, 31L), recommendations.recommend(1, 10));
+		assertEquals(List.of(20L), recommendations.recommend(1, 1));
+		assertEquals(List.of(), recommendations.recommend(4, 10));
+	}
+
+	@Test
+	public void likesRefreshCachedNeighbours() {
+		FilmRecommendations recommendations = recommendations(1);
+		like(1, 10);
+		like(2, 10, 20);
+		assertEquals(List.of(20L), recommendations.recommend(1, 10));
+
+		// Новый сосед появляется после лайка общего фильма, а лайкнутый фильм пропадает из рекомендаций
+		like(3, 10, 30);
+		like(1, 20);
+		for (long user : new long[] {1, 2, 3}) {
+			recommendations.likeChanged(user, 10);
+		}
+		recommendations.likeChanged(1, 20);
+		assertEquals(List.of(30L), recommendations.recommend(1, 10));
+
+		likes.removeLike(10, 3);
+		recommendations.likeChanged(3, 10);
+		assertEquals(List.of(), recommendations.recommend(1, 10));
+	}
+
+	@Test
+	public void neighbourLikingOtherFilmsLowersItsSimilarity() {
+		FilmRecommendations recommendations = recommendations(1);
+		like(1, 10, 11);
+		like(2, 10, 20);
+		like(3, 11, 30);
+		assertEquals(List.of(20L, 30L), recommendations.recommend(1, 10));
+
+		// Лайки фильмов, которых нет у пользователя 1, не сбрасывают его соседей, но снижают сходство с 2
+		like(2, 40, 41, 42, 43);
+		for (long film = 40; film <= 43; film++) {
+			recommendations.likeChanged(2, film);
+		}
+		assertEquals(List.of(30L, 20L, 40L, 41L, 42L, 43L), recommendations.recommend(1, 10));
+	}
+
+	@Test
+	public void parallelSearchGivesSameResult() {
+		Random random = new Random(11);
+		for (long user = 1; user <= 20_000; user++) {
+			for (int i = 0; i < 20; i++) {
+				likes.addLike(1 + random.nextInt(300), user);
+			}
+		}
+		assertEquals(recommendations(1).recommend(1, 50), recommendations(4).recommend(1, 50));
+	}
+
+	private FilmRecommendations recommendations(int parallelism) {
+		return new FilmRecommendations(likes, new SimpleMeterRegistry(), parallelism, 50, 10_000, 100);
+	}
+
+	private void like(long userId, long... filmIds) {
+		for (long filmId : filmIds) {
+			likes.addLike(filmId, userId);
+		}
+	}
+}
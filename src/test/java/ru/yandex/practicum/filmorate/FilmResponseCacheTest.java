@@ -0,0 +1,63 @@
+package ru.yandex.practicum.filmorate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Кэш ответов GET /films/{id} включается только для хранилища вне кучи
+@SpringBootTest(properties = {"filmorate.storage.type=mmap", "filmorate.mmap.directory=target/test-mmap"})
+@AutoConfigureMockMvc
+public class FilmResponseCacheTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	public void updateReplacesCachedFilm() throws Exception {
+		Film film = new Film();
+		film.setName("Original");
+		film.setDescription("Description");
+		film.setReleaseDate(Film.getMinDate().plusYears(60));
+		film.setDuration(100L);
+		String response = mockMvc.perform(MockMvcRequestBuilders.post("/films")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(film)))
+			.andExpect(status().isOk())
+			.andReturn()
+			.getResponse()
+			.getContentAsString();
+		Film created = objectMapper.readValue(response, Film.class);
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/films/{id}", created.getId()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.name").value("Original"));
+
+		created.setName("Updated");
+		mockMvc.perform(MockMvcRequestBuilders.put("/films")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(created)))
+			.andExpect(status().isOk());
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/films/{id}", created.getId()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.name").value("Updated"));
+	}
+
+	@Test
+	public void whenFilmIsMissing() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/films/{id}", 1_000_000))
+			.andExpect(status().isNotFound());
+	}
+}
@@ -0,0 +1,118 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.search.FilmSearchIndex;
+import ru.yandex.practicum.filmorate.storage.search.TextTokenizer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FilmSearchIndexTest {
+
+	private final InMemoryFilmStorage storage = new InMemoryFilmStorage();
+	private final FilmSearchIndex index = new FilmSearchIndex(storage);
+
+	@BeforeEach
+	public void setUp() {
+		storage.create(film("Ёлки", "Новогодняя комедия"));
+		storage.create(film("The Matrix", "Hacker learns the truth about reality"));
+		storage.create(film("Матрица: Перезагрузка", "Продолжение фильма Matrix"));
+		index.afterSingletonsInstantiated();
+	}
+
+	@Test
+	public void tokenizerNormalizesCaseAndYo() {
+		assertEquals(List.of("елки", "палки", "2"), TextTokenizer.tokenize("ЁЛКИ-палки 2!"));
+	}
+
+	@Test
+	public void searchIgnoresCaseAndYo() {
+		assertEquals(List.of("Ёлки"), names(index.search("елки", 10)));
+	}
+
+	@Test
+	public void lastWordIsPrefix() {
+		assertEquals(List.of("Матрица: Перезагрузка"), names(index.search("матр", 10)));
+		assertEquals(List.of("The Matrix"), names(index.search("hacker tru", 10)));
+	}
+
+	@Test
+	public void prefixMatchesEveryWordWithIt() {
+		for (int i = 0; i < 100; i++) {
+			storage.create(film("Серия " + i, "Сезон" + i));
+		}
+		index.afterSingletonsInstantiated();
+
+		assertEquals(100, index.search("сез", 200).size());
+		// Однобуквенное последнее слово ищется целиком, а не как префикс
+		assertEquals(List.of(), names(index.search("с", 200)));
+	}
+
+	@Test
+	public void nameMatchRanksAboveDescription() {
+		assertEquals(List.of("The Matrix", "Матрица: Перезагрузка"), names(index.search("matrix", 10)));
+	}
+
+	@Test
+	public void updateReplacesIndexedWords() {
+		Film matrix = storage.findById(2).orElseThrow();
+		storage.update(matrix.toBuilder().name("Inception").description("Dreams").build());
+		index.refresh(List.of(matrix));
+
+		assertEquals(List.of("Матрица: Перезагрузка"), names(index.search("matrix", 10)));
+		assertEquals(List.of("Inception"), names(index.search("dream", 10)));
+	}
+
+	@Test
+	public void updateReweighsKeptWords() {
+		Film matrix = storage.findById(2).orElseThrow();
+		Film reloaded = storage.findById(3).orElseThrow();
+		// Слово matrix остаётся у обоих фильмов, но переезжает между названием и описанием
+		storage.update(matrix.toBuilder().name("Hackers").description("Matrix").build());
+		storage.update(reloaded.toBuilder().name("Matrix Reloaded").build());
+		index.refresh(List.of(matrix, reloaded));
+
+		assertEquals(List.of("Matrix Reloaded", "Hackers"), names(index.search("matrix", 10)));
+	}
+
+	@Test
+	public void removedFilmsLeaveIndexAndOthersStayFound() {
+		List<Film> created = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			created.add(storage.create(film("Кадр " + i, "Слово" + i)));
+		}
+		index.afterSingletonsInstantiated();
+		List<Film> removed = new ArrayList<>();
+		for (int i = 0; i < created.size(); i += 3) {
+			storage.rollback(created.get(i), null);
+			removed.add(created.get(i));
+		}
+		index.refresh(removed);
+
+		assertEquals(200, index.search("кадр", 500).size());
+		for (int i = 0; i < created.size(); i++) {
+			// Последнее слово - префикс, поэтому "слово1" находит и "слово10"
+			List<String> found = names(index.search("слово" + i, 500));
+			assertEquals(i % 3 != 0, found.contains("Кадр " + i));
+		}
+	}
+
+	private static List<String> names(List<Film> films) {
+		return films.stream().map(Film::getName).toList();
+	}
+
+	private static Film film(String name, String description) {
+		Film film = new Film();
+		film.setName(name);
+		film.setDescription(description);
+		film.setReleaseDate(LocalDate.of(2000, 1, 1));
+		film.setDuration(100L);
+		return film;
+	}
+}
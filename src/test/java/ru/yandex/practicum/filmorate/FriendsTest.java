@@ -0,0 +1,92 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class FriendsTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserStorage userStorage;
+
+	@Test
+	public void friendshipIsMutualAndCanBeRemoved() throws Exception {
+		long first = create("mutual1");
+		long second = create("mutual2");
+
+		befriend(first, second);
+		befriend(second, first);
+		mockMvc.perform(get("/users/{id}/friends", second))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(1))
+			.andExpect(jsonPath("$[0].id").value(first));
+
+		mockMvc.perform(delete("/users/{id}/friends/{friendId}", second, first))
+			.andExpect(status().isOk());
+		mockMvc.perform(get("/users/{id}/friends", first))
+			.andExpect(jsonPath("$.length()").value(0));
+	}
+
+	@Test
+	public void commonFriendsAreReturnedInIdOrder() throws Exception {
+		long first = create("common1");
+		long second = create("common2");
+		long shared = create("common3");
+		long other = create("common4");
+		long alsoShared = create("common5");
+		befriend(first, alsoShared);
+		befriend(first, shared);
+		befriend(first, other);
+		befriend(second, shared);
+		befriend(second, alsoShared);
+
+		mockMvc.perform(get("/users/{id}/friends/common/{otherId}", first, second))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(2))
+			.andExpect(jsonPath("$[0].id").value(shared))
+			.andExpect(jsonPath("$[1].id").value(alsoShared));
+	}
+
+	@Test
+	public void unknownUserAndSelfFriendshipAreRejected() throws Exception {
+		long id = create("lonely");
+
+		mockMvc.perform(put("/users/{id}/friends/{friendId}", id, 1_000_000))
+			.andExpect(status().isNotFound())
+			.andExpect(jsonPath("$.message").value("Пользователь с ID 1000000 не найден."));
+		mockMvc.perform(put("/users/{id}/friends/{friendId}", id, id))
+			.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/users/{id}/friends/common/{otherId}", 1_000_000, id))
+			.andExpect(status().isNotFound());
+	}
+
+	private void befriend(long id, long friendId) throws Exception {
+		mockMvc.perform(put("/users/{id}/friends/{friendId}", id, friendId))
+			.andExpect(status().isOk());
+	}
+
+	private long create(String login) {
+		User user = new User();
+		user.setEmail(login + "@example.com");
+		user.setLogin(login);
+		user.setBirthday(LocalDate.of(1932, 4, 4));
+		return userStorage.create(user).getId();
+	}
+}
@@ -0,0 +1,39 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.storage.IdSequence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IdSequenceTest {
+
+	@Test
+	public void nextIdsAreSequential() {
+		IdSequence ids = new IdSequence();
+		assertEquals(1, ids.next());
+		assertEquals(2, ids.next());
+		assertEquals(2, ids.current());
+	}
+
+	@Test
+	public void blockReservesConsecutiveIds() {
+		IdSequence ids = new IdSequence();
+		ids.next();
+		assertEquals(2, ids.nextBlock(10));
+		assertEquals(12, ids.next());
+	}
+
+	@Test
+	public void rejectEmptyBlock() {
+		assertThrows(IllegalArgumentException.class, () -> new IdSequence().nextBlock(0));
+	}
+
+	@Test
+	public void advanceToNeverMovesBackwards() {
+		IdSequence ids = new IdSequence();
+		ids.advanceTo(100);
+		ids.advanceTo(50);
+		assertEquals(101, ids.next());
+	}
+}
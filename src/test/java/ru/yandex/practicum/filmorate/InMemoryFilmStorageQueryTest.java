@@ -0,0 +1,113 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmQuery;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class InMemoryFilmStorageQueryTest {
+
+	private final InMemoryFilmStorage storage = new InMemoryFilmStorage();
+
+	@Test
+	public void releaseRangeIsSortedById() {
+		Film a = storage.create(film("A", LocalDate.of(1990, 5, 1), 100));
+		storage.create(film("B", LocalDate.of(2010, 1, 1), 90));
+		Film c = storage.create(film("C", LocalDate.of(1995, 1, 1), 120));
+
+		FilmQuery query = new FilmQuery();
+		query.setReleasedFrom(LocalDate.of(1990, 1, 1));
+		query.setReleasedTo(LocalDate.of(1999, 12, 31));
+
+		assertEquals(List.of(a, c), storage.findByQuery(query, 10));
+	}
+
+	@Test
+	public void durationRangeSortedByDurationDescending() {
+		Film a = storage.create(film("A", LocalDate.of(1990, 5, 1), 100));
+		storage.create(film("B", LocalDate.of(2010, 1, 1), 200));
+		Film c = storage.create(film("C", LocalDate.of(1995, 1, 1), 120));
+		storage.create(film("D", LocalDate.of(1995, 1, 1), 60));
+
+		FilmQuery query = new FilmQuery();
+		query.setMinDuration(90L);
+		query.setMaxDuration(150L);
+		query.setSortBy(FilmQuery.SORT_DURATION);
+		query.setOrder(FilmQuery.ORDER_DESC);
+
+		assertEquals(List.of(c, a), storage.findByQuery(query, 10));
+	}
+
+	@Test
+	public void updateMovesFilmBetweenRanges() {
+		Film a = storage.create(film("A", LocalDate.of(1990, 5, 1), 100));
+		storage.update(a.toBuilder().releaseDate(LocalDate.of(2020, 1, 1)).build());
+
+		FilmQuery old = new FilmQuery();
+		old.setReleasedTo(LocalDate.of(2000, 1, 1));
+		FilmQuery recent = new FilmQuery();
+		recent.setReleasedFrom(LocalDate.of(2019, 1, 1));
+		recent.setSortBy(FilmQuery.SORT_RELEASE_DATE);
+
+		assertEquals(List.of(), storage.findByQuery(old, 10));
+		assertEquals(1, storage.findByQuery(recent, 10).size());
+	}
+
+	@Test
+	public void combinedFiltersRespectLimit() {
+		for (int i = 0; i < 20; i++) {
+			storage.create(film("F" + i, LocalDate.of(2000, 1, 1).plusDays(i), 90 + i));
+		}
+		FilmQuery query = new FilmQuery();
+		query.setReleasedFrom(LocalDate.of(2000, 1, 5));
+		query.setMinDuration(100L);
+		query.setSortBy(FilmQuery.SORT_RELEASE_DATE);
+
+		List<Film> result = storage.findByQuery(query, 3);
+		assertEquals(List.of("F10", "F11", "F12"), result.stream().map(Film::getName).toList());
+	}
+
+	@Test
+	public void idOrderedPagesMatchFullScanForNarrowAndWideRanges() {
+		Random random = new Random(7);
+		for (int i = 0; i < 2_000; i++) {
+			storage.create(film("F" + i, LocalDate.of(1950, 1, 1).plusDays(random.nextInt(25_000)),
+				60 + random.nextInt(180)));
+		}
+		for (int year : new int[] {1950, 1980, 2010}) {
+			for (int lastYear : new int[] {year, year + 40}) {
+				for (String order : new String[] {FilmQuery.ORDER_ASC, FilmQuery.ORDER_DESC}) {
+					FilmQuery query = new FilmQuery();
+					query.setReleasedFrom(LocalDate.of(year, 1, 1));
+					query.setReleasedTo(LocalDate.of(lastYear, 12, 31));
+					query.setMinDuration(100L);
+					query.setOrder(order);
+					assertEquals(scan(query, 50), storage.findByQuery(query, 50), query.toString());
+				}
+			}
+		}
+	}
+
+	private List<Film> scan(FilmQuery query, int limit) {
+		return storage.findAll().stream()
+			.filter(query::matches)
+			.sorted(query.comparator())
+			.limit(limit)
+			.toList();
+	}
+
+	private Film film(String name, LocalDate releaseDate, long duration) {
+		Film film = new Film();
+		film.setName(name);
+		film.setDescription("Description");
+		film.setReleaseDate(releaseDate);
+		film.setDuration(duration);
+		return film;
+	}
+}
@@ -0,0 +1,104 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.storage.like.InMemoryLikeStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InMemoryLikeStorageTest {
+
+	@Test
+	public void rankingFollowsLikesAndUnlikes() {
+		InMemoryLikeStorage storage = new InMemoryLikeStorage();
+		storage.addLike(1, 10);
+		storage.addLike(2, 10);
+		storage.addLike(2, 11);
+		storage.addLike(3, 10);
+		assertEquals(List.of(2L, 1L, 3L), storage.findPopular(10));
+
+		assertFalse(storage.addLike(2, 11));
+		assertTrue(storage.removeLike(2, 10));
+		assertTrue(storage.removeLike(2, 11));
+		assertFalse(storage.removeLike(2, 11));
+		assertEquals(List.of(1L, 3L), storage.findPopular(10));
+		assertEquals(List.of(1L), storage.findPopular(1));
+	}
+
+	@Test
+	public void restoreReplacesLikes() {
+		InMemoryLikeStorage storage = new InMemoryLikeStorage();
+		storage.addLike(1, 10);
+		storage.restore(2, new long[] {7, 5, 7, 6});
+		assertEquals(3, storage.countLikes(2));
+		assertEquals(List.of(2L, 1L), storage.findPopular(10));
+		assertArrayEquals(new long[] {5, 6, 7}, storage.findLikerIds(2));
+
+		storage.restore(2, new long[] {10, 6});
+		assertArrayEquals(new long[] {1, 2}, storage.findLikedFilmIds(10));
+		assertArrayEquals(new long[0], storage.findLikedFilmIds(5));
+		assertEquals(1, storage.countLikedFilms(6));
+
+		storage.restore(2, new long[0]);
+		assertEquals(0, storage.countLikes(2));
+		assertEquals(List.of(1L), storage.findPopular(10));
+		assertArrayEquals(new long[] {1}, storage.findLikedFilmIds(10));
+	}
+
+	@Test
+	public void concurrentLikesKeepRankingConsistent() throws Exception {
+		InMemoryLikeStorage storage = new InMemoryLikeStorage();
+		int films = 16;
+		List<Future<?>> tasks = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			for (int thread = 0; thread < 8; thread++) {
+				tasks.add(executor.submit(() -> {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for (int i = 0; i < 20_000; i++) {
+						long filmId = random.nextInt(films);
+						long userId = random.nextInt(64);
+						if (random.nextBoolean()) {
+							storage.addLike(filmId, userId);
+						} else {
+							storage.removeLike(filmId, userId);
+						}
+						List<Long> popular = storage.findPopular(films);
+						assertEquals(popular.size(), popular.stream().distinct().count());
+					}
+				}));
+			}
+			for (Future<?> task : tasks) {
+				task.get();
+			}
+		}
+
+		List<Long> popular = storage.findPopular(films);
+		// Строки пользователей и списки лайкнувших фильмы совпадают в обе стороны
+		for (long userId = 0; userId < 64; userId++) {
+			for (long filmId : storage.findLikedFilmIds(userId)) {
+				assertTrue(Arrays.binarySearch(storage.findLikerIds(filmId), userId) >= 0);
+			}
+		}
+		for (long filmId = 0; filmId < films; filmId++) {
+			for (long userId : storage.findLikerIds(filmId)) {
+				assertTrue(Arrays.binarySearch(storage.findLikedFilmIds(userId), filmId) >= 0);
+			}
+		}
+		for (int i = 1; i < popular.size(); i++) {
+			assertTrue(storage.countLikes(popular.get(i - 1)) >= storage.countLikes(popular.get(i)));
+		}
+		for (long filmId = 0; filmId < films; filmId++) {
+			assertEquals(storage.countLikes(filmId) > 0, popular.contains(filmId));
+		}
+	}
+}
@@ -0,0 +1,180 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmQuery;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InMemoryStorageConcurrencyTest {
+
+	private static final int THREADS = 8;
+	private static final int PER_THREAD = 5_000;
+
+	@Test
+	public void concurrentFilmCreatesAreNotLost() throws Exception {
+		InMemoryFilmStorage storage = new InMemoryFilmStorage();
+		Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+		runConcurrently(() -> {
+			for (int i = 0; i < PER_THREAD; i++) {
+				ids.add(storage.create(film("Film " + i)).getId());
+			}
+		});
+
+		assertEquals(THREADS * PER_THREAD, storage.size());
+		assertEquals(THREADS * PER_THREAD, ids.size());
+	}
+
+	@Test
+	public void concurrentFilmUpdatesReplaceWholeEntity() throws Exception {
+		InMemoryFilmStorage storage = new InMemoryFilmStorage();
+		long id = storage.create(film("Initial")).getId();
+
+		runConcurrently(() -> {
+			String name = Thread.currentThread().getName();
+			for (int i = 0; i < PER_THREAD; i++) {
+				Film update = film(name);
+				update.setId(id);
+				update.setDescription(name);
+				storage.update(update);
+
+				Film current = storage.findById(id).orElseThrow();
+				assertEquals(current.getName(), current.getDescription());
+				for (Film film : storage.findAll()) {
+					assertEquals(film.getName(), film.getDescription());
+				}
+			}
+		});
+	}
+
+	// Каждый поток увеличивает продолжительность на 1 с проверкой версии и повторяет при конфликте:
+	// ни одно увеличение не должно потеряться, а индекс по продолжительности - указывать на старые значения
+	@Test
+	public void versionedFilmUpdatesAreNotLost() throws Exception {
+		InMemoryFilmStorage storage = new InMemoryFilmStorage();
+		long id = storage.create(film("Hot")).getId();
+
+		runConcurrently(() -> {
+			for (int i = 0; i < PER_THREAD; i++) {
+				while (true) {
+					Film current = storage.findById(id).orElseThrow();
+					try {
+						storage.update(current.toBuilder().duration(current.getDuration() + 1).build());
+						break;
+					} catch (ConflictException e) {
+						// Версию успел сменить другой поток - перечитываем
+					}
+				}
+			}
+		});
+
+		Film result = storage.findById(id).orElseThrow();
+		assertEquals(90 + THREADS * PER_THREAD, result.getDuration());
+		assertEquals(1 + THREADS * PER_THREAD, result.getVersion());
+		FilmQuery query = new FilmQuery();
+		query.setMinDuration(0L);
+		assertEquals(List.of(result), storage.findByQuery(query, 10));
+	}
+
+	@Test
+	public void versionedUserUpdatesKeepLoginIndexConsistent() throws Exception {
+		InMemoryUserStorage storage = new InMemoryUserStorage();
+		long id = storage.create(user("hot")).getId();
+		Set<String> logins = ConcurrentHashMap.newKeySet();
+
+		runConcurrently(() -> {
+			String login = "hot" + Thread.currentThread().threadId();
+			logins.add(login);
+			for (int i = 0; i < PER_THREAD / 10; i++) {
+				User current = storage.findById(id).orElseThrow();
+				// Половина обновлений меняет логин, половина - только имя
+				User update = i % 2 == 0 ? current.toBuilder().login(login).build() : current.toBuilder().name(login).build();
+				try {
+					storage.update(update);
+				} catch (ConflictException e) {
+					// Проиграл гонку версий
+				}
+			}
+		});
+
+		User result = storage.findById(id).orElseThrow();
+		assertEquals(result, storage.findByLogin(result.getLogin()).orElseThrow());
+		// Логины, которые проиграли гонку или были заменены, освобождены
+		logins.remove(result.getLogin());
+		for (String login : logins) {
+			storage.create(user(login));
+		}
+	}
+
+	@Test
+	public void concurrentUserCreatesAndIterationDoNotFail() throws Exception {
+		InMemoryUserStorage storage = new InMemoryUserStorage();
+
+		runConcurrently(() -> {
+			for (int i = 0; i < PER_THREAD; i++) {
+				storage.create(user(Thread.currentThread().getName() + "-" + i));
+				if (i % 500 == 0) {
+					assertTrue(storage.findAll().stream().allMatch(u -> u.getId() != null));
+				}
+			}
+		});
+
+		assertEquals(THREADS * PER_THREAD, storage.size());
+	}
+
+	private void runConcurrently(Runnable task) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		try {
+			for (int i = 0; i < THREADS; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					task.run();
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private Film film(String name) {
+		Film film = new Film();
+		film.setName(name);
+		film.setDescription(name);
+		film.setReleaseDate(LocalDate.of(2000, 1, 1));
+		film.setDuration(90);
+		return film;
+	}
+
+	private User user(String login) {
+		User user = new User();
+		user.setEmail(login + "@example.com");
+		user.setLogin(login);
+		user.setName(login);
+		user.setBirthday(LocalDate.of(1990, 1, 1));
+		return user;
+	}
+}
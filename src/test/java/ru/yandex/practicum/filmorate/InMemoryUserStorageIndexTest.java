@@ -0,0 +1,136 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InMemoryUserStorageIndexTest {
+
+	private final InMemoryUserStorage storage = new InMemoryUserStorage();
+
+	@Test
+	public void findByLoginAndEmailIgnoringEmailCase() {
+		User created = storage.create(user("neo", "Neo@Example.com"));
+
+		assertEquals(created, storage.findByLogin("neo").orElseThrow());
+		assertEquals(created, storage.findByEmail("neo@example.COM").orElseThrow());
+		assertTrue(storage.findByLogin("NEO").isEmpty());
+	}
+
+	@Test
+	public void duplicateLoginOrEmailIsRejected() {
+		storage.create(user("neo", "neo@example.com"));
+
+		assertThrows(ConflictException.class, () -> storage.create(user("neo", "other@example.com")));
+		assertThrows(ConflictException.class, () -> storage.create(user("trinity", "NEO@example.com")));
+		// Отклонённый пользователь не занял свой логин
+		storage.create(user("trinity", "trinity@example.com"));
+		assertEquals(2, storage.size());
+	}
+
+	@Test
+	public void updateMovesLoginAndFreesOldOne() {
+		User neo = storage.create(user("neo", "neo@example.com"));
+		User morpheus = storage.create(user("morpheus", "morpheus@example.com"));
+
+		storage.update(neo.toBuilder().login("theone").build());
+		assertThrows(ConflictException.class, () -> storage.update(morpheus.toBuilder().login("theone").build()));
+		storage.update(morpheus.toBuilder().login("neo").build());
+
+		assertEquals(neo.getId(), storage.findByLogin("theone").orElseThrow().getId());
+		assertEquals(morpheus.getId(), storage.findByLogin("neo").orElseThrow().getId());
+		assertTrue(storage.findByLogin("morpheus").isEmpty());
+	}
+
+	@Test
+	public void createAllIsRejectedAsWhole() {
+		storage.create(user("neo", "neo@example.com"));
+
+		assertThrows(ConflictException.class, () -> storage.createAll(List.of(
+			user("trinity", "trinity@example.com"),
+			user("neo", "another@example.com"))));
+
+		assertEquals(1, storage.size());
+		storage.create(user("trinity", "trinity@example.com"));
+	}
+
+	@Test
+	public void onlyOneConcurrentCreateWinsLogin() throws Exception {
+		int threads = 8;
+		AtomicInteger created = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		for (int i = 0; i < threads; i++) {
+			int number = i;
+			executor.submit(() -> {
+				start.await();
+				try {
+					storage.create(user("same", "user" + number + "@example.com"));
+					created.incrementAndGet();
+				} catch (ConflictException e) {
+					// Логин уже занят другим потоком
+				}
+				return null;
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(1, created.get());
+		assertEquals(1, storage.size());
+	}
+
+	@Test
+	public void replicateAppliesOnlyNewerVersionsAndMovesIndexes() {
+		User first = user("neo", "neo@example.com").toBuilder().id(7L).version(2L).build();
+		assertTrue(storage.replicate(first));
+		assertFalse(storage.replicate(first.toBuilder().login("stale").version(1L).build()));
+		assertTrue(storage.replicate(first.toBuilder().login("anderson").version(3L).build()));
+
+		assertTrue(storage.findByLogin("neo").isEmpty());
+		assertEquals(3L, storage.findByLogin("anderson").orElseThrow().getVersion());
+		// Следующий созданный пользователь не займёт id, пришедший с ведущего узла
+		assertEquals(8L, storage.create(user("trinity", "trinity@example.com")).getId());
+	}
+
+	@Test
+	public void rollbackRestoresPreviousUserAndLogins() {
+		User neo = storage.create(user("neo", "neo@example.com"));
+		User renamed = storage.update(neo.toBuilder().login("theone").build());
+		User created = storage.create(user("trinity", "trinity@example.com"));
+
+		assertTrue(storage.rollback(renamed, neo));
+		assertTrue(storage.rollback(created, null));
+		// Уже откаченное изменение не откатывается повторно
+		assertFalse(storage.rollback(renamed, neo));
+
+		assertEquals(neo, storage.findByLogin("neo").orElseThrow());
+		assertTrue(storage.findByLogin("theone").isEmpty());
+		assertTrue(storage.findByEmail("trinity@example.com").isEmpty());
+		assertEquals(1, storage.size());
+	}
+
+	private User user(String login, String email) {
+		User user = new User();
+		user.setEmail(email);
+		user.setLogin(login);
+		user.setName(login);
+		user.setBirthday(LocalDate.of(1990, 1, 1));
+		return user;
+	}
+}
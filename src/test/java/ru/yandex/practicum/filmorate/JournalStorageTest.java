@@ -0,0 +1,272 @@
+package ru.yandex.practicum.filmorate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.journal.Journal;
+import ru.yandex.practicum.filmorate.storage.journal.JournalMaintenance;
+import ru.yandex.practicum.filmorate.storage.journal.JournalRecord;
+import ru.yandex.practicum.filmorate.storage.journal.JournaledFilmStorage;
+import ru.yandex.practicum.filmorate.storage.journal.JournaledFriendStorage;
+import ru.yandex.practicum.filmorate.storage.journal.JournaledLikeStorage;
+import ru.yandex.practicum.filmorate.storage.journal.JournaledUserStorage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JournalStorageTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+	@TempDir
+	private Path directory;
+
+	@Test
+	public void stateSurvivesRestart() throws IOException {
+		try (Node node = new Node()) {
+			Film created = node.films.create(film("First"));
+			node.films.createAll(List.of(film("Second"), film("Third")));
+			Film update = created.toBuilder().name("First, updated").build();
+			node.films.update(update);
+			node.users.create(user("login"));
+		}
+
+		try (Node node = new Node()) {
+			assertEquals(3, node.films.size());
+			assertEquals(1, node.users.size());
+			assertEquals("First, updated", node.films.findById(1).orElseThrow().getName());
+			assertEquals(4, node.films.create(film("Fourth")).getId());
+		}
+	}
+
+	@Test
+	public void snapshotReplacesOldSegments() throws IOException {
+		try (Node node = new Node()) {
+			for (int i = 0; i < 10; i++) {
+				node.films.create(film("Film " + i));
+			}
+			node.maintenance.snapshot();
+			node.films.update(film("After snapshot").toBuilder().id(5L).build());
+		}
+
+		assertEquals(1, segmentCount());
+		try (Node node = new Node()) {
+			assertEquals(10, node.films.size());
+			assertEquals("After snapshot", node.films.findById(5).orElseThrow().getName());
+		}
+	}
+
+	@Test
+	public void likesAndFriendsSurviveRestart() throws IOException {
+		try (Node node = new Node()) {
+			node.films.createAll(List.of(film("First"), film("Second")));
+			for (int i = 0; i < 3; i++) {
+				node.users.create(user("user" + i));
+			}
+			node.likes.addLike(1, 1);
+			node.likes.addLike(1, 2);
+			node.likes.addLike(2, 3);
+			node.likes.removeLike(1, 2);
+			node.friends.addFriend(1, 2);
+			node.friends.addFriend(1, 3);
+			node.friends.removeFriend(1, 3);
+		}
+
+		try (Node node = new Node()) {
+			assertArrayEquals(new long[] {1}, node.likes.findLikerIds(1));
+			assertArrayEquals(new long[] {3}, node.likes.findLikerIds(2));
+			assertArrayEquals(new long[] {2}, node.friends.findFriendIds(1));
+			assertArrayEquals(new long[] {1}, node.friends.findFriendIds(2));
+			assertEquals(2, node.friends.countEdges());
+		}
+	}
+
+	@Test
+	public void snapshotKeepsLikesAndFriends() throws IOException {
+		try (Node node = new Node()) {
+			node.films.createAll(List.of(film("First"), film("Second")));
+			for (int i = 0; i < 3; i++) {
+				node.users.create(user("user" + i));
+			}
+			node.likes.addLike(1, 1);
+			node.likes.addLike(1, 3);
+			node.friends.addFriend(1, 2);
+			node.friends.addFriend(2, 3);
+			node.maintenance.snapshot();
+			node.likes.removeLike(1, 1);
+			node.likes.addLike(2, 2);
+		}
+
+		try (Node node = new Node()) {
+			assertArrayEquals(new long[] {3}, node.likes.findLikerIds(1));
+			assertArrayEquals(new long[] {2}, node.likes.findLikerIds(2));
+			assertArrayEquals(new long[] {1, 3}, node.friends.findFriendIds(2));
+			assertEquals(4, node.friends.countEdges());
+			assertEquals(List.of(1L, 2L), node.likes.findPopular(10));
+		}
+	}
+
+	@Test
+	public void tornTailIsIgnored() throws IOException {
+		try (Node node = new Node()) {
+			node.films.create(film("Complete"));
+		}
+		try (Stream<Path> files = Files.list(directory)) {
+			Path segment = files.filter(path -> path.toString().endsWith(".log")).findFirst().orElseThrow();
+			Files.writeString(segment, "{\"film\":{\"id\":2,\"na", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+		}
+
+		try (Node node = new Node()) {
+			assertEquals(1, node.films.size());
+			assertEquals(2, node.films.create(film("Next")).getId());
+		}
+	}
+
+	@Test
+	public void tailTornInsideMultibyteCharacterIsIgnored() throws IOException {
+		try (Node node = new Node()) {
+			node.films.create(film("Полный"));
+		}
+		try (Stream<Path> files = Files.list(directory)) {
+			Path segment = files.filter(path -> path.toString().endsWith(".log")).findFirst().orElseThrow();
+			byte[] record = "{\"film\":{\"id\":2,\"name\":\"Ф".getBytes(StandardCharsets.UTF_8);
+			// Обрыв между двумя байтами буквы "Ф"
+			Files.write(segment, Arrays.copyOf(record, record.length - 1), StandardOpenOption.APPEND);
+		}
+
+		try (Node node = new Node()) {
+			assertEquals(1, node.films.size());
+			assertEquals("Полный", node.films.findById(1).orElseThrow().getName());
+		}
+	}
+
+	@Test
+	public void snapshotDoesNotCaptureWriteThatIsRolledBack() throws Exception {
+		HeldJournal journal = new HeldJournal();
+		try (Node node = new Node(journal)) {
+			Film original = node.films.create(film("Original"));
+			CompletableFuture<Long> held = journal.holdNextAppend();
+			CompletableFuture<Film> update = CompletableFuture.supplyAsync(() ->
+				node.films.update(original.toBuilder().name("Rolled back").build()));
+			while (!"Rolled back".equals(node.films.findById(1).orElseThrow().getName())) {
+				Thread.onSpinWait();
+			}
+			CompletableFuture<Void> snapshot = CompletableFuture.runAsync(() -> {
+				try {
+					node.maintenance.snapshot();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			// Снимок ждёт, пока изменение не будет записано или откачено
+			Thread.sleep(200);
+			assertFalse(snapshot.isDone());
+
+			held.completeExceptionally(new UncheckedIOException(new IOException("Диск недоступен")));
+			assertThrows(ExecutionException.class, update::get);
+			snapshot.get(10, TimeUnit.SECONDS);
+			assertEquals("Original", node.films.findById(1).orElseThrow().getName());
+		}
+
+		try (Node node = new Node()) {
+			assertEquals("Original", node.films.findById(1).orElseThrow().getName());
+		}
+	}
+
+	private long segmentCount() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(path -> path.toString().endsWith(".log")).count();
+		}
+	}
+
+	private Film film(String name) {
+		Film film = new Film();
+		film.setName(name);
+		film.setDescription("Description");
+		film.setReleaseDate(LocalDate.of(2000, 1, 1));
+		film.setDuration(90);
+		return film;
+	}
+
+	private User user(String login) {
+		User user = new User();
+		user.setEmail(login + "@example.com");
+		user.setLogin(login);
+		user.setName(login);
+		user.setBirthday(LocalDate.of(1990, 1, 1));
+		return user;
+	}
+
+	// Следующая запись не уходит на диск, а ждёт, пока тест сам завершит её future
+	private class HeldJournal extends Journal {
+
+		private final AtomicReference<CompletableFuture<Long>> held = new AtomicReference<>();
+
+		HeldJournal() throws IOException {
+			super(directory, 64, Duration.ZERO, objectMapper);
+		}
+
+		CompletableFuture<Long> holdNextAppend() {
+			CompletableFuture<Long> future = new CompletableFuture<>();
+			held.set(future);
+			return future;
+		}
+
+		@Override
+		public CompletableFuture<Long> append(JournalRecord record) {
+			CompletableFuture<Long> future = held.getAndSet(null);
+			return future != null ? future : super.append(record);
+		}
+	}
+
+	private class Node implements AutoCloseable {
+
+		private final Journal journal;
+		private final JournaledFilmStorage films;
+		private final JournaledUserStorage users;
+		private final JournaledLikeStorage likes;
+		private final JournaledFriendStorage friends;
+		private final JournalMaintenance maintenance;
+
+		Node() throws IOException {
+			this(new Journal(directory, 64, Duration.ZERO, objectMapper));
+		}
+
+		Node(Journal journal) throws IOException {
+			this.journal = journal;
+			films = new JournaledFilmStorage(journal);
+			users = new JournaledUserStorage(journal);
+			likes = new JournaledLikeStorage(journal);
+			friends = new JournaledFriendStorage(journal);
+			maintenance = new JournalMaintenance(journal, films, users, likes, friends, Duration.ofHours(1),
+				Long.MAX_VALUE);
+			maintenance.recover();
+		}
+
+		@Override
+		public void close() {
+			journal.close();
+		}
+	}
+}
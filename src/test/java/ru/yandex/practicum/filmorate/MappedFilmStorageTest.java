@@ -0,0 +1,146 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmQuery;
+import ru.yandex.practicum.filmorate.storage.film.MappedFilmStorage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MappedFilmStorageTest {
+
+	@TempDir
+	private Path directory;
+
+	private MappedFilmStorage storage;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		storage = new MappedFilmStorage(directory);
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		storage.close();
+	}
+
+	@Test
+	public void filmIsReadBackWithAllFields() {
+		Film film = film("Брат", "Фильм Алексея Балабанова");
+		Film created = storage.create(film);
+
+		assertEquals(created, storage.findById(created.getId()).orElseThrow());
+		assertEquals(LocalDate.of(1997, 12, 12), created.getReleaseDate());
+	}
+
+	@Test
+	public void nullDescriptionIsKept() {
+		Film created = storage.create(film("No description", null));
+		assertNull(storage.findById(created.getId()).orElseThrow().getDescription());
+	}
+
+	@Test
+	public void updateReplacesRecord() {
+		Film created = storage.create(film("Before", "Old"));
+		storage.update(created.toBuilder().name("After").description(null).duration(1).build());
+
+		Film updated = storage.findById(created.getId()).orElseThrow();
+		assertEquals("After", updated.getName());
+		assertNull(updated.getDescription());
+		assertEquals(1, updated.getDuration());
+	}
+
+	@Test
+	public void updateOfMissingFilmFails() {
+		Film film = film("Missing", "d");
+		film.setId(42L);
+		assertThrows(NotFoundException.class, () -> storage.update(film));
+	}
+
+	@Test
+	public void tooLongNameIsRejectedBeforeAnythingIsWritten() {
+		Film tooLong = film("x".repeat(1 << 24), null);
+		assertThrows(ValidationException.class, () -> storage.createAll(List.of(film("Fits", null), tooLong)));
+		assertEquals(0, storage.size());
+
+		Film created = storage.create(film("Fits", null));
+		assertEquals(1, created.getId());
+		assertThrows(ValidationException.class, () -> storage.update(tooLong.toBuilder().id(1L).build()));
+		assertEquals("Fits", storage.findById(1).orElseThrow().getName());
+	}
+
+	@Test
+	public void pagesAndIterationFollowIds() {
+		List<Film> created = storage.createAll(List.of(film("A", "a"), film("B", "b"), film("C", "c")));
+
+		assertEquals(3, storage.size());
+		assertEquals(List.of(created.get(1), created.get(2)), storage.findPage(created.get(0).getId(), 10));
+		assertEquals(created, List.copyOf(storage.findAll()));
+		assertTrue(storage.findById(100).isEmpty());
+	}
+
+	@Test
+	public void recordsCrossChunkBoundary() {
+		for (int i = 0; i < (1 << 20) + 10; i++) {
+			storage.create(film("Film " + i, null));
+		}
+		assertEquals("Film " + (1 << 20), storage.findById((1 << 20) + 1).orElseThrow().getName());
+	}
+
+	@Test
+	public void rangeQueriesUseSlotIndexesAndFollowUpdates() {
+		Random random = new Random(7);
+		List<Film> films = new ArrayList<>();
+		for (int i = 0; i < 2_000; i++) {
+			films.add(film("F" + i, null).toBuilder()
+				.releaseDate(LocalDate.of(1950, 1, 1).plusDays(random.nextInt(25_000)))
+				.duration(60 + random.nextInt(180))
+				.build());
+		}
+		storage.createAll(films);
+		storage.update(storage.findById(5).orElseThrow().toBuilder().releaseDate(LocalDate.of(1960, 6, 1)).build());
+
+		for (String sort : new String[] {FilmQuery.SORT_ID, FilmQuery.SORT_RELEASE_DATE, FilmQuery.SORT_DURATION}) {
+			for (int lastYear : new int[] {1960, 2010}) {
+				for (String order : new String[] {FilmQuery.ORDER_ASC, FilmQuery.ORDER_DESC}) {
+					FilmQuery query = new FilmQuery();
+					query.setReleasedFrom(LocalDate.of(1960, 1, 1));
+					query.setReleasedTo(LocalDate.of(lastYear, 12, 31));
+					query.setMaxDuration(150L);
+					query.setSortBy(sort);
+					query.setOrder(order);
+					List<Film> expected = storage.findAll().stream()
+						.filter(query::matches)
+						.sorted(query.comparator())
+						.limit(50)
+						.toList();
+					assertEquals(expected, storage.findByQuery(query, 50), query.toString());
+				}
+			}
+		}
+	}
+
+	private Film film(String name, String description) {
+		Film film = new Film();
+		film.setName(name);
+		film.setDescription(description);
+		film.setReleaseDate(LocalDate.of(1997, 12, 12));
+		film.setDuration(100);
+		return film;
+	}
+}
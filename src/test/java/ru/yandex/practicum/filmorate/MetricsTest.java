@@ -0,0 +1,117 @@
+package ru.yandex.practicum.filmorate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationExceptionHandler;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class MetricsTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private FilmStorage filmStorage;
+
+	@Test
+	public void countsRejectedRequests() throws Exception {
+		double before = rejections("400");
+		Film film = new Film();
+		film.setName("Прибытие поезда");
+		film.setReleaseDate(Film.getMinDate().minusDays(1));
+		film.setDuration(1L);
+
+		mockMvc.perform(MockMvcRequestBuilders.post("/films")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(film)))
+			.andExpect(status().isBadRequest());
+		mockMvc.perform(MockMvcRequestBuilders.get("/films/{id}", 1_000_000))
+			.andExpect(status().isNotFound());
+
+		assertEquals(before + 1, rejections("400"));
+		assertTrue(rejections("404") >= 1);
+	}
+
+	@Test
+	public void repeatedRejectionsAreCountedAndKeepBody() throws Exception {
+		double before = rejections("404");
+		for (int i = 0; i < 2; i++) {
+			mockMvc.perform(MockMvcRequestBuilders.get("/films/{id}", 2_000_000))
+				.andExpect(status().isNotFound())
+				.andExpect(jsonPath("$.status").value(404))
+				.andExpect(jsonPath("$.error").value("Not Found"))
+				.andExpect(jsonPath("$.message").value("Фильм с ID 2000000 не найден."));
+		}
+
+		assertEquals(before + 2, rejections("404"));
+	}
+
+	@Test
+	public void repeatedRejectionIsCachedAfterDistinctOnesFillTheCache() {
+		ValidationExceptionHandler handler = new ValidationExceptionHandler(new SimpleMeterRegistry());
+		for (int id = 2; id < 5_000; id++) {
+			handler.handleNotFoundException(new NotFoundException("Фильм с ID " + id + " не найден."));
+		}
+		// Повторяющийся отказ вперемешку с разовыми вытесняет разовые и начинает отдаваться из кэша
+		NotFoundException repeated = new NotFoundException("Фильм с ID 1 не найден.");
+		for (int id = 5_000; id < 7_000; id++) {
+			handler.handleNotFoundException(repeated);
+			handler.handleNotFoundException(new NotFoundException("Фильм с ID " + id + " не найден."));
+		}
+
+		assertSame(handler.handleNotFoundException(repeated), handler.handleNotFoundException(repeated));
+	}
+
+	@Test
+	public void exposesStorageSizeAndIdAllocations() throws Exception {
+		Film film = new Film();
+		film.setName("Метрики");
+		film.setReleaseDate(Film.getMinDate().plusYears(100));
+		film.setDuration(90L);
+		mockMvc.perform(MockMvcRequestBuilders.post("/films")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(film)))
+			.andExpect(status().isOk());
+
+		assertEquals(filmStorage.size(),
+			meterRegistry.get("filmorate.storage.size").tag("entity", "films").gauge().value());
+		assertTrue(meterRegistry.get("filmorate.storage.id.allocations").tag("entity", "films")
+			.functionCounter().count() >= 1);
+	}
+
+	@Test
+	public void recordsLatencyPerEndpoint() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/films/search").param("q", "метрики"))
+			.andExpect(status().isOk());
+
+		assertTrue(meterRegistry.get("http.server.requests").tag("uri", "/films/search").timer().count() >= 1);
+	}
+
+	private double rejections(String status) {
+		return meterRegistry.get("filmorate.request.rejections").tag("status", status).counter().count();
+	}
+}
@@ -0,0 +1,86 @@
+package ru.yandex.practicum.filmorate;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.validation.ModelValidator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Ручные проверки должны давать те же ошибки (поле, код, сообщение), что и Hibernate Validator
+public class ModelValidatorTest {
+
+	private final Validator beanValidator = Validation.buildDefaultValidatorFactory().getValidator();
+	private final SpringValidatorAdapter hibernate = new SpringValidatorAdapter(beanValidator);
+	private final ModelValidator fast = new ModelValidator(beanValidator);
+
+	@Test
+	public void filmErrorsMatchHibernateValidator() {
+		List<String> names = Arrays.asList(null, "", " ", "\t\n", " ", "Сталкер");
+		List<String> descriptions = Arrays.asList(null, "", "Д".repeat(200), "Д".repeat(201));
+		List<LocalDate> dates = Arrays.asList(null, LocalDate.of(1979, 5, 25));
+		for (String name : names) {
+			for (String description : descriptions) {
+				for (LocalDate date : dates) {
+					for (long duration : new long[] {-1, 0, 1, 163}) {
+						assertSameErrors(new Film(null, name, description, date, duration, null));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void userErrorsMatchHibernateValidator() {
+		List<String> emails = Arrays.asList(null, "", " ", "user@example.com", "User.Name+tag@mail.example.ru",
+			"a@b", "@example.com", "user@", "user@@example.com", "user.@example.com", ".user@example.com",
+			"us..er@example.com", "user@-example.com", "user@example-.com", "user@example..com", "user@example.com.",
+			"\"quoted user\"@example.com", "user@[127.0.0.1]", "пользователь@пример.рф", "user name@example.com",
+			"user@" + "a".repeat(64) + ".com", "u".repeat(65) + "@example.com", "tarkovsky");
+		List<String> logins = Arrays.asList(null, "", " ", "tarkovsky", "andrei tarkovsky", "a\tb", " ", "a\u000Bb");
+		List<LocalDate> birthdays = Arrays.asList(null, LocalDate.of(1932, 4, 4), LocalDate.now(),
+			LocalDate.now().plusDays(1));
+		for (String email : emails) {
+			for (String login : logins) {
+				for (LocalDate birthday : birthdays) {
+					assertSameErrors(new User(null, email, login, null, birthday, null));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void batchViolationsUseSameMessages() {
+		Film film = new Film(null, " ", null, null, 0, null);
+
+		assertEquals(Set.of("Название не может быть пустым.", "Дата релиза должна быть обязательно",
+			"Продолжительность фильма не может быть отрицательной или нулевой."), Set.copyOf(fast.violations(film)));
+		assertTrue(fast.violations(new Film(null, "Сталкер", null, LocalDate.of(1979, 5, 25), 163, null)).isEmpty());
+	}
+
+	private void assertSameErrors(Object target) {
+		assertEquals(errors(hibernate, target), errors(fast, target), () -> "Ошибки различаются для " + target);
+	}
+
+	private static Set<String> errors(org.springframework.validation.Validator validator, Object target) {
+		Errors errors = new BeanPropertyBindingResult(target, "target");
+		validator.validate(target, errors);
+		List<String> result = new ArrayList<>();
+		errors.getFieldErrors().forEach(error ->
+			result.add(error.getField() + " " + error.getCode() + " " + error.getDefaultMessage()));
+		return result.stream().collect(Collectors.toSet());
+	}
+}
@@ -0,0 +1,114 @@
+package ru.yandex.practicum.filmorate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Версии в PUT /films и PUT /users: в теле запроса или в If-Match, конфликт - 409
+@SpringBootTest
+@AutoConfigureMockMvc
+public class OptimisticUpdateTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private FilmStorage filmStorage;
+
+	@Autowired
+	private UserStorage userStorage;
+
+	@Test
+	public void staleVersionInBodyIsRejected() throws Exception {
+		Film created = filmStorage.create(film("Сталкер"));
+
+		put("/films", created.toBuilder().name("Сталкер (1979)").build())
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+			.andExpect(jsonPath("$.version").value(2));
+		put("/films", created.toBuilder().name("Солярис").build())
+			.andExpect(status().isConflict())
+			.andExpect(jsonPath("$.message").value("Фильм с ID " + created.getId()
+				+ " уже изменён: текущая версия 2, в запросе 1."));
+		// Без версии обновление безусловное
+		put("/films", created.toBuilder().name("Солярис").version(null).build())
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.version").value(3));
+	}
+
+	@Test
+	public void ifMatchOverridesBodyVersion() throws Exception {
+		User created = userStorage.create(user("ifmatch"));
+		User update = created.toBuilder().name("Андрей").version(null).build();
+
+		put("/users", update, "\"1\"")
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+		put("/users", update.toBuilder().version(2L).build(), "W/\"1\"")
+			.andExpect(status().isConflict());
+		put("/users", update, "*")
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.version").value(3));
+		put("/users", update, "latest")
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void missingEntityIsStillNotFound() throws Exception {
+		put("/films", film("Нет такого").toBuilder().id(1_000_000L).version(1L).build())
+			.andExpect(status().isNotFound());
+	}
+
+	private ResultActions put(String path, Object body) throws Exception {
+		return put(path, body, null);
+	}
+
+	private ResultActions put(String path, Object body, String ifMatch)
+		throws Exception {
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.put(path)
+			.contentType(MediaType.APPLICATION_JSON)
+			.content(objectMapper.writeValueAsString(body));
+		if (ifMatch != null) {
+			request.header(HttpHeaders.IF_MATCH, ifMatch);
+		}
+		return mockMvc.perform(request);
+	}
+
+	private static Film film(String name) {
+		Film film = new Film();
+		film.setName(name);
+		film.setDescription("Тарковский");
+		film.setReleaseDate(LocalDate.of(1979, 5, 25));
+		film.setDuration(163L);
+		return film;
+	}
+
+	private static User user(String login) {
+		User user = new User();
+		user.setEmail(login + "@example.com");
+		user.setLogin(login);
+		user.setBirthday(LocalDate.of(1932, 4, 4));
+		return user;
+	}
+}
@@ -0,0 +1,63 @@
+package ru.yandex.practicum.filmorate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Каталог, который не помещается в кэш ответов, сериализуется на каждый запрос с тем же телом и ETag
+@SpringBootTest(properties = "filmorate.response-cache.max-bytes=1B")
+@AutoConfigureMockMvc
+public class OversizedCatalogueTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	public void oversizedCatalogueIsStreamedWithEtag() throws Exception {
+		Film film = new Film();
+		film.setName("Streamed film");
+		film.setDescription("Description");
+		film.setReleaseDate(Film.getMinDate().plusYears(10));
+		film.setDuration(90L);
+		mockMvc.perform(MockMvcRequestBuilders.post("/films")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(film)))
+			.andExpect(status().isOk());
+
+		// Первый запрос обнаруживает, что ответ не помещается, следующие сериализуют его в поток ответа
+		String etag = mockMvc.perform(MockMvcRequestBuilders.get("/films"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[?(@.name == 'Streamed film')]").exists())
+			.andReturn()
+			.getResponse()
+			.getHeader(HttpHeaders.ETAG);
+		mockMvc.perform(MockMvcRequestBuilders.get("/films"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, etag))
+			.andExpect(jsonPath("$[?(@.name == 'Streamed film')]").exists());
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/films")
+				.header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified());
+		assertEquals(etag, mockMvc.perform(MockMvcRequestBuilders.get("/films")
+				.header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+			.andReturn()
+			.getResponse()
+			.getHeader(HttpHeaders.ETAG));
+	}
+}
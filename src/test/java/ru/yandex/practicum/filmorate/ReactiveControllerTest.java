@@ -0,0 +1,115 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+// Реактивный вариант API: те же ответы и проверки, что и у контроллеров Spring MVC
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+public class ReactiveControllerTest {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private FilmStorage filmStorage;
+
+	@Autowired
+	private ReactiveWebServerApplicationContext context;
+
+	@Test
+	public void runsOnNetty() {
+		assertInstanceOf(NettyWebServer.class, context.getWebServer());
+	}
+
+	@Test
+	public void streamsWholeCatalogueAcrossStoragePages() {
+		List<Film> films = new ArrayList<>();
+		for (int i = 0; i < 600; i++) {
+			films.add(film("Фильм " + i, LocalDate.of(2000, 1, 1)));
+		}
+		filmStorage.createAll(films);
+
+		webTestClient.get().uri("/films")
+			.exchange()
+			.expectStatus().isOk()
+			.expectBodyList(Film.class)
+			.value(all -> {
+				if (all.size() != filmStorage.size()) {
+					throw new AssertionError("Ожидалось " + filmStorage.size() + " фильмов, получено " + all.size());
+				}
+			});
+		webTestClient.get().uri("/films?limit=300")
+			.exchange()
+			.expectStatus().isOk()
+			.expectBodyList(Film.class).hasSize(300);
+	}
+
+	@Test
+	public void rejectsReleaseDateBeforeMinimum() {
+		webTestClient.post().uri("/films")
+			.contentType(MediaType.APPLICATION_JSON)
+			.bodyValue(film("Прибытие поезда", Film.getMinDate().minusDays(1)))
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectBody()
+			.jsonPath("$.message").isEqualTo("Дата релиза слишком ранняя. Минимум: " + Film.getMinDate());
+	}
+
+	@Test
+	public void rejectsBlankNameByBeanValidation() {
+		webTestClient.post().uri("/films")
+			.contentType(MediaType.APPLICATION_JSON)
+			.bodyValue(film(" ", LocalDate.of(2000, 1, 1)))
+			.exchange()
+			.expectStatus().isBadRequest();
+	}
+
+	@Test
+	public void createdUserGetsLoginAsNameAndCanBeFound() {
+		User user = new User();
+		user.setLogin("reactive");
+		user.setEmail("reactive@example.com");
+		user.setBirthday(LocalDate.of(1990, 1, 1));
+
+		webTestClient.post().uri("/users")
+			.contentType(MediaType.APPLICATION_JSON)
+			.bodyValue(user)
+			.exchange()
+			.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("$.name").isEqualTo("reactive");
+		webTestClient.get().uri("/users/by-login/reactive")
+			.exchange()
+			.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("$.email").isEqualTo("reactive@example.com");
+		webTestClient.get().uri("/users/{id}", 1_000_000)
+			.exchange()
+			.expectStatus().isNotFound();
+	}
+
+	private static Film film(String name, LocalDate releaseDate) {
+		Film film = new Film();
+		film.setName(name);
+		film.setDescription("Описание");
+		film.setReleaseDate(releaseDate);
+		film.setDuration(100L);
+		return film;
+	}
+}
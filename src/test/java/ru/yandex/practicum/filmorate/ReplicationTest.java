@@ -0,0 +1,153 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Ведущий узел и реплика - два приложения на случайных портах в одной JVM
+public class ReplicationTest {
+
+	private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+	private final HttpClient client = HttpClient.newHttpClient();
+	private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+	@AfterEach
+	public void tearDown() {
+		nodes.forEach(ConfigurableApplicationContext::close);
+	}
+
+	@Test
+	public void followerLoadsCatalogueAndAppliesChanges() throws Exception {
+		String leader = start();
+		long before = id(send("POST", leader + "/films",
+			"{\"name\":\"До реплики\",\"releaseDate\":\"2000-01-01\",\"duration\":90}"));
+
+		String follower = start("--filmorate.replication.role=follower",
+			"--filmorate.replication.leader-url=" + leader);
+		awaitBody(follower + "/films/" + before, body -> body.contains("До реплики"));
+
+		send("PUT", leader + "/films",
+			"{\"id\":" + before + ",\"name\":\"Изменён\",\"releaseDate\":\"2000-01-01\",\"duration\":95}");
+		long user = id(send("POST", leader + "/users",
+			"{\"email\":\"replica@example.com\",\"login\":\"replica\",\"birthday\":\"1990-01-01\"}"));
+
+		awaitBody(follower + "/films/" + before, body -> body.contains("Изменён") && body.contains("\"version\":2"));
+		awaitBody(follower + "/users/by-login/replica", body -> body.contains("\"id\":" + user));
+		awaitBody(follower + "/films/search?q=" + "%D0%98%D0%B7%D0%BC%D0%B5%D0%BD%D1%91%D0%BD",
+			body -> body.contains("\"id\":" + before));
+	}
+
+	@Test
+	public void followerRedirectsWritesAndUnreplicatedReads() throws Exception {
+		String leader = start();
+		String follower = start("--filmorate.replication.role=follower",
+			"--filmorate.replication.leader-url=" + leader);
+
+		HttpResponse<String> write = client.send(request("POST", follower + "/films?source=test",
+			"{\"name\":\"Запись\",\"releaseDate\":\"2000-01-01\",\"duration\":90}"), HttpResponse.BodyHandlers.ofString());
+		assertEquals(307, write.statusCode());
+		assertEquals(leader + "/films?source=test", write.headers().firstValue("Location").orElseThrow());
+
+		HttpResponse<String> popular = client.send(request("GET", follower + "/films/popular", null),
+			HttpResponse.BodyHandlers.ofString());
+		assertEquals(307, popular.statusCode());
+		assertEquals(leader + "/films/popular", popular.headers().firstValue("Location").orElseThrow());
+	}
+
+	@Test
+	public void followerWithoutLeaderRejectsReads() throws Exception {
+		String follower = start("--filmorate.replication.role=follower",
+			"--filmorate.replication.leader-url=http://localhost:1");
+
+		HttpResponse<String> response = client.send(request("GET", follower + "/films", null),
+			HttpResponse.BodyHandlers.ofString());
+		assertEquals(503, response.statusCode());
+		assertTrue(response.body().contains("\"status\":503"), response.body());
+		assertTrue(response.headers().firstValue("Retry-After").isPresent());
+	}
+
+	@Test
+	public void reactiveFollowerGuardsLikeServletOne() throws Exception {
+		String leader = start();
+		long film = id(send("POST", leader + "/films",
+			"{\"name\":\"С ведущего\",\"releaseDate\":\"2000-01-01\",\"duration\":90}"));
+		String follower = start("--spring.main.web-application-type=reactive",
+			"--filmorate.replication.role=follower", "--filmorate.replication.leader-url=" + leader);
+
+		awaitBody(follower + "/films/" + film, body -> body.contains("С ведущего"));
+		HttpResponse<String> write = client.send(request("PUT", follower + "/films?source=test",
+			"{\"id\":" + film + ",\"name\":\"Запись\",\"releaseDate\":\"2000-01-01\",\"duration\":90}"),
+			HttpResponse.BodyHandlers.ofString());
+		assertEquals(307, write.statusCode());
+		assertEquals(leader + "/films?source=test", write.headers().firstValue("Location").orElseThrow());
+
+		String stale = start("--spring.main.web-application-type=reactive",
+			"--filmorate.replication.role=follower", "--filmorate.replication.leader-url=http://localhost:1");
+		HttpResponse<String> read = client.send(request("GET", stale + "/films", null),
+			HttpResponse.BodyHandlers.ofString());
+		assertEquals(503, read.statusCode());
+		assertTrue(read.body().contains("\"status\":503"), read.body());
+		assertTrue(read.headers().firstValue("Retry-After").isPresent());
+	}
+
+	private String start(String... args) {
+		List<String> arguments = new ArrayList<>(List.of(args));
+		arguments.add("--server.port=0");
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(FilmorateApplication.class)
+			.run(arguments.toArray(String[]::new));
+		nodes.add(context);
+		return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+	}
+
+	private String send(String method, String url, String body) throws IOException, InterruptedException {
+		HttpResponse<String> response = client.send(request(method, url, body), HttpResponse.BodyHandlers.ofString());
+		assertEquals(200, response.statusCode(), response.body());
+		return response.body();
+	}
+
+	private static HttpRequest request(String method, String url, String body) {
+		return HttpRequest.newBuilder(URI.create(url))
+			.header("Content-Type", "application/json")
+			.header("Accept", "application/json")
+			.method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+			.build();
+	}
+
+	private void awaitBody(String url, Predicate<String> expected) throws IOException, InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		String last = null;
+		while (System.nanoTime() < deadline) {
+			HttpResponse<String> response = client.send(request("GET", url, null), HttpResponse.BodyHandlers.ofString());
+			last = response.statusCode() + " " + response.body();
+			if (response.statusCode() == 200 && expected.test(response.body())) {
+				return;
+			}
+			Thread.sleep(50);
+		}
+		fail("Реплика не получила изменение за 10 секунд, последний ответ " + url + ": " + last);
+	}
+
+	private static long id(String body) {
+		Matcher matcher = ID.matcher(body);
+		assertTrue(matcher.find(), body);
+		return Long.parseLong(matcher.group(1));
+	}
+}
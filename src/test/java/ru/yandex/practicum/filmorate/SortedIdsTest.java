@@ -0,0 +1,49 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.storage.SortedIds;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class SortedIdsTest {
+
+	@Test
+	public void insertAndRemoveKeepOrder() {
+		long[] ids = SortedIds.EMPTY;
+		for (long id : new long[] {5, 1, 9, 5, 3}) {
+			ids = SortedIds.insert(ids, id);
+		}
+		assertArrayEquals(new long[] {1, 3, 5, 9}, ids);
+		assertSame(ids, SortedIds.insert(ids, 3));
+		assertSame(ids, SortedIds.remove(ids, 4));
+		assertArrayEquals(new long[] {1, 5, 9}, SortedIds.remove(ids, 3));
+		assertSame(SortedIds.EMPTY, SortedIds.remove(new long[] {7}, 7));
+	}
+
+	@Test
+	public void intersectionMatchesSetsForMergeAndGallop() {
+		Random random = new Random(7);
+		for (int small : new int[] {0, 1, 10, 100, 1000}) {
+			for (int large : new int[] {1, 100, 10_000}) {
+				long[] first = randomIds(random, small, 20_000);
+				long[] second = randomIds(random, large, 20_000);
+				Set<Long> expected = new TreeSet<>(Arrays.stream(first).boxed().collect(Collectors.toSet()));
+				expected.retainAll(Arrays.stream(second).boxed().collect(Collectors.toSet()));
+				long[] expectedIds = expected.stream().mapToLong(Long::longValue).toArray();
+				assertArrayEquals(expectedIds, SortedIds.intersect(first, second));
+				assertArrayEquals(expectedIds, SortedIds.intersect(second, first));
+			}
+		}
+	}
+
+	private static long[] randomIds(Random random, int size, int bound) {
+		return random.longs(size, 0, bound).sorted().distinct().toArray();
+	}
+}
@@ -0,0 +1,54 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.cache.TinyLfuCache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TinyLfuCacheTest {
+
+	@Test
+	public void sizeIsBounded() {
+		TinyLfuCache<String> cache = new TinyLfuCache<>(100);
+		for (long key = 0; key < 1000; key++) {
+			cache.put(key, "value " + key);
+		}
+
+		assertTrue(cache.size() <= 100);
+		assertEquals(900, cache.evictionCount());
+	}
+
+	@Test
+	public void frequentKeysSurviveScan() {
+		TinyLfuCache<String> cache = new TinyLfuCache<>(100);
+		for (long key = 0; key < 50; key++) {
+			cache.put(key, "hot " + key);
+		}
+		// Популярные ключи продолжают запрашивать во время длинного просмотра,
+		// каждый ключ которого встречается один раз и не должен их вытеснить
+		for (long key = 1000; key < 11_000; key++) {
+			cache.get(key % 50);
+			if (cache.get(key) == null) {
+				cache.put(key, "cold " + key);
+			}
+		}
+
+		for (long key = 0; key < 50; key++) {
+			assertNotNull(cache.get(key));
+		}
+	}
+
+	@Test
+	public void invalidateRemovesValue() {
+		TinyLfuCache<String> cache = new TinyLfuCache<>(10);
+		cache.put(1, "one");
+		cache.invalidate(1);
+
+		assertNull(cache.get(1));
+		assertEquals(0, cache.size());
+		assertEquals(1, cache.missCount());
+	}
+}
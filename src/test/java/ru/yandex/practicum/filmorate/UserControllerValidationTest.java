@@ -13,6 +13,7 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.yandex.practicum.filmorate.model.User;
 
 import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -24,14 +25,18 @@ public class UserControllerValidationTest {
 	@Autowired
 	private MockMvc mockMvc;
 
+	private static final AtomicInteger USER_NUMBER = new AtomicInteger();
+
 	private User user;
 	private ObjectMapper objectMapper;
 
 	@BeforeEach
 	public void setUp() {
 		user = new User();
-		user.setEmail("user@example.com");
-		user.setLogin("validlogin");
+		// Логин и email уникальны, а контекст общий для всех тестов
+		int number = USER_NUMBER.incrementAndGet();
+		user.setEmail("user" + number + "@example.com");
+		user.setLogin("validlogin" + number);
 		user.setName("John");
 		user.setBirthday(LocalDate.of(1990, 1, 1));
 
@@ -195,5 +200,53 @@ public class UserControllerValidationTest {
 			.andExpect(jsonPath("$.name").value(user.getName()))
 			.andExpect(jsonPath("$.birthday").value(user.getBirthday().toString()));
 	}
-}
 
+	@Test
+	public void findUserByLoginAndEmail() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.post("/users")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(user)))
+			.andExpect(status().isOk());
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/users/by-login/{login}", user.getLogin()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.email").value(user.getEmail()));
+		mockMvc.perform(MockMvcRequestBuilders.get("/users/by-email/{email}", user.getEmail().toUpperCase()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.login").value(user.getLogin()));
+		mockMvc.perform(MockMvcRequestBuilders.get("/users/by-login/{login}", "nobody-" + user.getLogin()))
+			.andExpect(status().isNotFound());
+	}
+
+	@Test
+	public void findUserById() throws Exception {
+		String response = mockMvc.perform(MockMvcRequestBuilders.post("/users")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(user)))
+			.andExpect(status().isOk())
+			.andReturn()
+			.getResponse()
+			.getContentAsString();
+		long id = objectMapper.readValue(response, User.class).getId();
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/users/{id}", id))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.login").value(user.getLogin()));
+		mockMvc.perform(MockMvcRequestBuilders.get("/users/{id}", id + 1_000_000))
+			.andExpect(status().isNotFound());
+	}
+
+	@Test
+	public void whenLoginIsTaken() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.post("/users")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(user)))
+			.andExpect(status().isOk());
+
+		user.setEmail("other-" + user.getEmail());
+		mockMvc.perform(MockMvcRequestBuilders.post("/users")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(user)))
+			.andExpect(status().isConflict());
+	}
+}
@@ -0,0 +1,56 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+// Фильмов в секунду через HTTP: по одному на запрос против пакетов JSON и NDJSON
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(BatchCreateBenchmark.BATCH_SIZE)
+public class BatchCreateBenchmark {
+
+	static final int BATCH_SIZE = 500;
+
+	private static final String FILM = "{\"name\":\"Film\",\"description\":\"Benchmark film\","
+		+ "\"releaseDate\":\"2000-01-01\",\"duration\":90}";
+
+	private RunningApplication application;
+	private String jsonBatch;
+	private String ndjsonBatch;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		application = new RunningApplication();
+		jsonBatch = "[" + String.join(",", Collections.nCopies(BATCH_SIZE, FILM)) + "]";
+		ndjsonBatch = String.join("\n", Collections.nCopies(BATCH_SIZE, FILM));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		application.close();
+	}
+
+	@Benchmark
+	public void singleItem() throws IOException, InterruptedException {
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			application.send("POST", "/films", "application/json", FILM);
+		}
+	}
+
+	@Benchmark
+	public int jsonBatch() throws IOException, InterruptedException {
+		return application.send("POST", "/films/batch", "application/json", jsonBatch).body().length();
+	}
+
+	@Benchmark
+	public int ndjsonBatch() throws IOException, InterruptedException {
+		return application.send("POST", "/films/batch", "application/x-ndjson", ndjsonBatch).body().length();
+	}
+}
@@ -0,0 +1,98 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.validation.ModelValidator;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Проверка моделей так же, как при @Valid: корректный объект и объект с нарушениями.
+// hibernate - Hibernate Validator через адаптер Spring, fast - ModelValidator.
+// Выделение памяти на проверку: запуск с -prof gc, метрика gc.alloc.rate.norm
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanValidationBenchmark {
+
+	@Param({"hibernate", "fast"})
+	private String validatorType;
+
+	private ValidatorFactory factory;
+	private Validator validator;
+	private Film validFilm;
+	private Film invalidFilm;
+	private User validUser;
+	private User invalidUser;
+
+	@Setup
+	public void setUp() {
+		factory = Validation.buildDefaultValidatorFactory();
+		validator = "fast".equals(validatorType)
+			? new ModelValidator(factory.getValidator())
+			: new SpringValidatorAdapter(factory.getValidator());
+		validFilm = Film.builder()
+			.name("Сталкер")
+			.description("Проводник ведёт писателя и профессора через Зону.")
+			.releaseDate(LocalDate.of(1979, 5, 25))
+			.duration(163)
+			.build();
+		invalidFilm = validFilm.toBuilder()
+			.name(" ")
+			.description("Д".repeat(201))
+			.duration(0)
+			.build();
+		validUser = User.builder()
+			.email("tarkovsky@example.com")
+			.login("tarkovsky")
+			.birthday(LocalDate.of(1932, 4, 4))
+			.build();
+		invalidUser = validUser.toBuilder()
+			.email("tarkovsky")
+			.login("andrei tarkovsky")
+			.birthday(LocalDate.now().plusDays(1))
+			.build();
+	}
+
+	@TearDown
+	public void tearDown() {
+		factory.close();
+	}
+
+	@Benchmark
+	public Errors validFilm() {
+		return validate(validFilm);
+	}
+
+	@Benchmark
+	public Errors invalidFilm() {
+		return validate(invalidFilm);
+	}
+
+	@Benchmark
+	public Errors validUser() {
+		return validate(validUser);
+	}
+
+	@Benchmark
+	public Errors invalidUser() {
+		return validate(invalidUser);
+	}
+
+	// Spring создаёт BindingResult на каждый запрос при любом валидаторе
+	private Errors validate(Object target) {
+		Errors errors = new BeanPropertyBindingResult(target, "target");
+		validator.validate(target, errors);
+		return errors;
+	}
+}
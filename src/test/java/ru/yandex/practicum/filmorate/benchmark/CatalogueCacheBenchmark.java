@@ -0,0 +1,97 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import ru.yandex.practicum.filmorate.controller.FilmController;
+import ru.yandex.practicum.filmorate.model.FilmQuery;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+// Повторные опросы GET /films: кэш сериализованного ответа и 304 по If-None-Match
+// против сериализации на каждый запрос (cache=off, кэш ограничен нулём байт).
+// Обработчик вызывается напрямую, без HTTP: сетевые задержки на localhost заглушают разницу.
+// Доля попаданий и сэкономленные байты берутся из метрик приложения.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogueCacheBenchmark {
+
+	private static final int BATCH_SIZE = 5000;
+	private static final String FILM = "{\"name\":\"Film\",\"description\":\"Benchmark film\","
+		+ "\"releaseDate\":\"2000-01-01\",\"duration\":90}";
+
+	@Param({"on", "off"})
+	private String cache;
+
+	@Param({"1000", "100000"})
+	private int catalogueSize;
+
+	private RunningApplication application;
+	private FilmController controller;
+	private String etag;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException, InterruptedException {
+		application = "off".equals(cache)
+			? new RunningApplication("filmorate.response-cache.max-bytes=0")
+			: new RunningApplication();
+		for (int created = 0; created < catalogueSize; created += BATCH_SIZE) {
+			int size = Math.min(BATCH_SIZE, catalogueSize - created);
+			application.send("POST", "/films/batch", "application/json",
+				"[" + String.join(",", Collections.nCopies(size, FILM)) + "]");
+		}
+		controller = application.bean(FilmController.class);
+		etag = controller.showAllFilm(null, null, new FilmQuery(), null).getHeaders().getETag();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		application.close();
+	}
+
+	@Benchmark
+	public Object fullCatalogue(CacheCounters counters) {
+		ResponseEntity<?> response = controller.showAllFilm(null, null, new FilmQuery(), null);
+		counters.record();
+		return response.getBody();
+	}
+
+	@Benchmark
+	public Object conditional(CacheCounters counters) {
+		ResponseEntity<?> response = controller.showAllFilm(null, null, new FilmQuery(), etag);
+		counters.record();
+		return response.getStatusCode();
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class CacheCounters {
+
+		public double hitRatio;
+		public double savedMb;
+
+		private Gauge ratio;
+		private Collection<Counter> saved;
+
+		@Setup(Level.Trial)
+		public void setUp(CatalogueCacheBenchmark benchmark) {
+			MeterRegistry registry = benchmark.application.bean(MeterRegistry.class);
+			ratio = registry.get("filmorate.catalogue.cache.hit.ratio").tag("catalogue", "films").gauge();
+			saved = registry.get("filmorate.catalogue.cache.bytes.saved").tag("catalogue", "films").counters();
+		}
+
+		void record() {
+			hitRatio = ratio.value();
+			savedMb = saved.stream().mapToDouble(Counter::count).sum() / (1024 * 1024);
+		}
+	}
+}
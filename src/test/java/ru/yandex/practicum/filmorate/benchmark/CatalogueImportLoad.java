@@ -0,0 +1,123 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+// Импорт файла фильмов через POST /admin/import/films и выгрузка обратно через GET /admin/export/films.
+// Файл NDJSON (или NDJSON в gzip) генерируется заранее во временный каталог и отправляется с диска,
+// ответ экспорта читается и отбрасывается. Замеряются строки в секунду, пик занятой кучи
+// относительно кучи после запуска приложения (сервер и клиент в одной JVM, клиент ничего не накапливает)
+// и куча, оставшаяся занятой после сборки мусора: разница пика и остатка - временная память самой операции.
+// Запуск (каталог с поисковым индексом занимает около 0,8 ГБ кучи на 1 млн строк, для 10 млн нужен -Xmx10g и больше):
+//   java -cp target/test-classes:target/classes:<зависимости> \
+//   ru.yandex.practicum.filmorate.benchmark.CatalogueImportLoad [строк] [gzip: true|false] [потоков проверки]
+public class CatalogueImportLoad {
+
+	public static void main(String[] args) throws Exception {
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+		boolean gzip = args.length > 1 && Boolean.parseBoolean(args[1]);
+		int parallelism = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+
+		Path file = Files.createTempFile("films-", gzip ? ".ndjson.gz" : ".ndjson");
+		try {
+			generate(file, rows, gzip);
+			System.out.printf(Locale.ROOT, "файл: %d строк, %d МБ%n", rows, Files.size(file) / (1024 * 1024));
+			try (RunningApplication application = new RunningApplication(
+				"filmorate.import.parallelism=" + parallelism)) {
+				HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+				String base = "http://localhost:" + application.port();
+
+				HttpRequest.Builder upload = HttpRequest.newBuilder(URI.create(base + "/admin/import/films"))
+					.header("Content-Type", "application/x-ndjson")
+					.POST(HttpRequest.BodyPublishers.ofFile(file));
+				if (gzip) {
+					upload.header("Content-Encoding", "gzip");
+				}
+				measure("импорт", rows, () -> {
+					HttpResponse<String> response = client.send(upload.build(), HttpResponse.BodyHandlers.ofString());
+					if (response.statusCode() != 200) {
+						throw new IllegalStateException("Неожиданный ответ " + response.statusCode() + ": "
+							+ response.body());
+					}
+				});
+
+				HttpRequest download = HttpRequest.newBuilder(URI.create(base + "/admin/export/films"))
+					.header("Accept", "application/x-ndjson")
+					.header("Accept-Encoding", gzip ? "gzip" : "identity")
+					.build();
+				measure("экспорт", rows, () -> client.send(download, HttpResponse.BodyHandlers.discarding()));
+				client.close();
+			}
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	private static void generate(Path file, int rows, boolean gzip) throws IOException {
+		OutputStream out = Files.newOutputStream(file);
+		if (gzip) {
+			out = new GZIPOutputStream(out, 64 * 1024);
+		}
+		LocalDate first = LocalDate.of(1950, 1, 1);
+		try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16)) {
+			for (int i = 0; i < rows; i++) {
+				writer.write("{\"name\":\"Фильм ");
+				writer.write(Integer.toString(i));
+				writer.write("\",\"description\":\"Описание фильма для проверки импорта каталога ");
+				writer.write(Integer.toString(i));
+				writer.write("\",\"releaseDate\":\"");
+				writer.write(first.plusDays(i % 25_000).toString());
+				writer.write("\",\"duration\":");
+				writer.write(Integer.toString(60 + i % 120));
+				writer.write("}\n");
+			}
+		}
+	}
+
+	// Пик кучи снимается каждые 50 мс, пока идёт операция
+	private static void measure(String operation, int rows, Operation body) throws Exception {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		System.gc();
+		long baseline = memory.getHeapMemoryUsage().getUsed();
+		AtomicLong peak = new AtomicLong(baseline);
+		ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+		sampler.scheduleAtFixedRate(() -> peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+			0, 50, TimeUnit.MILLISECONDS);
+		long start = System.nanoTime();
+		try {
+			body.run();
+		} finally {
+			sampler.shutdownNow();
+		}
+		double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+		System.gc();
+		long retained = memory.getHeapMemoryUsage().getUsed();
+		System.out.printf(Locale.ROOT, "%-8s %10.1f с %12.0f строк/с %8d МБ пик кучи %8d МБ остаток%n",
+			operation, seconds, rows / seconds, (peak.get() - baseline) / (1024 * 1024),
+			(retained - baseline) / (1024 * 1024));
+	}
+
+	@FunctionalInterface
+	private interface Operation {
+
+		void run() throws Exception;
+	}
+}
@@ -0,0 +1,118 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Пиковое потребление кучи при отдаче всего каталога: один JSON-массив против NDJSON-потока.
+// Пик считается как сумма пиков heap-пулов за итерацию, поэтому включает и сам каталог.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CatalogueStreamingBenchmark {
+
+	@Param({"1000000"})
+	private int catalogueSize;
+
+	private InMemoryFilmStorage storage;
+	private ObjectMapper objectMapper;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		objectMapper = new ObjectMapper()
+			.registerModule(new JavaTimeModule())
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		storage = new InMemoryFilmStorage();
+		for (int i = 0; i < catalogueSize; i++) {
+			Film film = new Film();
+			film.setName("Film " + i);
+			film.setDescription("Description of film " + i);
+			film.setReleaseDate(LocalDate.of(2000, 1, 1).plusDays(i % 5000));
+			film.setDuration(60 + i % 120);
+			storage.create(film);
+		}
+	}
+
+	@Benchmark
+	public long jsonArray(HeapCounters heap) throws IOException {
+		CountingOutputStream out = new CountingOutputStream();
+		byte[] body = objectMapper.writeValueAsBytes(storage.findAll());
+		out.write(body);
+		heap.record();
+		return out.count;
+	}
+
+	@Benchmark
+	public long ndjsonStream(HeapCounters heap) throws IOException {
+		CountingOutputStream out = new CountingOutputStream();
+		ObjectWriter writer = objectMapper.writerFor(Film.class)
+			.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+			generator.setRootValueSeparator(null);
+			for (Film film : storage.findAll()) {
+				writer.writeValue(generator, film);
+				generator.writeRaw('\n');
+			}
+		}
+		heap.record();
+		return out.count;
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class HeapCounters {
+
+		public long peakHeapMb;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			System.gc();
+			for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+				if (pool.getType() == MemoryType.HEAP) {
+					pool.resetPeakUsage();
+				}
+			}
+		}
+
+		void record() {
+			long peak = 0;
+			for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+				if (pool.getType() == MemoryType.HEAP) {
+					peak += pool.getPeakUsage().getUsed();
+				}
+			}
+			peakHeapMb = peak / (1024 * 1024);
+		}
+	}
+
+	private static class CountingOutputStream extends OutputStream {
+
+		private long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+}
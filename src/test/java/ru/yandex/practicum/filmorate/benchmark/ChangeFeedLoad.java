@@ -0,0 +1,199 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Лента изменений под нагрузкой: писатели в замкнутом цикле обновляют фильмы через PUT /films,
+// быстрые подписчики читают GET /changes (SSE) и замеряют задержку от публикации (поле time события)
+// до получения, медленные подписчики читают поток по 1 КБ раз в 50 мс через маленький буфер сокета.
+// Сравниваются задержки писателей без подписчиков, с быстрыми и с быстрыми и медленными вместе:
+// медленные подписчики не должны замедлять запись. Буфер ленты уменьшен, чтобы медленные
+// подписчики отставали на круг и получали gap.
+// Запуск: java -cp target/test-classes:target/classes:<зависимости> \
+//   ru.yandex.practicum.filmorate.benchmark.ChangeFeedLoad [секунд] [писателей] [быстрых] [медленных]
+public class ChangeFeedLoad {
+
+	private static final int FILMS = 1000;
+	private static final Pattern TIME = Pattern.compile("\"time\":\"([^\"]+)\"");
+
+	public static void main(String[] args) throws Exception {
+		int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		int writers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+		int fast = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+		int slow = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+
+		System.out.printf("%6s %6s %10s %9s %9s %12s %12s %12s %12s %8s%n", "fast", "slow", "writes/s",
+			"put p50", "put p99", "e2e p50 ms", "e2e p99 ms", "srv p50 ms", "srv p99 ms", "events");
+		for (int[] subscribers : new int[][] {{0, 0}, {fast, 0}, {fast, slow}}) {
+			try (RunningApplication application = new RunningApplication("filmorate.changes.capacity=4096")) {
+				seed(application.bean(FilmStorage.class));
+				Result result = run(application, seconds, writers, subscribers[0], subscribers[1]);
+				double[] server = serverDelivery(application.bean(MeterRegistry.class));
+				System.out.printf(Locale.ROOT, "%6d %6d %10.0f %9.2f %9.2f %12.2f %12.2f %12.2f %12.2f %8d%n",
+					subscribers[0], subscribers[1], result.writes.length / (double) seconds,
+					percentile(result.writes, 0.5), percentile(result.writes, 0.99),
+					percentile(result.delivery, 0.5), percentile(result.delivery, 0.99), server[0], server[1],
+					result.delivery.length);
+			}
+		}
+	}
+
+	private static void seed(FilmStorage storage) {
+		List<Film> films = new ArrayList<>(FILMS);
+		for (int i = 0; i < FILMS; i++) {
+			films.add(Film.builder()
+				.name("Фильм " + i)
+				.description("Описание")
+				.releaseDate(LocalDate.of(2000, 1, 1))
+				.duration(90)
+				.build());
+		}
+		storage.createAll(films);
+	}
+
+	private static Result run(RunningApplication application, int seconds, int writers, int fast, int slow)
+		throws Exception {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+		List<Long> delivery = new ArrayList<>();
+		List<Long> writes = new ArrayList<>();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < fast; i++) {
+				executor.execute(() -> follow(application.port(), deadline, delivery));
+			}
+			for (int i = 0; i < slow; i++) {
+				executor.execute(() -> followSlowly(application.port(), deadline));
+			}
+			// Подписчики успевают подключиться до первой записи
+			Thread.sleep(500);
+			for (int i = 0; i < writers; i++) {
+				executor.execute(() -> write(application, deadline, writes));
+			}
+		}
+		return new Result(sorted(writes), sorted(delivery));
+	}
+
+	private static void write(RunningApplication application, long deadline, List<Long> writes) {
+		List<Long> latencies = new ArrayList<>();
+		try {
+			while (System.nanoTime() < deadline) {
+				long id = 1 + ThreadLocalRandom.current().nextInt(FILMS);
+				String body = "{\"id\":" + id + ",\"name\":\"Фильм " + id + "\",\"description\":\"Обновлён "
+					+ System.nanoTime() + "\",\"releaseDate\":\"2000-01-01\",\"duration\":90}";
+				long start = System.nanoTime();
+				application.send("PUT", "/films", "application/json", body);
+				latencies.add(System.nanoTime() - start);
+			}
+		} catch (IOException | InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+		synchronized (writes) {
+			writes.addAll(latencies);
+		}
+	}
+
+	// Подписчик SSE, который читает сразу; задержка - от времени публикации до получения данных события
+	private static void follow(int port, long deadline, List<Long> delivery) {
+		List<Long> latencies = new ArrayList<>();
+		try (Socket socket = open(port, deadline, 64 * 1024)) {
+			BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+				StandardCharsets.UTF_8));
+			String line;
+			while (System.nanoTime() < deadline && (line = reader.readLine()) != null) {
+				// Ответ идёт кусками (chunked), и JSON события может оказаться на отдельной строке после data:
+				Matcher time = TIME.matcher(line);
+				if (time.find()) {
+					latencies.add(Instant.parse(time.group(1)).until(Instant.now(), ChronoUnit.NANOS));
+				}
+			}
+		} catch (SocketTimeoutException e) {
+			// Дедлайн
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		synchronized (delivery) {
+			delivery.addAll(latencies);
+		}
+	}
+
+	private static void followSlowly(int port, long deadline) {
+		try (Socket socket = open(port, deadline, 4 * 1024)) {
+			InputStream in = socket.getInputStream();
+			byte[] buffer = new byte[1024];
+			while (System.nanoTime() < deadline && in.read(buffer) >= 0) {
+				Thread.sleep(50);
+			}
+		} catch (IOException e) {
+			// Дедлайн или сервер закрыл поток
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static Socket open(int port, long deadline, int receiveBuffer) throws IOException {
+		Socket socket = new Socket();
+		socket.setReceiveBufferSize(receiveBuffer);
+		socket.connect(new InetSocketAddress("localhost", port));
+		socket.setSoTimeout((int) Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+		OutputStream out = socket.getOutputStream();
+		out.write(("GET /changes HTTP/1.1\r\nHost: localhost\r\nAccept: text/event-stream\r\n\r\n")
+			.getBytes(StandardCharsets.US_ASCII));
+		out.flush();
+		return socket;
+	}
+
+	// p50 и p99 таймера filmorate.changes.delivery в миллисекундах
+	private static double[] serverDelivery(MeterRegistry registry) {
+		ValueAtPercentile[] values = registry.get("filmorate.changes.delivery").timer().takeSnapshot()
+			.percentileValues();
+		double[] result = new double[2];
+		for (ValueAtPercentile value : values) {
+			if (value.percentile() == 0.5) {
+				result[0] = value.value(TimeUnit.MILLISECONDS);
+			} else if (value.percentile() == 0.99) {
+				result[1] = value.value(TimeUnit.MILLISECONDS);
+			}
+		}
+		return result;
+	}
+
+	private static long[] sorted(List<Long> values) {
+		synchronized (values) {
+			return values.stream().mapToLong(Long::longValue).sorted().toArray();
+		}
+	}
+
+	private static double percentile(long[] sorted, double quantile) {
+		if (sorted.length == 0) {
+			return Double.NaN;
+		}
+		int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+		return sorted[Math.max(0, index)] / 1_000_000.0;
+	}
+
+	private record Result(long[] writes, long[] delivery) {
+	}
+}
@@ -0,0 +1,103 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import ru.yandex.practicum.filmorate.controller.FilmController;
+import ru.yandex.practicum.filmorate.controller.UserController;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Создание и обновление через обработчики FilmController и UserController при разном размере каталога:
+// хранилище, индексы логинов и email, поисковый индекс и сброс кэшей ответов.
+// Обработчики вызываются напрямую, поэтому Bean Validation и Jackson сюда не входят
+// (см. BeanValidationBenchmark и SerializationBenchmark).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ControllerWriteBenchmark {
+
+	private static final int BATCH_SIZE = 5000;
+
+	@Param({"1000", "100000"})
+	private int catalogueSize;
+
+	private RunningApplication application;
+	private FilmController filmController;
+	private UserController userController;
+	private Film film;
+	private User[] users;
+	private long created;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException, InterruptedException {
+		application = new RunningApplication();
+		for (int start = 0; start < catalogueSize; start += BATCH_SIZE) {
+			int size = Math.min(BATCH_SIZE, catalogueSize - start);
+			StringJoiner films = new StringJoiner(",", "[", "]");
+			StringJoiner newUsers = new StringJoiner(",", "[", "]");
+			for (int i = start; i < start + size; i++) {
+				films.add("{\"name\":\"Фильм " + i + "\",\"description\":\"Описание фильма " + i
+					+ "\",\"releaseDate\":\"2000-01-01\",\"duration\":90}");
+				newUsers.add("{\"email\":\"user" + i + "@example.com\",\"login\":\"user" + i
+					+ "\",\"birthday\":\"1990-01-01\"}");
+			}
+			application.send("POST", "/films/batch", "application/json", films.toString());
+			application.send("POST", "/users/batch", "application/json", newUsers.toString());
+		}
+		filmController = application.bean(FilmController.class);
+		userController = application.bean(UserController.class);
+		users = application.bean(UserStorage.class).findAll().toArray(User[]::new);
+		film = Film.builder()
+			.name("Сталкер")
+			.description("Проводник ведёт писателя и профессора через Зону.")
+			.releaseDate(LocalDate.of(1979, 5, 25))
+			.duration(163)
+			.build();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		application.close();
+	}
+
+	@Benchmark
+	public Film addFilm() {
+		return filmController.addFilm(film.toBuilder().build());
+	}
+
+	@Benchmark
+	public ResponseEntity<Film> updateFilm() {
+		long id = 1 + ThreadLocalRandom.current().nextInt(catalogueSize);
+		return filmController.updateFilm(film.toBuilder().id(id).build(), null);
+	}
+
+	@Benchmark
+	public User addUser() {
+		long number = ++created;
+		return userController.addUser(User.builder()
+			.email("bench" + number + "@example.com")
+			.login("bench" + number)
+			.birthday(LocalDate.of(1990, 1, 1))
+			.build());
+	}
+
+	@Benchmark
+	public ResponseEntity<User> updateUser() {
+		User user = users[ThreadLocalRandom.current().nextInt(users.length)];
+		// Без версии: обновление безусловное, как у клиентов, которые версию не передают
+		return userController.updateUser(user.toBuilder()
+			.name("Имя " + ThreadLocalRandom.current().nextInt())
+			.version(null)
+			.build(), null);
+	}
+}
@@ -0,0 +1,143 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.http.ResponseEntity;
+import ru.yandex.practicum.filmorate.controller.FilmController;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// GET /films/{id} с популярностью фильмов по закону Ципфа. В режиме SampleTime JMH печатает
+// перцентили задержки (p0.50, p0.99); доля попаданий и число вытеснений кэша берутся из метрик.
+// memory - фильмы в куче, без кэша ответов; mmap - фильмы вне кучи, перед ними кэш W-TinyLFU.
+// Обработчик вызывается напрямую, без HTTP.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(4)
+public class FilmLookupBenchmark {
+
+	private static final int CATALOGUE_SIZE = 1_000_000;
+	// Простое число, большее каталога: перемешивает ранги, чтобы популярные фильмы не лежали рядом
+	private static final long SHUFFLE = 1_000_003;
+
+	@Param({"memory", "mmap"})
+	private String storage;
+
+	@Param({"10000", "100000"})
+	private int cacheSize;
+
+	@Param({"1.0"})
+	private double zipfExponent;
+
+	private RunningApplication application;
+	private Path directory;
+	private FilmController controller;
+	private double[] cumulative;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("lookup-benchmark");
+		application = new RunningApplication("filmorate.storage.type=" + storage,
+			"filmorate.mmap.directory=" + directory, "filmorate.entity-cache.max-entries=" + cacheSize);
+		FilmStorage films = application.bean(FilmStorage.class);
+		List<Film> chunk = new ArrayList<>(10_000);
+		for (int i = 0; i < CATALOGUE_SIZE; i++) {
+			Film film = new Film();
+			film.setName("Film " + i);
+			film.setDescription("Description of film number " + i);
+			film.setReleaseDate(LocalDate.of(1950, 1, 1).plusDays(i % 25_000));
+			film.setDuration(60 + i % 120);
+			chunk.add(film);
+			if (chunk.size() == 10_000) {
+				films.createAll(chunk);
+				chunk.clear();
+			}
+		}
+		controller = application.bean(FilmController.class);
+
+		cumulative = new double[CATALOGUE_SIZE];
+		double sum = 0;
+		for (int rank = 0; rank < CATALOGUE_SIZE; rank++) {
+			sum += 1 / Math.pow(rank + 1, zipfExponent);
+			cumulative[rank] = sum;
+		}
+		for (int rank = 0; rank < CATALOGUE_SIZE; rank++) {
+			cumulative[rank] /= sum;
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		application.close();
+		try (var files = Files.list(directory)) {
+			for (Path file : files.toList()) {
+				Files.delete(file);
+			}
+		}
+		Files.delete(directory);
+	}
+
+	@Benchmark
+	public ResponseEntity<byte[]> lookup(CacheCounters counters) {
+		ResponseEntity<byte[]> response = controller.findFilm(randomId());
+		counters.record();
+		return response;
+	}
+
+	private long randomId() {
+		int rank = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+		if (rank < 0) {
+			rank = -rank - 1;
+		}
+		return Math.min(rank, CATALOGUE_SIZE - 1) * SHUFFLE % CATALOGUE_SIZE + 1;
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class CacheCounters {
+
+		public double hitRate;
+		public double evictions;
+
+		private boolean reporting;
+		private Timer hits;
+		private Timer misses;
+		private FunctionCounter evicted;
+
+		// JMH суммирует счётчики по потокам, поэтому общие значения метрик сообщает только первый поток
+		@Setup(Level.Trial)
+		public void setUp(FilmLookupBenchmark benchmark, ThreadParams thread) {
+			reporting = thread.getThreadIndex() == 0;
+			MeterRegistry registry = benchmark.application.bean(MeterRegistry.class);
+			hits = registry.get("filmorate.film.cache.requests").tag("result", "hit").timer();
+			misses = registry.get("filmorate.film.cache.requests").tag("result", "miss").timer();
+			evicted = registry.find("filmorate.film.cache.evictions").functionCounter();
+		}
+
+		void record() {
+			if (!reporting) {
+				return;
+			}
+			double total = hits.count() + misses.count();
+			hitRate = total == 0 ? 0 : hits.count() / total;
+			evictions = evicted == null ? 0 : evicted.count();
+		}
+	}
+}
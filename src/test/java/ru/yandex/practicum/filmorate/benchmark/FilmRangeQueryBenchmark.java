@@ -0,0 +1,107 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmQuery;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Диапазонный запрос по дате релиза и продолжительности: индексы против полного просмотра каталога.
+// *ById - сортировка по умолчанию (по id), когда индекс ограничивает выборку, но не задаёт порядок
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FilmRangeQueryBenchmark {
+
+	private static final LocalDate FIRST_RELEASE = LocalDate.of(1950, 1, 1);
+	private static final int RELEASE_DAYS = 25_000;
+
+	@Param({"100000", "1000000"})
+	private int catalogueSize;
+
+	private InMemoryFilmStorage storage;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		storage = new InMemoryFilmStorage();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int i = 0; i < catalogueSize; i++) {
+			Film film = new Film();
+			film.setName("Film " + i);
+			film.setDescription("Description");
+			film.setReleaseDate(FIRST_RELEASE.plusDays(random.nextInt(RELEASE_DAYS)));
+			film.setDuration(60 + random.nextInt(180));
+			storage.create(film);
+		}
+	}
+
+	@Benchmark
+	public List<Film> indexedReleaseYear() {
+		return storage.findByQuery(releaseYearQuery(), 100);
+	}
+
+	@Benchmark
+	public List<Film> scannedReleaseYear() {
+		FilmQuery query = releaseYearQuery();
+		return storage.findAll().stream()
+			.filter(query::matches)
+			.sorted(query.comparator())
+			.limit(100)
+			.toList();
+	}
+
+	@Benchmark
+	public List<Film> indexedShortFilms() {
+		return storage.findByQuery(shortFilmsQuery(), 100);
+	}
+
+	@Benchmark
+	public List<Film> scannedShortFilms() {
+		FilmQuery query = shortFilmsQuery();
+		return storage.findAll().stream()
+			.filter(query::matches)
+			.sorted(query.comparator())
+			.limit(100)
+			.toList();
+	}
+
+	// Сортировка по умолчанию (по id) с широким диапазоном: releasedFrom=1900&limit=50
+	@Benchmark
+	public List<Film> indexedWideRangeById() {
+		FilmQuery query = new FilmQuery();
+		query.setReleasedFrom(LocalDate.of(1900, 1, 1));
+		return storage.findByQuery(query, 50);
+	}
+
+	// Сортировка по id внутри одного года релиза
+	@Benchmark
+	public List<Film> indexedReleaseYearById() {
+		FilmQuery query = releaseYearQuery();
+		query.setSortBy(null);
+		return storage.findByQuery(query, 50);
+	}
+
+	private static FilmQuery releaseYearQuery() {
+		int year = 1950 + ThreadLocalRandom.current().nextInt(60);
+		FilmQuery query = new FilmQuery();
+		query.setReleasedFrom(LocalDate.of(year, 1, 1));
+		query.setReleasedTo(LocalDate.of(year, 12, 31));
+		query.setSortBy(FilmQuery.SORT_RELEASE_DATE);
+		return query;
+	}
+
+	private static FilmQuery shortFilmsQuery() {
+		FilmQuery query = new FilmQuery();
+		query.setMaxDuration(70L);
+		query.setSortBy(FilmQuery.SORT_DURATION);
+		query.setOrder(FilmQuery.ORDER_DESC);
+		return query;
+	}
+}
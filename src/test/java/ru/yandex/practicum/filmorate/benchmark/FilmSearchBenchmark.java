@@ -0,0 +1,126 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.search.FilmSearchIndex;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Полнотекстовый поиск по синтетическому каталогу со смешанной латиницей и кириллицей.
+// Задержка запросов разных видов и память индекса: postingsMb - массивы списков вхождений,
+// indexHeapMb - прирост занятой кучи после построения индекса (вместе со словарём).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class FilmSearchBenchmark {
+
+	private static final String[] WORDS = {
+		"любовь", "война", "мир", "ночь", "город", "ёлка", "зима", "море", "дорога", "брат",
+		"love", "war", "night", "city", "winter", "sea", "road", "brother", "matrix", "dream",
+		"star", "space", "time", "shadow", "river", "небо", "огонь", "тень", "река", "время"
+	};
+
+	@Param({"1000000"})
+	private int catalogueSize;
+
+	private FilmSearchIndex index;
+	private long postingsMb;
+	private long indexHeapMb;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		InMemoryFilmStorage storage = new InMemoryFilmStorage();
+		Random random = new Random(42);
+		List<Film> chunk = new ArrayList<>(10_000);
+		for (int i = 0; i < catalogueSize; i++) {
+			Film film = new Film();
+			// Редкие слова вида "word123" дают словарь реалистичного размера
+			film.setName(word(random) + " " + word(random) + " " + WORDS[random.nextInt(WORDS.length)] + i % 5000);
+			film.setDescription(sentence(random, 12));
+			film.setReleaseDate(LocalDate.of(1950, 1, 1).plusDays(i % 25_000));
+			film.setDuration(60 + i % 120);
+			chunk.add(film);
+			if (chunk.size() == 10_000) {
+				storage.createAll(chunk);
+				chunk.clear();
+			}
+		}
+		storage.createAll(chunk);
+
+		long before = usedHeapMb();
+		index = new FilmSearchIndex(storage);
+		index.afterSingletonsInstantiated();
+		indexHeapMb = usedHeapMb() - before;
+		postingsMb = index.memoryBytes() / (1024 * 1024);
+	}
+
+	// Одно частое слово целиком
+	@Benchmark
+	public List<Film> singleWord(MemoryCounters counters) {
+		counters.record(this);
+		return index.search(randomWord(), 20);
+	}
+
+	// Короткий префикс раскрывается в несколько слов словаря
+	@Benchmark
+	public List<Film> prefix(MemoryCounters counters) {
+		counters.record(this);
+		return index.search(randomWord().substring(0, 2), 20);
+	}
+
+	// Два слова: пересечение списков, второе слово - префикс
+	@Benchmark
+	public List<Film> twoWords(MemoryCounters counters) {
+		counters.record(this);
+		String second = randomWord();
+		return index.search(randomWord() + " " + second.substring(0, second.length() - 1), 20);
+	}
+
+	private static String randomWord() {
+		return WORDS[ThreadLocalRandom.current().nextInt(WORDS.length)].toUpperCase(Locale.ROOT);
+	}
+
+	private static String word(Random random) {
+		return WORDS[random.nextInt(WORDS.length)];
+	}
+
+	private static String sentence(Random random, int words) {
+		StringBuilder sentence = new StringBuilder();
+		for (int i = 0; i < words; i++) {
+			if (i > 0) {
+				sentence.append(' ');
+			}
+			sentence.append(word(random));
+		}
+		return sentence.toString();
+	}
+
+	private static long usedHeapMb() {
+		System.gc();
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / (1024 * 1024);
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class MemoryCounters {
+
+		public long postingsMb;
+		public long indexHeapMb;
+
+		void record(FilmSearchBenchmark benchmark) {
+			postingsMb = benchmark.postingsMb;
+			indexHeapMb = benchmark.indexHeapMb;
+		}
+	}
+}
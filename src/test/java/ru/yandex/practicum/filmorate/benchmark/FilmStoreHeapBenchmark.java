@@ -0,0 +1,82 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.MappedFilmStorage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Сравнение хранилища фильмов в куче и вне её: занятая куча после заполнения (retainedHeapMb)
+// и скорость чтения случайных фильмов. Паузы GC смотреть с профайлером: -prof gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-XX:+UseG1GC"})
+public class FilmStoreHeapBenchmark {
+
+	@Param({"heap", "mmap"})
+	private String store;
+
+	@Param({"1000000", "10000000"})
+	private int catalogueSize;
+
+	private FilmStorage storage;
+	private Path directory;
+	private long retainedHeapMb;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		if ("mmap".equals(store)) {
+			directory = Files.createTempDirectory("mmap-benchmark");
+			storage = new MappedFilmStorage(directory);
+		} else {
+			storage = new InMemoryFilmStorage();
+		}
+		for (int i = 0; i < catalogueSize; i++) {
+			Film film = new Film();
+			film.setName("Film " + i);
+			film.setDescription("Description of film number " + i);
+			film.setReleaseDate(LocalDate.of(1950, 1, 1).plusDays(i % 25_000));
+			film.setDuration(60 + i % 120);
+			storage.create(film);
+		}
+		System.gc();
+		retainedHeapMb = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / (1024 * 1024);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		if (storage instanceof Closeable closeable) {
+			closeable.close();
+		}
+		if (directory != null) {
+			Files.deleteIfExists(directory.resolve("films.dat"));
+			Files.deleteIfExists(directory.resolve("strings.dat"));
+			Files.deleteIfExists(directory);
+		}
+	}
+
+	@Benchmark
+	public Film randomRead(HeapCounters counters) {
+		counters.retainedHeapMb = retainedHeapMb;
+		return storage.findById(ThreadLocalRandom.current().nextLong(1, catalogueSize + 1)).orElseThrow();
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class HeapCounters {
+
+		public long retainedHeapMb;
+	}
+}
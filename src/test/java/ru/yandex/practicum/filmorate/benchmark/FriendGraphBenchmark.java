@@ -0,0 +1,114 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.storage.friend.InMemoryFriendStorage;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Общие друзья: пересечение отсортированных массивов (слияние или галоп) против HashSet<Long> на пользователя.
+// У первого пользователя friends друзей, у второго otherFriends; друзья выбираются из USERS пользователей.
+// В начале каждого запуска печатается занятая куча на ссылку дружбы для графа GRAPH_USERS x GRAPH_DEGREE
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class FriendGraphBenchmark {
+
+	private static final int USERS = 1_000_000;
+	private static final int GRAPH_USERS = 20_000;
+	private static final int GRAPH_DEGREE = 100;
+
+	@Param({"10000", "100000"})
+	private int friends;
+
+	@Param({"100", "10000"})
+	private int otherFriends;
+
+	private InMemoryFriendStorage storage;
+	private Map<Long, Set<Long>> sets;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		printFootprint();
+		storage = new InMemoryFriendStorage();
+		sets = new HashMap<>();
+		Random random = new Random(42);
+		connect(1, friends, random);
+		connect(2, otherFriends, random);
+	}
+
+	@Benchmark
+	public long[] sortedArrays() {
+		return storage.findCommonFriendIds(1, 2);
+	}
+
+	@Benchmark
+	public List<Long> hashSets() {
+		Set<Long> first = sets.get(1L);
+		Set<Long> second = sets.get(2L);
+		Set<Long> small = first.size() <= second.size() ? first : second;
+		Set<Long> large = small == first ? second : first;
+		List<Long> common = new ArrayList<>();
+		for (Long id : small) {
+			if (large.contains(id)) {
+				common.add(id);
+			}
+		}
+		return common;
+	}
+
+	private void connect(long userId, int count, Random random) {
+		Set<Long> added = sets.computeIfAbsent(userId, id -> new HashSet<>());
+		while (added.size() < count) {
+			long friendId = 3 + random.nextInt(USERS);
+			if (added.add(friendId)) {
+				storage.addFriend(userId, friendId);
+			}
+		}
+	}
+
+	private static void printFootprint() {
+		Random random = new Random(7);
+		long before = usedHeap();
+		InMemoryFriendStorage graph = new InMemoryFriendStorage();
+		for (long i = 0; i < GRAPH_USERS * (long) GRAPH_DEGREE / 2; i++) {
+			graph.addFriend(random.nextInt(GRAPH_USERS), random.nextInt(GRAPH_USERS) + GRAPH_USERS);
+		}
+		long arrays = usedHeap() - before;
+		long edges = graph.countEdges();
+
+		random = new Random(7);
+		before = usedHeap();
+		Map<Long, Set<Long>> hashGraph = new HashMap<>();
+		for (long i = 0; i < GRAPH_USERS * (long) GRAPH_DEGREE / 2; i++) {
+			long user = random.nextInt(GRAPH_USERS);
+			long friend = random.nextInt(GRAPH_USERS) + GRAPH_USERS;
+			hashGraph.computeIfAbsent(user, id -> new HashSet<>()).add(friend);
+			hashGraph.computeIfAbsent(friend, id -> new HashSet<>()).add(user);
+		}
+		long hashSets = usedHeap() - before;
+		System.out.printf("%nСсылок дружбы: %d, байт на ссылку: массивы %.1f, HashSet %.1f%n", edges,
+			arrays / (double) edges, hashSets / (double) edges);
+		// Графы должны дожить до второго замера
+		if (graph.countEdges() + hashGraph.size() < 0) {
+			throw new IllegalStateException();
+		}
+	}
+
+	private static long usedHeap() {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+}
@@ -0,0 +1,64 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.IdSequence;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Пропускная способность создания фильма при разном размере каталога.
+// Размер каталога держится постоянным: на каждый новый фильм удаляется самый старый.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class IdSequenceBenchmark {
+
+	@Param({"10000", "100000", "1000000", "10000000"})
+	private int catalogueSize;
+
+	private Map<Long, Film> films;
+	private IdSequence ids;
+	private Film film;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		film = new Film();
+		film.setName("Benchmark");
+		film.setDescription("Benchmark film");
+		film.setReleaseDate(LocalDate.of(2000, 1, 1));
+		film.setDuration(120);
+
+		films = new HashMap<>(catalogueSize * 2);
+		ids = new IdSequence();
+		for (int i = 0; i < catalogueSize; i++) {
+			films.put(ids.next(), film);
+		}
+	}
+
+	@Benchmark
+	public long create() {
+		long id = ids.next();
+		films.put(id, film);
+		films.remove(id - catalogueSize);
+		return id;
+	}
+
+	// Прежний способ: поиск максимального id по всем ключам
+	@Benchmark
+	public long createWithMaxScan() {
+		long id = films.keySet()
+			.stream()
+			.mapToLong(key -> key)
+			.max()
+			.orElse(0) + 1;
+		films.put(id, film);
+		films.remove(id - catalogueSize);
+		return id;
+	}
+}
@@ -0,0 +1,105 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.storage.IdSequence;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Цена инструментирования на пути запроса: запись в таймер с гистограммой (как http.server.requests),
+// счётчик отказов, выделение id с выборочным замером времени и строка журнала на INFO против DEBUG.
+// Журнал пишется с шаблоном Spring Boot в пустой поток, чтобы мерить форматирование, а не консоль.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstrumentationOverheadBenchmark {
+
+	private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p ${PID:- } --- [%15.15t] %-40.40logger{39} : %m%n";
+
+	private final AtomicLong plainIds = new AtomicLong();
+	private final IdSequence sampledIds = new IdSequence();
+	private Timer histogramTimer;
+	private Timer plainTimer;
+	private Counter counter;
+	private Logger logger;
+	private long id;
+
+	@Setup
+	public void setUp() {
+		MeterRegistry registry = new SimpleMeterRegistry();
+		histogramTimer = Timer.builder("http.server.requests")
+			.publishPercentiles(0.5, 0.99, 0.999)
+			.publishPercentileHistogram()
+			.minimumExpectedValue(Duration.ofNanos(50_000))
+			.maximumExpectedValue(Duration.ofSeconds(10))
+			.register(registry);
+		plainTimer = Timer.builder("plain").register(registry);
+		counter = Counter.builder("filmorate.request.rejections").register(registry);
+
+		LoggerContext context = new LoggerContext();
+		PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+		encoder.setContext(context);
+		encoder.setPattern(PATTERN);
+		encoder.start();
+		OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+		appender.setContext(context);
+		appender.setEncoder(encoder);
+		appender.setOutputStream(OutputStream.nullOutputStream());
+		appender.start();
+		logger = context.getLogger("ru.yandex.practicum.filmorate.controller.FilmController");
+		logger.addAppender(appender);
+		logger.setLevel(Level.INFO);
+	}
+
+	@Benchmark
+	public long idAllocationPlain() {
+		return plainIds.incrementAndGet();
+	}
+
+	@Benchmark
+	public long idAllocationSampled() {
+		return sampledIds.next();
+	}
+
+	@Benchmark
+	public void timerWithHistogram() {
+		histogramTimer.record(++id & 0xFFFFF, TimeUnit.NANOSECONDS);
+	}
+
+	@Benchmark
+	public void timerPlain() {
+		plainTimer.record(++id & 0xFFFFF, TimeUnit.NANOSECONDS);
+	}
+
+	@Benchmark
+	public void rejectionCounter() {
+		counter.increment();
+	}
+
+	// Прежний журнал каждого запроса
+	@Benchmark
+	public void logInfo() {
+		logger.info("Получен запрос на получение фильма с ID: {}", ++id);
+	}
+
+	// Текущий: уровень DEBUG выключен, остаётся проверка уровня
+	@Benchmark
+	public void logDebugDisabled() {
+		logger.debug("Получен запрос на получение фильма с ID: {}", ++id);
+	}
+}
@@ -0,0 +1,142 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.journal.Journal;
+import ru.yandex.practicum.filmorate.storage.journal.JournalMaintenance;
+import ru.yandex.practicum.filmorate.storage.journal.JournaledFilmStorage;
+import ru.yandex.practicum.filmorate.storage.journal.JournaledFriendStorage;
+import ru.yandex.practicum.filmorate.storage.journal.JournaledLikeStorage;
+import ru.yandex.practicum.filmorate.storage.journal.JournaledUserStorage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Пропускная способность записи в журнал при разных настройках группового fsync
+// и время восстановления при старте (снимок + хвост журнала)
+public class JournalBenchmark {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
+	@State(Scope.Benchmark)
+	public static class Writes {
+
+		@Param({"1", "32", "256"})
+		private int groupCommitMaxRecords;
+
+		@Param({"0", "1"})
+		private int groupCommitDelayMs;
+
+		private Path directory;
+		private Journal journal;
+		private JournaledFilmStorage films;
+
+		@Setup(Level.Trial)
+		public void setUp() throws IOException {
+			directory = Files.createTempDirectory("journal-benchmark");
+			journal = new Journal(directory, groupCommitMaxRecords, Duration.ofMillis(groupCommitDelayMs),
+				OBJECT_MAPPER);
+			films = new JournaledFilmStorage(journal);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws IOException {
+			journal.close();
+			delete(directory);
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class Recovery {
+
+		@Param({"100000", "1000000"})
+		private int catalogueSize;
+
+		// Доля записей, оставшихся в хвосте журнала после снимка
+		@Param({"0.1", "1.0"})
+		private double tailShare;
+
+		private Path directory;
+
+		@Setup(Level.Trial)
+		public void setUp() throws IOException {
+			directory = Files.createTempDirectory("journal-recovery");
+			Journal journal = new Journal(directory, 1024, Duration.ZERO, OBJECT_MAPPER);
+			JournaledFilmStorage films = new JournaledFilmStorage(journal);
+			JournalMaintenance maintenance = new JournalMaintenance(journal, films, new JournaledUserStorage(journal),
+				new JournaledLikeStorage(journal), new JournaledFriendStorage(journal), Duration.ofHours(1), Long.MAX_VALUE);
+			int inSnapshot = (int) (catalogueSize * (1 - tailShare));
+			List<Film> chunk = new ArrayList<>();
+			for (int i = 0; i < catalogueSize; i++) {
+				chunk.add(film(i));
+				if (chunk.size() == 1000 || i == inSnapshot - 1 || i == catalogueSize - 1) {
+					films.createAll(chunk);
+					chunk.clear();
+				}
+				if (i == inSnapshot - 1) {
+					maintenance.snapshot();
+				}
+			}
+			journal.close();
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws IOException {
+			delete(directory);
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	@Warmup(iterations = 2, time = 2)
+	@Measurement(iterations = 3, time = 3)
+	@Fork(1)
+	@Threads(16)
+	public Film write(Writes state) {
+		return state.films.create(film(0));
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 1)
+	@Measurement(iterations = 3)
+	@Fork(1)
+	public int recover(Recovery state) throws IOException {
+		Journal journal = new Journal(state.directory, 1024, Duration.ZERO, OBJECT_MAPPER);
+		try {
+			JournaledFilmStorage films = new JournaledFilmStorage(journal);
+			new JournalMaintenance(journal, films, new JournaledUserStorage(journal), new JournaledLikeStorage(journal),
+				new JournaledFriendStorage(journal), Duration.ofHours(1), Long.MAX_VALUE).recover();
+			return films.size();
+		} finally {
+			journal.close();
+		}
+	}
+
+	private static Film film(int n) {
+		Film film = new Film();
+		film.setName("Film " + n);
+		film.setDescription("Benchmark film");
+		film.setReleaseDate(LocalDate.of(2000, 1, 1));
+		film.setDuration(90);
+		return film;
+	}
+
+	private static void delete(Path directory) throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+}
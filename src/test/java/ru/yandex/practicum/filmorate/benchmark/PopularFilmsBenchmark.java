@@ -0,0 +1,94 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.storage.like.InMemoryLikeStorage;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// Популярные фильмы на 1 млн фильмов и 100 млн лайков: чтение рейтинга против сортировки всего каталога
+// по числу лайков, а также стоимость лайка с отменой, которая поддерживает рейтинг.
+// Лайки распределены по закону Ципфа: у самого популярного фильма около 7 млн, у последних - единицы
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4500m", "-XX:+UseParallelGC"})
+public class PopularFilmsBenchmark {
+
+	private static final int FILMS = 1_000_000;
+	private static final long LIKES = 100_000_000L;
+	private static final int USERS = 8_000_000;
+	private static final long STRIDE = 1_000_003;
+	// Идентификаторы пользователей для лайков в бенчмарке, чтобы не совпасть с загруженными
+	private static final long NEW_USERS = 1L << 40;
+
+	@Param({"10", "100", "1000"})
+	private int count;
+
+	private InMemoryLikeStorage storage;
+	private long loadedLikes;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		storage = new InMemoryLikeStorage();
+		double harmonic = 0;
+		for (int rank = 1; rank <= FILMS; rank++) {
+			harmonic += 1.0 / rank;
+		}
+		// Место фильма в рейтинге не совпадает с его id
+		int[] ranks = new int[FILMS];
+		for (int i = 0; i < FILMS; i++) {
+			ranks[i] = i + 1;
+		}
+		Random random = new Random(42);
+		for (int i = FILMS - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = ranks[i];
+			ranks[i] = ranks[j];
+			ranks[j] = swap;
+		}
+		// Фильмы по возрастанию id: в списки лайков пользователей они дописываются в конец без сдвигов.
+		// Лайкнувшие - разные пользователи из USERS: шаг STRIDE взаимно прост с USERS
+		for (int film = 1; film <= FILMS; film++) {
+			int likes = (int) Math.max(1, Math.round(LIKES / harmonic / ranks[film - 1]));
+			long[] users = new long[likes];
+			long first = random.nextInt(USERS);
+			for (int i = 0; i < likes; i++) {
+				users[i] = 1 + (first + (long) i * STRIDE) % USERS;
+			}
+			storage.restore(film, users);
+			loadedLikes += likes;
+		}
+		System.out.printf("%nЗагружено лайков: %d%n", loadedLikes);
+	}
+
+	@Benchmark
+	public List<Long> ranking() {
+		return storage.findPopular(count);
+	}
+
+	@Benchmark
+	public List<Long> sortAllFilms() {
+		return LongStream.rangeClosed(1, FILMS)
+			.boxed()
+			.sorted(Comparator.comparingInt((Long filmId) -> storage.countLikes(filmId)).reversed()
+				.thenComparing(Comparator.naturalOrder()))
+			.limit(count)
+			.toList();
+	}
+
+	@Benchmark
+	public boolean likeAndUnlike() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		long filmId = 1 + random.nextInt(FILMS);
+		long userId = NEW_USERS + random.nextInt(1_000_000);
+		storage.addLike(filmId, userId);
+		return storage.removeLike(filmId, userId);
+	}
+}
@@ -0,0 +1,74 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.recommendation.FilmRecommendations;
+import ru.yandex.practicum.filmorate.storage.like.InMemoryLikeStorage;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Рекомендации на 200 тыс. пользователей, 50 тыс. фильмов и 20 млн лайков (по 100 на пользователя,
+// популярность фильмов по закону Ципфа). cold - каждый раз новый пользователь, соседи ищутся заново;
+// cached - соседи взяты из кэша, остаётся только подсчёт фильмов соседей.
+// parallelism - число потоков fork-join при поиске соседей
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class RecommendationBenchmark {
+
+	private static final int USERS = 200_000;
+	private static final int FILMS = 50_000;
+	private static final int LIKES_PER_USER = 100;
+
+	@Param({"1", "2", "4"})
+	private int parallelism;
+
+	private InMemoryLikeStorage likes;
+	private FilmRecommendations cold;
+	private FilmRecommendations cached;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		likes = new InMemoryLikeStorage();
+		double[] cumulative = new double[FILMS];
+		double sum = 0;
+		for (int rank = 1; rank <= FILMS; rank++) {
+			sum += 1.0 / rank;
+			cumulative[rank - 1] = sum;
+		}
+		Random random = new Random(42);
+		// Пользователи по возрастанию id: лайкнувшие дописываются в конец списков фильмов без сдвигов
+		for (long user = 1; user <= USERS; user++) {
+			for (int i = 0; i < LIKES_PER_USER; i++) {
+				int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+				likes.addLike(1 + (index < 0 ? -index - 1 : index), user);
+			}
+		}
+		cold = new FilmRecommendations(likes, new SimpleMeterRegistry(), parallelism, 50, 10_000, 2);
+		cached = new FilmRecommendations(likes, new SimpleMeterRegistry(), parallelism, 50, 10_000, 100);
+		cached.recommend(1, 10);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		cold.stop();
+		cached.stop();
+	}
+
+	@Benchmark
+	public List<Long> cold() {
+		return cold.recommend(1 + ThreadLocalRandom.current().nextInt(USERS), 10);
+	}
+
+	@Benchmark
+	public List<Long> cached() {
+		return cached.recommend(1, 10);
+	}
+}
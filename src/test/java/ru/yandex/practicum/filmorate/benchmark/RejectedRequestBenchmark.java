@@ -0,0 +1,101 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import ru.yandex.practicum.filmorate.controller.FilmController;
+import ru.yandex.practicum.filmorate.exception.ErrorBody;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.exception.ValidationExceptionHandler;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Пропускная способность отклонённых запросов: фильм не найден (404) и слишком ранняя дата релиза (400),
+// повторяющийся запрос и запрос с новым идентификатором (сообщение каждый раз другое).
+// direct* - обработчик контроллера и обработчик исключений вызываются напрямую, без Tomcat и Jackson,
+// http* - весь путь запроса. Сравнение до и после: тот же бенчмарк на предыдущей ревизии,
+// mvn -Pbenchmark verify -DskipTests -Djmh.include=RejectedRequestBenchmark, и сравнение jmh-result.json
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RejectedRequestBenchmark {
+
+	private static final long MISSING_ID = 1_000_000_000L;
+
+	private RunningApplication application;
+	private FilmController filmController;
+	private ValidationExceptionHandler handler;
+	private Film tooOld;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		application = new RunningApplication();
+		filmController = application.bean(FilmController.class);
+		handler = application.bean(ValidationExceptionHandler.class);
+		tooOld = Film.builder()
+			.name("Прибытие поезда")
+			.releaseDate(LocalDate.of(1890, 1, 1))
+			.duration(1)
+			.build();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		application.close();
+	}
+
+	@Benchmark
+	public ResponseEntity<ErrorBody> directNotFoundRepeated() {
+		return notFound(MISSING_ID);
+	}
+
+	@Benchmark
+	public ResponseEntity<ErrorBody> directNotFoundDistinct() {
+		return notFound(MISSING_ID + ThreadLocalRandom.current().nextInt(1_000_000));
+	}
+
+	@Benchmark
+	public ResponseEntity<ErrorBody> directValidation() {
+		try {
+			filmController.addFilm(tooOld.toBuilder().build());
+			throw new IllegalStateException("Фильм с ранней датой релиза не отклонён");
+		} catch (ValidationException e) {
+			return handler.handleValidationException(e);
+		}
+	}
+
+	@Benchmark
+	public int httpNotFoundRepeated() throws IOException, InterruptedException {
+		return status(application.get("/films/" + MISSING_ID));
+	}
+
+	@Benchmark
+	public int httpNotFoundDistinct() throws IOException, InterruptedException {
+		return status(application.get("/films/" + (MISSING_ID + ThreadLocalRandom.current().nextInt(1_000_000))));
+	}
+
+	private ResponseEntity<ErrorBody> notFound(long id) {
+		try {
+			filmController.findFilm(id);
+			throw new IllegalStateException("Фильм " + id + " неожиданно найден");
+		} catch (NotFoundException e) {
+			return handler.handleNotFoundException(e);
+		}
+	}
+
+	private static int status(HttpResponse<String> response) {
+		if (response.statusCode() != 404) {
+			throw new IllegalStateException("Неожиданный ответ " + response.statusCode() + ": " + response.body());
+		}
+		return response.statusCode();
+	}
+}
@@ -0,0 +1,183 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Ведущий узел и 0..N реплик на localhost. Пока клиенты читают GET /films/{id} (без реплик - с ведущего узла,
+// иначе - поровну с реплик), ведущий узел обновляет фильмы с заданной частотой.
+// Замеряются: суммарные чтения в секунду и задержка репликации по таймеру filmorate.replication.lag реплик.
+// Все узлы и клиенты делят ядра одной машины, поэтому рост пропускной способности упирается в их число;
+// для замера горизонтального масштабирования узлы нужно запускать на разных машинах.
+// Узлы запускаются в той же JVM, поэтому перед замерами выполняется холостой прогон с наибольшим числом реплик
+// (-Dwarmup=секунд, по умолчанию 60): без него код разогревается на первых строках таблицы,
+// и результат зависит от их порядка. Даже после прогона порядок строк сдвигает результат на десятки процентов,
+// поэтому для сравнимых строк каждую конфигурацию лучше запускать в отдельной JVM, по одной в аргументах.
+// Запуск: java -cp target/test-classes:target/classes:<зависимости> \
+//   ru.yandex.practicum.filmorate.benchmark.ReplicationLoad [фильмов] [секунд] [клиентов] [обновлений/с] [реплик...]
+public class ReplicationLoad {
+
+	public static void main(String[] args) throws Exception {
+		int films = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+		int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 15;
+		int clients = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+		int updatesPerSecond = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+		int[] followerCounts = args.length > 4
+			? Arrays.stream(args, 4, args.length).mapToInt(Integer::parseInt).toArray()
+			: new int[] {0, 1, 2, 4};
+
+		int warmup = Integer.getInteger("warmup", 60);
+		if (warmup > 0) {
+			measure(Arrays.stream(followerCounts).max().orElse(1), films, warmup, clients, updatesPerSecond);
+		}
+		System.out.printf("%9s %12s %10s %10s %10s%n", "followers", "reads/s", "lag p50", "lag p99", "lag max");
+		for (int followerCount : followerCounts) {
+			double[] row = measure(followerCount, films, seconds, clients, updatesPerSecond);
+			System.out.printf(Locale.ROOT, "%9d %12.0f %10.2f %10.2f %10.2f%n", followerCount, row[0], row[1], row[2],
+				row[3]);
+		}
+	}
+
+	// Чтения в секунду и задержка репликации: p50, p99 и максимум
+	private static double[] measure(int followerCount, int films, int seconds, int clients, int updatesPerSecond)
+		throws Exception {
+		try (RunningApplication leader = new RunningApplication()) {
+			seed(leader.bean(FilmStorage.class), films);
+			// Реплики останавливаются раньше ведущего узла, иначе они успевают зашуметь ошибками соединения
+			List<RunningApplication> followers = new ArrayList<>();
+			try {
+				for (int i = 0; i < followerCount; i++) {
+					followers.add(new RunningApplication("filmorate.replication.role=follower",
+						"filmorate.replication.leader-url=http://localhost:" + leader.port()));
+				}
+				List<Integer> readPorts = followers.isEmpty()
+					? List.of(leader.port())
+					: followers.stream().map(RunningApplication::port).toList();
+				awaitCaughtUp(readPorts, films);
+				double reads = run(leader, readPorts, films, seconds, clients, updatesPerSecond);
+				double[] lag = lag(followers);
+				return new double[] {reads, lag[0], lag[1], lag[2]};
+			} finally {
+				followers.forEach(RunningApplication::close);
+			}
+		}
+	}
+
+	private static void seed(FilmStorage storage, int count) {
+		List<Film> films = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			films.add(film(i));
+		}
+		storage.createAll(films);
+	}
+
+	private static Film film(int i) {
+		return Film.builder()
+			.name("Фильм " + i)
+			.description("Описание фильма для проверки реплик " + i)
+			.releaseDate(LocalDate.of(1950, 1, 1).plusDays(i % 25_000))
+			.duration(60 + i % 120)
+			.build();
+	}
+
+	// Реплика догнала, когда отдаёт последний фильм каталога
+	private static void awaitCaughtUp(List<Integer> ports, int films) throws Exception {
+		HttpClient client = HttpClient.newHttpClient();
+		for (int port : ports) {
+			HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/films/" + films))
+				.build();
+			while (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+				Thread.sleep(100);
+			}
+		}
+		client.close();
+	}
+
+	private static double run(RunningApplication leader, List<Integer> ports, int films, int seconds, int clients,
+		int updatesPerSecond) throws Exception {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+		LongAdder reads = new LongAdder();
+		HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < clients; i++) {
+				int port = ports.get(i % ports.size());
+				executor.execute(() -> {
+					while (System.nanoTime() < deadline) {
+						long id = 1 + ThreadLocalRandom.current().nextInt(films);
+						HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/films/" + id))
+							.build();
+						try {
+							if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+								reads.increment();
+							}
+						} catch (Exception e) {
+							return;
+						}
+					}
+				});
+			}
+			// Обновления - через PUT /films ведущего узла, как у обычных клиентов; фильмы каталога реплики получают выгрузкой
+			executor.execute(() -> update(leader, films, updatesPerSecond, deadline));
+		}
+		client.close();
+		return reads.sum() / (double) seconds;
+	}
+
+	private static void update(RunningApplication leader, int films, int updatesPerSecond, long deadline) {
+		long interval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, updatesPerSecond);
+		long next = System.nanoTime();
+		while (System.nanoTime() < deadline) {
+			int id = 1 + ThreadLocalRandom.current().nextInt(films);
+			try {
+				leader.send("PUT", "/films", "application/json", "{\"id\":" + id + ",\"name\":\"Обновлён " + id
+					+ "\",\"releaseDate\":\"2000-01-01\",\"duration\":90}");
+			} catch (Exception e) {
+				return;
+			}
+			next += interval;
+			long sleep = next - System.nanoTime();
+			if (sleep > 0) {
+				try {
+					TimeUnit.NANOSECONDS.sleep(sleep);
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		}
+	}
+
+	// p50, p99 и максимум по всем репликам, в миллисекундах
+	private static double[] lag(List<RunningApplication> followers) {
+		double[] lag = {Double.NaN, Double.NaN, Double.NaN};
+		for (RunningApplication follower : followers) {
+			Timer timer = follower.bean(MeterRegistry.class).get("filmorate.replication.lag").timer();
+			for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+				int index = value.percentile() == 0.5 ? 0 : value.percentile() == 0.99 ? 1 : -1;
+				if (index >= 0) {
+					lag[index] = Double.isNaN(lag[index]) ? value.value(TimeUnit.MILLISECONDS)
+						: Math.max(lag[index], value.value(TimeUnit.MILLISECONDS));
+				}
+			}
+			double max = timer.max(TimeUnit.MILLISECONDS);
+			lag[2] = Double.isNaN(lag[2]) ? max : Math.max(lag[2], max);
+		}
+		return lag;
+	}
+}
@@ -0,0 +1,69 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+
+// Приложение на случайном порту для бенчмарков, которые ходят через HTTP
+class RunningApplication implements AutoCloseable {
+
+	private final ConfigurableApplicationContext context;
+	private final HttpClient client = HttpClient.newBuilder()
+		.version(HttpClient.Version.HTTP_1_1)
+		.build();
+	private final int port;
+	private final String baseUrl;
+
+	RunningApplication(String... properties) {
+		context = new SpringApplicationBuilder(FilmorateApplication.class)
+			.properties("server.port=0", "logging.level.root=WARN")
+			// Аргументы командной строки важнее application.properties, в отличие от properties()
+			.run(Arrays.stream(properties).map(property -> "--" + property).toArray(String[]::new));
+		port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+		baseUrl = "http://localhost:" + port;
+	}
+
+	int port() {
+		return port;
+	}
+
+	// Встроенный сервер, на котором запущено приложение: TomcatWebServer, NettyWebServer
+	String server() {
+		return ((WebServerApplicationContext) context).getWebServer().getClass().getSimpleName();
+	}
+
+	<T> T bean(Class<T> type) {
+		return context.getBean(type);
+	}
+
+	HttpResponse<String> send(String method, String path, String contentType, String body)
+		throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+			.header("Content-Type", contentType)
+			.method(method, HttpRequest.BodyPublishers.ofString(body))
+			.build();
+		HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() != 200) {
+			throw new IllegalStateException("Неожиданный ответ " + response.statusCode() + ": " + response.body());
+		}
+		return response;
+	}
+
+	HttpResponse<String> get(String path) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	@Override
+	public void close() {
+		context.close();
+	}
+}
@@ -0,0 +1,78 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Jackson: запись и чтение Film и User с настройками ObjectMapper, как у Spring Boot.
+// reflection - доступ к свойствам через рефлексию, blackbird - через сгенерированные лямбды (как в приложении).
+// Выделение памяти на операцию: запуск с -prof gc, метрика gc.alloc.rate.norm
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+	@Param({"reflection", "blackbird"})
+	private String jackson;
+
+	private ObjectMapper objectMapper;
+	private Film film;
+	private User user;
+	private byte[] filmJson;
+	private byte[] userJson;
+
+	@Setup
+	public void setUp() throws JsonProcessingException {
+		Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+		if ("blackbird".equals(jackson)) {
+			builder.modulesToInstall(new BlackbirdModule());
+		}
+		objectMapper = builder.build();
+		film = Film.builder()
+			.id(42L)
+			.name("Сталкер")
+			.description("Проводник ведёт писателя и профессора через Зону к комнате, исполняющей желания.")
+			.releaseDate(LocalDate.of(1979, 5, 25))
+			.duration(163)
+			.build();
+		user = User.builder()
+			.id(7L)
+			.email("tarkovsky@example.com")
+			.login("tarkovsky")
+			.name("Андрей")
+			.birthday(LocalDate.of(1932, 4, 4))
+			.build();
+		filmJson = objectMapper.writeValueAsBytes(film);
+		userJson = objectMapper.writeValueAsBytes(user);
+	}
+
+	@Benchmark
+	public byte[] writeFilm() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(film);
+	}
+
+	@Benchmark
+	public Film readFilm() throws Exception {
+		return objectMapper.readValue(filmJson, Film.class);
+	}
+
+	@Benchmark
+	public byte[] writeUser() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(user);
+	}
+
+	@Benchmark
+	public User readUser() throws Exception {
+		return objectMapper.readValue(userJson, User.class);
+	}
+}
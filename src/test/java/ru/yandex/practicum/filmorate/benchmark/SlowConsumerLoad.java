@@ -0,0 +1,181 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// GET /films медленными клиентами: Spring MVC (Tomcat) против реактивного профиля (Netty).
+// Столбец server показывает, на каком сервере на самом деле работало приложение.
+// Каждый медленный клиент читает ответ по 8 КБ с паузой 20 мс (около 400 КБ/с) через маленький
+// приёмный буфер сокета, так что сервер упирается в обратное давление. Одновременно быстрый клиент
+// запрашивает GET /films/{id}; его задержка показывает, не отняли ли медленные клиенты потоки сервера.
+// Замеряются: время до первого байта у медленных клиентов, пик занятой кучи (сервер и клиенты
+// в одной JVM, клиенты ничего не накапливают) и задержки быстрых запросов.
+// Запуск: java -cp target/test-classes:target/classes:<зависимости> \
+//   ru.yandex.practicum.filmorate.benchmark.SlowConsumerLoad [фильмов] [секунд] [медленных клиентов...]
+public class SlowConsumerLoad {
+
+	private static final int CHUNK = 8 * 1024;
+	private static final long PAUSE_MILLIS = 20;
+
+	public static void main(String[] args) throws Exception {
+		int films = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+		int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 15;
+		int[] levels = args.length > 2
+			? Arrays.stream(args, 2, args.length).mapToInt(Integer::parseInt).toArray()
+			: new int[] {50, 250};
+
+		System.out.printf("%-9s %-16s %6s %10s %10s %10s %10s %10s %10s%n",
+			"stack", "server", "slow", "ttfb p50", "ttfb max", "heap MB", "probe p50", "probe p99", "probes/s");
+		for (boolean reactive : new boolean[] {false, true}) {
+			for (int slow : levels) {
+				List<String> properties = new ArrayList<>(List.of("spring.threads.virtual.enabled=false"));
+				if (reactive) {
+					properties.add("spring.profiles.active=reactive");
+				}
+				try (RunningApplication application = new RunningApplication(properties.toArray(String[]::new))) {
+					seed(application.bean(FilmStorage.class), films);
+					Result result = run(application.port(), slow, seconds);
+					System.out.printf(Locale.ROOT, "%-9s %-16s %6d %10.1f %10.1f %10d %10.2f %10.2f %10.0f%n",
+						reactive ? "webflux" : "mvc", application.server(), slow, result.ttfb(0.5), result.ttfb(1.0), result.peakHeapMb,
+						result.probe(0.5), result.probe(0.99), result.probes.length / (double) seconds);
+				}
+			}
+		}
+	}
+
+	private static void seed(FilmStorage storage, int count) {
+		List<Film> films = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Film film = new Film();
+			film.setName("Фильм " + i);
+			film.setDescription("Описание фильма для проверки потоковой выдачи каталога медленным клиентам " + i);
+			film.setReleaseDate(LocalDate.of(1950, 1, 1).plusDays(i % 25_000));
+			film.setDuration(60 + i % 120);
+			films.add(film);
+		}
+		storage.createAll(films);
+	}
+
+	private static Result run(int port, int slow, int seconds) throws Exception {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		System.gc();
+		long baseline = memory.getHeapMemoryUsage().getUsed();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+		long[] ttfb = new long[slow];
+		CountDownLatch done = new CountDownLatch(slow);
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < slow; i++) {
+				int client = i;
+				executor.execute(() -> {
+					try {
+						ttfb[client] = readSlowly(port, deadline);
+					} catch (IOException e) {
+						ttfb[client] = Long.MAX_VALUE;
+					} finally {
+						done.countDown();
+					}
+				});
+			}
+			// Быстрые запросы и замер кучи, пока медленные клиенты читают
+			HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+			List<Long> probes = new ArrayList<>();
+			long peak = 0;
+			long nextSample = 0;
+			while (System.nanoTime() < deadline) {
+				long start = System.nanoTime();
+				HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/films/"
+					+ (1 + ThreadLocalRandom.current().nextInt(1000)))).timeout(Duration.ofSeconds(30)).build();
+				try {
+					client.send(request, HttpResponse.BodyHandlers.discarding());
+					probes.add(System.nanoTime() - start);
+				} catch (IOException e) {
+					probes.add(Long.MAX_VALUE);
+				}
+				if (start > nextSample) {
+					peak = Math.max(peak, memory.getHeapMemoryUsage().getUsed());
+					nextSample = start + TimeUnit.MILLISECONDS.toNanos(100);
+				}
+			}
+			client.close();
+			done.await();
+			return new Result(ttfb, probes.stream().mapToLong(Long::longValue).sorted().toArray(),
+				Math.max(0, peak - baseline) / (1024 * 1024));
+		}
+	}
+
+	// Возвращает время до первого байта тела; читает до конца ответа или до дедлайна
+	private static long readSlowly(int port, long deadline) throws IOException {
+		long start = System.nanoTime();
+		try (Socket socket = new Socket()) {
+			socket.setReceiveBufferSize(16 * 1024);
+			socket.connect(new InetSocketAddress("localhost", port));
+			// Клиент, которому сервер так и не начал отвечать, сдаётся к дедлайну
+			socket.setSoTimeout((int) Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - start)));
+			OutputStream out = socket.getOutputStream();
+			out.write(("GET /films HTTP/1.1\r\nHost: localhost\r\nAccept: application/json\r\nConnection: close\r\n\r\n")
+				.getBytes(StandardCharsets.US_ASCII));
+			out.flush();
+			InputStream in = socket.getInputStream();
+			byte[] buffer = new byte[CHUNK];
+			long firstByte = -1;
+			int read;
+			while (System.nanoTime() < deadline && (read = in.read(buffer)) >= 0) {
+				if (firstByte < 0 && read > 0) {
+					firstByte = System.nanoTime() - start;
+				}
+				try {
+					Thread.sleep(PAUSE_MILLIS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+			return firstByte;
+		}
+	}
+
+	private record Result(long[] ttfb, long[] probes, long peakHeapMb) {
+
+		double ttfb(double quantile) {
+			return percentile(Arrays.stream(ttfb).map(value -> value < 0 ? Long.MAX_VALUE : value).sorted().toArray(),
+				quantile);
+		}
+
+		double probe(double quantile) {
+			return percentile(probes, quantile);
+		}
+
+		private static double percentile(long[] sorted, double quantile) {
+			if (sorted.length == 0) {
+				return Double.NaN;
+			}
+			int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+			long value = sorted[Math.max(0, index)];
+			return value == Long.MAX_VALUE ? Double.POSITIVE_INFINITY : value / 1_000_000.0;
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Смешанная нагрузка на хранилище фильмов: три читателя на одного писателя
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StorageBenchmark {
+
+	@Param({"10000", "1000000"})
+	private int catalogueSize;
+
+	private InMemoryFilmStorage storage;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		storage = new InMemoryFilmStorage();
+		for (int i = 0; i < catalogueSize; i++) {
+			storage.create(film(i));
+		}
+	}
+
+	@Benchmark
+	@Group("readWrite")
+	@GroupThreads(3)
+	public Film read() {
+		return storage.findById(randomId()).orElseThrow();
+	}
+
+	@Benchmark
+	@Group("readWrite")
+	@GroupThreads(1)
+	public Film write() {
+		Film film = film(ThreadLocalRandom.current().nextInt());
+		film.setId(randomId());
+		return storage.update(film);
+	}
+
+	private long randomId() {
+		return ThreadLocalRandom.current().nextLong(1, catalogueSize + 1);
+	}
+
+	private static Film film(int n) {
+		Film film = new Film();
+		film.setName("Film " + n);
+		film.setDescription("Description " + n);
+		film.setReleaseDate(LocalDate.of(2000, 1, 1));
+		film.setDuration(90);
+		return film;
+	}
+}
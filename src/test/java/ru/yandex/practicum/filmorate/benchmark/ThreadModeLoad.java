@@ -0,0 +1,241 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Нагрузочный тест режимов выполнения запросов: пул платформенных потоков Tomcat
+// против виртуальных потоков (spring.threads.virtual.enabled).
+// Сервер запускается отдельной JVM с хранилищем journal, где каждая запись ждёт fsync группы,
+// поэтому поток запроса блокируется на вводе-выводе. Клиент держит заданное число соединений,
+// каждое в замкнутом цикле: 80% GET /films/{id}, 20% POST /films.
+// Запуск: java -cp target/test-classes:target/classes:<зависимости> \
+//   ru.yandex.practicum.filmorate.benchmark.ThreadModeLoad [секунд] [соединения...]
+// Каждое соединение занимает дескриптор в клиенте и в сервере, поэтому для 10000 соединений
+// нужен ulimit -n больше 10000 в обоих процессах.
+public class ThreadModeLoad {
+
+	private static final int FILMS = 10_000;
+	private static final String FILM_JSON = "{\"name\":\"Нагрузка\",\"description\":\"Фильм нагрузочного теста\","
+		+ "\"releaseDate\":\"2000-01-01\",\"duration\":100}";
+
+	public static void main(String[] args) throws Exception {
+		int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+		int[] levels = args.length > 1
+			? Arrays.stream(args, 1, args.length).mapToInt(Integer::parseInt).toArray()
+			: new int[] {1000, 2500, 5000, 10000};
+
+		System.out.printf("%-9s %7s %10s %9s %9s %9s %9s %7s %7s%n",
+			"mode", "conns", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors", "pinned");
+		for (boolean virtual : new boolean[] {false, true}) {
+			for (int connections : levels) {
+				try (Server server = new Server(virtual)) {
+					Result result = run(server.baseUrl, connections, Duration.ofSeconds(seconds));
+					System.out.printf(Locale.ROOT, "%-9s %7d %10.0f %9.2f %9.2f %9.2f %9.2f %7d %7d%n",
+						virtual ? "virtual" : "platform", connections, result.throughput(),
+						result.percentile(0.5), result.percentile(0.99), result.percentile(0.999),
+						result.percentile(1.0), result.errors, server.pinned.get());
+				}
+			}
+		}
+	}
+
+	private static Result run(String baseUrl, int connections, Duration duration) throws InterruptedException {
+		ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+		HttpClient client = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.executor(executor)
+			.connectTimeout(Duration.ofSeconds(30))
+			.build();
+		// Первые секунды - открытие соединений и прогрев, в результат не входят
+		long warmupEnd = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		long end = warmupEnd + duration.toNanos();
+		long[][] samples = new long[connections][];
+		int[] counts = new int[connections];
+		AtomicLong errors = new AtomicLong();
+		CountDownLatch done = new CountDownLatch(connections);
+		for (int i = 0; i < connections; i++) {
+			int connection = i;
+			executor.execute(() -> {
+				long[] latencies = new long[256];
+				int count = 0;
+				try {
+					long now;
+					while ((now = System.nanoTime()) < end) {
+						boolean ok = send(client, baseUrl);
+						long finished = System.nanoTime();
+						if (now < warmupEnd) {
+							continue;
+						}
+						if (!ok) {
+							errors.incrementAndGet();
+							continue;
+						}
+						if (count == latencies.length) {
+							latencies = Arrays.copyOf(latencies, count * 2);
+						}
+						latencies[count++] = finished - now;
+					}
+				} finally {
+					samples[connection] = latencies;
+					counts[connection] = count;
+					done.countDown();
+				}
+			});
+		}
+		done.await();
+		client.close();
+		executor.close();
+
+		int total = Arrays.stream(counts).sum();
+		long[] all = new long[total];
+		int offset = 0;
+		for (int i = 0; i < connections; i++) {
+			System.arraycopy(samples[i], 0, all, offset, counts[i]);
+			offset += counts[i];
+		}
+		Arrays.sort(all);
+		return new Result(all, duration, errors.get());
+	}
+
+	private static boolean send(HttpClient client, String baseUrl) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		HttpRequest request = random.nextInt(5) == 0
+			? HttpRequest.newBuilder(URI.create(baseUrl + "/films"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(FILM_JSON))
+				.build()
+			: HttpRequest.newBuilder(URI.create(baseUrl + "/films/" + (1 + random.nextInt(FILMS)))).GET().build();
+		try {
+			return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+		} catch (IOException e) {
+			return false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private record Result(long[] latencies, Duration duration, long errors) {
+
+		double throughput() {
+			return latencies.length / (double) duration.toSeconds();
+		}
+
+		double percentile(double quantile) {
+			if (latencies.length == 0) {
+				return Double.NaN;
+			}
+			int index = (int) Math.min(latencies.length - 1, Math.ceil(quantile * latencies.length) - 1);
+			return latencies[Math.max(0, index)] / 1_000_000.0;
+		}
+	}
+
+	// Приложение в отдельной JVM: дескрипторы, куча и потоки сервера не смешиваются с клиентскими
+	private static class Server implements AutoCloseable {
+
+		private final Process process;
+		private final Path journal;
+		private final String baseUrl;
+		private final AtomicLong pinned = new AtomicLong();
+
+		Server(boolean virtual) throws Exception {
+			int port;
+			try (ServerSocket socket = new ServerSocket(0)) {
+				port = socket.getLocalPort();
+			}
+			journal = Files.createTempDirectory("filmorate-load");
+			List<String> command = new ArrayList<>(List.of(
+				Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+				"-Xmx1g",
+				// Каждый случай закрепления виртуального потока на несущем печатается со стеком
+				"-Djdk.tracePinnedThreads=short",
+				"-cp", System.getProperty("java.class.path"),
+				"ru.yandex.practicum.filmorate.FilmorateApplication",
+				"--server.port=" + port,
+				"--logging.level.root=WARN",
+				"--filmorate.storage.type=journal",
+				"--filmorate.journal.directory=" + journal,
+				"--spring.threads.virtual.enabled=" + virtual));
+			process = new ProcessBuilder(command).redirectErrorStream(true).start();
+			Thread.ofPlatform().daemon().start(this::readOutput);
+			baseUrl = "http://localhost:" + port;
+			awaitStarted();
+			seed();
+		}
+
+		private void readOutput() {
+			try (BufferedReader output = new BufferedReader(
+				new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = output.readLine()) != null) {
+					if (line.contains("<== monitors")) {
+						pinned.incrementAndGet();
+					} else if (line.contains("ERROR") || line.contains("Exception")) {
+						System.err.println("[server] " + line);
+					}
+				}
+			} catch (IOException ignored) {
+				// Процесс завершён
+			}
+		}
+
+		private void awaitStarted() throws InterruptedException {
+			HttpClient client = HttpClient.newHttpClient();
+			HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")).build();
+			for (int attempt = 0; attempt < 600; attempt++) {
+				try {
+					if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+						return;
+					}
+				} catch (IOException e) {
+					Thread.sleep(100);
+				}
+			}
+			throw new IllegalStateException("Приложение не запустилось на " + baseUrl);
+		}
+
+		private void seed() throws IOException, InterruptedException {
+			StringBuilder batch = new StringBuilder("[");
+			for (int i = 0; i < FILMS; i++) {
+				batch.append(i == 0 ? "" : ",").append(FILM_JSON);
+			}
+			batch.append(']');
+			HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/films/batch"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(batch.toString()))
+				.build();
+			int status = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+			if (status != 200) {
+				throw new IllegalStateException("Не удалось заполнить каталог: " + status);
+			}
+		}
+
+		@Override
+		public void close() throws IOException, InterruptedException {
+			process.destroy();
+			process.waitFor();
+			try (var files = Files.walk(journal)) {
+				files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+			}
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.exception.ConflictException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Восемь писателей обновляют несколько "горячих" фильмов и пользователей.
+// unconditional - обновление без версии (обмен повторяется внутри хранилища до успеха),
+// versioned - прочитать, изменить и записать с версией; проигравший получает конфликт, он считается в conflicts.
+// Обновление пользователя со сменой логина идёт через блокировку полосы, без смены - чистым обменом.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class UpdateContentionBenchmark {
+
+	@Param({"1", "8", "1024"})
+	private int hotIds;
+
+	@Param({"unconditional", "versioned"})
+	private String mode;
+
+	private InMemoryFilmStorage films;
+	private InMemoryUserStorage users;
+	private final List<Long> filmIds = new ArrayList<>();
+	private final List<Long> userIds = new ArrayList<>();
+
+	@Setup
+	public void setUp() {
+		films = new InMemoryFilmStorage();
+		users = new InMemoryUserStorage();
+		for (int i = 0; i < hotIds; i++) {
+			filmIds.add(films.create(Film.builder()
+				.name("Фильм " + i)
+				.description("Описание")
+				.releaseDate(LocalDate.of(1979, 5, 25))
+				.duration(90)
+				.build()).getId());
+			userIds.add(users.create(User.builder()
+				.email("user" + i + "@example.com")
+				.login("user" + i)
+				.name("Пользователь " + i)
+				.birthday(LocalDate.of(1990, 1, 1))
+				.build()).getId());
+		}
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Outcome {
+
+		public long conflicts;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			conflicts = 0;
+		}
+	}
+
+	@Benchmark
+	public Film updateFilm(Outcome outcome) {
+		long id = filmIds.get(ThreadLocalRandom.current().nextInt(hotIds));
+		Film current = films.findById(id).orElseThrow();
+		Film update = current.toBuilder()
+			.duration(current.getDuration() % 1000 + 1)
+			.version(versioned() ? current.getVersion() : null)
+			.build();
+		try {
+			return films.update(update);
+		} catch (ConflictException e) {
+			outcome.conflicts++;
+			return null;
+		}
+	}
+
+	@Benchmark
+	public User updateUserName(Outcome outcome) {
+		long id = userIds.get(ThreadLocalRandom.current().nextInt(hotIds));
+		User current = users.findById(id).orElseThrow();
+		return updateUser(current.toBuilder().name("Имя " + current.getVersion()), current, outcome);
+	}
+
+	@Benchmark
+	public User updateUserLogin(Outcome outcome) {
+		long id = userIds.get(ThreadLocalRandom.current().nextInt(hotIds));
+		User current = users.findById(id).orElseThrow();
+		// Логин чередуется между двумя значениями, свободными у других пользователей
+		String login = current.getLogin().endsWith("-b") ? "user" + id + "-a" : "user" + id + "-b";
+		return updateUser(current.toBuilder().login(login), current, outcome);
+	}
+
+	private User updateUser(User.UserBuilder update, User current, Outcome outcome) {
+		try {
+			return users.update(update.version(versioned() ? current.getVersion() : null).build());
+		} catch (ConflictException e) {
+			outcome.conflicts++;
+			return null;
+		}
+	}
+
+	private boolean versioned() {
+		return "versioned".equals(mode);
+	}
+}
@@ -0,0 +1,68 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Поиск пользователя по логину и email: хеш-индексы против просмотра всех пользователей
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UserLookupBenchmark {
+
+	@Param({"10000", "1000000"})
+	private int userCount;
+
+	private InMemoryUserStorage storage;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		storage = new InMemoryUserStorage();
+		List<User> chunk = new ArrayList<>(10_000);
+		for (int i = 0; i < userCount; i++) {
+			User user = new User();
+			user.setLogin("login" + i);
+			user.setEmail("user" + i + "@example.com");
+			user.setName("User " + i);
+			user.setBirthday(LocalDate.of(1990, 1, 1));
+			chunk.add(user);
+			if (chunk.size() == 10_000) {
+				storage.createAll(chunk);
+				chunk.clear();
+			}
+		}
+		storage.createAll(chunk);
+	}
+
+	@Benchmark
+	public Optional<User> indexedLogin() {
+		return storage.findByLogin("login" + randomNumber());
+	}
+
+	@Benchmark
+	public Optional<User> indexedEmail() {
+		return storage.findByEmail("USER" + randomNumber() + "@example.com");
+	}
+
+	@Benchmark
+	public Optional<User> scannedLogin() {
+		String login = "login" + randomNumber();
+		return storage.findAll().stream()
+			.filter(user -> user.getLogin().equals(login))
+			.findFirst();
+	}
+
+	private int randomNumber() {
+		return ThreadLocalRandom.current().nextInt(userCount);
+	}
+}
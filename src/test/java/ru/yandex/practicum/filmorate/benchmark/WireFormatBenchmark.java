@@ -0,0 +1,107 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Каталог из 100 тысяч фильмов в JSON, CBOR и Smile: запись массива прямо в поток (как GET /films)
+// и чтение обратно в List<Film>. Размер ответа в байтах печатается при подготовке каждого формата.
+// Мапперы настроены как в приложении: Blackbird, для двоичных форматов даты массивом.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class WireFormatBenchmark {
+
+	@Param({"json", "cbor", "smile"})
+	private String format;
+
+	@Param({"100000"})
+	private int films;
+
+	private ObjectMapper mapper;
+	private ObjectWriter writer;
+	private List<Film> catalogue;
+	private byte[] encoded;
+
+	@Setup
+	public void setUp() throws IOException {
+		Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule());
+		JsonFactory factory = switch (format) {
+			case "cbor" -> new CBORFactory();
+			case "smile" -> new SmileFactory();
+			default -> null;
+		};
+		if (factory != null) {
+			builder.featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).factory(factory);
+		}
+		mapper = builder.build();
+		writer = mapper.writerFor(Film.class)
+			.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+			.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		catalogue = new ArrayList<>(films);
+		for (int i = 0; i < films; i++) {
+			catalogue.add(Film.builder()
+				.id(i + 1L)
+				.name("Фильм " + i)
+				.description("Описание фильма для проверки размера и скорости кодирования каталога " + i)
+				.releaseDate(LocalDate.of(1950, 1, 1).plusDays(i % 25_000))
+				.duration(60 + i % 120)
+				.build());
+		}
+		encoded = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, Film.class))
+			.writeValueAsBytes(catalogue);
+		System.out.printf("%n%s: %d байт%n", format, encoded.length);
+	}
+
+	@Benchmark
+	public long encode() throws IOException {
+		CountingStream out = new CountingStream();
+		try (JsonGenerator generator = mapper.createGenerator(out)) {
+			generator.writeStartArray();
+			for (Film film : catalogue) {
+				writer.writeValue(generator, film);
+			}
+			generator.writeEndArray();
+		}
+		return out.count;
+	}
+
+	@Benchmark
+	public List<Film> decode() throws IOException {
+		return mapper.readerForListOf(Film.class).readValue(encoded);
+	}
+
+	// Поток, который только считает байты: меряется кодирование, а не копирование в буфер
+	private static final class CountingStream extends OutputStream {
+
+		private long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) {
+			count += length;
+		}
+	}
+}